@@ -0,0 +1,145 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive.scheduler.common.exception.UserException;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.OnTaskError;
+import org.ow2.proactive.scheduler.common.task.ScriptTask;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.scripting.InvalidScriptException;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.ow2.proactive.scripting.TaskScript;
+
+
+/**
+ * Builds synthetic job populations for the benchmarks, without database nor ProActive runtime.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public final class SyntheticJobs {
+
+    private static final JobPriority[] PRIORITIES = { JobPriority.NORMAL, JobPriority.HIGH, JobPriority.LOW };
+
+    private static final String TASK_SCRIPT = "println 'benchmark'";
+
+    private static final AtomicLong jobIds = new AtomicLong();
+
+    private SyntheticJobs() {
+    }
+
+    /**
+     * Creates pending jobs totalling the given number of independent tasks, thus all eligible.
+     * The priorities of the jobs alternate between normal, high and low.
+     *
+     * @param numberOfTasks total number of tasks
+     * @param tasksPerJob number of tasks of each job, the last job may have less
+     * @return the jobs, in submission order
+     */
+    public static List<InternalJob> createInternalJobs(int numberOfTasks, int tasksPerJob) {
+        List<InternalJob> jobs = new ArrayList<>(numberOfTasks / tasksPerJob + 1);
+        for (int created = 0; created < numberOfTasks; created += tasksPerJob) {
+            JobPriority priority = PRIORITIES[jobs.size() % PRIORITIES.length];
+            jobs.add(createInternalJob(priority, Math.min(tasksPerJob, numberOfTasks - created)));
+        }
+        return jobs;
+    }
+
+    public static InternalTaskFlowJob createInternalJob(JobPriority priority, int numberOfTasks) {
+        InternalTaskFlowJob job = new InternalTaskFlowJob("benchmark",
+                                                          priority,
+                                                          OnTaskError.CONTINUE_JOB_EXECUTION,
+                                                          "");
+        job.setId(JobIdImpl.makeJobId(Long.toString(jobIds.incrementAndGet())));
+        List<InternalTask> tasks = new ArrayList<>(numberOfTasks);
+        for (int i = 0; i < numberOfTasks; i++) {
+            InternalTask task = new InternalScriptTask(job);
+            task.setName("task" + i);
+            tasks.add(task);
+        }
+        job.addTasks(tasks);
+        return job;
+    }
+
+    /**
+     * Creates a client side job as submitted by a user, made of independent script tasks.
+     */
+    public static TaskFlowJob createTaskFlowJob(int numberOfTasks) throws UserException, InvalidScriptException {
+        TaskFlowJob job = new TaskFlowJob();
+        job.setName("benchmark");
+        job.setPriority(JobPriority.NORMAL);
+        for (int i = 0; i < numberOfTasks; i++) {
+            ScriptTask task = new ScriptTask();
+            task.setName("task" + i);
+            task.setScript(new TaskScript(new SimpleScript(TASK_SCRIPT, "groovy")));
+            job.addTask(task);
+        }
+        return job;
+    }
+
+    /**
+     * Creates the XML descriptor of a job made of independent script tasks, the tasks after the
+     * first one depending on it.
+     */
+    public static String createJobDescriptor(int numberOfTasks) {
+        StringBuilder xml = new StringBuilder(256 * numberOfTasks);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<job xmlns=\"urn:proactive:jobdescriptor:dev\" ");
+        xml.append("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" ");
+        xml.append("name=\"benchmark\" onTaskError=\"continueJobExecution\" priority=\"normal\">\n");
+        xml.append("  <variables>\n");
+        xml.append("    <variable name=\"GREETING\" value=\"benchmark\"/>\n");
+        xml.append("  </variables>\n");
+        xml.append("  <taskFlow>\n");
+        for (int i = 0; i < numberOfTasks; i++) {
+            xml.append("    <task name=\"task").append(i).append("\">\n");
+            if (i > 0) {
+                xml.append("      <depends>\n");
+                xml.append("        <task ref=\"task0\"/>\n");
+                xml.append("      </depends>\n");
+            }
+            xml.append("      <scriptExecutable>\n");
+            xml.append("        <script>\n");
+            xml.append("          <code language=\"groovy\">println variables.get('GREETING')</code>\n");
+            xml.append("        </script>\n");
+            xml.append("      </scriptExecutable>\n");
+            xml.append("    </task>\n");
+        }
+        xml.append("  </taskFlow>\n");
+        xml.append("</job>\n");
+        return xml.toString();
+    }
+}
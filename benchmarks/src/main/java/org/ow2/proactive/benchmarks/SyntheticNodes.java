@@ -0,0 +1,144 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.benchmarks;
+
+import static java.util.Collections.singleton;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeInformation;
+import org.objectweb.proactive.core.runtime.VMInformation;
+import org.ow2.proactive.authentication.principals.UserNamePrincipal;
+import org.ow2.proactive.permissions.PrincipalPermission;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.nodesource.NodeSource;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.resourcemanager.rmnode.RMNodeImpl;
+import org.ow2.proactive.resourcemanager.selection.topology.TopologyManager;
+
+
+/**
+ * Builds synthetic node populations for the benchmarks.
+ * <p>
+ * The resource manager nodes are real {@link RMNodeImpl}, only the ProActive nodes behind them
+ * are stubbed as they need a live runtime. The stubs do not record their invocations so that
+ * they neither leak memory nor distort the allocation rate over long measurements.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public final class SyntheticNodes {
+
+    public static final String NODE_USER = "benchmark";
+
+    private static final Permission PERMISSION = new PrincipalPermission(NODE_USER,
+                                                                         singleton(new UserNamePrincipal(NODE_USER)));
+
+    private SyntheticNodes() {
+    }
+
+    /**
+     * Creates free nodes spread over hosts, each host holding the given number of nodes.
+     *
+     * @param numberOfNodes total number of nodes
+     * @param nodesPerHost number of nodes of each host, the last host may have less
+     * @return the nodes, grouped by host
+     */
+    public static List<RMNode> createFreeNodes(int numberOfNodes, int nodesPerHost) {
+        NodeSource nodeSource = new NodeSource();
+        List<RMNode> nodes = new ArrayList<>(numberOfNodes);
+        for (int i = 0; i < numberOfNodes; i++) {
+            int host = i / nodesPerHost;
+            String hostName = "host-" + host;
+            String nodeName = "node-" + i;
+            String nodeUrl = "pnp://" + hostName + ":64738/" + nodeName;
+            Node node = createNode(nodeName, nodeUrl, hostName, host);
+            nodes.add(new RMNodeImpl(node,
+                                     nodeSource,
+                                     nodeName,
+                                     nodeUrl,
+                                     null,
+                                     hostName,
+                                     new String[0],
+                                     "pnp://" + hostName + ":64738/PA_JVM" + host,
+                                     PERMISSION,
+                                     NodeState.FREE));
+        }
+        return nodes;
+    }
+
+    public static List<Node> getNodes(List<RMNode> rmNodes) {
+        List<Node> nodes = new ArrayList<>(rmNodes.size());
+        for (RMNode rmNode : rmNodes) {
+            nodes.add(rmNode.getNode());
+        }
+        return nodes;
+    }
+
+    /**
+     * Registers the nodes in the topology, which must be enabled with the distances disabled
+     * so that no pinging is involved.
+     */
+    public static void addToTopology(TopologyManager topologyManager, List<RMNode> rmNodes) {
+        for (RMNode rmNode : rmNodes) {
+            topologyManager.addNode(rmNode.getNode());
+        }
+    }
+
+    private static Node createNode(String nodeName, String nodeUrl, String hostName, int host) {
+        VMInformation vmInformation = mock(VMInformation.class, withSettings().stubOnly());
+        when(vmInformation.getHostName()).thenReturn(hostName);
+        when(vmInformation.getInetAddress()).thenReturn(createHostAddress(hostName, host));
+
+        NodeInformation nodeInformation = mock(NodeInformation.class, withSettings().stubOnly());
+        when(nodeInformation.getName()).thenReturn(nodeName);
+        when(nodeInformation.getURL()).thenReturn(nodeUrl);
+        when(nodeInformation.getVMInformation()).thenReturn(vmInformation);
+
+        Node node = mock(Node.class, withSettings().stubOnly());
+        when(node.getNodeInformation()).thenReturn(nodeInformation);
+        when(node.getVMInformation()).thenReturn(vmInformation);
+        return node;
+    }
+
+    private static InetAddress createHostAddress(String hostName, int host) {
+        byte[] address = { 10, (byte) (host >> 16), (byte) (host >> 8), (byte) host };
+        try {
+            // no name resolution is involved when the address is given
+            return InetAddress.getByAddress(hostName, address);
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.selection.statistics;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ow2.proactive.benchmarks.SyntheticNodes;
+import org.ow2.proactive.resourcemanager.core.RMCore;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.resourcemanager.selection.PreparedCriteria;
+import org.ow2.proactive.resourcemanager.selection.PreparedSelectionScript;
+import org.ow2.proactive.scripting.ScriptResult;
+import org.ow2.proactive.scripting.SelectionScript;
+
+
+/**
+ * Arrangement of the candidate nodes by the probability of the selection scripts to pass,
+ * a part of the nodes having statistics for the scripts.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProbablisticSelectionManagerBenchmark {
+
+    @Param({ "100", "1000", "20000" })
+    public int numberOfNodes;
+
+    /** Number of selection scripts of the request */
+    @Param({ "1", "3" })
+    public int numberOfScripts;
+
+    private ProbablisticSelectionManager selectionManager;
+
+    private List<RMNode> nodes;
+
+    private PreparedCriteria criteria;
+
+    @Setup
+    public void setUp() throws Exception {
+        nodes = SyntheticNodes.createFreeNodes(numberOfNodes, 1);
+        selectionManager = new ProbablisticSelectionManager(mock(RMCore.class, withSettings().stubOnly()));
+
+        SelectionScript[] scripts = new SelectionScript[numberOfScripts];
+        for (int i = 0; i < numberOfScripts; i++) {
+            scripts[i] = new SelectionScript("selected = " + i + " >= 0", "groovy", true);
+        }
+        criteria = PreparedCriteria.prepare(Arrays.asList(scripts),
+                                            Collections.<String, Serializable> emptyMap());
+
+        // every other node already ran the scripts, a few of them did not pass
+        for (PreparedSelectionScript script : criteria.getScripts()) {
+            for (int i = 0; i < numberOfNodes; i += 2) {
+                selectionManager.processScriptResult(script, new ScriptResult<>(i % 10 != 0), nodes.get(i));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        selectionManager.shutdown();
+    }
+
+    @Benchmark
+    public List<RMNode> arrangeNodesForScriptExecution() {
+        return selectionManager.arrangeNodesForScriptExecution(nodes, criteria);
+    }
+}
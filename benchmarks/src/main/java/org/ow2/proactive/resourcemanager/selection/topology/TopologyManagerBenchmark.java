@@ -0,0 +1,102 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.selection.topology;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.proactive.core.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ow2.proactive.benchmarks.SyntheticNodes;
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.frontend.topology.pinging.HostsPinger;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
+import org.ow2.proactive.utils.NodeSet;
+
+
+/**
+ * Selection of the nodes matching a topology among all the free nodes. The distance based
+ * descriptors are left out as they need the hosts to be pinged.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TopologyManagerBenchmark {
+
+    @Param({ "100", "1000", "20000" })
+    public int numberOfNodes;
+
+    @Param({ "8" })
+    public int nodesPerHost;
+
+    @Param({ "1", "16" })
+    public int requestedNodes;
+
+    /** Name of the {@link TopologyDescriptor} constant */
+    @Param({ "ARBITRARY", "SINGLE_HOST", "SINGLE_HOST_EXCLUSIVE", "MULTIPLE_HOSTS_EXCLUSIVE",
+             "DIFFERENT_HOSTS_EXCLUSIVE" })
+    public String topology;
+
+    private TopologyManager topologyManager;
+
+    private TopologyDescriptor descriptor;
+
+    private List<Node> matchedNodes;
+
+    @Setup
+    public void setUp() throws Exception {
+        PAResourceManagerProperties.RM_TOPOLOGY_ENABLED.updateProperty("true");
+        PAResourceManagerProperties.RM_TOPOLOGY_DISTANCE_ENABLED.updateProperty("false");
+
+        List<RMNode> nodes = SyntheticNodes.createFreeNodes(numberOfNodes, nodesPerHost);
+        topologyManager = new TopologyManager(HostsPinger.class);
+        SyntheticNodes.addToTopology(topologyManager, nodes);
+        matchedNodes = SyntheticNodes.getNodes(nodes);
+        descriptor = (TopologyDescriptor) TopologyDescriptor.class.getField(topology).get(null);
+    }
+
+    @Benchmark
+    public NodeSet select() {
+        return topologyManager.getHandler(descriptor).select(requestedNodes, matchedNodes);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.job.factories;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ow2.proactive.benchmarks.SyntheticJobs;
+import org.ow2.proactive.scheduler.common.job.Job;
+
+
+/**
+ * Validation and parsing of a job descriptor made of independent script tasks, read from a file as
+ * when submitted by path, or from memory as when submitted through REST.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StaxJobFactoryBenchmark {
+
+    @Param({ "10", "1000", "10000", "100000" })
+    public int numberOfTasks;
+
+    private StaxJobFactory factory;
+
+    private File jobDescriptor;
+
+    private byte[] jobDescriptorContent;
+
+    @Setup
+    public void setUp() throws Exception {
+        factory = new StaxJobFactory();
+        jobDescriptorContent = SyntheticJobs.createJobDescriptor(numberOfTasks).getBytes(StandardCharsets.UTF_8);
+        jobDescriptor = File.createTempFile("benchmark-job", ".xml");
+        Files.write(jobDescriptor.toPath(), jobDescriptorContent);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jobDescriptor.delete();
+    }
+
+    @Benchmark
+    public Job createJob() throws Exception {
+        return factory.createJob(jobDescriptor.getAbsolutePath());
+    }
+
+    @Benchmark
+    public Job createJobFromStream() throws Exception {
+        return factory.createJob(new ByteArrayInputStream(jobDescriptorContent));
+    }
+}
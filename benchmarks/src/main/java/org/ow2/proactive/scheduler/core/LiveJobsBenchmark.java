@@ -0,0 +1,85 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ow2.proactive.benchmarks.SyntheticJobs;
+import org.ow2.proactive.scheduler.common.JobDescriptor;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+/**
+ * Locking and unlocking of the jobs to schedule, as done by each scheduling loop.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LiveJobsBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int numberOfTasks;
+
+    @Param({ "10", "100" })
+    public int tasksPerJob;
+
+    private LiveJobs liveJobs;
+
+    @Setup
+    public void setUp() {
+        // recovered jobs are neither persisted nor notified
+        liveJobs = new LiveJobs(null, null);
+        for (InternalJob job : SyntheticJobs.createInternalJobs(numberOfTasks, tasksPerJob)) {
+            liveJobs.jobRecovered(job);
+        }
+    }
+
+    @Benchmark
+    public Map<JobId, JobDescriptor> lockJobsToSchedule() {
+        Map<JobId, JobDescriptor> jobs = liveJobs.lockJobsToSchedule();
+        liveJobs.unlockJobsToSchedule(jobs.values());
+        return jobs;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ow2.proactive.benchmarks.SyntheticJobs;
+import org.ow2.proactive.scheduler.common.JobDescriptor;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.policy.DefaultPolicy;
+
+
+/**
+ * Extraction of the next compatible tasks fitting in the free resources.
+ * <p>
+ * The scheduling method is created without running its constructor, which needs a ProActive
+ * runtime to turn the termination notification active. Only the state used by the extraction
+ * is initialized.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchedulingMethodBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int numberOfTasks;
+
+    @Param({ "100" })
+    public int tasksPerJob;
+
+    /** Number of free nodes the tasks are extracted for */
+    @Param({ "100", "1000", "20000" })
+    public int numberOfNodes;
+
+    private SchedulingMethodImpl schedulingMethod;
+
+    private Map<JobId, JobDescriptor> jobsMap;
+
+    private List<EligibleTaskDescriptor> orderedTasks;
+
+    @Setup
+    public void setUp() throws Exception {
+        schedulingMethod = new ObjenesisStd().newInstance(SchedulingMethodImpl.class);
+        Field checkScript = SchedulingMethodImpl.class.getDeclaredField("checkEligibleTaskDescriptorScript");
+        checkScript.setAccessible(true);
+        checkScript.set(schedulingMethod, new CheckEligibleTaskDescriptorScript());
+
+        jobsMap = new LinkedHashMap<>();
+        List<JobDescriptor> jobs = new ArrayList<>();
+        for (InternalJob job : SyntheticJobs.createInternalJobs(numberOfTasks, tasksPerJob)) {
+            jobsMap.put(job.getId(), job.getJobDescriptor());
+            jobs.add(job.getJobDescriptor());
+        }
+        orderedTasks = new DefaultPolicy().getOrderedTasks(jobs);
+    }
+
+    @Benchmark
+    public LinkedList<EligibleTaskDescriptor> getNextcompatibleTasks() {
+        // the extraction consumes the bag of tasks, copying it is part of the measure
+        LinkedList<EligibleTaskDescriptor> bagOfTasks = new LinkedList<>(orderedTasks);
+        LinkedList<EligibleTaskDescriptor> toFill = new LinkedList<>();
+        schedulingMethod.getNextcompatibleTasks(jobsMap, bagOfTasks, numberOfNodes, toFill);
+        return toFill;
+    }
+}
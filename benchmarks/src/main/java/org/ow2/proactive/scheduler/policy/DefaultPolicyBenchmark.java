@@ -0,0 +1,102 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.policy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ow2.proactive.benchmarks.SyntheticJobs;
+import org.ow2.proactive.scheduler.common.JobDescriptor;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+/**
+ * Ordering of the eligible tasks by the default policy, either fully materialized or pulled
+ * through the iterator as the scheduling loop does.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DefaultPolicyBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int numberOfTasks;
+
+    @Param({ "10", "100" })
+    public int tasksPerJob;
+
+    /** Number of tasks pulled from the iterator, as bounded by the free resources */
+    @Param({ "100" })
+    public int pulledTasks;
+
+    private DefaultPolicy policy;
+
+    private List<JobDescriptor> jobs;
+
+    @Setup
+    public void setUp() {
+        policy = new DefaultPolicy();
+        jobs = new ArrayList<>();
+        for (InternalJob job : SyntheticJobs.createInternalJobs(numberOfTasks, tasksPerJob)) {
+            jobs.add(job.getJobDescriptor());
+        }
+    }
+
+    @Benchmark
+    public LinkedList<EligibleTaskDescriptor> getOrderedTasks() {
+        return policy.getOrderedTasks(jobs);
+    }
+
+    @Benchmark
+    public void getOrderedTasksIterator(Blackhole blackhole) {
+        Iterator<EligibleTaskDescriptor> tasks = policy.getOrderedTasksIterator(jobs);
+        for (int i = 0; i < pulledTasks && tasks.hasNext(); i++) {
+            blackhole.consume(tasks.next());
+        }
+    }
+}
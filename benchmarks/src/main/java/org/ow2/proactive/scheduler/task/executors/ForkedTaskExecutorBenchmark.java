@@ -0,0 +1,122 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.context.NodeDataSpacesURIs;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmPool;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.ow2.proactive.scripting.TaskScript;
+
+
+/**
+ * Latency of a short forked task, executed in a new JVM (pool size 0) or in a pooled JVM.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForkedTaskExecutorBenchmark {
+
+    @Param({ "0", "2" })
+    public int poolSize;
+
+    @Param({ "50" })
+    public int maxTasksPerJvm;
+
+    private File workingDir;
+
+    private ForkedJvmPool pool;
+
+    private ForkedTaskExecutor taskExecutor;
+
+    private TaskContext context;
+
+    private PrintStream sink;
+
+    @Setup
+    public void setUp() throws Exception {
+        workingDir = Files.createTempDirectory("forkedtaskbenchmark").toFile();
+        pool = new ForkedJvmPool(poolSize, maxTasksPerJvm, TimeUnit.MINUTES.toMillis(10));
+        taskExecutor = new ForkedTaskExecutor(workingDir, pool);
+
+        ForkEnvironment forkEnvironment = new ForkEnvironment();
+        forkEnvironment.setWorkingDir(workingDir.getAbsolutePath());
+        TaskLauncherInitializer initializer = new TaskLauncherInitializer();
+        initializer.setTaskId(TaskIdImpl.createTaskId(JobIdImpl.makeJobId("1000"), "task", 1000L));
+        initializer.setJobOwner("user");
+        initializer.setForkEnvironment(forkEnvironment);
+        context = new TaskContext(new ScriptExecutableContainer(new TaskScript(new SimpleScript("result=1",
+                                                                                                "groovy"))),
+                                  initializer,
+                                  null,
+                                  new NodeDataSpacesURIs("", "", "", "", "", ""),
+                                  "",
+                                  "");
+        sink = new PrintStream(new NullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+        FileUtils.deleteQuietly(workingDir);
+    }
+
+    @Benchmark
+    public TaskResultImpl executeShortTask() {
+        return taskExecutor.execute(context, sink, sink);
+    }
+}
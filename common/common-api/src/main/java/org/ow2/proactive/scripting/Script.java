@@ -48,7 +48,6 @@ import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
@@ -350,11 +349,17 @@ public abstract class Script<E> implements Serializable {
             }
             return new ScriptResult<>(new Exception(stack));
         }
-        ScriptEngine engine = createScriptEngine();
-
-        if (engine == null)
-            return new ScriptResult<>(new Exception("No Script Engine Found for name or extension " +
-                                                    scriptEngineLookupName));
+        ScriptEnginePool enginePool = ScriptEnginePool.getInstance();
+        ScriptEnginePool.PooledScriptEngine pooledEngine = enginePool.acquire(scriptEngineLookupName);
+        if (pooledEngine == null) {
+            ScriptEngine createdEngine = createScriptEngine();
+
+            if (createdEngine == null)
+                return new ScriptResult<>(new Exception("No Script Engine Found for name or extension " +
+                                                        scriptEngineLookupName));
+            pooledEngine = enginePool.wrap(scriptEngineLookupName, createdEngine);
+        }
+        ScriptEngine engine = pooledEngine.getEngine();
 
         // SCHEDULING-1532: redirect script output to a buffer (keep the latest DEFAULT_OUTPUT_MAX_SIZE)
         BoundedStringWriter outputBoundedWriter = new BoundedStringWriter(outputSink, DEFAULT_OUTPUT_MAX_SIZE);
@@ -384,7 +389,7 @@ public abstract class Script<E> implements Serializable {
                 }
             }
             prepareBindings(bindings);
-            Object evalResult = engine.eval(getReader());
+            Object evalResult = pooledEngine.eval(getReader());
 
             engine.getContext().getErrorWriter().flush();
             engine.getContext().getWriter().flush();
@@ -400,11 +405,15 @@ public abstract class Script<E> implements Serializable {
             scriptException.setStackTrace(e.getStackTrace());
             return new ScriptResult<>(scriptException);
         } catch (Throwable t) {
+            // the engine state is unknown, do not give it to another script
+            pooledEngine.invalidate();
             String stack = Throwables.getStackTraceAsString(t);
             if (t.getMessage() != null) {
                 stack = t.getMessage() + System.lineSeparator() + stack;
             }
             return new ScriptResult<>(new Exception(stack));
+        } finally {
+            enginePool.release(pooledEngine);
         }
     }
 
@@ -480,7 +489,7 @@ public abstract class Script<E> implements Serializable {
     /** The Script Engine used to evaluate the script. */
     protected ScriptEngine createScriptEngine() {
 
-        Map<ScriptEngine, Integer> scriptEngineCandidates;
+        Map<ScriptEngineFactory, Integer> scriptEngineCandidates;
         final boolean findByName = true;
         scriptEngineCandidates = findScriptEngineCandidates(findByName);
 
@@ -488,15 +497,16 @@ public abstract class Script<E> implements Serializable {
             scriptEngineCandidates = findScriptEngineCandidates(!findByName);
         }
 
-        return findBestScriptEngine(scriptEngineCandidates);
+        ScriptEngineFactory bestFactory = findBestScriptEngineFactory(scriptEngineCandidates);
+        return bestFactory == null ? null : bestFactory.getScriptEngine();
     }
 
-    private Map<ScriptEngine, Integer> findScriptEngineCandidates(boolean findByName) {
-        Map<ScriptEngine, Integer> matchPositionPerScriptEngineCandidate = new HashMap<>();
+    private Map<ScriptEngineFactory, Integer> findScriptEngineCandidates(boolean findByName) {
+        Map<ScriptEngineFactory, Integer> matchPositionPerScriptEngineCandidate = new HashMap<>();
         int matchPosition;
         List<String> lookupCriteria;
 
-        for (ScriptEngineFactory factory : new ScriptEngineManager().getEngineFactories()) {
+        for (ScriptEngineFactory factory : ScriptEnginePool.getInstance().getEngineFactories()) {
             matchPosition = 0;
             if (findByName) {
                 lookupCriteria = factory.getNames();
@@ -506,7 +516,7 @@ public abstract class Script<E> implements Serializable {
 
             for (String criteria : lookupCriteria) {
                 if (criteria.equalsIgnoreCase(scriptEngineLookupName)) {
-                    matchPositionPerScriptEngineCandidate.put(factory.getScriptEngine(), matchPosition);
+                    matchPositionPerScriptEngineCandidate.put(factory, matchPosition);
                 }
                 matchPosition++;
             }
@@ -515,18 +525,18 @@ public abstract class Script<E> implements Serializable {
         return matchPositionPerScriptEngineCandidate;
     }
 
-    private ScriptEngine findBestScriptEngine(Map<ScriptEngine, Integer> scriptEngineCandidates) {
+    private ScriptEngineFactory findBestScriptEngineFactory(Map<ScriptEngineFactory, Integer> scriptEngineCandidates) {
         int minimumMatchingIndex = Integer.MAX_VALUE;
-        ScriptEngine bestScriptEngine = null;
+        ScriptEngineFactory bestScriptEngineFactory = null;
 
-        for (Entry<ScriptEngine, Integer> candidate : scriptEngineCandidates.entrySet()) {
+        for (Entry<ScriptEngineFactory, Integer> candidate : scriptEngineCandidates.entrySet()) {
             if (candidate.getValue() < minimumMatchingIndex) {
                 minimumMatchingIndex = candidate.getValue();
-                bestScriptEngine = candidate.getKey();
+                bestScriptEngineFactory = candidate.getKey();
             }
         }
 
-        return bestScriptEngine;
+        return bestScriptEngineFactory;
     }
 
     /**
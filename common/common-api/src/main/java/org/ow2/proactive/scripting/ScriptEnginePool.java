@@ -0,0 +1,408 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CharStreams;
+
+
+/**
+ * Per-JVM pool of script engines used by {@link Script#execute(Map, java.io.PrintStream, java.io.PrintStream)}.
+ * <p>
+ * Idle engines are kept per engine lookup name, so that scripts executed repeatedly on the same JVM
+ * (selection scripts typically) do not pay the engine startup cost at each execution. Each pooled engine
+ * also keeps a bounded LRU cache of {@link CompiledScript}, keyed by the digest of the script source, when
+ * the engine is {@link Compilable}.
+ * <p>
+ * An engine is used by a single execution at a time, and its context is replaced by a fresh one
+ * when it is given back to the pool, so bindings never leak from one execution to another.
+ * <p>
+ * The Groovy engine also keeps the methods of the scripts it evaluated in its global closures, and exposes them
+ * to the next scripts whatever their context. They are cleared when the engine is given back to the pool, so that
+ * the methods defined by a script cannot reach the scripts of other executions or users. An engine whose global
+ * closures cannot be cleared is not pooled again.
+ * <p>
+ * Engines such as Groovy keep a class for each script they compile, for as long as they live. An engine
+ * which compiled {@value #MAX_COMPILED_SCRIPTS_PROPERTY} scripts is therefore not pooled again, so that the
+ * classes it accumulated can be collected along with it.
+ * <p>
+ * Sizes are read from the system properties {@value #POOL_SIZE_PROPERTY} (idle engines per engine name),
+ * {@value #COMPILED_CACHE_SIZE_PROPERTY} (compiled scripts per engine) and {@value #MAX_COMPILED_SCRIPTS_PROPERTY}
+ * (scripts compiled by an engine before it is discarded). Setting a size to 0 disables the corresponding cache,
+ * or the recycling of engines.
+ *
+ * @author The ProActive Team
+ */
+public final class ScriptEnginePool {
+
+    private static final Logger logger = Logger.getLogger(ScriptEnginePool.class);
+
+    public static final String POOL_SIZE_PROPERTY = "pa.scripting.engine.pool.size";
+
+    public static final String COMPILED_CACHE_SIZE_PROPERTY = "pa.scripting.compiled.cache.size";
+
+    public static final String MAX_COMPILED_SCRIPTS_PROPERTY = "pa.scripting.engine.max.compiled.scripts";
+
+    private static final int DEFAULT_POOL_SIZE = 4;
+
+    private static final int DEFAULT_COMPILED_CACHE_SIZE = 128;
+
+    private static final int DEFAULT_MAX_COMPILED_SCRIPTS = 1024;
+
+    /** field in which the Groovy engine keeps the methods and closures defined by its scripts */
+    private static final String GROOVY_GLOBAL_CLOSURES_FIELD = "globalClosures";
+
+    private static final ScriptEnginePool instance = new ScriptEnginePool(getSize(POOL_SIZE_PROPERTY,
+                                                                                  DEFAULT_POOL_SIZE),
+                                                                          getSize(COMPILED_CACHE_SIZE_PROPERTY,
+                                                                                  DEFAULT_COMPILED_CACHE_SIZE),
+                                                                          getSize(MAX_COMPILED_SCRIPTS_PROPERTY,
+                                                                                  DEFAULT_MAX_COMPILED_SCRIPTS));
+
+    private final int poolSize;
+
+    private final int compiledCacheSize;
+
+    private final int maxCompiledScripts;
+
+    /** idle engines per engine lookup name */
+    private final Map<String, Deque<PooledScriptEngine>> idleEngines = new HashMap<>();
+
+    /** engine factories of the last class loader which looked them up */
+    private volatile EngineFactories engineFactories;
+
+    private final AtomicLong engineHits = new AtomicLong();
+
+    private final AtomicLong engineMisses = new AtomicLong();
+
+    private final AtomicLong compiledScriptHits = new AtomicLong();
+
+    private final AtomicLong compiledScriptMisses = new AtomicLong();
+
+    ScriptEnginePool(int poolSize, int compiledCacheSize) {
+        this(poolSize, compiledCacheSize, DEFAULT_MAX_COMPILED_SCRIPTS);
+    }
+
+    ScriptEnginePool(int poolSize, int compiledCacheSize, int maxCompiledScripts) {
+        this.poolSize = Math.max(0, poolSize);
+        this.compiledCacheSize = Math.max(0, compiledCacheSize);
+        this.maxCompiledScripts = Math.max(0, maxCompiledScripts);
+    }
+
+    public static ScriptEnginePool getInstance() {
+        return instance;
+    }
+
+    private static int getSize(String propertyName, int defaultValue) {
+        Integer size = Integer.getInteger(propertyName, defaultValue);
+        if (logger.isDebugEnabled()) {
+            logger.debug(propertyName + " = " + size);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the script engine factories visible from the context class loader of the current thread.
+     * The factories are discovered once per class loader instead of once per script execution.
+     */
+    public List<ScriptEngineFactory> getEngineFactories() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        EngineFactories factories = engineFactories;
+        if (factories == null || factories.classLoader != classLoader) {
+            factories = new EngineFactories(classLoader, new ScriptEngineManager(classLoader).getEngineFactories());
+            engineFactories = factories;
+        }
+        return factories.factories;
+    }
+
+    /**
+     * Takes an idle engine registered under the given lookup name.
+     *
+     * @param engineLookupName name or extension used to look the engine up
+     * @return an idle engine created for the current context class loader, or null if there is none
+     */
+    PooledScriptEngine acquire(String engineLookupName) {
+        if (poolSize > 0 && engineLookupName != null) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            synchronized (idleEngines) {
+                Deque<PooledScriptEngine> engines = idleEngines.get(engineLookupName);
+                if (engines != null) {
+                    Iterator<PooledScriptEngine> iterator = engines.iterator();
+                    while (iterator.hasNext()) {
+                        PooledScriptEngine pooledEngine = iterator.next();
+                        if (pooledEngine.classLoader == classLoader) {
+                            iterator.remove();
+                            engineHits.incrementAndGet();
+                            return pooledEngine;
+                        }
+                    }
+                }
+            }
+        }
+        engineMisses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Wraps a newly created engine so that it can be given back to the pool after use.
+     */
+    PooledScriptEngine wrap(String engineLookupName, ScriptEngine engine) {
+        return new PooledScriptEngine(engineLookupName, engine, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Gives an engine back to the pool, unless it has been invalidated, it compiled too many scripts,
+     * it keeps definitions of the scripts it evaluated which cannot be cleared or the pool is full.
+     */
+    void release(PooledScriptEngine pooledEngine) {
+        if (poolSize == 0 || pooledEngine.engineLookupName == null || !pooledEngine.reusable) {
+            return;
+        }
+        if (maxCompiledScripts > 0 && pooledEngine.compilations >= maxCompiledScripts) {
+            logger.debug("Recycling script engine " + pooledEngine.engineLookupName + " after " +
+                         pooledEngine.compilations + " compiled scripts");
+            return;
+        }
+        if (!pooledEngine.clearGlobalDefinitions()) {
+            logger.debug("Discarding script engine " + pooledEngine.engineLookupName +
+                         " which keeps definitions of the scripts it evaluated");
+            return;
+        }
+        try {
+            pooledEngine.resetContext();
+        } catch (RuntimeException e) {
+            logger.debug("Could not reset context of script engine " + pooledEngine.engineLookupName, e);
+            return;
+        }
+        synchronized (idleEngines) {
+            Deque<PooledScriptEngine> engines = idleEngines.get(pooledEngine.engineLookupName);
+            if (engines == null) {
+                engines = new ArrayDeque<>(poolSize);
+                idleEngines.put(pooledEngine.engineLookupName, engines);
+            }
+            if (engines.size() < poolSize) {
+                engines.push(pooledEngine);
+            }
+        }
+    }
+
+    /**
+     * Drops all idle engines and compiled scripts.
+     */
+    public void clear() {
+        synchronized (idleEngines) {
+            idleEngines.clear();
+        }
+        engineFactories = null;
+    }
+
+    /** Number of executions which reused an idle engine */
+    public long getEngineHits() {
+        return engineHits.get();
+    }
+
+    /** Number of executions which had to create a new engine */
+    public long getEngineMisses() {
+        return engineMisses.get();
+    }
+
+    /** Number of executions which reused an already compiled script */
+    public long getCompiledScriptHits() {
+        return compiledScriptHits.get();
+    }
+
+    /** Number of executions which had to compile the script */
+    public long getCompiledScriptMisses() {
+        return compiledScriptMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptEnginePool{engineHits=" + getEngineHits() + ", engineMisses=" + getEngineMisses() +
+               ", compiledScriptHits=" + getCompiledScriptHits() + ", compiledScriptMisses=" +
+               getCompiledScriptMisses() + '}';
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // look in the super class
+            }
+        }
+        return null;
+    }
+
+    private static final class EngineFactories {
+
+        private final ClassLoader classLoader;
+
+        private final List<ScriptEngineFactory> factories;
+
+        private EngineFactories(ClassLoader classLoader, List<ScriptEngineFactory> factories) {
+            this.classLoader = classLoader;
+            this.factories = factories;
+        }
+    }
+
+    /**
+     * A script engine checked out of the pool, with the scripts it already compiled.
+     */
+    final class PooledScriptEngine {
+
+        private final String engineLookupName;
+
+        private final ScriptEngine engine;
+
+        private final ClassLoader classLoader;
+
+        private final Map<String, CompiledScript> compiledScripts;
+
+        private boolean reusable = true;
+
+        /** number of scripts compiled by the engine, each of them may have left a class in the engine */
+        private int compilations;
+
+        private PooledScriptEngine(String engineLookupName, ScriptEngine engine, ClassLoader classLoader) {
+            this.engineLookupName = engineLookupName;
+            this.engine = engine;
+            this.classLoader = classLoader;
+            if (engine instanceof Compilable && compiledCacheSize > 0) {
+                this.compiledScripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                        return size() > compiledCacheSize;
+                    }
+                };
+            } else {
+                this.compiledScripts = null;
+            }
+        }
+
+        ScriptEngine getEngine() {
+            return engine;
+        }
+
+        /**
+         * Evaluates the script in the current context of the engine, reusing its compiled form if the
+         * same source has already been compiled by this engine.
+         */
+        Object eval(Reader reader) throws ScriptException, IOException {
+            if (compiledScripts == null) {
+                compilations++;
+                return engine.eval(reader);
+            }
+            String source = CharStreams.toString(reader);
+            String digest = Hashing.sha256().hashString(source, Charsets.UTF_8).toString();
+            CompiledScript compiledScript = compiledScripts.get(digest);
+            if (compiledScript == null) {
+                compiledScriptMisses.incrementAndGet();
+                compilations++;
+                compiledScript = ((Compilable) engine).compile(source);
+                compiledScripts.put(digest, compiledScript);
+            } else {
+                compiledScriptHits.incrementAndGet();
+            }
+            return compiledScript.eval(engine.getContext());
+        }
+
+        /**
+         * Prevents the engine from going back to the pool, when its state cannot be trusted anymore.
+         */
+        void invalidate() {
+            reusable = false;
+        }
+
+        /**
+         * Clears the methods and closures defined by the scripts the engine evaluated, which a context swap
+         * does not remove.
+         *
+         * @return false if the engine keeps such definitions and they could not be cleared
+         */
+        private boolean clearGlobalDefinitions() {
+            Field field = findField(engine.getClass(), GROOVY_GLOBAL_CLOSURES_FIELD);
+            if (field == null) {
+                return true;
+            }
+            try {
+                field.setAccessible(true);
+                Object closures = field.get(engine);
+                if (closures == null) {
+                    return true;
+                }
+                if (closures instanceof Map) {
+                    ((Map<?, ?>) closures).clear();
+                    return true;
+                }
+                // recent Groovy versions wrap the closures map in a ManagedConcurrentValueMap
+                for (Field closuresField : closures.getClass().getDeclaredFields()) {
+                    if (Map.class.isAssignableFrom(closuresField.getType())) {
+                        closuresField.setAccessible(true);
+                        Map<?, ?> map = (Map<?, ?>) closuresField.get(closures);
+                        if (map != null) {
+                            map.clear();
+                        }
+                        return true;
+                    }
+                }
+            } catch (Exception e) {
+                logger.debug("Could not clear the global closures of script engine " + engineLookupName, e);
+            }
+            return false;
+        }
+
+        private void resetContext() {
+            ScriptContext context = new SimpleScriptContext();
+            context.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            engine.setContext(context);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+
+import javax.script.ScriptEngine;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ScriptEnginePoolTest {
+
+    @Before
+    public void clearPool() {
+        ScriptEnginePool.getInstance().clear();
+    }
+
+    @Test
+    public void testEngineIsReusedAcrossExecutions() throws Exception {
+        ScriptEnginePool pool = ScriptEnginePool.getInstance();
+        TaskScript script = groovyScript("result = 1");
+
+        assertNull(script.execute().getException());
+
+        long engineHits = pool.getEngineHits();
+        long compiledScriptHits = pool.getCompiledScriptHits();
+
+        ScriptResult<?> result = groovyScript("result = 1").execute();
+
+        assertNull(result.getException());
+        assertEquals(1, result.getResult());
+        assertEquals(engineHits + 1, pool.getEngineHits());
+        assertEquals(compiledScriptHits + 1, pool.getCompiledScriptHits());
+    }
+
+    @Test
+    public void testBindingsDoNotLeakBetweenExecutions() throws Exception {
+        assertNull(groovyScript("leaked = 42; result = 1").execute().getException());
+
+        ScriptResult<?> result = groovyScript("result = binding.hasVariable('leaked')").execute();
+
+        assertNull(result.getException());
+        assertEquals(false, result.getResult());
+    }
+
+    @Test
+    public void testMethodsDoNotLeakBetweenExecutions() throws Exception {
+        assertNull(groovyScript("def leaked() { 42 }; result = 1").execute().getException());
+
+        ScriptResult<?> result = groovyScript("result = leaked()").execute();
+
+        assertNotNull(result.getException());
+    }
+
+    @Test
+    public void testPooledEngineForgetsDefinedMethods() throws Exception {
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1);
+        ScriptEnginePool.PooledScriptEngine pooledEngine = pool.wrap("groovy", groovyScript("").createScriptEngine());
+
+        assertEquals(1, pooledEngine.eval(new StringReader("def defined() { 1 }; defined()")));
+        pool.release(pooledEngine);
+        pooledEngine = pool.acquire("groovy");
+        assertNotNull(pooledEngine);
+
+        try {
+            pooledEngine.eval(new StringReader("defined()"));
+            fail("a method defined by a previous script must not be visible");
+        } catch (javax.script.ScriptException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIdleEnginesAreBounded() throws Exception {
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1);
+        ScriptEngine engine = groovyScript("").createScriptEngine();
+
+        pool.release(pool.wrap("groovy", engine));
+        pool.release(pool.wrap("groovy", groovyScript("").createScriptEngine()));
+
+        ScriptEnginePool.PooledScriptEngine pooledEngine = pool.acquire("groovy");
+        assertNotNull(pooledEngine);
+        assertNull(pool.acquire("groovy"));
+        assertNull(pool.acquire("javascript"));
+        assertEquals(1, pool.getEngineHits());
+        assertEquals(2, pool.getEngineMisses());
+    }
+
+    @Test
+    public void testInvalidatedEngineIsNotPooled() throws Exception {
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1);
+        ScriptEnginePool.PooledScriptEngine pooledEngine = pool.wrap("groovy", groovyScript("").createScriptEngine());
+
+        pooledEngine.invalidate();
+        pool.release(pooledEngine);
+
+        assertNull(pool.acquire("groovy"));
+    }
+
+    @Test
+    public void testCompiledScriptsAreEvictedInLruOrder() throws Exception {
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1);
+        ScriptEnginePool.PooledScriptEngine pooledEngine = pool.wrap("groovy", groovyScript("").createScriptEngine());
+
+        assertEquals(1, pooledEngine.eval(new StringReader("1")));
+        assertEquals(1, pooledEngine.eval(new StringReader("1")));
+        assertEquals(1, pool.getCompiledScriptHits());
+        assertEquals(1, pool.getCompiledScriptMisses());
+
+        assertEquals(2, pooledEngine.eval(new StringReader("2")));
+        assertEquals(1, pooledEngine.eval(new StringReader("1")));
+        assertEquals(1, pool.getCompiledScriptHits());
+        assertEquals(3, pool.getCompiledScriptMisses());
+    }
+
+    @Test
+    public void testEngineFactoriesAreCached() {
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1);
+
+        assertSame(pool.getEngineFactories(), pool.getEngineFactories());
+        assertFalse(pool.getEngineFactories().isEmpty());
+    }
+
+    @Test
+    public void testEngineIsRecycledAfterMaxCompiledScripts() throws Exception {
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1, 2);
+        ScriptEnginePool.PooledScriptEngine pooledEngine = pool.wrap("groovy", groovyScript("").createScriptEngine());
+
+        assertEquals(1, pooledEngine.eval(new StringReader("1")));
+        assertEquals(1, pooledEngine.eval(new StringReader("1")));
+        pool.release(pooledEngine);
+        pooledEngine = pool.acquire("groovy");
+        assertNotNull(pooledEngine);
+
+        assertEquals(2, pooledEngine.eval(new StringReader("2")));
+        pool.release(pooledEngine);
+        assertNull(pool.acquire("groovy"));
+    }
+
+    private static TaskScript groovyScript(String script) throws InvalidScriptException {
+        return new TaskScript(new SimpleScript(script, "groovy"));
+    }
+}
@@ -128,6 +128,51 @@ public interface SchedulerRestInterface {
             @QueryParam("index") @DefaultValue("-1") int index, @QueryParam("limit") @DefaultValue("-1") int limit)
             throws PermissionRestException, NotConnectedRestException;
 
+    /**
+     * Returns the jobs following a given job, sorted by default as in the other job lists:
+     * pending, running then finished jobs, the most recent first in each group. Each job is
+     * described using - its id - its owner - the JobInfo class
+     * <p>
+     * The page is located from the last job of the previous page instead of an index, so jobs
+     * submitted or removed between two requests do not shift the pages, and the last pages of a
+     * long history are as fast to get as the first one.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param afterJobId
+     *            optional, the id of the last job of the previous page, the
+     *            first page is returned when it is not set
+     * @param limit
+     *            optional, the maximum number of jobs to return
+     * @param myJobs
+     *            fetch only the jobs for the user making the request
+     * @param pending
+     *            fetch pending jobs
+     * @param running
+     *            fetch running jobs
+     * @param finished
+     *            fetch finished jobs
+     * @param sortParams
+     *            optional, the sort parameters, as "field,order" pairs separated by ";", where
+     *            the field is one of id, state, owner, priority or name and the order is
+     *            ascending or descending. The jobs are sorted by id after these fields
+     * @return a page of UserJobData with the total number of jobs
+     * @throws UnknownJobRestException
+     *             if the given job does not exist
+     */
+    @GET
+    @GZIP
+    @Path("jobsinfo/after")
+    @Produces({ "application/json", "application/xml" })
+    RestPage<UserJobData> jobsInfoAfter(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("after") String afterJobId, @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("myjobs") @DefaultValue("false") boolean myJobs,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("finished") @DefaultValue("true") boolean finished,
+            @QueryParam("sortparameters") SortSpecifierContainer sortParams)
+            throws PermissionRestException, NotConnectedRestException, UnknownJobRestException;
+
     /**
      * Returns a map containing one entry with the revision id as key and the
      * list of UserJobData as value. each jobs is described using - its id - its
@@ -704,6 +749,66 @@ public interface SchedulerRestInterface {
             @QueryParam("sortparameters") SortSpecifierContainer sortParams)
             throws NotConnectedRestException, PermissionRestException;
 
+    /**
+     * Returns a page of <code>TaskStateData</code> following a given task,
+     * regarding the given parameters (decoupled from the associated jobs). The
+     * tasks are sorted by job id and task id after the given sort parameters.
+     * If the <code>limit</code> parameter is not specified, the DEFAULT_VALUE
+     * set in the scheduler config file as the
+     * <code>pa.scheduler.tasks.page.size</code> parameter will be used.
+     * <p>
+     * The page is located from the last task of the previous page instead of
+     * an offset, so tasks added or removed between two requests do not shift
+     * the pages, and the last pages are as fast to get as the first one.
+     *
+     * @param sessionId
+     *            a valid session id.
+     * @param afterJobId
+     *            optional, the job id of the last task of the previous page,
+     *            the first page is returned when it is not set.
+     * @param afterTaskId
+     *            the task id of the last task of the previous page, required
+     *            with <code>afterjob</code>.
+     * @param taskTag
+     *            optional, tag to filter the tasks. The tag should be complete
+     *            as the criteria is strict.
+     * @param from
+     *            the scheduled date to which we start fetching tasks. The
+     *            format is in Epoch time.
+     * @param to
+     *            the end scheduled end date to stop fetching tasks. The format
+     *            is in Epoch time.
+     * @param mytasks
+     *            <code>True</code> if you want to fetch only the user's tasks.
+     *            Default value is <code>False</code>.
+     * @param running
+     *            fetch running tasks. Default value is <code>True</code>.
+     * @param pending
+     *            fetch pending tasks. Default value is <code>True</code>.
+     * @param finished
+     *            fetch finished tasks. Default value is <code>True</code>.
+     * @param limit
+     *            the maximum number of tasks to fetch.
+     * @return a list of <code>TaskStateData</code> and the total number of
+     *         them.
+     * @throws UnknownTaskRestException
+     *             if the given task does not exist.
+     */
+    @GET
+    @GZIP
+    @Path("taskstates/after")
+    @Produces("application/json")
+    RestPage<TaskStateData> getTaskStatesAfter(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("afterjob") String afterJobId, @QueryParam("aftertask") @DefaultValue("-1") long afterTaskId,
+            @QueryParam("tasktag") String taskTag, @QueryParam("from") @DefaultValue("0") long from,
+            @QueryParam("to") @DefaultValue("0") long to, @QueryParam("mytasks") @DefaultValue("false") boolean mytasks,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("finished") @DefaultValue("true") boolean finished,
+            @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("sortparameters") SortSpecifierContainer sortParams)
+            throws NotConnectedRestException, PermissionRestException, UnknownTaskRestException;
+
     /**
      * Returns full logs generated by tasks in job.
      *
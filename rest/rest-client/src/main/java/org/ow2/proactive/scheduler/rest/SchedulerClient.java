@@ -132,6 +132,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.exception.NotConnectedRestE
 import org.ow2.proactive_grid_cloud_portal.scheduler.exception.PermissionRestException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.exception.SchedulerRestException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.exception.UnknownJobRestException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.exception.UnknownTaskRestException;
 
 import io.swagger.client.api.CatalogObjectControllerApi;
 
@@ -302,6 +303,40 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return jobInfos;
     }
 
+    @Override
+    public Page<JobInfo> getJobsAfter(String afterJobId, int limit, JobFilterCriteria criteria,
+            List<SortParameter<JobSortParameter>> sortParameters)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        Page<JobInfo> jobInfos = null;
+        try {
+            RestPage<UserJobData> userJobDataList = restApi().jobsInfoAfter(sid,
+                                                                            afterJobId,
+                                                                            limit,
+                                                                            criteria.isMyJobsOnly(),
+                                                                            criteria.isPending(),
+                                                                            criteria.isRunning(),
+                                                                            criteria.isFinished(),
+                                                                            toSortSpecifierContainer(sortParameters));
+            jobInfos = new Page<>(toJobInfos(userJobDataList.getList()), userJobDataList.getSize());
+        } catch (Exception e) {
+            throwUJEOrNCEOrPE(e);
+        }
+        return jobInfos;
+    }
+
+    private static SortSpecifierContainer toSortSpecifierContainer(
+            List<SortParameter<JobSortParameter>> sortParameters) {
+        if (sortParameters == null) {
+            return null;
+        }
+        SortSpecifierContainer sortContainer = new SortSpecifierContainer(sortParameters.size());
+        for (SortParameter<JobSortParameter> param : sortParameters) {
+            sortContainer.add(param.getParameter().name().toLowerCase(),
+                              param.getSortOrder().isAscending() ? "ascending" : "descending");
+        }
+        return sortContainer;
+    }
+
     @Override
     public String getJobServerLogs(String jobId)
             throws UnknownJobException, NotConnectedException, PermissionException {
@@ -1143,6 +1178,79 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return new Page<TaskState>(lTaskStates, page.getSize());
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException {
+        RestPage<TaskStateData> page = getTaskStatesAfterPage(afterTaskId,
+                                                              taskTag,
+                                                              from,
+                                                              to,
+                                                              mytasks,
+                                                              running,
+                                                              pending,
+                                                              finished,
+                                                              limit,
+                                                              null);
+        List<TaskId> lTaskIds = new ArrayList<TaskId>(page.getList().size());
+        for (TaskStateData taskStateData : page.getList()) {
+            TaskInfoData taskInfo = taskStateData.getTaskInfo();
+            TaskIdData taskIdData = taskInfo.getTaskId();
+            JobId jobId = new JobIdImpl(taskInfo.getJobId().getId(), taskInfo.getJobId().getReadableName());
+            TaskId taskId = TaskIdImpl.createTaskId(jobId, taskIdData.getReadableName(), taskIdData.getId());
+            lTaskIds.add(taskId);
+        }
+        return new Page<TaskId>(lTaskIds, page.getSize());
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        RestPage<TaskStateData> page = getTaskStatesAfterPage(afterTaskId,
+                                                              taskTag,
+                                                              from,
+                                                              to,
+                                                              mytasks,
+                                                              running,
+                                                              pending,
+                                                              finished,
+                                                              limit,
+                                                              sortParams);
+        List<TaskState> lTaskStates = new ArrayList<TaskState>(page.getList().size());
+        for (TaskStateData taskStateData : page.getList()) {
+            lTaskStates.add(new TaskStateImpl(taskStateData));
+        }
+        return new Page<TaskState>(lTaskStates, page.getSize());
+    }
+
+    private RestPage<TaskStateData> getTaskStatesAfterPage(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        RestPage<TaskStateData> page = null;
+        try {
+            page = restApi().getTaskStatesAfter(sid,
+                                                afterTaskId == null ? null : afterTaskId.getJobId().value(),
+                                                afterTaskId == null ? -1 : afterTaskId.longValue(),
+                                                taskTag,
+                                                from,
+                                                to,
+                                                mytasks,
+                                                running,
+                                                pending,
+                                                finished,
+                                                limit,
+                                                sortParams);
+        } catch (NotConnectedRestException e) {
+            throw new NotConnectedException(e);
+        } catch (PermissionRestException e) {
+            throw new PermissionException(e);
+        } catch (UnknownTaskRestException e) {
+            throw new UnknownTaskException(e);
+        }
+        return page;
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         JobInfoData jobInfoData = null;
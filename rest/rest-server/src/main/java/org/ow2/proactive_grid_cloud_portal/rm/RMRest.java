@@ -40,6 +40,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -80,6 +81,7 @@ import org.ow2.proactive.authentication.UserData;
 import org.ow2.proactive.authentication.crypto.CredData;
 import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.resourcemanager.common.NSState;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.common.event.RMInitialState;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeSourceEvent;
@@ -333,6 +335,26 @@ public class RMRest implements RMRestInterface {
         return rm.nodeIsAvailable(url).getBooleanValue();
     }
 
+    /**
+     * Returns the resources last reported by the nodes: cores, physical memory, disk, load and GPUs
+     * of their hosts. Nodes which do not report their resources are not included.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @return the resources of the nodes hosts, by node url
+     * @throws NotConnectedException
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("nodes/resources")
+    @Produces("application/json")
+    public Map<String, NodeResources> getNodesResources(@HeaderParam("sessionid") String sessionId)
+            throws NotConnectedException {
+        ResourceManager rm = checkAccess(sessionId);
+        return rm.getNodesResources();
+    }
+
     /**
      * Gives list of existing Node Sources
      * @return list of existing Node Sources
@@ -25,9 +25,12 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
+import java.util.List;
+
 import org.ow2.proactive.scheduler.common.NotificationData;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
-import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
+import org.ow2.proactive.scheduler.common.SchedulerEventCall;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobState;
 import org.ow2.proactive.scheduler.common.job.UserIdentification;
@@ -35,7 +38,7 @@ import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive_grid_cloud_portal.scheduler.SchedulerStateListener.State;
 
 
-public class EventListener implements SchedulerEventListener {
+public class EventListener implements SchedulerEventBatchListener {
 
     private State state;
 
@@ -79,4 +82,9 @@ public class EventListener implements SchedulerEventListener {
         state.incrementRevision();
     }
 
+    @Override
+    public void schedulerEventsBatch(List<SchedulerEventCall> events) {
+        SchedulerEventCall.deliverAll(this, events);
+    }
+
 }
@@ -75,7 +75,6 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.Response;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.FileObject;
@@ -143,6 +142,7 @@ import org.ow2.proactive.scheduler.common.util.TaskLoggerRelativePathGenerator;
 import org.ow2.proactive.scheduler.common.util.logforwarder.LogForwardingException;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive_grid_cloud_portal.common.SchedulerRestInterface;
 import org.ow2.proactive_grid_cloud_portal.common.Session;
 import org.ow2.proactive_grid_cloud_portal.common.SessionStore;
@@ -320,6 +320,104 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    /**
+     * Returns the jobs following a given job, sorted by default as in the other job lists:
+     * pending, running then finished jobs, the most recent first in each group. Each job is
+     * described using - its id - its owner - the JobInfo class
+     * <p>
+     * The page is located from the last job of the previous page instead of an index, so jobs
+     * submitted or removed between two requests do not shift the pages, and the last pages of a
+     * long history are as fast to get as the first one.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param afterJobId
+     *            optional, the id of the last job of the previous page, the
+     *            first page is returned when it is not set
+     * @param limit
+     *            optional, the maximum number of jobs to return
+     * @param myJobs
+     *            fetch only the jobs for the user making the request
+     * @param pending
+     *            fetch pending jobs
+     * @param running
+     *            fetch running jobs
+     * @param finished
+     *            fetch finished jobs
+     * @param sortParams
+     *            optional, the sort parameters, as "field,order" pairs separated by ";", where
+     *            the field is one of id, state, owner, priority or name and the order is
+     *            ascending or descending. The jobs are sorted by id after these fields
+     * @return a page of UserJobData with the total number of jobs
+     * @throws UnknownJobRestException
+     *             if the given job does not exist
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobsinfo/after")
+    @Produces({ "application/json", "application/xml" })
+    public RestPage<UserJobData> jobsInfoAfter(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("after") String afterJobId, @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("myjobs") @DefaultValue("false") boolean myJobs,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("finished") @DefaultValue("true") boolean finished,
+            @QueryParam("sortparameters") SortSpecifierContainer sortParams)
+            throws PermissionRestException, NotConnectedRestException, UnknownJobRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "/scheduler/jobsinfo/after");
+            String user = sessionStore.get(sessionId).getUserName();
+
+            boolean onlyUserJobs = (myJobs && user != null && user.trim().length() > 0);
+
+            Page<JobInfo> page = s.getJobsAfter(afterJobId,
+                                                limit,
+                                                new JobFilterCriteria(onlyUserJobs, pending, running, finished),
+                                                toJobSortParameters(sortParams));
+            List<UserJobData> userJobInfoList = new ArrayList<>(page.getList().size());
+            for (JobInfo jobInfo : page.getList()) {
+                userJobInfoList.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+            }
+
+            return new RestPage<>(userJobInfoList, page.getSize());
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownJobException e) {
+            throw new UnknownJobRestException(e);
+        }
+    }
+
+    /**
+     * Translates the jobs attributes names that are used to sort the result, ignoring the unknown
+     * ones. The default sort parameters are used when none is given.
+     *
+     * @param sortParams
+     *            The sort parameters using the client-side namespace
+     * @return the job sort parameters
+     */
+    private static List<SortParameter<JobSortParameter>> toJobSortParameters(SortSpecifierContainer sortParams) {
+        List<SortParameter<JobSortParameter>> sortParameters = new ArrayList<>();
+        if (sortParams != null) {
+            for (SortSpecifierContainer.SortSpecifierItem i : sortParams.getSortParameters()) {
+                JobSortParameter parameter;
+                try {
+                    parameter = JobSortParameter.valueOf(i.getField().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                SortOrder order = "ascending".equalsIgnoreCase(i.getOrder()) ? SortOrder.ASC : SortOrder.DESC;
+                sortParameters.add(new SortParameter<>(parameter, order));
+            }
+        }
+        if (sortParameters.isEmpty()) {
+            return DEFAULT_JOB_SORT_PARAMS;
+        }
+        return sortParameters;
+    }
+
     /**
      * Returns a map containing one entry with the revision id as key and the
      * list of UserJobData as value. each jobs is described using - its id - its
@@ -2248,22 +2346,13 @@ public class SchedulerStateRest implements SchedulerRestInterface {
             PermissionRestException, SubmissionClosedRestException, IOException {
         Scheduler s = checkAccess(sessionId, "jobs");
 
-        File tmpWorkflowFile = null;
-        try {
-            String jobXml = downloadWorkflowContent(sessionId, url);
-            tmpWorkflowFile = File.createTempFile("job", "d");
-            IOUtils.write(jobXml, new FileOutputStream(tmpWorkflowFile));
+        String jobXml = downloadWorkflowContent(sessionId, url);
 
-            WorkflowSubmitter workflowSubmitter = new WorkflowSubmitter(s);
-            JobId jobId = workflowSubmitter.submit(tmpWorkflowFile,
-                                                   workflowVariablesTransformer.getWorkflowVariablesFromPathSegment(pathSegment));
+        WorkflowSubmitter workflowSubmitter = new WorkflowSubmitter(s);
+        JobId jobId = workflowSubmitter.submit(IOUtils.toInputStream(jobXml),
+                                               workflowVariablesTransformer.getWorkflowVariablesFromPathSegment(pathSegment));
 
-            return mapper.map(jobId, JobIdData.class);
-        } catch (IOException e) {
-            throw new IOException("Cannot save temporary job file on submission: " + e.getMessage(), e);
-        } finally {
-            FileUtils.deleteQuietly(tmpWorkflowFile);
-        }
+        return mapper.map(jobId, JobIdData.class);
     }
 
     /**
@@ -2289,37 +2378,25 @@ public class SchedulerStateRest implements SchedulerRestInterface {
             Map<String, List<InputPart>> formDataMap = multipart.getFormDataMap();
 
             String name = formDataMap.keySet().iterator().next();
-            File tmpJobFile = null;
-            try {
-
-                InputPart part1 = multipart.getFormDataMap().get(name).get(0); // "file"
-
-                String fileType = part1.getMediaType().toString().toLowerCase();
-                if (!fileType.contains(MediaType.APPLICATION_XML.toLowerCase())) {
-                    throw new JobCreationRestException("Unknown job descriptor type: " + fileType);
-                }
 
-                // is the name of the browser's input field
-                InputStream is = part1.getBody(new GenericType<InputStream>() {
+            InputPart part1 = multipart.getFormDataMap().get(name).get(0); // "file"
 
-                });
-                tmpJobFile = File.createTempFile("job", "d");
+            String fileType = part1.getMediaType().toString().toLowerCase();
+            if (!fileType.contains(MediaType.APPLICATION_XML.toLowerCase())) {
+                throw new JobCreationRestException("Unknown job descriptor type: " + fileType);
+            }
 
-                IOUtils.copy(is, new FileOutputStream(tmpJobFile));
+            // is the name of the browser's input field
+            try (InputStream is = part1.getBody(new GenericType<InputStream>() {
 
+            })) {
                 Map<String, String> jobVariables = workflowVariablesTransformer.getWorkflowVariablesFromPathSegment(pathSegment);
 
                 WorkflowSubmitter workflowSubmitter = new WorkflowSubmitter(scheduler);
 
-                JobId jobId = workflowSubmitter.submit(tmpJobFile, jobVariables);
+                JobId jobId = workflowSubmitter.submit(is, jobVariables);
 
                 return mapper.map(jobId, JobIdData.class);
-
-            } finally {
-                if (tmpJobFile != null) {
-                    // clean the temporary file
-                    tmpJobFile.delete();
-                }
             }
         } catch (IOException e) {
             throw new IOException("I/O Error: " + e.getMessage(), e);
@@ -3266,30 +3343,20 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
     @Override
     public JobValidationData validate(PathSegment pathSegment, MultipartFormDataInput multipart) {
-        File tmpFile = null;
-        try {
-            Map<String, List<InputPart>> formDataMap = multipart.getFormDataMap();
-            String name = formDataMap.keySet().iterator().next();
-            InputPart part1 = formDataMap.get(name).get(0);
-            InputStream is = part1.getBody(new GenericType<InputStream>() {
-
-            });
-
-            tmpFile = File.createTempFile("valid-job", "d");
-            IOUtils.copy(is, new FileOutputStream(tmpFile));
+        Map<String, List<InputPart>> formDataMap = multipart.getFormDataMap();
+        String name = formDataMap.keySet().iterator().next();
+        InputPart part1 = formDataMap.get(name).get(0);
+        try (InputStream is = part1.getBody(new GenericType<InputStream>() {
 
+        })) {
             Map<String, String> jobVariables = workflowVariablesTransformer.getWorkflowVariablesFromPathSegment(pathSegment);
 
-            return jobValidator.validateJobDescriptor(tmpFile, jobVariables);
+            return jobValidator.validateJobDescriptor(is, jobVariables);
         } catch (IOException e) {
             JobValidationData validation = new JobValidationData();
             validation.setErrorMessage("Cannot read from the job validation request.");
             validation.setStackTrace(getStackTrace(e));
             return validation;
-        } finally {
-            if (tmpFile != null) {
-                tmpFile.delete();
-            }
         }
     }
 
@@ -3297,24 +3364,19 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     public JobValidationData validateFromUrl(String sessionId, String url, PathSegment pathSegment)
             throws NotConnectedRestException {
 
-        File tmpWorkflowFile = null;
         try {
             checkAccess(sessionId);
             String jobXml = downloadWorkflowContent(sessionId, url);
-            tmpWorkflowFile = File.createTempFile("job", "d");
-            IOUtils.write(jobXml, new FileOutputStream(tmpWorkflowFile));
 
             Map<String, String> jobVariables = workflowVariablesTransformer.getWorkflowVariablesFromPathSegment(pathSegment);
 
-            return jobValidator.validateJobDescriptor(tmpWorkflowFile, jobVariables);
+            return jobValidator.validateJobDescriptor(IOUtils.toInputStream(jobXml), jobVariables);
 
         } catch (JobCreationRestException | IOException e) {
             JobValidationData validation = new JobValidationData();
             validation.setErrorMessage("Error while reading workflow at url: " + url);
             validation.setStackTrace(getStackTrace(e));
             return validation;
-        } finally {
-            FileUtils.deleteQuietly(tmpWorkflowFile);
         }
     }
 
@@ -3571,6 +3633,46 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public RestPage<TaskStateData> getTaskStatesAfter(String sessionId, String afterJobId, long afterTaskId,
+            String taskTag, long from, long to, boolean mytasks, boolean running, boolean pending, boolean finished,
+            int limit, SortSpecifierContainer sortParams)
+            throws NotConnectedRestException, PermissionRestException, UnknownTaskRestException {
+        Scheduler s = checkAccess(sessionId, "taskstates/after");
+
+        PageBoundaries boundaries = Pagination.getTasksPageBoundaries(0, limit, TASKS_PAGE_SIZE);
+
+        TaskId after = null;
+        if (afterJobId != null) {
+            try {
+                after = TaskIdImpl.createTaskId(JobIdImpl.makeJobId(afterJobId), null, afterTaskId);
+            } catch (NumberFormatException e) {
+                throw new UnknownTaskRestException("Invalid job id: " + afterJobId);
+            }
+        }
+
+        try {
+            Page<TaskState> page = s.getTaskStatesAfter(after,
+                                                        taskTag,
+                                                        from,
+                                                        to,
+                                                        mytasks,
+                                                        running,
+                                                        pending,
+                                                        finished,
+                                                        boundaries.getLimit(),
+                                                        mapToDBNamespace(sortParams));
+            List<TaskStateData> tasks = map(page.getList(), TaskStateData.class);
+            return new RestPage<TaskStateData>(tasks, page.getSize());
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownTaskException e) {
+            throw new UnknownTaskRestException(e);
+        }
+    }
+
     /**
      * Translates the tasks attributes names that are used to sort the result
      * For example the task status is called `status` client-side, it is
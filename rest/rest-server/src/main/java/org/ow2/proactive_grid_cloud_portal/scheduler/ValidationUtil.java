@@ -65,6 +65,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -90,27 +91,42 @@ public class ValidationUtil {
         return validateJob(jobDescFile.getAbsolutePath(), jobVariables);
     }
 
+    public JobValidationData validateJobDescriptor(InputStream jobDescStream, Map<String, String> jobVariables) {
+        JobValidationData data = new JobValidationData();
+        try {
+            checkJob(JobFactory.getFactory().createJob(jobDescStream, jobVariables), data);
+        } catch (JobCreationException e) {
+            setJobCreationError(e, data);
+        }
+        return data;
+    }
+
     public JobValidationData validateJob(String jobFilePath, Map<String, String> jobVariables) {
         JobValidationData data = new JobValidationData();
         try {
-            JobFactory factory = JobFactory.getFactory();
-            Job job = factory.createJob(jobFilePath, jobVariables);
-
-            if (job instanceof TaskFlowJob) {
-                validateJob((TaskFlowJob) job, data);
-                fillUpdatedVariables((TaskFlowJob) job, data);
-            } else {
-                data.setValid(true);
-            }
+            checkJob(JobFactory.getFactory().createJob(jobFilePath, jobVariables), data);
         } catch (JobCreationException e) {
-            data.setTaskName(e.getTaskName());
-            data.setErrorMessage(e.getMessage());
-            data.setStackTrace(getStackTrace(e));
+            setJobCreationError(e, data);
         }
         return data;
 
     }
 
+    private void checkJob(Job job, JobValidationData data) {
+        if (job instanceof TaskFlowJob) {
+            validateJob((TaskFlowJob) job, data);
+            fillUpdatedVariables((TaskFlowJob) job, data);
+        } else {
+            data.setValid(true);
+        }
+    }
+
+    private void setJobCreationError(JobCreationException e, JobValidationData data) {
+        data.setTaskName(e.getTaskName());
+        data.setErrorMessage(e.getMessage());
+        data.setStackTrace(getStackTrace(e));
+    }
+
     private void fillUpdatedVariables(TaskFlowJob job, JobValidationData data) {
         HashMap<String, String> updatedVariables = new HashMap<>();
         for (JobVariable jobVariable : job.getVariables().values()) {
@@ -26,6 +26,7 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
@@ -68,8 +69,29 @@ public class WorkflowSubmitter {
      */
     public JobId submit(File workflowFile, Map<String, String> variables) throws NotConnectedRestException,
             PermissionRestException, SubmissionClosedRestException, JobCreationRestException {
+        return submit(createJobObject(workflowFile, variables));
+    }
+
+    /**
+     * Submits a workflow to the scheduler, read from its XML content.
+     *
+     * @param workflowStream the content of a workflow XML, which is not closed
+     * @param variables      variables to be replaced on submission
+     * @return job ID of the job created for the specified workflow and associated variables.
+     * @throws JobCreationRestException
+     * @throws NotConnectedRestException
+     * @throws PermissionRestException
+     * @throws SubmissionClosedRestException
+     */
+    public JobId submit(InputStream workflowStream, Map<String, String> variables) throws NotConnectedRestException,
+            PermissionRestException, SubmissionClosedRestException, JobCreationRestException {
+        return submit(createJobObject(workflowStream, variables));
+    }
+
+    private JobId submit(JobCreation jobCreation) throws NotConnectedRestException, PermissionRestException,
+            SubmissionClosedRestException, JobCreationRestException {
         try {
-            JobId jobId = scheduler.submit(createJobObject(workflowFile, variables));
+            JobId jobId = scheduler.submit(jobCreation.create());
             storeWorkflowFile(jobId);
             return jobId;
         } catch (NotConnectedException e) {
@@ -86,8 +108,26 @@ public class WorkflowSubmitter {
         }
     }
 
-    private Job createJobObject(File jobFile, Map<String, String> jobVariables) throws JobCreationException {
-        return JobFactory.getFactory().createJob(jobFile.getAbsolutePath(), jobVariables);
+    private JobCreation createJobObject(final File jobFile, final Map<String, String> jobVariables) {
+        return new JobCreation() {
+            @Override
+            public Job create() throws JobCreationException {
+                return JobFactory.getFactory().createJob(jobFile.getAbsolutePath(), jobVariables);
+            }
+        };
+    }
+
+    private JobCreation createJobObject(final InputStream jobStream, final Map<String, String> jobVariables) {
+        return new JobCreation() {
+            @Override
+            public Job create() throws JobCreationException {
+                return JobFactory.getFactory().createJob(jobStream, jobVariables);
+            }
+        };
+    }
+
+    private interface JobCreation {
+        Job create() throws JobCreationException;
     }
 
     private void storeWorkflowFile(JobId jobid) {
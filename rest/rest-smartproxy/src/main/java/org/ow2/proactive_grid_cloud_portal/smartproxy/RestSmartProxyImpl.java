@@ -612,6 +612,37 @@ public class RestSmartProxyImpl extends AbstractSmartProxy<RestJobTrackerImpl>
                                              sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException {
+        return _getScheduler().getTaskIdsAfter(afterTaskId,
+                                               taskTag,
+                                               from,
+                                               to,
+                                               mytasks,
+                                               running,
+                                               pending,
+                                               finished,
+                                               limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        return _getScheduler().getTaskStatesAfter(afterTaskId,
+                                                  taskTag,
+                                                  from,
+                                                  to,
+                                                  mytasks,
+                                                  running,
+                                                  pending,
+                                                  finished,
+                                                  limit,
+                                                  sortParams);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return _getScheduler().getJobInfo(jobId);
@@ -0,0 +1,148 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.common;
+
+import java.io.Serializable;
+import java.util.Set;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * NodeHeartbeat is periodically pushed by a ProActive Node to the resource manager
+ * on behalf of all the workers it hosts, along with basic load metrics of its JVM
+ * and the inventory of its host.
+ * <p>
+ * Nodes which push heartbeats are not pinged by their node source anymore, the resource manager
+ * suspects them to be down when their heartbeats stop arriving as regularly as before, see
+ * {@link org.ow2.proactive.resourcemanager.frontend.ResourceManager#nodesHeartbeat(NodeHeartbeat)}.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@PublicAPI
+public class NodeHeartbeat implements Serializable {
+
+    private final Set<String> nodeUrls;
+
+    private final long period;
+
+    private final double systemLoadAverage;
+
+    private final int availableProcessors;
+
+    private final long usedMemory;
+
+    private final long maxMemory;
+
+    private final NodeResources resources;
+
+    public NodeHeartbeat(Set<String> nodeUrls, long period, double systemLoadAverage, int availableProcessors,
+            long usedMemory, long maxMemory) {
+        this(nodeUrls, period, systemLoadAverage, availableProcessors, usedMemory, maxMemory, null);
+    }
+
+    public NodeHeartbeat(Set<String> nodeUrls, long period, double systemLoadAverage, int availableProcessors,
+            long usedMemory, long maxMemory, NodeResources resources) {
+        this.nodeUrls = nodeUrls;
+        this.period = period;
+        this.systemLoadAverage = systemLoadAverage;
+        this.availableProcessors = availableProcessors;
+        this.usedMemory = usedMemory;
+        this.maxMemory = maxMemory;
+        this.resources = resources;
+    }
+
+    /**
+     * Returns the URLs of the workers hosted by the node which pushed this heartbeat.
+     *
+     * @return the URLs of the workers
+     */
+    public Set<String> getNodeUrls() {
+        return nodeUrls;
+    }
+
+    /**
+     * Returns the period in ms at which the node pushes its heartbeats.
+     *
+     * @return the heartbeat period in ms
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the system load average for the last minute of the node host, negative if not available.
+     *
+     * @return the system load average
+     */
+    public double getSystemLoadAverage() {
+        return systemLoadAverage;
+    }
+
+    /**
+     * Returns the number of processors available to the JVM of the node.
+     *
+     * @return the number of available processors
+     */
+    public int getAvailableProcessors() {
+        return availableProcessors;
+    }
+
+    /**
+     * Returns the memory in bytes used by the JVM of the node.
+     *
+     * @return the used memory in bytes
+     */
+    public long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * Returns the maximum memory in bytes the JVM of the node can use.
+     *
+     * @return the maximum memory in bytes
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Returns the resources of the node host when the heartbeat was pushed, null if the node did not refresh them
+     * since its previous heartbeat.
+     *
+     * @return the resources of the node host
+     */
+    public NodeResources getResources() {
+        return resources;
+    }
+
+    @Override
+    public String toString() {
+        return "load average " + systemLoadAverage + " on " + availableProcessors + " processors, memory " +
+               usedMemory + "/" + maxMemory + " bytes";
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.common;
+
+import java.io.Serializable;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * NodeResources is the inventory of the host of a ProActive Node, as measured by the node itself.
+ * <p>
+ * Nodes which push heartbeats refresh it with each heartbeat, the resource manager keeps the last one
+ * of each node so that policies and node selection can check the resources of the nodes locally,
+ * without running any code on them.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@PublicAPI
+public class NodeResources implements Serializable {
+
+    /**
+     * Name of the node property through which the tasks running on a node reserve memory on its host,
+     * in gigabytes. The reserved memory of the host is the sum of this property over all its nodes.
+     */
+    public static final String RESERVED_MEMORY_PROPERTY = "ALLOC_RAM_GIGABYTES";
+
+    private final long time;
+
+    private final int cores;
+
+    private final long totalMemory;
+
+    private final long freeMemory;
+
+    private final long reservedMemory;
+
+    private final long totalDisk;
+
+    private final long freeDisk;
+
+    private final double systemLoadAverage;
+
+    private final int gpus;
+
+    private final long receivedTime;
+
+    public NodeResources(long time, int cores, long totalMemory, long freeMemory, long reservedMemory, long totalDisk,
+            long freeDisk, double systemLoadAverage, int gpus) {
+        this(time, cores, totalMemory, freeMemory, reservedMemory, totalDisk, freeDisk, systemLoadAverage, gpus, 0);
+    }
+
+    private NodeResources(long time, int cores, long totalMemory, long freeMemory, long reservedMemory,
+            long totalDisk, long freeDisk, double systemLoadAverage, int gpus, long receivedTime) {
+        this.time = time;
+        this.cores = cores;
+        this.totalMemory = totalMemory;
+        this.freeMemory = freeMemory;
+        this.reservedMemory = reservedMemory;
+        this.totalDisk = totalDisk;
+        this.freeDisk = freeDisk;
+        this.systemLoadAverage = systemLoadAverage;
+        this.gpus = gpus;
+        this.receivedTime = receivedTime;
+    }
+
+    /**
+     * Returns a copy of these resources stamped with the time at which the resource manager received them.
+     *
+     * @param receivedTime the reception time in ms, on the resource manager host
+     * @return the stamped resources
+     */
+    public NodeResources receivedAt(long receivedTime) {
+        return new NodeResources(time,
+                                 cores,
+                                 totalMemory,
+                                 freeMemory,
+                                 reservedMemory,
+                                 totalDisk,
+                                 freeDisk,
+                                 systemLoadAverage,
+                                 gpus,
+                                 receivedTime);
+    }
+
+    /**
+     * Returns the time in ms, on the node host, at which these resources were measured.
+     *
+     * @return the measurement time in ms
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the time in ms, on the resource manager host, at which the resource manager received these
+     * resources. Unlike {@link #getTime()}, it can be compared with the clock of the resource manager and
+     * of the scheduler. Nodes measure their resources right before sending them.
+     *
+     * @return the reception time in ms, or 0 if these resources were not received by the resource manager
+     */
+    public long getReceivedTime() {
+        return receivedTime;
+    }
+
+    /**
+     * Returns the number of processor cores of the node host.
+     *
+     * @return the number of cores
+     */
+    public int getCores() {
+        return cores;
+    }
+
+    /**
+     * Returns the physical memory in bytes of the node host.
+     *
+     * @return the total memory in bytes
+     */
+    public long getTotalMemory() {
+        return totalMemory;
+    }
+
+    /**
+     * Returns the physical memory in bytes which is free on the node host.
+     *
+     * @return the free memory in bytes
+     */
+    public long getFreeMemory() {
+        return freeMemory;
+    }
+
+    /**
+     * Returns the memory in bytes reserved by the tasks running on the nodes of the host,
+     * see {@link #RESERVED_MEMORY_PROPERTY}.
+     *
+     * @return the reserved memory in bytes
+     */
+    public long getReservedMemory() {
+        return reservedMemory;
+    }
+
+    /**
+     * Returns the physical memory in bytes of the node host which is not reserved by a task.
+     *
+     * @return the unreserved memory in bytes
+     */
+    public long getUnreservedMemory() {
+        return totalMemory - reservedMemory;
+    }
+
+    /**
+     * Returns the size in bytes of the disk holding the temporary directory of the node.
+     *
+     * @return the total disk space in bytes
+     */
+    public long getTotalDisk() {
+        return totalDisk;
+    }
+
+    /**
+     * Returns the free space in bytes of the disk holding the temporary directory of the node.
+     *
+     * @return the free disk space in bytes
+     */
+    public long getFreeDisk() {
+        return freeDisk;
+    }
+
+    /**
+     * Returns the system load average for the last minute of the node host, negative if not available.
+     *
+     * @return the system load average
+     */
+    public double getSystemLoadAverage() {
+        return systemLoadAverage;
+    }
+
+    /**
+     * Returns the number of GPUs found on the node host, 0 if none.
+     *
+     * @return the number of GPUs
+     */
+    public int getGpus() {
+        return gpus;
+    }
+
+    @Override
+    public String toString() {
+        return cores + " cores, memory " + freeMemory + "/" + totalMemory + " bytes (" + reservedMemory +
+               " reserved), disk " + freeDisk + "/" + totalDisk + " bytes, load average " + systemLoadAverage +
+               ", " + gpus + " GPUs";
+    }
+}
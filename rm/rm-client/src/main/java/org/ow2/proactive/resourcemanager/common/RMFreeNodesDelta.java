@@ -0,0 +1,150 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.common;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * RMFreeNodesDelta describes how the set of nodes eligible for scheduling
+ * changed since a given revision of the resource manager.
+ * <p>
+ * A client keeps a local copy of the free nodes urls and asks the resource manager
+ * for the changes which occurred since the last revision it has seen, see
+ * {@link org.ow2.proactive.resourcemanager.frontend.ResourceManager#getFreeNodesDelta(String, long)}.
+ * When the resource manager cannot provide the changes (unknown journal, revision too old),
+ * the delta is a full snapshot and the local copy must be replaced by {@link #getAdded()}.
+ *
+ * @author The ProActive Team
+ */
+@PublicAPI
+public class RMFreeNodesDelta implements Serializable {
+
+    private final String journalId;
+
+    private final long revision;
+
+    private final boolean snapshot;
+
+    private final Set<String> added;
+
+    private final Set<String> removed;
+
+    public RMFreeNodesDelta(String journalId, long revision, boolean snapshot, Set<String> added,
+            Set<String> removed) {
+        this.journalId = journalId;
+        this.revision = revision;
+        this.snapshot = snapshot;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * Creates a full snapshot of the free nodes at the given revision.
+     */
+    public static RMFreeNodesDelta snapshot(String journalId, long revision, Set<String> freeNodes) {
+        return new RMFreeNodesDelta(journalId, revision, true, freeNodes, Collections.<String> emptySet());
+    }
+
+    /**
+     * Returns the identifier of the journal which produced this delta.
+     * Revisions are only comparable between deltas having the same journal identifier.
+     *
+     * @return the journal identifier
+     */
+    public String getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Returns the revision of the free nodes set once this delta is applied.
+     *
+     * @return the revision to give back on the next request
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Returns true if this delta is a full snapshot of the free nodes.
+     *
+     * @return true if the local copy must be replaced, false if it must be updated
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the urls of the nodes which became free (or all free nodes for a snapshot).
+     *
+     * @return the added free nodes urls
+     */
+    public Set<String> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the urls of the nodes which are no longer free.
+     *
+     * @return the removed free nodes urls
+     */
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns true if this delta does not change anything to an up-to-date local copy.
+     *
+     * @return true if there is nothing to apply
+     */
+    public boolean isEmpty() {
+        return !snapshot && added.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Applies this delta to a local copy of the free nodes urls.
+     *
+     * @param freeNodes the local copy to update
+     */
+    public void applyTo(Set<String> freeNodes) {
+        if (snapshot) {
+            freeNodes.clear();
+        } else {
+            freeNodes.removeAll(removed);
+        }
+        freeNodes.addAll(added);
+    }
+
+    @Override
+    public String toString() {
+        return "RMFreeNodesDelta[journal=" + journalId + ", revision=" + revision + ", snapshot=" + snapshot +
+               ", added=" + added.size() + ", removed=" + removed.size() + "]";
+    }
+}
@@ -28,6 +28,7 @@ package org.ow2.proactive.resourcemanager.common.util;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.management.Attribute;
@@ -49,6 +50,9 @@ import org.objectweb.proactive.core.util.wrapper.StringWrapper;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.authentication.UserData;
 import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.resourcemanager.common.NodeHeartbeat;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeSourceEvent;
 import org.ow2.proactive.resourcemanager.frontend.RMMonitoring;
@@ -175,6 +179,20 @@ public class RMProxyUserInterface extends RMListenerProxy implements ResourceMan
         return target.getState();
     }
 
+    /**
+     * @see org.ow2.proactive.resourcemanager.frontend.ResourceManager#getFreeNodesDelta(String, long)
+     */
+    public RMFreeNodesDelta getFreeNodesDelta(String journalId, long revision) {
+        return target.getFreeNodesDelta(journalId, revision);
+    }
+
+    /**
+     * @see org.ow2.proactive.resourcemanager.frontend.ResourceManager#getNodesResources()
+     */
+    public Map<String, NodeResources> getNodesResources() {
+        return target.getNodesResources();
+    }
+
     /**
      * @see org.ow2.proactive.resourcemanager.frontend.ResourceManager#getSupportedNodeSourceInfrastructures()
      */
@@ -212,6 +230,18 @@ public class RMProxyUserInterface extends RMListenerProxy implements ResourceMan
         return target.setNodesAvailable(nodeUrls);
     }
 
+    @ImmediateService
+    @Override
+    public Set<String> nodesHeartbeat(NodeHeartbeat heartbeat) {
+        return target.nodesHeartbeat(heartbeat);
+    }
+
+    @ImmediateService
+    @Override
+    public void setNodesResources(Set<String> nodeUrls, NodeResources resources) {
+        target.setNodesResources(nodeUrls, resources);
+    }
+
     /**
      * @see org.ow2.proactive.resourcemanager.frontend.ResourceManager#releaseNode(org.objectweb.proactive.core.node.Node)
      */
@@ -59,6 +59,15 @@ public enum PAResourceManagerProperties implements PACommonProperties {
     /** Ping frequency in ms used by node source for keeping a watch on handled nodes */
     RM_NODE_SOURCE_PING_FREQUENCY("pa.rm.node.source.ping.frequency", PropertyType.INTEGER, "45000"),
 
+    /**
+     * Suspicion (phi) above which a node pushing heartbeats is considered down.
+     * 8 means the node is declared down when there is less than one chance in 10^8 that its next heartbeat arrives
+     */
+    RM_NODE_HEARTBEAT_PHI_THRESHOLD("pa.rm.node.heartbeat.phi.threshold", PropertyType.INTEGER, "8"),
+
+    /** Frequency in ms at which node sources check the nodes pushing heartbeats */
+    RM_NODE_HEARTBEAT_CHECK_FREQUENCY("pa.rm.node.heartbeat.check.frequency", PropertyType.INTEGER, "5000"),
+
     /** Ping frequency used by resource manager to ping connected clients (in ms) */
     RM_CLIENT_PING_FREQUENCY("pa.rm.client.ping.frequency", PropertyType.INTEGER, "45000"),
 
@@ -168,18 +177,36 @@ public enum PAResourceManagerProperties implements PACommonProperties {
     /** Max number of threads in node source for parallel task execution */
     RM_SELECTION_MAX_THREAD_NUMBER("pa.rm.selection.maxthreadnumber", PropertyType.INTEGER, "50"),
 
+    /**
+     * Number of changes of the free nodes set kept in memory to answer incremental free nodes requests.
+     * A client which missed more changes than this receives a full snapshot of the free nodes.
+     */
+    RM_FREE_NODES_JOURNAL_SIZE("pa.rm.free.nodes.journal.size", PropertyType.INTEGER, "20000"),
+
     /** Max number of threads in node source for parallel task execution */
     RM_MONITORING_MAX_THREAD_NUMBER("pa.rm.monitoring.maxthreadnumber", PropertyType.INTEGER, "5"),
 
     /** Max number of threads in the core for cleaning nodes after computations */
     RM_CLEANING_MAX_THREAD_NUMBER("pa.rm.cleaning.maxthreadnumber", PropertyType.INTEGER, "5"),
 
+    /** Maximum time in ms to clean a node before it is marked down, 0 to wait indefinitely */
+    RM_CLEANING_TIMEOUT("pa.rm.cleaning.timeout", PropertyType.INTEGER, "60000"),
+
     /** Maximum node history period in seconds (Default: disabled) */
     RM_HISTORY_MAX_PERIOD("pa.rm.history.maxperiod", PropertyType.INTEGER),
 
     /** Frequency of node history removal (cron expression) */
     RM_HISTORY_REMOVAL_CRONPERIOD("pa.rm.history.removal.cronperiod", PropertyType.STRING, "*/10 * * * *"),
 
+    /**
+     * Delay in ms during which node history records are buffered before being written to the
+     * database in a single transaction, 0 to write each record synchronously
+     */
+    RM_HISTORY_FLUSH_DELAY("pa.rm.history.flush.delay", PropertyType.INTEGER, "500"),
+
+    /** Maximum number of node history records written to the database in one transaction */
+    RM_HISTORY_FLUSH_BATCH_SIZE("pa.rm.history.flush.batchsize", PropertyType.INTEGER, "500"),
+
     /** Max number of lines stored from the infrastructure processes output */
     RM_INFRASTRUCTURE_PROCESS_OUTPUT_MAX_LINES("pa.rm.infrastructure.process.output.maxlines", PropertyType.INTEGER, "2000"),
 
@@ -27,6 +27,7 @@ package org.ow2.proactive.resourcemanager.frontend;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.objectweb.proactive.annotation.PublicAPI;
@@ -35,6 +36,9 @@ import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
 import org.objectweb.proactive.core.util.wrapper.IntWrapper;
 import org.objectweb.proactive.core.util.wrapper.StringWrapper;
 import org.ow2.proactive.authentication.UserData;
+import org.ow2.proactive.resourcemanager.common.NodeHeartbeat;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.common.event.RMEvent;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeSourceEvent;
@@ -210,6 +214,30 @@ public interface ResourceManager {
      */
     Set<String> setNodesAvailable(Set<String> nodeUrls);
 
+    /**
+     * This method is called periodically by ProActive Nodes which push heartbeats
+     * instead of being pinged by their node source. It has the same effect as
+     * {@link #setNodesAvailable(Set)} and additionally lets the Resource Manager
+     * detect that the node is down when its heartbeats stop.
+     *
+     * @param heartbeat the URLs of the workers associated to the node that publishes it, and the node load.
+     *
+     * @return The set of worker node URLs that are unknown to the Resource Manager
+     * (i.e. have been removed by a user).
+     */
+    Set<String> nodesHeartbeat(NodeHeartbeat heartbeat);
+
+    /**
+     * This method is called periodically by ProActive Nodes to report the resources
+     * of their host, so that the Resource Manager can select nodes on them without
+     * running any code on the nodes. Nodes which push heartbeats report them with
+     * their heartbeats instead.
+     *
+     * @param nodeUrls the URLs of the workers associated to the node that publishes the update.
+     * @param resources the resources of the host of the node.
+     */
+    void setNodesResources(Set<String> nodeUrls, NodeResources resources);
+
     /**
      * Returns true if the resource manager is operational and a client is connected.
      *
@@ -226,6 +254,29 @@ public interface ResourceManager {
      */
     RMState getState();
 
+    /**
+     * Returns the changes of the set of free nodes since the given revision.
+     * Unlike {@link #getState()}, this method does not transfer all the nodes urls
+     * when only a few nodes changed, which makes it suitable for clients polling
+     * the free nodes frequently (e.g. the scheduling loop).
+     * <p>
+     * If the journal identifier does not match the one of the resource manager, or
+     * if the revision is too old to be found in its journal, a full snapshot is returned.
+     *
+     * @param journalId the journal identifier of the last delta received, or null if none
+     * @param revision the revision of the last delta received
+     * @return the changes to apply to the local copy of the free nodes urls
+     */
+    RMFreeNodesDelta getFreeNodesDelta(String journalId, long revision);
+
+    /**
+     * Returns the last resources reported by the nodes, see {@link NodeResources}.
+     * Nodes which do not report their resources are not included.
+     *
+     * @return the resources of the nodes hosts, by node url
+     */
+    Map<String, NodeResources> getNodesResources();
+
     /**
      * Returns the monitoring interface to manager listeners of the resource manager.
      *
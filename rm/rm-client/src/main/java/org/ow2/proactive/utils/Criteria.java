@@ -76,6 +76,9 @@ public class Criteria implements Serializable {
     // optional set of nodes urls which are acceptable
     private Set<String> setOfAcceptableNodesUrls;
 
+    // optional minimal resources of the nodes hosts
+    private ResourceRequirements resourceRequirements;
+
     /**
      * Creates criteria instance
      * 
@@ -217,4 +220,20 @@ public class Criteria implements Serializable {
         this.nodeAccessToken = nodeAccessToken;
     }
 
+    /**
+     * @return the minimal resources of the hosts of the resulting nodes, or null if not specified
+     */
+    public ResourceRequirements getResourceRequirements() {
+        return resourceRequirements;
+    }
+
+    /**
+     * Sets the minimal resources of the hosts of the resulting nodes. They are checked against
+     * the last resources reported by the nodes, see {@link ResourceRequirements}.
+     * Nodes which do not report their resources are only selected after all the nodes which fit.
+     */
+    public void setResourceRequirements(ResourceRequirements resourceRequirements) {
+        this.resourceRequirements = resourceRequirements;
+    }
+
 }
@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils;
+
+import java.io.Serializable;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
+
+
+/**
+ * Minimal resources that the hosts of the selected nodes must provide, see {@link Criteria#setResourceRequirements}.
+ * <p>
+ * The requirements are checked against the {@link NodeResources} last reported by each node, so they do not
+ * need any selection script. A requirement left to its default value is not checked.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@PublicAPI
+public class ResourceRequirements implements Serializable {
+
+    private int cores;
+
+    private long memory;
+
+    private long disk;
+
+    private int gpus;
+
+    private double maxLoadPerCore = -1;
+
+    /**
+     * @return the minimal number of cores of the host
+     */
+    public int getCores() {
+        return cores;
+    }
+
+    /**
+     * Sets the minimal number of cores of the host.
+     */
+    public void setCores(int cores) {
+        this.cores = cores;
+    }
+
+    /**
+     * @return the minimal memory in bytes of the host which is neither used nor reserved by a task
+     */
+    public long getMemory() {
+        return memory;
+    }
+
+    /**
+     * Sets the minimal memory in bytes of the host which is neither used nor reserved by a task.
+     */
+    public void setMemory(long memory) {
+        this.memory = memory;
+    }
+
+    /**
+     * @return the minimal free disk space in bytes of the host
+     */
+    public long getDisk() {
+        return disk;
+    }
+
+    /**
+     * Sets the minimal free disk space in bytes of the host.
+     */
+    public void setDisk(long disk) {
+        this.disk = disk;
+    }
+
+    /**
+     * @return the minimal number of GPUs of the host
+     */
+    public int getGpus() {
+        return gpus;
+    }
+
+    /**
+     * Sets the minimal number of GPUs of the host.
+     */
+    public void setGpus(int gpus) {
+        this.gpus = gpus;
+    }
+
+    /**
+     * @return the maximal system load average per core of the host, negative if not checked
+     */
+    public double getMaxLoadPerCore() {
+        return maxLoadPerCore;
+    }
+
+    /**
+     * Sets the maximal system load average per core of the host, negative to not check it.
+     */
+    public void setMaxLoadPerCore(double maxLoadPerCore) {
+        this.maxLoadPerCore = maxLoadPerCore;
+    }
+
+    /**
+     * Returns the memory in bytes that a host would have left after providing the required memory,
+     * the smaller it is the tighter the host fits these requirements.
+     *
+     * @param resources the resources of the host
+     * @return the memory left in bytes
+     */
+    public long getMemoryLeft(NodeResources resources) {
+        return Math.min(resources.getFreeMemory(), resources.getUnreservedMemory()) - memory;
+    }
+
+    /**
+     * Checks whether the given resources satisfy these requirements.
+     *
+     * @param resources the resources of the host
+     * @return true if the host provides the required resources
+     */
+    public boolean isSatisfiedBy(NodeResources resources) {
+        if (resources.getCores() < cores || resources.getGpus() < gpus || resources.getFreeDisk() < disk) {
+            return false;
+        }
+        if (getMemoryLeft(resources) < 0) {
+            return false;
+        }
+        return maxLoadPerCore < 0 || resources.getSystemLoadAverage() < 0 ||
+               resources.getSystemLoadAverage() / Math.max(resources.getCores(), 1) <= maxLoadPerCore;
+    }
+
+    @Override
+    public String toString() {
+        return "cores " + cores + ", memory " + memory + " bytes, disk " + disk + " bytes, gpus " + gpus +
+               ", max load per core " + maxLoadPerCore;
+    }
+}
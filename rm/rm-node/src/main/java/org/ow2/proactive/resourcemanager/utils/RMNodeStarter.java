@@ -34,6 +34,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -74,6 +75,7 @@ import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
 import org.objectweb.proactive.core.node.NodeFactory;
+import org.objectweb.proactive.core.runtime.LocalNode;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
 import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
 import org.objectweb.proactive.extensions.dataspaces.exceptions.NotConfiguredException;
@@ -82,6 +84,8 @@ import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.jmx.PermissionChecker;
 import org.ow2.proactive.jmx.naming.JMXTransportProtocol;
 import org.ow2.proactive.resourcemanager.authentication.RMAuthentication;
+import org.ow2.proactive.resourcemanager.common.NodeHeartbeat;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.RMConstants;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.exception.AddingNodesException;
@@ -95,6 +99,7 @@ import org.ow2.proactive.utils.Tools;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
+import com.sun.management.OperatingSystemMXBean;
 
 
 /**
@@ -170,12 +175,35 @@ public class RMNodeStarter {
      */
     private static long PING_DELAY_IN_MS = 30000;
 
+    /** Directory listing the GPUs of the host when the NVIDIA driver is installed */
+    private static final String NVIDIA_GPUS_DIRECTORY = "/proc/driver/nvidia/gpus";
+
+    private static final long GIGABYTE = 1024L * 1024L * 1024L;
+
     /** to inform that the user supplied a value from the command line for the ping */
     private static boolean PING_DELAY_IN_MS_USER_SUPPLIED = false;
 
     /** Name of the java property to set the node -> rm ping frequency value */
     public final static String PING_DELAY_PROP_NAME = "proactive.node.ping.delay";
 
+    /**
+     * Name of the java property to make the node report its availability with heartbeats,
+     * whose regularity is watched by the RM instead of pinging the node
+     */
+    public final static String HEARTBEAT_PROP_NAME = "proactive.node.heartbeat";
+
+    /**
+     * Name of the java property to set the period in ms at which the node reports the resources
+     * of its host to the RM, whether it pushes heartbeats or not
+     */
+    public final static String RESOURCES_REFRESH_PERIOD_PROP_NAME = "proactive.node.resources.refresh.period";
+
+    /** Default period in ms at which the node reports the resources of its host */
+    private static final long DEFAULT_RESOURCES_REFRESH_PERIOD_IN_MS = 60000;
+
+    /** Time of the last report of the resources of the host, 0 if they were never reported */
+    private long lastResourcesReportTime = 0;
+
     /** The number of attempts to add the local node to the RM before quitting */
     private static int NB_OF_ADD_NODE_ATTEMPTS = 10;
 
@@ -582,6 +610,8 @@ public class RMNodeStarter {
         try {
             // trying to reconnect to the resource manager
             RMAuthentication auth = RMConnection.waitAndJoin(rmURL, WAIT_ON_JOIN_TIMEOUT_IN_MS);
+            // a restarted resource manager does not know the resources of the host yet
+            lastResourcesReportTime = 0;
             return auth.login(credentials);
         } catch (Exception ex) {
             logger.error(ex.getMessage(), ex);
@@ -614,8 +644,26 @@ public class RMNodeStarter {
             throw new NotConnectedException("No connection to RM");
         }
 
-        Set<String> unknownNodeUrls = PAFuture.getFutureValue(rm.setNodesAvailable(ImmutableSet.copyOf(nodes.keySet())),
-                                                              nodeAvailabilityReportTimeoutDelay);
+        NodeResources resources = null;
+        long now = System.currentTimeMillis();
+        if (now - lastResourcesReportTime >= Long.getLong(RESOURCES_REFRESH_PERIOD_PROP_NAME,
+                                                          DEFAULT_RESOURCES_REFRESH_PERIOD_IN_MS)) {
+            resources = createResources();
+            lastResourcesReportTime = now;
+        }
+
+        Set<String> unknownNodeUrls;
+        if (Boolean.getBoolean(HEARTBEAT_PROP_NAME)) {
+            unknownNodeUrls = PAFuture.getFutureValue(rm.nodesHeartbeat(createHeartbeat(nodes, resources)),
+                                                      nodeAvailabilityReportTimeoutDelay);
+        } else {
+            Set<String> nodeUrls = ImmutableSet.copyOf(nodes.keySet());
+            unknownNodeUrls = PAFuture.getFutureValue(rm.setNodesAvailable(nodeUrls),
+                                                      nodeAvailabilityReportTimeoutDelay);
+            if (resources != null) {
+                rm.setNodesResources(nodeUrls, resources);
+            }
+        }
 
         for (String unknownNodeUrl : unknownNodeUrls) {
             killWorkerNodeIfRemovedByUser(nodes, unknownNodeUrl);
@@ -630,6 +678,56 @@ public class RMNodeStarter {
         return nodeCount > 0;
     }
 
+    private NodeHeartbeat createHeartbeat(Map<String, Node> nodes, NodeResources resources) {
+        Runtime runtime = Runtime.getRuntime();
+        return new NodeHeartbeat(ImmutableSet.copyOf(nodes.keySet()),
+                                 PING_DELAY_IN_MS,
+                                 ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage(),
+                                 runtime.availableProcessors(),
+                                 runtime.totalMemory() - runtime.freeMemory(),
+                                 runtime.maxMemory(),
+                                 resources);
+    }
+
+    /**
+     * Measures the resources of the host, so that the resource manager can check them without
+     * running any code on this node.
+     */
+    private NodeResources createResources() {
+        java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        long totalMemory = 0;
+        long freeMemory = 0;
+        if (bean instanceof OperatingSystemMXBean) {
+            totalMemory = ((OperatingSystemMXBean) bean).getTotalPhysicalMemorySize();
+            freeMemory = ((OperatingSystemMXBean) bean).getFreePhysicalMemorySize();
+        }
+
+        double reservedMemoryInGB = 0;
+        for (LocalNode localNode : ProActiveRuntimeImpl.getProActiveRuntime().getLocalNodes()) {
+            String reservedMemory = localNode.getProperty(NodeResources.RESERVED_MEMORY_PROPERTY);
+            if (reservedMemory != null) {
+                try {
+                    reservedMemoryInGB += Double.parseDouble(reservedMemory);
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring invalid memory reservation " + reservedMemory);
+                }
+            }
+        }
+
+        File tmpDir = new File(System.getProperty("java.io.tmpdir"));
+        File[] gpus = new File(NVIDIA_GPUS_DIRECTORY).listFiles();
+
+        return new NodeResources(System.currentTimeMillis(),
+                                 bean.getAvailableProcessors(),
+                                 totalMemory,
+                                 freeMemory,
+                                 (long) (reservedMemoryInGB * GIGABYTE),
+                                 tmpDir.getTotalSpace(),
+                                 tmpDir.getUsableSpace(),
+                                 bean.getSystemLoadAverage(),
+                                 gpus != null ? gpus.length : 0);
+    }
+
     private void killWorkerNodeIfRemovedByUser(Map<String, Node> nodes, String unknownNodeUrl) {
         Node node = nodes.get(unknownNodeUrl);
 
@@ -41,6 +41,12 @@ public class NodeCleaner implements Callable<Boolean> {
 
     private RMNode rmnode;
 
+    /** time at which the cleaning started, 0 while waiting for a thread */
+    private volatile long startTime;
+
+    /** time at which the cleaning ended, 0 while running */
+    private volatile long endTime;
+
     /**
      * Construct the new instance of the class
      *
@@ -55,6 +61,7 @@ public class NodeCleaner implements Callable<Boolean> {
      * @return true if successfully cleaned, false in case of any exception (node will be marked as down in this case)
      */
     public Boolean call() throws Exception {
+        startTime = System.currentTimeMillis();
         // killing all active objects on the node
         try {
             rmnode.clean();
@@ -63,8 +70,31 @@ public class NodeCleaner implements Callable<Boolean> {
             logger.warn("Checking if the node " + rmnode.getNodeURL() + " is alive");
             rmnode.getNodeSource().pingNode(rmnode.getNode());
             return false;
+        } finally {
+            endTime = System.currentTimeMillis();
         }
 
         return true;
     }
+
+    RMNode getNode() {
+        return rmnode;
+    }
+
+    /**
+     * @return true if the cleaning started more than timeout ms ago and is still running
+     */
+    boolean isTimedOut(long now, long timeout) {
+        return startTime != 0 && endTime == 0 && now - startTime > timeout;
+    }
+
+    /**
+     * @return the time spent cleaning the node in ms, up to now if the cleaning did not end
+     */
+    long getCleaningTime() {
+        if (startTime == 0) {
+            return 0;
+        }
+        return (endTime != 0 ? endTime : System.currentTimeMillis()) - startTime;
+    }
 }
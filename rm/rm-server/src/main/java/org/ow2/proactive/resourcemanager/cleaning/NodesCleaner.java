@@ -25,14 +25,18 @@
  */
 package org.ow2.proactive.resourcemanager.cleaning;
 
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.Body;
@@ -55,11 +59,17 @@ public class NodesCleaner implements RunActive {
     /** class' logger */
     private static final Logger logger = Logger.getLogger(NodesCleaner.class);
 
+    /** Maximum period in ms between two checks of the cleanings which timed out */
+    private static final long TIMEOUT_CHECK_PERIOD = 1000;
+
     private ExecutorService scriptExecutorThreadPool;
 
     /** RMCore reference to be able to set nodes free after the cleaning procedure */
     private RMCore rmcore;
 
+    /** Maximum time in ms to clean a node, 0 to wait indefinitely */
+    private long cleaningTimeout;
+
     /** PA Constructor */
     public NodesCleaner() {
     }
@@ -67,57 +77,107 @@ public class NodesCleaner implements RunActive {
     public NodesCleaner(RMCore rmcore) {
         this.rmcore = rmcore;
         this.scriptExecutorThreadPool = Executors.newFixedThreadPool(PAResourceManagerProperties.RM_CLEANING_MAX_THREAD_NUMBER.getValueAsInt());
+        this.cleaningTimeout = PAResourceManagerProperties.RM_CLEANING_TIMEOUT.getValueAsInt();
     }
 
     /**
      * Cleans nodes in parallel for the nodes specified.
+     * Each node is released as soon as it is cleaned, without waiting for the other ones.
      *
      * @param nodes to be cleaned
      * @return true if all the nodes were freed, false if error occurs on one of the node (it will be marked as down in this case)
      */
     public BooleanWrapper cleanAndRelease(List<RMNode> nodes) {
-        List<Callable<Boolean>> cleaners = new LinkedList<>();
+        long startTime = System.currentTimeMillis();
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(scriptExecutorThreadPool);
+        Map<Future<Boolean>, NodeCleaner> cleaners = new HashMap<>(nodes.size());
         for (RMNode node : nodes) {
             logger.debug("Cleaning the node " + node.getNodeURL());
-            cleaners.add(new NodeCleaner(node));
+            NodeCleaner cleaner = new NodeCleaner(node);
+            cleaners.put(completionService.submit(cleaner), cleaner);
         }
 
+        List<BooleanWrapper> releases = new ArrayList<>(nodes.size());
+        boolean allReleased = true;
+        long maxCleaningTime = 0;
         try {
-            Collection<Future<Boolean>> cleanNodes = scriptExecutorThreadPool.invokeAll(cleaners);
-
-            int index = 0;
-            for (Future<Boolean> cleanNode : cleanNodes) {
-                RMNode node = nodes.get(index);
-
-                if (!cleanNode.isCancelled()) {
-                    Boolean isClean = null;
-                    try {
-                        isClean = cleanNode.get();
-                        if (!isClean.booleanValue()) {
-                            logger.warn("Cannot clean the node " + node.getNodeURL());
-                            rmcore.setDownNode(node.getNodeURL());
-                        } else {
-                            logger.debug("The node " + node.getNodeURL() + " has been successfully cleaned");
-                        }
-                    } catch (ExecutionException e) {
-                        logger.warn("Cannot clean the node " + node.getNodeURL(), e);
-                        rmcore.setDownNode(node.getNodeURL());
+            while (!cleaners.isEmpty()) {
+                Future<Boolean> cleanNode = nextCleanedNode(completionService);
+                if (cleanNode != null) {
+                    NodeCleaner cleaner = cleaners.remove(cleanNode);
+                    maxCleaningTime = Math.max(maxCleaningTime, cleaner.getCleaningTime());
+                    if (isClean(cleaner, cleanNode)) {
+                        releases.add(rmcore.setFreeNodes(Collections.singletonList(cleaner.getNode())));
+                    } else {
+                        rmcore.setDownNode(cleaner.getNode().getNodeURL());
+                        allReleased = false;
                     }
-                } else {
-                    logger.warn("Cannot clean the node " + node.getNodeURL());
-                    rmcore.setDownNode(node.getNodeURL());
                 }
-                index++;
+                cancelTimedOutCleaners(cleaners);
             }
-
-            // if we had any error while cleaning a node, this node would have been already marked as down
-            // in this case rmcore.setFreeNodes() will return false
-            return rmcore.setFreeNodes(nodes);
         } catch (InterruptedException e) {
             logger.error("", e);
+            for (Future<Boolean> cleanNode : cleaners.keySet()) {
+                cleanNode.cancel(true);
+            }
+            return new BooleanWrapper(false);
         }
 
-        return new BooleanWrapper(false);
+        if (logger.isDebugEnabled()) {
+            logger.debug(nodes.size() + " nodes cleaned in " + (System.currentTimeMillis() - startTime) +
+                         " ms, the longest cleaning took " + maxCleaningTime + " ms");
+        }
+
+        // a node which could not be freed is reported once all releases are done
+        for (BooleanWrapper released : releases) {
+            allReleased &= released.getBooleanValue();
+        }
+        return new BooleanWrapper(allReleased);
+    }
+
+    private Future<Boolean> nextCleanedNode(CompletionService<Boolean> completionService)
+            throws InterruptedException {
+        if (cleaningTimeout > 0) {
+            return completionService.poll(Math.min(cleaningTimeout, TIMEOUT_CHECK_PERIOD), TimeUnit.MILLISECONDS);
+        } else {
+            return completionService.take();
+        }
+    }
+
+    private boolean isClean(NodeCleaner cleaner, Future<Boolean> cleanNode) throws InterruptedException {
+        RMNode node = cleaner.getNode();
+        if (cleanNode.isCancelled()) {
+            logger.warn("Cannot clean the node " + node.getNodeURL() + " within " + cleaningTimeout + " ms");
+            return false;
+        }
+        try {
+            if (cleanNode.get()) {
+                logger.debug("The node " + node.getNodeURL() + " has been successfully cleaned in " +
+                             cleaner.getCleaningTime() + " ms");
+                return true;
+            } else {
+                logger.warn("Cannot clean the node " + node.getNodeURL());
+                return false;
+            }
+        } catch (ExecutionException e) {
+            logger.warn("Cannot clean the node " + node.getNodeURL(), e);
+            return false;
+        }
+    }
+
+    /*
+     * A cancelled cleaning is handed back by the completion service, its node is then marked as down
+     */
+    private void cancelTimedOutCleaners(Map<Future<Boolean>, NodeCleaner> cleaners) {
+        if (cleaningTimeout <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Future<Boolean>, NodeCleaner> cleaner : cleaners.entrySet()) {
+            if (cleaner.getValue().isTimedOut(now, cleaningTimeout)) {
+                cleaner.getKey().cancel(true);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,165 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
+
+
+/**
+ * Keeps a bounded history of the changes made to the set of nodes eligible for scheduling.
+ * <p>
+ * Each time a node enters or leaves the eligible nodes, a new revision is recorded.
+ * Clients keeping a local copy of the free nodes give back the last revision they have seen
+ * and only receive the nodes urls which changed since then, instead of the whole set
+ * of free nodes on every request.
+ * <p>
+ * When the requested revision is no longer in the history, or was produced by another
+ * journal (e.g. before a resource manager restart), no delta can be computed and the
+ * caller must send a full snapshot.
+ *
+ * @author The ProActive Team
+ */
+public class FreeNodesJournal {
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final int capacity;
+
+    private final ArrayDeque<Change> changes;
+
+    private long revision = 0;
+
+    public FreeNodesJournal(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.changes = new ArrayDeque<>(Math.min(this.capacity, 1024));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Records that a node became eligible for scheduling.
+     */
+    public synchronized void nodeAdded(String nodeUrl) {
+        record(nodeUrl, true);
+    }
+
+    /**
+     * Records that a node is no longer eligible for scheduling.
+     */
+    public synchronized void nodeRemoved(String nodeUrl) {
+        record(nodeUrl, false);
+    }
+
+    private void record(String nodeUrl, boolean added) {
+        revision++;
+        if (capacity == 0) {
+            return;
+        }
+        if (changes.size() == capacity) {
+            changes.removeFirst();
+        }
+        changes.addLast(new Change(revision, nodeUrl, added));
+    }
+
+    /**
+     * Computes the changes which occurred after the given revision.
+     * Only the last change of each node is kept, so the delta size is bounded
+     * by the number of distinct nodes which changed.
+     *
+     * @param journalId the journal identifier known by the client
+     * @param since the last revision known by the client
+     * @return the delta to apply, or null if a full snapshot is required
+     */
+    public synchronized RMFreeNodesDelta getDelta(String journalId, long since) {
+        if (!id.equals(journalId) || since > revision) {
+            return null;
+        }
+        if (since == revision) {
+            return new RMFreeNodesDelta(id,
+                                        revision,
+                                        false,
+                                        Collections.<String> emptySet(),
+                                        Collections.<String> emptySet());
+        }
+        if (changes.isEmpty() || changes.peekFirst().revision > since + 1) {
+            // the history does not go back far enough
+            return null;
+        }
+
+        Map<String, Boolean> lastChanges = new LinkedHashMap<>();
+        Iterator<Change> iterator = changes.descendingIterator();
+        while (iterator.hasNext()) {
+            Change change = iterator.next();
+            if (change.revision <= since) {
+                break;
+            }
+            if (!lastChanges.containsKey(change.nodeUrl)) {
+                lastChanges.put(change.nodeUrl, change.added);
+            }
+        }
+
+        Set<String> added = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        for (Map.Entry<String, Boolean> entry : lastChanges.entrySet()) {
+            if (entry.getValue()) {
+                added.add(entry.getKey());
+            } else {
+                removed.add(entry.getKey());
+            }
+        }
+        return new RMFreeNodesDelta(id, revision, false, added, removed);
+    }
+
+    private static final class Change {
+
+        private final long revision;
+
+        private final String nodeUrl;
+
+        private final boolean added;
+
+        private Change(long revision, String nodeUrl, boolean added) {
+            this.revision = revision;
+            this.nodeUrl = nodeUrl;
+            this.added = added;
+        }
+    }
+}
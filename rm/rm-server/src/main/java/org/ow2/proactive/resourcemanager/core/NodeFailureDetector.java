@@ -0,0 +1,206 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ow2.proactive.resourcemanager.common.NodeHeartbeat;
+
+
+/**
+ * NodeFailureDetector judges the liveness of the nodes which push heartbeats
+ * with a phi accrual failure detector.
+ * <p>
+ * Instead of a fixed timeout, the detector keeps the recent intervals between the heartbeats of each
+ * node and computes phi, the suspicion that the node is down given the time elapsed since its last heartbeat.
+ * A phi of 1 means a 10% chance that the next heartbeat would still arrive, 2 a 1% chance, and so on.
+ * The detector adapts to the actual heartbeat regularity of each node, network and host included.
+ * <p>
+ * This class is thread-safe, heartbeats are recorded by the resource manager core while
+ * node sources check their nodes.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class NodeFailureDetector {
+
+    /** Number of intervals between heartbeats kept for each node */
+    static final int WINDOW_SIZE = 100;
+
+    private final double threshold;
+
+    private final ConcurrentMap<String, HeartbeatHistory> histories = new ConcurrentHashMap<>();
+
+    /**
+     * @param threshold phi above which a node is suspected to be down
+     */
+    public NodeFailureDetector(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Records a heartbeat received now for all the workers of a node.
+     */
+    public void heartbeat(NodeHeartbeat heartbeat) {
+        long now = System.currentTimeMillis();
+        for (String nodeUrl : heartbeat.getNodeUrls()) {
+            heartbeat(nodeUrl, heartbeat, now);
+        }
+    }
+
+    void heartbeat(String nodeUrl, NodeHeartbeat heartbeat, long now) {
+        HeartbeatHistory history = histories.get(nodeUrl);
+        if (history == null) {
+            history = histories.putIfAbsent(nodeUrl, new HeartbeatHistory(heartbeat, now));
+            if (history == null) {
+                return;
+            }
+        }
+        history.add(heartbeat, now);
+    }
+
+    /**
+     * @return true if the node pushes heartbeats, its liveness is then judged by this detector
+     */
+    public boolean isMonitored(String nodeUrl) {
+        return histories.containsKey(nodeUrl);
+    }
+
+    /**
+     * @return the suspicion that the node is down at the given time, 0 if the node is not monitored
+     */
+    public double phi(String nodeUrl, long now) {
+        HeartbeatHistory history = histories.get(nodeUrl);
+        if (history == null) {
+            return 0;
+        }
+        return history.phi(now);
+    }
+
+    /**
+     * @return true if the node is monitored and suspected to be down at the given time
+     */
+    public boolean isSuspected(String nodeUrl, long now) {
+        return phi(nodeUrl, now) > threshold;
+    }
+
+    /**
+     * @return the last heartbeat received from the node, null if the node is not monitored
+     */
+    public NodeHeartbeat getLastHeartbeat(String nodeUrl) {
+        HeartbeatHistory history = histories.get(nodeUrl);
+        if (history == null) {
+            return null;
+        }
+        return history.getLastHeartbeat();
+    }
+
+    /**
+     * Stops monitoring the node, its history starts over with its next heartbeat.
+     */
+    public void remove(String nodeUrl) {
+        histories.remove(nodeUrl);
+    }
+
+    /**
+     * Computes phi for a normal distribution of the intervals, with the logistic
+     * approximation of its cumulative distribution function.
+     */
+    static double phi(long timeSinceLastHeartbeat, double mean, double standardDeviation) {
+        double y = (timeSinceLastHeartbeat - mean) / standardDeviation;
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (timeSinceLastHeartbeat > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+
+    private static class HeartbeatHistory {
+
+        private final long[] intervals = new long[WINDOW_SIZE];
+
+        private final double minStandardDeviation;
+
+        private int count;
+
+        private int next;
+
+        private long sum;
+
+        private long squaresSum;
+
+        private long lastArrival;
+
+        private NodeHeartbeat lastHeartbeat;
+
+        /*
+         * The first heartbeat only tells the period the node declares, which gives the
+         * first estimate of the intervals until actual ones are measured
+         */
+        HeartbeatHistory(NodeHeartbeat firstHeartbeat, long firstArrival) {
+            long period = firstHeartbeat.getPeriod();
+            this.minStandardDeviation = Math.max(period / 4.0, 1);
+            this.lastArrival = firstArrival;
+            this.lastHeartbeat = firstHeartbeat;
+            long deviation = (long) minStandardDeviation;
+            addInterval(period - deviation);
+            addInterval(period + deviation);
+        }
+
+        synchronized void add(NodeHeartbeat heartbeat, long arrival) {
+            addInterval(arrival - lastArrival);
+            lastArrival = arrival;
+            lastHeartbeat = heartbeat;
+        }
+
+        synchronized NodeHeartbeat getLastHeartbeat() {
+            return lastHeartbeat;
+        }
+
+        synchronized double phi(long now) {
+            double mean = (double) sum / count;
+            double variance = (double) squaresSum / count - mean * mean;
+            double standardDeviation = Math.max(Math.sqrt(Math.max(variance, 0)), minStandardDeviation);
+            return NodeFailureDetector.phi(now - lastArrival, mean, standardDeviation);
+        }
+
+        private void addInterval(long interval) {
+            if (count == intervals.length) {
+                long removed = intervals[next];
+                sum -= removed;
+                squaresSum -= removed * removed;
+            } else {
+                count++;
+            }
+            intervals[next] = interval;
+            next = (next + 1) % intervals.length;
+            sum += interval;
+            squaresSum += interval * interval;
+        }
+    }
+}
@@ -74,8 +74,11 @@ import org.ow2.proactive.policy.ClientsPolicy;
 import org.ow2.proactive.resourcemanager.authentication.Client;
 import org.ow2.proactive.resourcemanager.authentication.RMAuthenticationImpl;
 import org.ow2.proactive.resourcemanager.cleaning.NodesCleaner;
+import org.ow2.proactive.resourcemanager.common.NodeHeartbeat;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.NodeState;
 import org.ow2.proactive.resourcemanager.common.RMConstants;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.common.RMStateNodeUrls;
 import org.ow2.proactive.resourcemanager.common.event.RMEvent;
@@ -233,6 +236,12 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
      **/
     private List<RMNode> eligibleNodes;
 
+    /**
+     * History of the changes made to {@link #eligibleNodes}, used to send
+     * only the free nodes which changed to clients polling the free nodes.
+     */
+    private FreeNodesJournal freeNodesJournal;
+
     private SelectionManager selectionManager;
 
     /**
@@ -262,6 +271,12 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
      */
     public static TopologyManager topologyManager;
 
+    /**
+     * Liveness of the nodes pushing heartbeats
+     */
+    public static final NodeFailureDetector nodeFailureDetector = new NodeFailureDetector(
+                                                                                          PAResourceManagerProperties.RM_NODE_HEARTBEAT_PHI_THRESHOLD.getValueAsInt());
+
     /**
      * Client pinger
      */
@@ -308,6 +323,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         brokenNodeSources = new ArrayList<>();
         allNodes = new HashMap<>();
         eligibleNodes = Collections.synchronizedList(new ArrayList<RMNode>());
+        freeNodesJournal = new FreeNodesJournal(PAResourceManagerProperties.RM_FREE_NODES_JOURNAL_SIZE.getValueAsInt());
 
         this.accountsManager = new RMAccountsManager();
         this.jmxHelper = new RMJMXHelper(this.accountsManager);
@@ -323,6 +339,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         this.monitoring = monitoring;
         this.selectionManager = manager;
         this.eligibleNodes = freeNodesList;
+        this.freeNodesJournal = new FreeNodesJournal(PAResourceManagerProperties.RM_FREE_NODES_JOURNAL_SIZE.getValueAsInt());
         this.dbManager = newDataBaseManager;
     }
 
@@ -533,7 +550,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             // we must add the recreated node to the eligible data
             // structure if we want it to be usable by a task
             if (isEligible(rmnode)) {
-                eligibleNodes.add(rmnode);
+                addEligibleNode(rmnode);
                 totalEligibleRecoveredNodes++;
             }
         }
@@ -695,7 +712,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         rmNode.setFree();
         // an eligible node is a node that is free and not locked
         if (!rmNode.isLocked()) {
-            this.eligibleNodes.add(rmNode);
+            addEligibleNode(rmNode);
         }
 
         persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
@@ -773,9 +790,10 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         logger.debug("Removing node " + rmnode.getNodeURL() + " provided by " + rmnode.getProvider());
         // removing the node from the HM list
         if (rmnode.isFree()) {
-            eligibleNodes.remove(rmnode);
+            removeEligibleNode(rmnode);
         }
         this.allNodes.remove(rmnode.getNodeURL());
+        nodeFailureDetector.remove(rmnode.getNodeURL());
 
         // persist node removal
         dbManager.removeNode(rmnode);
@@ -1239,6 +1257,47 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         return nodeUrlsNotKnownByTheRM.build();
     }
 
+    /**
+     * Records the heartbeat before handling it as {@link #setNodesAvailable(Set)}, so that
+     * its arrival time is not delayed by the requests queued in the core.
+     *
+     * @param heartbeat the URLs of the workers associated to the node that publishes it, and the node load.
+     * @return The set of worker node URLs that are unknown to the Resource Manager
+     * (i.e. have been removed by a user).
+     */
+    @ImmediateService
+    @Override
+    public Set<String> nodesHeartbeat(NodeHeartbeat heartbeat) {
+        nodeFailureDetector.heartbeat(heartbeat);
+        Set<String> nodeUrlsNotKnownByTheRM = setNodesAvailable(heartbeat.getNodeUrls());
+        for (String nodeUrl : nodeUrlsNotKnownByTheRM) {
+            nodeFailureDetector.remove(nodeUrl);
+        }
+        if (heartbeat.getResources() != null) {
+            setNodesResources(heartbeat.getNodeUrls(), heartbeat.getResources());
+        }
+        return nodeUrlsNotKnownByTheRM;
+    }
+
+    /**
+     * Attaches the resources reported by a node to all the workers it hosts.
+     *
+     * @param nodeUrls the URLs of the workers associated to the node that publishes the update.
+     * @param resources the resources of the host of the node.
+     */
+    @ImmediateService
+    @Override
+    public void setNodesResources(Set<String> nodeUrls, NodeResources resources) {
+        // stamped with the clock of the RM, the clock of the node host may differ
+        NodeResources received = resources.receivedAt(System.currentTimeMillis());
+        for (String nodeUrl : nodeUrls) {
+            RMNode node = this.allNodes.get(nodeUrl);
+            if (node != null) {
+                node.setResources(received);
+            }
+        }
+    }
+
     @VisibleForTesting
     void restoreNodeState(String nodeUrl, RMNode node) {
         NodeState previousNodeState = node.getLastEvent().getPreviousNodeState();
@@ -1752,7 +1811,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         // Get the previous state of the node needed for the event
         final NodeState previousNodeState = rmNode.getState();
         rmNode.setBusy(owner);
-        this.eligibleNodes.remove(rmNode);
+        removeEligibleNode(rmNode);
 
         persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
 
@@ -1776,7 +1835,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             // Get the previous state of the node needed for the event
             final NodeState previousNodeState = rmNode.getState();
             if (rmNode.isFree()) {
-                eligibleNodes.remove(rmNode);
+                removeEligibleNode(rmNode);
             }
 
             rmNode.setDown();
@@ -1819,6 +1878,17 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         return eligibleNodes;
     }
 
+    private void addEligibleNode(RMNode rmNode) {
+        eligibleNodes.add(rmNode);
+        freeNodesJournal.nodeAdded(rmNode.getNodeURL());
+    }
+
+    private void removeEligibleNode(RMNode rmNode) {
+        if (eligibleNodes.remove(rmNode)) {
+            freeNodesJournal.nodeRemoved(rmNode.getNodeURL());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1900,6 +1970,33 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         return state;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Map<String, NodeResources> getNodesResources() {
+        Map<String, NodeResources> nodesResources = new HashMap<>();
+        for (RMNode node : allNodes.values()) {
+            NodeResources resources = node.getResources();
+            if (resources != null) {
+                nodesResources.put(node.getNodeURL(), resources);
+            }
+        }
+        return nodesResources;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public RMFreeNodesDelta getFreeNodesDelta(String journalId, long revision) {
+        RMFreeNodesDelta delta = freeNodesJournal.getDelta(journalId, revision);
+        if (delta == null) {
+            delta = RMFreeNodesDelta.snapshot(freeNodesJournal.getId(),
+                                              freeNodesJournal.getRevision(),
+                                              nodesListToUrlsSet(eligibleNodes));
+        }
+        return delta;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2134,7 +2231,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             // can throw a security exception if the lockInitiator is not an admin
             this.checkNodeAdminPermission(rmNode, lockInitiator);
             rmNode.lock(lockInitiator);
-            this.eligibleNodes.remove(rmNode);
+            removeEligibleNode(rmNode);
         } catch (SecurityException e) {
             logger.warn("Lock node lockInitiator is not admin", e);
             return false;
@@ -2197,7 +2294,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
 
             // an eligible node is a node that is free AND not locked
             if (rmNode.isFree()) {
-                eligibleNodes.add(rmNode);
+                addEligibleNode(rmNode);
             }
 
             updateNode(rmNode);
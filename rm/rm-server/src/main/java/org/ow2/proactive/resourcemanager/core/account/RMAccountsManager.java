@@ -33,6 +33,7 @@ import javax.persistence.Table;
 import org.apache.log4j.Logger;
 import org.ow2.proactive.account.AbstractAccountsManager;
 import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+import org.ow2.proactive.resourcemanager.core.history.NodeUsage;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.db.RMDBManager;
 
@@ -84,34 +85,23 @@ public final class RMAccountsManager extends AbstractAccountsManager<RMAccount>
             String nodeState = NodeHistory.class.getDeclaredField("nodeState").getAnnotation(Column.class).name();
             String userName = NodeHistory.class.getDeclaredField("userName").getAnnotation(Column.class).name();
             String providerName = NodeHistory.class.getDeclaredField("providerName").getAnnotation(Column.class).name();
-            String nodeUrl = NodeHistory.class.getDeclaredField("nodeUrl").getAnnotation(Column.class).name();
 
-            // counting the time of finished actions 
-            // select SUM(endTime-startTime) from History where endTime <> 0 and nodeState = 1 and userName='NAME'
-            String wereBusy = "SELECT SUM(" + endTime + "-" + startTime + ") " + "FROM " + history + " WHERE " +
-                              userName + "='" + user + "' AND " + endTime + " <> 0 AND " + nodeState + " = 1";
-
-            List<?> rows = dbmanager.executeSqlQuery(wereBusy);
-            account.usedNodeTime += aggregateNodeUsageTime(rows);
+            // the time of finished actions comes from the node usage rollups maintained as records close
+            account.usedNodeTime += dbmanager.getNodeUsageTime(NodeUsage.UsageType.USED, user);
 
             String areBusy = "SELECT SUM(" + System.currentTimeMillis() + "-" + startTime + ") " + "FROM " + history +
                              " WHERE " + userName + "='" + user + "' AND " + endTime + " = 0 AND " + nodeState + " = 1";
-            rows = dbmanager.executeSqlQuery(areBusy);
+            List<?> rows = dbmanager.executeSqlQuery(areBusy);
             account.usedNodeTime += aggregateNodeUsageTime(rows);
 
-            // select SUM(endTime-startTime), COUNT(DISTINCT nodeUrl) from History where endTime <> 0 and nodeState in (0,1,3,6) and providerName='rm'
-            String wereProvided = "SELECT COUNT(DISTINCT " + nodeUrl + "), SUM(" + endTime + "-" + startTime + ") " +
-                                  "FROM " + history + " WHERE " + providerName + "='" + user + "' AND " + endTime +
-                                  " <> 0 AND " + nodeState + " in (0,1,3,6)";
+            account.providedNodesCount += dbmanager.getProvidedNodesCount(user);
+            account.providedNodeTime += dbmanager.getNodeUsageTime(NodeUsage.UsageType.PROVIDED, user);
+
             // select SUM(CURRNET_TIME-startTime), COUNT(DISTINCT nodeUrl) from History where endTime = 0 and nodeState in (0,1,3,6) and providerName='rm'
             String areProvided = "SELECT 0, SUM(" + System.currentTimeMillis() + "-" + startTime + ") " + "FROM " +
                                  history + " WHERE " + providerName + "='" + user + "' AND " + endTime + " = 0 AND " +
                                  nodeState + " in (0,1,3,6)";
 
-            rows = dbmanager.executeSqlQuery(wereProvided);
-            account.providedNodesCount += aggregateProvidedNodesCount(rows);
-            account.providedNodeTime += aggregateProvidedNodeTime(rows);
-
             rows = dbmanager.executeSqlQuery(areProvided);
             account.providedNodesCount += aggregateProvidedNodesCount(rows);
             account.providedNodeTime += aggregateProvidedNodeTime(rows);
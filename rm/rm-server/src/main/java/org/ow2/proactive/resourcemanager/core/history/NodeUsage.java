@@ -0,0 +1,109 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core.history;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+
+/**
+ * Node time aggregated per user and per hour from the closed {@link NodeHistory} records,
+ * either the time the user has used nodes or the time the nodes provided by the user were available.
+ * <p>
+ * Rows are maintained as node history records close, so that accounting does not scan the node history.
+ *
+ * @see org.ow2.proactive.resourcemanager.db.RMDBManager
+ * @see org.ow2.proactive.resourcemanager.core.account.RMAccountsManager
+ */
+@Entity
+@Table(name = "NodeUsage", indexes = { @Index(name = "NODE_USAGE_NAME", columnList = "name,usageType,bucketStart"),
+                                       @Index(name = "NODE_USAGE_BUCKET_START", columnList = "bucketStart") })
+public class NodeUsage {
+
+    /** Duration of the period aggregated by one row */
+    public static final long BUCKET_DURATION = 3600 * 1000;
+
+    public enum UsageType {
+        /** Time during which the user has used busy nodes */
+        USED,
+        /** Time during which the nodes provided by the user were available */
+        PROVIDED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "NODE_USAGE_ID_SEQUENCE")
+    @SequenceGenerator(name = "NODE_USAGE_ID_SEQUENCE", sequenceName = "NODE_USAGE_ID_SEQUENCE")
+    @SuppressWarnings("unused")
+    protected long id;
+
+    @Column(name = "usageType")
+    private UsageType usageType;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "bucketStart")
+    private long bucketStart;
+
+    @Column(name = "nodeTime")
+    private long nodeTime;
+
+    /**
+     * Default constructor for Hibernate
+     */
+    public NodeUsage() {
+    }
+
+    public NodeUsage(UsageType usageType, String name, long bucketStart, long nodeTime) {
+        this.usageType = usageType;
+        this.name = name;
+        this.bucketStart = bucketStart;
+        this.nodeTime = nodeTime;
+    }
+
+    public UsageType getUsageType() {
+        return usageType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getNodeTime() {
+        return nodeTime;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core.history;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+
+/**
+ * A node that has been provided by a user, with the end time of its last closed
+ * {@link NodeHistory} record. It allows to count the nodes provided by a user
+ * without scanning the node history.
+ *
+ * @see NodeUsage
+ */
+@Entity
+@Table(name = "ProvidedNode", indexes = { @Index(name = "PROVIDED_NODE_PROVIDER", columnList = "providerName,nodeUrl"),
+                                          @Index(name = "PROVIDED_NODE_LAST_END_TIME", columnList = "lastEndTime") })
+public class ProvidedNode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PROVIDED_NODE_ID_SEQUENCE")
+    @SequenceGenerator(name = "PROVIDED_NODE_ID_SEQUENCE", sequenceName = "PROVIDED_NODE_ID_SEQUENCE")
+    @SuppressWarnings("unused")
+    protected long id;
+
+    @Column(name = "providerName")
+    private String providerName;
+
+    @Column(name = "nodeUrl")
+    private String nodeUrl;
+
+    @Column(name = "lastEndTime")
+    private long lastEndTime;
+
+    /**
+     * Default constructor for Hibernate
+     */
+    public ProvidedNode() {
+    }
+
+    public ProvidedNode(String providerName, String nodeUrl, long lastEndTime) {
+        this.providerName = providerName;
+        this.nodeUrl = nodeUrl;
+        this.lastEndTime = lastEndTime;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public String getNodeUrl() {
+        return nodeUrl;
+    }
+
+    public long getLastEndTime() {
+        return lastEndTime;
+    }
+
+}
@@ -173,6 +173,20 @@ public interface RuntimeDataMBean {
      */
     double getAverageInactivity();
 
+    /**
+     * Returns the number of node history records waiting to be written in database.
+     *
+     * @return the number of pending node history records
+     */
+    int getPendingNodeHistoryCount();
+
+    /**
+     * Returns the number of node history records written in database.
+     *
+     * @return the number of saved node history records
+     */
+    long getSavedNodeHistoryCount();
+
     /**
      * Sends the statistics accumulated in the RRD data base
      *
@@ -33,6 +33,7 @@ import javax.management.StandardMBean;
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.ow2.proactive.jmx.Chronological;
 import org.ow2.proactive.resourcemanager.core.jmx.RMJMXHelper;
+import org.ow2.proactive.resourcemanager.db.RMDBManager;
 import org.ow2.proactive.resourcemanager.utils.AtomicRMStatisticsHolder;
 
 
@@ -202,6 +203,20 @@ public class RuntimeDataMBeanImpl extends StandardMBean implements RuntimeDataMB
         return this.rmStatisticsHolder.getStatistics().getInactivityTimePercentage();
     }
 
+    /**
+     * @see org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBean#getPendingNodeHistoryCount()
+     */
+    public int getPendingNodeHistoryCount() {
+        return RMDBManager.getInstance().getNodeHistoryBuffer().getPendingCount();
+    }
+
+    /**
+     * @see org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBean#getSavedNodeHistoryCount()
+     */
+    public long getSavedNodeHistoryCount() {
+        return RMDBManager.getInstance().getNodeHistoryBuffer().getSavedCount();
+    }
+
     /**
      * @see org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBean#getStatisticHistory()
      */
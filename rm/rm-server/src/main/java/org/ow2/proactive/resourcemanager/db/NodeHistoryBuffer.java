@@ -0,0 +1,229 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.db;
+
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.RM_HISTORY_FLUSH_BATCH_SIZE;
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.RM_HISTORY_FLUSH_DELAY;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+
+
+/**
+ * Buffers the node history records produced by node events and writes them
+ * in batched transactions, so that bursts of node state changes are not
+ * throttled by the database.
+ * <p>
+ * Records are written at most {@code pa.rm.history.flush.delay} ms after they are added,
+ * or as soon as a full batch is pending. Flushes are serialized so that the records
+ * of a node are written in the order of its events.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class NodeHistoryBuffer {
+
+    private static final Logger logger = ProActiveLogger.getLogger(NodeHistoryBuffer.class);
+
+    private final RMDBManager rmdbManager;
+
+    private final int flushDelay;
+
+    private final int batchSize;
+
+    private final ScheduledExecutorService flushExecutor;
+
+    private final Lock pendingNodeHistoriesLock = new ReentrantLock();
+
+    /** Serializes the flushes, records of a node must be written in the order of its events */
+    private final Lock flushLock = new ReentrantLock();
+
+    private List<NodeHistory> pendingNodeHistories = new ArrayList<>();
+
+    private boolean flushScheduled;
+
+    private boolean closed;
+
+    private final AtomicLong savedNodeHistoriesCount = new AtomicLong();
+
+    private final AtomicLong transactionsCount = new AtomicLong();
+
+    private final AtomicLong failedNodeHistoriesCount = new AtomicLong();
+
+    NodeHistoryBuffer(RMDBManager rmdbManager) {
+        this(rmdbManager, RM_HISTORY_FLUSH_DELAY.getValueAsInt(), RM_HISTORY_FLUSH_BATCH_SIZE.getValueAsInt());
+    }
+
+    NodeHistoryBuffer(RMDBManager rmdbManager, int flushDelay, int batchSize) {
+        this.rmdbManager = rmdbManager;
+        this.flushDelay = flushDelay;
+        this.batchSize = Math.max(batchSize, 1);
+        NamedThreadFactory threadFactory = new NamedThreadFactory("RM_Node_History_Flusher");
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Adds a node history record to write in database. The record is written
+     * synchronously if no flush delay is configured or if the buffer is closed.
+     */
+    public void add(NodeHistory nodeHistory) {
+        pendingNodeHistoriesLock.lock();
+        try {
+            pendingNodeHistories.add(nodeHistory);
+            if (flushDelay > 0 && !closed) {
+                if (pendingNodeHistories.size() == batchSize) {
+                    flushExecutor.execute(new FlushTask());
+                    flushScheduled = true;
+                } else if (!flushScheduled) {
+                    flushExecutor.schedule(new FlushTask(), flushDelay, TimeUnit.MILLISECONDS);
+                    flushScheduled = true;
+                }
+                return;
+            }
+        } finally {
+            pendingNodeHistoriesLock.unlock();
+        }
+        flush();
+    }
+
+    /**
+     * Writes all the pending node history records in database.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<NodeHistory> nodeHistories = extractPendingNodeHistories();
+            if (nodeHistories.isEmpty()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            for (int from = 0; from < nodeHistories.size(); from += batchSize) {
+                List<NodeHistory> batch = nodeHistories.subList(from, Math.min(from + batchSize, nodeHistories.size()));
+                try {
+                    rmdbManager.saveNodeHistories(batch);
+                    savedNodeHistoriesCount.addAndGet(batch.size());
+                } catch (RuntimeException e) {
+                    failedNodeHistoriesCount.addAndGet(batch.size());
+                    logger.warn("Could not save " + batch.size() + " node history records in database", e);
+                }
+                transactionsCount.incrementAndGet();
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Saved " + nodeHistories.size() + " node history records in " +
+                             (System.currentTimeMillis() - start) + " ms");
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending node history records and stops buffering, the records
+     * added afterwards are written synchronously.
+     */
+    public void close() {
+        pendingNodeHistoriesLock.lock();
+        try {
+            closed = true;
+        } finally {
+            pendingNodeHistoriesLock.unlock();
+        }
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(flushDelay + 10000L, TimeUnit.MILLISECONDS)) {
+                logger.warn("Timeout while waiting for the node history flush");
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Waiting for the node history flush has been interrupted", e);
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * @return the number of node history records waiting to be written
+     */
+    public int getPendingCount() {
+        pendingNodeHistoriesLock.lock();
+        try {
+            return pendingNodeHistories.size();
+        } finally {
+            pendingNodeHistoriesLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of node history records written in database
+     */
+    public long getSavedCount() {
+        return savedNodeHistoriesCount.get();
+    }
+
+    /**
+     * @return the number of node history records that could not be written in database
+     */
+    public long getFailedCount() {
+        return failedNodeHistoriesCount.get();
+    }
+
+    /**
+     * @return the number of transactions used to write node history records
+     */
+    public long getTransactionsCount() {
+        return transactionsCount.get();
+    }
+
+    private List<NodeHistory> extractPendingNodeHistories() {
+        pendingNodeHistoriesLock.lock();
+        try {
+            List<NodeHistory> nodeHistories = pendingNodeHistories;
+            pendingNodeHistories = new ArrayList<>();
+            flushScheduled = false;
+            return nodeHistories;
+        } finally {
+            pendingNodeHistoriesLock.unlock();
+        }
+    }
+
+    private class FlushTask implements Runnable {
+        @Override
+        public void run() {
+            flush();
+        }
+    }
+
+}
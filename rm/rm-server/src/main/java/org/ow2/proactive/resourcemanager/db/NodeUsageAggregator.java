@@ -0,0 +1,182 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.db;
+
+import static org.ow2.proactive.resourcemanager.core.history.NodeUsage.BUCKET_DURATION;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+import org.ow2.proactive.resourcemanager.core.history.NodeUsage;
+import org.ow2.proactive.resourcemanager.core.history.NodeUsage.UsageType;
+import org.ow2.proactive.resourcemanager.core.history.ProvidedNode;
+
+
+/**
+ * Accumulates the node time of closed {@link NodeHistory} records in hourly buckets
+ * and adds it to the {@link NodeUsage} and {@link ProvidedNode} rows of the database.
+ */
+class NodeUsageAggregator {
+
+    /** States in which a node counts as provided, as accounted by RMAccountsManager */
+    static final Set<NodeState> PROVIDED_STATES = EnumSet.of(NodeState.FREE,
+                                                             NodeState.BUSY,
+                                                             NodeState.TO_BE_REMOVED,
+                                                             NodeState.CONFIGURING);
+
+    private final Map<UsageKey, Long> nodeTimes = new HashMap<>();
+
+    /** Last end time of the provided nodes, per provider and node URL */
+    private final Map<String, Map<String, Long>> providedNodes = new HashMap<>();
+
+    void addClosedRecord(NodeHistory nodeHistory) {
+        addClosedRecord(nodeHistory.getUserName(),
+                        nodeHistory.getProviderName(),
+                        nodeHistory.getNodeUrl(),
+                        nodeHistory.getNodeState(),
+                        nodeHistory.getStartTime(),
+                        nodeHistory.getEndTime());
+    }
+
+    void addClosedRecord(String userName, String providerName, String nodeUrl, NodeState nodeState, long startTime,
+            long endTime) {
+        if (nodeState == NodeState.BUSY && userName != null) {
+            addNodeTime(UsageType.USED, userName, startTime, endTime);
+        }
+        if (PROVIDED_STATES.contains(nodeState) && providerName != null) {
+            addNodeTime(UsageType.PROVIDED, providerName, startTime, endTime);
+            Map<String, Long> nodesOfProvider = providedNodes.get(providerName);
+            if (nodesOfProvider == null) {
+                nodesOfProvider = new HashMap<>();
+                providedNodes.put(providerName, nodesOfProvider);
+            }
+            Long lastEndTime = nodesOfProvider.get(nodeUrl);
+            if (lastEndTime == null || lastEndTime < endTime) {
+                nodesOfProvider.put(nodeUrl, endTime);
+            }
+        }
+    }
+
+    private void addNodeTime(UsageType usageType, String name, long startTime, long endTime) {
+        long time = startTime;
+        while (time < endTime) {
+            long bucketStart = time - time % BUCKET_DURATION;
+            long bucketEnd = Math.min(bucketStart + BUCKET_DURATION, endTime);
+            UsageKey key = new UsageKey(usageType, name, bucketStart);
+            Long nodeTime = nodeTimes.get(key);
+            nodeTimes.put(key, (nodeTime == null ? 0 : nodeTime) + bucketEnd - time);
+            time = bucketEnd;
+        }
+    }
+
+    boolean isEmpty() {
+        return nodeTimes.isEmpty() && providedNodes.isEmpty();
+    }
+
+    /**
+     * Adds the accumulated node time to the database, and clears it.
+     */
+    void save(Session session) {
+        for (Map.Entry<UsageKey, Long> entry : nodeTimes.entrySet()) {
+            UsageKey key = entry.getKey();
+            int updated = session.createQuery("update NodeUsage set nodeTime = nodeTime + :nodeTime where " +
+                                              "name = :name and usageType = :usageType and bucketStart = :bucketStart")
+                                 .setParameter("nodeTime", entry.getValue())
+                                 .setParameter("name", key.name)
+                                 .setParameter("usageType", key.usageType)
+                                 .setParameter("bucketStart", key.bucketStart)
+                                 .executeUpdate();
+            if (updated == 0) {
+                session.save(new NodeUsage(key.usageType, key.name, key.bucketStart, entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, Map<String, Long>> nodesOfProvider : providedNodes.entrySet()) {
+            for (Map.Entry<String, Long> node : nodesOfProvider.getValue().entrySet()) {
+                int updated = session.createQuery("update ProvidedNode set lastEndTime = :lastEndTime where " +
+                                                  "providerName = :providerName and nodeUrl = :nodeUrl and " +
+                                                  "lastEndTime < :lastEndTime")
+                                     .setParameter("lastEndTime", node.getValue())
+                                     .setParameter("providerName", nodesOfProvider.getKey())
+                                     .setParameter("nodeUrl", node.getKey())
+                                     .executeUpdate();
+                if (updated == 0 && !isProvidedNodeKnown(session, nodesOfProvider.getKey(), node.getKey())) {
+                    session.save(new ProvidedNode(nodesOfProvider.getKey(), node.getKey(), node.getValue()));
+                }
+            }
+        }
+        nodeTimes.clear();
+        providedNodes.clear();
+    }
+
+    private boolean isProvidedNodeKnown(Session session, String providerName, String nodeUrl) {
+        Number count = (Number) session.createQuery("select count(*) from ProvidedNode where " +
+                                                    "providerName = :providerName and nodeUrl = :nodeUrl")
+                                       .setParameter("providerName", providerName)
+                                       .setParameter("nodeUrl", nodeUrl)
+                                       .uniqueResult();
+        return count.longValue() > 0;
+    }
+
+    private static final class UsageKey {
+
+        private final UsageType usageType;
+
+        private final String name;
+
+        private final long bucketStart;
+
+        UsageKey(UsageType usageType, String name, long bucketStart) {
+            this.usageType = usageType;
+            this.name = name;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            UsageKey usageKey = (UsageKey) o;
+            return bucketStart == usageKey.bucketStart && usageType == usageKey.usageType &&
+                   name.equals(usageKey.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(usageType, name, bucketStart);
+        }
+    }
+
+}
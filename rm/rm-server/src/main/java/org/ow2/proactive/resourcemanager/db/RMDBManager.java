@@ -29,9 +29,12 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -40,6 +43,8 @@ import java.util.TimerTask;
 
 import org.apache.log4j.Logger;
 import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
@@ -50,7 +55,10 @@ import org.ow2.proactive.db.SessionWork;
 import org.ow2.proactive.db.TransactionHelper;
 import org.ow2.proactive.resourcemanager.core.history.Alive;
 import org.ow2.proactive.resourcemanager.core.history.LockHistory;
+import org.ow2.proactive.resourcemanager.common.NodeState;
 import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+import org.ow2.proactive.resourcemanager.core.history.NodeUsage;
+import org.ow2.proactive.resourcemanager.core.history.ProvidedNode;
 import org.ow2.proactive.resourcemanager.core.history.UserHistory;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.rmnode.RMNode;
@@ -70,12 +78,17 @@ public class RMDBManager {
 
     private static final String IN_DATABASE_STRING = " in database";
 
+    /** Maximum number of node URLs in the query of the open node history records */
+    private static final int OPEN_NODE_HISTORY_QUERY_SIZE = 500;
+
     private final SessionFactory sessionFactory;
 
     private final TransactionHelper transactionHelper;
 
     private final RMDBManagerBuffer rmdbManagerBuffer;
 
+    private final NodeHistoryBuffer nodeHistoryBuffer;
+
     private Scheduler houseKeepingScheduler;
 
     private static final class LazyHolder {
@@ -152,6 +165,8 @@ public class RMDBManager {
             configuration.addAnnotatedClass(Alive.class);
             configuration.addAnnotatedClass(LockHistory.class);
             configuration.addAnnotatedClass(NodeHistory.class);
+            configuration.addAnnotatedClass(NodeUsage.class);
+            configuration.addAnnotatedClass(ProvidedNode.class);
             configuration.addAnnotatedClass(NodeSourceData.class);
             configuration.addAnnotatedClass(UserHistory.class);
             configuration.addAnnotatedClass(RMNodeData.class);
@@ -173,6 +188,7 @@ public class RMDBManager {
             sessionFactory = configuration.buildSessionFactory();
             transactionHelper = new TransactionHelper(sessionFactory);
             rmdbManagerBuffer = new RMDBManagerBuffer(this);
+            nodeHistoryBuffer = new NodeHistoryBuffer(this);
 
             Alive lastAliveTimeResult = findRmLastAliveEntry();
 
@@ -183,6 +199,7 @@ public class RMDBManager {
                     removeNodeSources();
                 }
 
+                rebuildNodeUsageIfNeeded();
                 recover(lastAliveTimeResult.getTime());
             }
 
@@ -221,7 +238,16 @@ public class RMDBManager {
         // updating node events with uncompleted end time
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
+            @SuppressWarnings("unchecked")
             public Void doInTransaction(Session session) {
+                NodeUsageAggregator nodeUsageAggregator = new NodeUsageAggregator();
+                List<NodeHistory> openNodeHistories = session.createQuery("from NodeHistory where endTime = 0").list();
+                for (NodeHistory openNodeHistory : openNodeHistories) {
+                    openNodeHistory.setEndTime(lastAliveTime);
+                    nodeUsageAggregator.addClosedRecord(openNodeHistory);
+                }
+                nodeUsageAggregator.save(session);
+
                 int updated = session.createSQLQuery("update NodeHistory set endTime = :endTime where endTime = 0")
                                      .setParameter("endTime", lastAliveTime)
                                      .executeUpdate();
@@ -279,6 +305,9 @@ public class RMDBManager {
 
     public void close() {
         try {
+            if (nodeHistoryBuffer != null) {
+                nodeHistoryBuffer.close();
+            }
             if (sessionFactory != null) {
                 logger.info("Closing session factory");
                 sessionFactory.close();
@@ -576,22 +605,149 @@ public class RMDBManager {
     }
 
     public void saveNodeHistory(final NodeHistory nodeHistory) {
+        saveNodeHistories(Collections.singletonList(nodeHistory));
+    }
+
+    /**
+     * Saves node history records in a single transaction. The consecutive records of a node are
+     * chained in memory, so that only the record left open by the previous transaction is closed
+     * in database. The node time of the closed records is added to the node usage rollups.
+     *
+     * @param nodeHistories the records to save, in the order of the node events
+     */
+    public void saveNodeHistories(final List<NodeHistory> nodeHistories) {
+        final Map<String, List<NodeHistory>> historiesByNode = new LinkedHashMap<>();
+        for (NodeHistory nodeHistory : nodeHistories) {
+            List<NodeHistory> nodeHistoriesOfNode = historiesByNode.get(nodeHistory.getNodeUrl());
+            if (nodeHistoriesOfNode == null) {
+                nodeHistoriesOfNode = new ArrayList<>();
+                historiesByNode.put(nodeHistory.getNodeUrl(), nodeHistoriesOfNode);
+            } else {
+                nodeHistoriesOfNode.get(nodeHistoriesOfNode.size() - 1).setEndTime(nodeHistory.getStartTime());
+            }
+            nodeHistoriesOfNode.add(nodeHistory);
+        }
+
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
-                session.createSQLQuery("update NodeHistory set endTime=:endTime where nodeUrl=:nodeUrl and endTime=0")
-                       .setParameter("endTime", nodeHistory.getStartTime())
-                       .setParameter("nodeUrl", nodeHistory.getNodeUrl())
-                       .executeUpdate();
+                NodeUsageAggregator nodeUsageAggregator = new NodeUsageAggregator();
+                for (NodeHistory openNodeHistory : findOpenNodeHistories(session, historiesByNode.keySet())) {
+                    openNodeHistory.setEndTime(historiesByNode.get(openNodeHistory.getNodeUrl())
+                                                              .get(0)
+                                                              .getStartTime());
+                    nodeUsageAggregator.addClosedRecord(openNodeHistory);
+                }
+
+                for (Map.Entry<String, List<NodeHistory>> entry : historiesByNode.entrySet()) {
+                    session.createSQLQuery("update NodeHistory set endTime=:endTime where nodeUrl=:nodeUrl and endTime=0")
+                           .setParameter("endTime", entry.getValue().get(0).getStartTime())
+                           .setParameter("nodeUrl", entry.getKey())
+                           .executeUpdate();
+
+                    List<NodeHistory> nodeHistoriesOfNode = entry.getValue();
+                    for (int i = 0; i < nodeHistoriesOfNode.size(); i++) {
+                        NodeHistory nodeHistory = nodeHistoriesOfNode.get(i);
+                        if (nodeHistory.isStoreInDataBase()) {
+                            session.save(nodeHistory);
+                            if (i < nodeHistoriesOfNode.size() - 1) {
+                                nodeUsageAggregator.addClosedRecord(nodeHistory);
+                            }
+                        }
+                    }
+                }
+                nodeUsageAggregator.save(session);
+                return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NodeHistory> findOpenNodeHistories(Session session, Collection<String> nodeUrls) {
+        List<NodeHistory> openNodeHistories = new ArrayList<>();
+        List<String> nodeUrlsList = new ArrayList<>(nodeUrls);
+        for (int from = 0; from < nodeUrlsList.size(); from += OPEN_NODE_HISTORY_QUERY_SIZE) {
+            List<String> nodeUrlsOfQuery = nodeUrlsList.subList(from,
+                                                                Math.min(from + OPEN_NODE_HISTORY_QUERY_SIZE,
+                                                                         nodeUrlsList.size()));
+            Query query = session.createQuery("from NodeHistory where endTime = 0 and nodeUrl in (:nodeUrls)");
+            openNodeHistories.addAll(query.setParameterList("nodeUrls", nodeUrlsOfQuery).list());
+        }
+        return openNodeHistories;
+    }
 
-                if (nodeHistory.isStoreInDataBase()) {
-                    session.save(nodeHistory);
+    /**
+     * Builds the node usage rollups from the closed node history records, if the rollups are empty
+     * while such records exist (i.e. the node history was written by a version without rollups).
+     */
+    private void rebuildNodeUsageIfNeeded() {
+        executeReadWriteTransaction(new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                long nodeUsageCount = ((Number) session.createQuery("select count(*) from NodeUsage")
+                                                       .uniqueResult()).longValue();
+                if (nodeUsageCount > 0) {
+                    return null;
                 }
+                logger.info("Building the node usage rollups from the node history");
+                long start = System.currentTimeMillis();
+                NodeUsageAggregator nodeUsageAggregator = new NodeUsageAggregator();
+                ScrollableResults rows = session.createQuery("select userName, providerName, nodeUrl, nodeState, " +
+                                                             "startTime, endTime from NodeHistory where endTime <> 0")
+                                                .setFetchSize(1000)
+                                                .scroll(ScrollMode.FORWARD_ONLY);
+                try {
+                    while (rows.next()) {
+                        nodeUsageAggregator.addClosedRecord((String) rows.get(0),
+                                                            (String) rows.get(1),
+                                                            (String) rows.get(2),
+                                                            (NodeState) rows.get(3),
+                                                            ((Number) rows.get(4)).longValue(),
+                                                            ((Number) rows.get(5)).longValue());
+                    }
+                } finally {
+                    rows.close();
+                }
+                nodeUsageAggregator.save(session);
+                logger.info("Node usage rollups built in " + (System.currentTimeMillis() - start) + " ms");
                 return null;
             }
         });
     }
 
+    /**
+     * @return the node time in ms of the closed node history records of the user, for the given usage type
+     */
+    public long getNodeUsageTime(final NodeUsage.UsageType usageType, final String name) {
+        return executeReadTransaction(new SessionWork<Long>() {
+            @Override
+            public Long doInTransaction(Session session) {
+                Number nodeTime = (Number) session.createQuery("select sum(nodeTime) from NodeUsage where " +
+                                                               "name = :name and usageType = :usageType")
+                                                  .setParameter("name", name)
+                                                  .setParameter("usageType", usageType)
+                                                  .uniqueResult();
+                return nodeTime == null ? 0 : nodeTime.longValue();
+            }
+        });
+    }
+
+    /**
+     * @return the number of distinct nodes provided by the user in the closed node history records
+     */
+    public int getProvidedNodesCount(final String providerName) {
+        return executeReadTransaction(new SessionWork<Integer>() {
+            @Override
+            public Integer doInTransaction(Session session) {
+                Number count = (Number) session.createQuery("select count(*) from ProvidedNode where " +
+                                                            "providerName = :providerName")
+                                               .setParameter("providerName", providerName)
+                                               .uniqueResult();
+                return count.intValue();
+            }
+        });
+    }
+
     public void deleteOldNodeHistory() {
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
@@ -607,6 +763,13 @@ public class RMDBManager {
                     if (nbEntriesDeleted > 0) {
                         logger.info("HOUSEKEEPING of NodeHistory performed, deleted " + nbEntriesDeleted + " entries");
                     }
+
+                    session.createQuery("delete from NodeUsage where bucketStart < :minBucketStart")
+                           .setParameter("minBucketStart", oldestTime - NodeUsage.BUCKET_DURATION)
+                           .executeUpdate();
+                    session.createQuery("delete from ProvidedNode where lastEndTime < :minTime")
+                           .setParameter("minTime", oldestTime)
+                           .executeUpdate();
                 }
                 return null;
             }
@@ -790,4 +953,8 @@ public class RMDBManager {
         return rmdbManagerBuffer;
     }
 
+    public NodeHistoryBuffer getNodeHistoryBuffer() {
+        return nodeHistoryBuffer;
+    }
+
 }
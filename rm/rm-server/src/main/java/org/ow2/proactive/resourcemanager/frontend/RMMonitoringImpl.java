@@ -404,7 +404,7 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
      */
     public void nodeEvent(RMNodeEvent event) {
         RMMonitoringImpl.rmStatistics.nodeEvent(event);
-        RMDBManager.getInstance().saveNodeHistory(new NodeHistory(event));
+        RMDBManager.getInstance().getNodeHistoryBuffer().add(new NodeHistory(event));
         queueEvent(event);
     }
 
@@ -431,6 +431,9 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
         rmEvent(new RMEvent(RMEventType.SHUTDOWN));
         PAActiveObject.terminateActiveObject(false);
 
+        // writing the buffered node history
+        RMDBManager.getInstance().getNodeHistoryBuffer().close();
+
         RMJMXHelper.getInstance().shutdown();
         // initiating shutdown
         eventDispatcherThreadPool.shutdown();
@@ -239,28 +239,61 @@ public class NodeSource implements InitActive, RunActive {
 
         long timeStamp = System.currentTimeMillis();
         long delta = 0;
+        long heartbeatDelta = 0;
+        long heartbeatCheckFrequency = PAResourceManagerProperties.RM_NODE_HEARTBEAT_CHECK_FREQUENCY.getValueAsInt();
 
         // recalculating nodes number only once per policy period
         while (body.isActive()) {
 
             try {
-                service.blockingServeOldest(pingFrequency);
-                delta += System.currentTimeMillis() - timeStamp;
+                service.blockingServeOldest(Math.min(pingFrequency, heartbeatCheckFrequency));
+                long elapsed = System.currentTimeMillis() - timeStamp;
+                delta += elapsed;
+                heartbeatDelta += elapsed;
                 timeStamp = System.currentTimeMillis();
 
                 if (delta > pingFrequency) {
-                    logger.info("[" + name + "] Pinging alive nodes : " + getAliveNodes().size());
+                    // nodes pushing heartbeats are watched by the failure detector instead
+                    LinkedList<Node> nodesToPing = new LinkedList<>();
                     for (Node node : getAliveNodes()) {
+                        if (!RMCore.nodeFailureDetector.isMonitored(node.getNodeInformation().getURL())) {
+                            nodesToPing.add(node);
+                        }
+                    }
+                    logger.info("[" + name + "] Pinging alive nodes : " + nodesToPing.size());
+                    for (Node node : nodesToPing) {
                         pingNode(node);
                     }
                     delta = 0;
                 }
+
+                if (heartbeatDelta > heartbeatCheckFrequency) {
+                    checkNodeHeartbeats();
+                    heartbeatDelta = 0;
+                }
             } catch (InterruptedException e) {
                 logger.warn("runActivity interrupted", e);
             }
         }
     }
 
+    /**
+     * Declares down the alive nodes whose heartbeats are late enough to be suspected by
+     * the failure detector of the resource manager.
+     */
+    private void checkNodeHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (Node node : getAliveNodes()) {
+            String nodeUrl = node.getNodeInformation().getURL();
+            if (RMCore.nodeFailureDetector.isSuspected(nodeUrl, now)) {
+                logger.warn("[" + name + "] Heartbeats of node " + nodeUrl + " are late (phi=" +
+                            RMCore.nodeFailureDetector.phi(nodeUrl, now) + "), last heartbeat: " +
+                            RMCore.nodeFailureDetector.getLastHeartbeat(nodeUrl));
+                detectedPingedDownNode(node.getNodeInformation().getName(), nodeUrl);
+            }
+        }
+    }
+
     /**
      * Updates internal node source structures.
      */
@@ -758,6 +791,7 @@ public class NodeSource implements InitActive, RunActive {
         }
 
         logger.warn("[" + name + "] Detected down node: " + nodeUrl);
+        RMCore.nodeFailureDetector.remove(nodeUrl);
         Node downNode = nodes.remove(nodeUrl);
         if (downNode != null) {
             downNodes.put(nodeUrl, downNode);
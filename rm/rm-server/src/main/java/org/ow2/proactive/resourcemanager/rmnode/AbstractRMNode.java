@@ -30,6 +30,7 @@ import java.util.Date;
 
 import org.ow2.proactive.jmx.naming.JMXTransportProtocol;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.NodeState;
 import org.ow2.proactive.resourcemanager.common.event.RMEventType;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeDescriptor;
@@ -94,6 +95,9 @@ public abstract class AbstractRMNode implements RMNode, Serializable {
     /** Time stamp of the latest state change */
     protected long stateChangeTime;
 
+    /** Last resources reported by the node */
+    private volatile NodeResources resources;
+
     public AbstractRMNode() {
         this.nodeName = null;
         this.nodeURL = null;
@@ -188,6 +192,22 @@ public abstract class AbstractRMNode implements RMNode, Serializable {
         return lastEvent;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NodeResources getResources() {
+        return resources;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setResources(NodeResources resources) {
+        this.resources = resources;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -34,6 +34,7 @@ import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
 import org.ow2.proactive.jmx.naming.JMXTransportProtocol;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.NodeState;
 import org.ow2.proactive.resourcemanager.common.event.RMEventType;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeEvent;
@@ -346,6 +347,20 @@ public interface RMNode extends Comparable<RMNode> {
      */
     boolean isProtectedByToken();
 
+    /**
+     * Gets the last resources reported by the node.
+     *
+     * @return the resources of the node host, or null if the node does not report them
+     */
+    NodeResources getResources();
+
+    /**
+     * Sets the last resources reported by the node.
+     *
+     * @param resources the resources of the node host
+     */
+    void setResources(NodeResources resources);
+
     RMNodeEvent createNodeEvent(RMEventType eventType, NodeState previousNodeState, String initiator);
 
     RMNodeEvent createNodeEvent();
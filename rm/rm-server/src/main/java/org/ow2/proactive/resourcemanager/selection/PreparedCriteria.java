@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.selection;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive.scripting.SelectionScript;
+import org.ow2.proactive.utils.Criteria;
+
+
+/**
+ * The criteria of a node request with its selection scripts prepared once,
+ * so that they can be evaluated against every candidate node without being processed again.
+ *
+ */
+public class PreparedCriteria {
+
+    private final Criteria criteria;
+
+    private final List<SelectionScript> selectionScripts;
+
+    private final Map<String, Serializable> bindings;
+
+    private final List<PreparedSelectionScript> scripts;
+
+    public PreparedCriteria(Criteria criteria) {
+        this(criteria, criteria.getScripts(), criteria.getBindings());
+    }
+
+    private PreparedCriteria(Criteria criteria, List<SelectionScript> scripts, Map<String, Serializable> bindings) {
+        this.criteria = criteria;
+        this.selectionScripts = scripts;
+        this.bindings = bindings;
+        if (scripts == null || scripts.isEmpty()) {
+            this.scripts = Collections.emptyList();
+        } else {
+            List<PreparedSelectionScript> preparedScripts = new ArrayList<>(scripts.size());
+            for (SelectionScript script : scripts) {
+                preparedScripts.add(new PreparedSelectionScript(script, bindings));
+            }
+            this.scripts = Collections.unmodifiableList(preparedScripts);
+        }
+    }
+
+    /**
+     * Prepares scripts which do not come with a criteria object.
+     */
+    public static PreparedCriteria prepare(List<SelectionScript> scripts, Map<String, Serializable> bindings) {
+        return new PreparedCriteria(null, scripts, bindings);
+    }
+
+    /**
+     * Returns the original criteria, or null if the scripts were prepared without it
+     */
+    public Criteria getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Returns the selection scripts as they were requested
+     */
+    public List<SelectionScript> getSelectionScripts() {
+        return selectionScripts;
+    }
+
+    public Map<String, Serializable> getBindings() {
+        return bindings;
+    }
+
+    public List<PreparedSelectionScript> getScripts() {
+        return scripts;
+    }
+
+    public boolean hasScripts() {
+        return !scripts.isEmpty();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.selection;
+
+import java.io.Serializable;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scripting.InvalidScriptException;
+import org.ow2.proactive.scripting.SelectionScript;
+
+import com.google.common.io.BaseEncoding;
+
+
+/**
+ * A selection script of a node request, with its bindings resolved and its digest computed
+ * once for the whole request instead of once per candidate node.
+ *
+ */
+public class PreparedSelectionScript {
+
+    private final static Logger logger = Logger.getLogger(PreparedSelectionScript.class);
+
+    // the script which is executed on the nodes
+    private final SelectionScript script;
+
+    private final Map<String, Serializable> bindings;
+
+    // the script where the bindings are replaced by their values
+    private final SelectionScript resolvedScript;
+
+    private final String digest;
+
+    public PreparedSelectionScript(SelectionScript script, Map<String, Serializable> bindings) {
+        this.script = script;
+        this.bindings = bindings;
+        this.resolvedScript = replaceBindings(script, bindings);
+        this.digest = computeDigest(resolvedScript);
+    }
+
+    /**
+     * Returns the script to execute on the nodes
+     */
+    public SelectionScript getScript() {
+        return script;
+    }
+
+    /**
+     * Returns the bindings given to the script execution
+     */
+    public Map<String, Serializable> getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Returns the script where the bindings are replaced by their values
+     */
+    public SelectionScript getResolvedScript() {
+        return resolvedScript;
+    }
+
+    /**
+     * Returns the digest of the resolved script, identifying the script in the selection statistics
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    public boolean isDynamic() {
+        return resolvedScript.isDynamic();
+    }
+
+    private static SelectionScript replaceBindings(SelectionScript script, Map<String, Serializable> bindings) {
+        if (bindings == null || bindings.isEmpty()) {
+            return script;
+        }
+        String scriptContent = script.getScript();
+        for (Map.Entry<String, Serializable> entry : bindings.entrySet()) {
+            scriptContent = scriptContent.replace(entry.getKey(), entry.getValue().toString());
+        }
+        try {
+            return new SelectionScript(scriptContent,
+                                       script.getEngineName(),
+                                       script.getParameters(),
+                                       script.isDynamic());
+        } catch (InvalidScriptException e) {
+            logger.warn("Error when replacing bindings of script (revert to use original script):" +
+                        System.lineSeparator() + script.toString(), e);
+            return script;
+        }
+    }
+
+    private static String computeDigest(SelectionScript script) {
+        try {
+            return BaseEncoding.base16().encode(script.digest());
+        } catch (NoSuchAlgorithmException e) {
+            logger.error("No algorithm found, digest will use the script content", e);
+            return script.getScript();
+        }
+    }
+}
@@ -51,12 +51,12 @@ public class ScriptExecutor implements Callable<Node> {
 
     private SelectionManager manager;
 
-    private List<SelectionScript> selectionScriptList;
+    private List<PreparedSelectionScript> selectionScriptList;
 
-    public ScriptExecutor(RMNode rmnode, Criteria criteria, SelectionManager manager) {
+    public ScriptExecutor(RMNode rmnode, PreparedCriteria criteria, SelectionManager manager) {
         this.rmnode = rmnode;
         this.manager = manager;
-        this.criteria = criteria;
+        this.criteria = criteria.getCriteria();
         this.selectionScriptList = criteria.getScripts();
     }
 
@@ -80,8 +80,9 @@ public class ScriptExecutor implements Callable<Node> {
 
         if (selectionScriptSpecified) {
             // initializing parallel script execution
-            for (SelectionScript script : selectionScriptList) {
-                if (manager.isPassed(script, criteria.getBindings(), rmnode)) {
+            for (PreparedSelectionScript preparedScript : selectionScriptList) {
+                SelectionScript script = preparedScript.getScript();
+                if (manager.isPassed(preparedScript, rmnode)) {
                     // already executed static script
                     logger.debug(rmnode.getNodeURL() + " : " + script.hashCode() + " skipping script execution");
                     continue;
@@ -89,7 +90,7 @@ public class ScriptExecutor implements Callable<Node> {
 
                 logger.info(rmnode.getNodeURL() + " : " + script.hashCode() + " executing");
                 try {
-                    ScriptResult<Boolean> scriptResult = rmnode.executeScript(script, criteria.getBindings());
+                    ScriptResult<Boolean> scriptResult = rmnode.executeScript(script, preparedScript.getBindings());
 
                     // processing the results
                     if (!MOP.isReifiedObject(scriptResult) && scriptResult.getException() != null) {
@@ -135,7 +136,7 @@ public class ScriptExecutor implements Callable<Node> {
 
                         // processing script result and updating knowledge base of
                         // selection manager at the same time. Returns whether node is selected.
-                        if (!manager.processScriptResult(script, criteria.getBindings(), scriptResult, rmnode)) {
+                        if (!manager.processScriptResult(preparedScript, scriptResult, rmnode)) {
                             nodeMatch = false;
                             break;
                         }
@@ -190,8 +191,8 @@ public class ScriptExecutor implements Callable<Node> {
         boolean selectionScriptSpecified = selectionScriptList != null && selectionScriptList.size() > 0;
         if (selectionScriptSpecified) {
             String result = "script execution on the node " + rmnode.getNodeURL() + " using the following scripts\n";
-            for (SelectionScript ss : selectionScriptList) {
-                result += ss.getScript() + "\n";
+            for (PreparedSelectionScript ss : selectionScriptList) {
+                result += ss.getScript().getScript() + "\n";
             }
 
             return result;
@@ -31,10 +31,13 @@ import java.security.Permission;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
@@ -53,6 +56,7 @@ import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.authentication.principals.TokenPrincipal;
 import org.ow2.proactive.permissions.PrincipalPermission;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.exception.NotConnectedException;
@@ -67,6 +71,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.ResourceRequirements;
 import org.ow2.proactive.utils.appenders.MultipleFileAppender;
 
 
@@ -207,6 +212,51 @@ public abstract class SelectionManager {
     public abstract boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
             ScriptResult<Boolean> scriptResult, RMNode rmnode);
 
+    /**
+     * Arranges nodes for the execution of the prepared scripts of a request.
+     * By default, delegates to {@link #arrangeNodesForScriptExecution(List, List, Map)}.
+     *
+     * @param nodes
+     *            - nodes list for script execution
+     * @param criteria
+     *            - criteria of the request with its prepared scripts
+     * @return collection of arranged nodes
+     */
+    public List<RMNode> arrangeNodesForScriptExecution(final List<RMNode> nodes, PreparedCriteria criteria) {
+        return arrangeNodesForScriptExecution(nodes, criteria.getSelectionScripts(), criteria.getBindings());
+    }
+
+    /**
+     * Predicts the execution result of a prepared script.
+     * By default, delegates to {@link #isPassed(SelectionScript, Map, RMNode)}.
+     *
+     * @param script
+     *            - prepared script to execute
+     * @param rmnode
+     *            - target node
+     * @return true if script will pass on the node
+     */
+    public boolean isPassed(PreparedSelectionScript script, RMNode rmnode) {
+        return isPassed(script.getScript(), script.getBindings(), rmnode);
+    }
+
+    /**
+     * Processes the result of a prepared script.
+     * By default, delegates to {@link #processScriptResult(SelectionScript, Map, ScriptResult, RMNode)}.
+     *
+     * @param script
+     *            - executed prepared script
+     * @param scriptResult
+     *            - obtained script result
+     * @param rmnode
+     *            - node on which script has been executed
+     * @return whether node is selected
+     */
+    public boolean processScriptResult(PreparedSelectionScript script, ScriptResult<Boolean> scriptResult,
+            RMNode rmnode) {
+        return processScriptResult(script.getScript(), script.getBindings(), scriptResult, rmnode);
+    }
+
     public NodeSet selectNodes(Criteria criteria, Client client) {
 
         maybeSetLoggingContext(criteria);
@@ -267,16 +317,20 @@ public abstract class SelectionManager {
         // arranging nodes according to the selection policy
         // if could be shuffling or node source priorities
         List<RMNode> afterPolicyNodes = selectionPolicy.arrangeNodes(criteria.getSize(), filteredNodes, client);
+        if (criteria.getResourceRequirements() != null) {
+            afterPolicyNodes = arrangeNodesByResources(afterPolicyNodes, criteria.getResourceRequirements());
+        }
 
         List<Node> matchedNodes;
         if (hasScripts) {
             // checking if all scripts are authorized
             checkAuthorizedScripts(criteria.getScripts());
 
+            // resolving the scripts once for all the candidate nodes
+            PreparedCriteria preparedCriteria = new PreparedCriteria(criteria);
+
             // arranging nodes for script execution
-            List<RMNode> arrangedNodes = arrangeNodesForScriptExecution(afterPolicyNodes,
-                                                                        criteria.getScripts(),
-                                                                        criteria.getBindings());
+            List<RMNode> arrangedNodes = arrangeNodesForScriptExecution(afterPolicyNodes, preparedCriteria);
             List<RMNode> arrangedFilteredNodes = arrangedNodes;
             if (criteria.getTopology().isTopologyBased()) {
                 arrangedFilteredNodes = topologyNodesFilter.filterNodes(criteria, arrangedNodes);
@@ -286,7 +340,7 @@ public abstract class SelectionManager {
                 matchedNodes = new LinkedList<>();
             } else if (electedToRunOnAllNodes(criteria)) {
                 // run scripts on all available nodes
-                matchedNodes = runScripts(arrangedFilteredNodes, criteria);
+                matchedNodes = runScripts(arrangedFilteredNodes, preparedCriteria);
             } else {
 
                 // run scripts not on all nodes, but always on missing number of
@@ -312,7 +366,7 @@ public abstract class SelectionManager {
                     List<RMNode> subset = arrangedFilteredNodes.subList(0,
                                                                         Math.min(numberOfNodesForScriptExecution,
                                                                                  arrangedFilteredNodes.size()));
-                    matchedNodes.addAll(runScripts(subset, criteria));
+                    matchedNodes.addAll(runScripts(subset, preparedCriteria));
                     // removing subset of arrangedNodes
                     subset.clear();
 
@@ -435,7 +489,7 @@ public abstract class SelectionManager {
      *            contains a set of scripts to execute on each node
      * @return nodes matched to all scripts
      */
-    private List<Node> runScripts(List<RMNode> candidates, Criteria criteria) {
+    private List<Node> runScripts(List<RMNode> candidates, PreparedCriteria criteria) {
         List<Node> matched = new LinkedList<>();
 
         if (candidates.size() == 0) {
@@ -497,6 +551,8 @@ public abstract class SelectionManager {
 
         Set<String> inclusion = criteria.getAcceptableNodesUrls();
 
+        ResourceRequirements requirements = criteria.getResourceRequirements();
+
         boolean nodeWithTokenRequested = criteria.getNodeAccessToken() != null &&
                                          criteria.getNodeAccessToken().length() > 0;
 
@@ -546,6 +602,12 @@ public abstract class SelectionManager {
                 }
             }
 
+            // nodes which do not report their resources cannot be checked here
+            NodeResources resources = node.getResources();
+            if (requirements != null && resources != null && !requirements.isSatisfiedBy(resources)) {
+                continue;
+            }
+
             if (!contains(exclusion, node) && ((inclusion != null) ? inclusion.contains(node.getNodeURL()) : true)) {
                 filteredList.add(node);
             }
@@ -553,6 +615,51 @@ public abstract class SelectionManager {
         return filteredList;
     }
 
+    /**
+     * Packs the selection on the hosts which fit the requirements the most tightly, so that the hosts
+     * with the most resources left remain available for the largest requests. The order given by the
+     * selection policy between node sources is kept: the nodes are only rearranged within each run of
+     * consecutive nodes of the same node source. In each run, the nodes which do not report their
+     * resources come last, in the order given by the selection policy.
+     */
+    static List<RMNode> arrangeNodesByResources(List<RMNode> nodes, ResourceRequirements requirements) {
+        final Map<RMNode, Long> memoryLeft = new HashMap<>();
+        List<RMNode> arrangedNodes = new ArrayList<>(nodes.size());
+        List<RMNode> knownNodes = new ArrayList<>();
+        List<RMNode> unknownNodes = new ArrayList<>();
+        Comparator<RMNode> bestFit = new Comparator<RMNode>() {
+            @Override
+            public int compare(RMNode node1, RMNode node2) {
+                return Long.compare(memoryLeft.get(node1), memoryLeft.get(node2));
+            }
+        };
+        String nodeSourceName = null;
+        for (RMNode node : nodes) {
+            if (!Objects.equals(nodeSourceName, node.getNodeSourceName())) {
+                addArrangedNodes(arrangedNodes, knownNodes, unknownNodes, bestFit);
+                nodeSourceName = node.getNodeSourceName();
+            }
+            NodeResources resources = node.getResources();
+            if (resources != null) {
+                memoryLeft.put(node, requirements.getMemoryLeft(resources));
+                knownNodes.add(node);
+            } else {
+                unknownNodes.add(node);
+            }
+        }
+        addArrangedNodes(arrangedNodes, knownNodes, unknownNodes, bestFit);
+        return arrangedNodes;
+    }
+
+    private static void addArrangedNodes(List<RMNode> arrangedNodes, List<RMNode> knownNodes,
+            List<RMNode> unknownNodes, Comparator<RMNode> bestFit) {
+        Collections.sort(knownNodes, bestFit);
+        arrangedNodes.addAll(knownNodes);
+        arrangedNodes.addAll(unknownNodes);
+        knownNodes.clear();
+        unknownNodes.clear();
+    }
+
     public <T> List<ScriptResult<T>> executeScript(final Script<T> script, final Collection<RMNode> nodes,
             final Map<String, Serializable> bindings) {
         // TODO: add a specific timeout for script execution
@@ -26,23 +26,26 @@
 package org.ow2.proactive.resourcemanager.selection.statistics;
 
 import java.io.Serializable;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.resourcemanager.selection.PreparedCriteria;
+import org.ow2.proactive.resourcemanager.selection.PreparedSelectionScript;
 import org.ow2.proactive.resourcemanager.selection.SelectionManager;
-import org.ow2.proactive.scripting.InvalidScriptException;
 import org.ow2.proactive.scripting.ScriptResult;
 import org.ow2.proactive.scripting.SelectionScript;
 
@@ -69,7 +72,8 @@ public class ProbablisticSelectionManager extends SelectionManager {
 
     // contains an information about already executed scripts
     // script digest => node => probability
-    private HashMap<String, HashMap<String, Probability>> probabilities;
+    // accessed concurrently by the script executor threads
+    private ConcurrentMap<String, ConcurrentMap<String, Probability>> probabilities;
 
     // in order to avoid OOM when the number of scripts exceeds the limit
     // we could :
@@ -78,14 +82,14 @@ public class ProbablisticSelectionManager extends SelectionManager {
     //	  need to store the time, update it each time, then sort when removing
     //    the system will be too CPU consuming working on the limit
     // 3. Removed the oldest added script. For this we have this queue. 
-    private LinkedList<String> digestQueue = new LinkedList<>();
+    private Queue<String> digestQueue = new ConcurrentLinkedQueue<>();
 
     public ProbablisticSelectionManager() {
     }
 
     public ProbablisticSelectionManager(RMCore rmcore) {
         super(rmcore);
-        this.probabilities = new HashMap<>();
+        this.probabilities = new ConcurrentHashMap<>();
     }
 
     /**
@@ -99,65 +103,79 @@ public class ProbablisticSelectionManager extends SelectionManager {
     @Override
     public List<RMNode> arrangeNodesForScriptExecution(final List<RMNode> nodes, List<SelectionScript> scripts,
             Map<String, Serializable> bindings) {
+        return arrangeNodesForScriptExecution(nodes, PreparedCriteria.prepare(scripts, bindings));
+    }
+
+    /**
+     * Find appropriate candidates nodes for script execution, taking into
+     * account "free" and "exclusion" nodes lists.
+     *
+     * @param nodes free nodes list provided by resource manager
+     * @param criteria request criteria with the prepared scripts to execute
+     * @return candidates node list for script execution
+     */
+    @Override
+    public List<RMNode> arrangeNodesForScriptExecution(final List<RMNode> nodes, PreparedCriteria criteria) {
 
         long startTime = System.currentTimeMillis();
-        boolean scriptSpecified = scripts != null && scripts.size() > 0;
 
         // if no scripts are specified return filtered free nodes
-        if (!scriptSpecified) {
+        if (!criteria.hasScripts()) {
             return nodes;
         }
 
-        try {
-            // finding intersection
-            HashMap<RMNode, Probability> intersectionMap = new LinkedHashMap<>();
-            for (RMNode rmnode : nodes) {
-                boolean intersection = true;
-                double intersectionProbability = 1;
-                for (SelectionScript script : scripts) {
-                    SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
-                    String digest = new String(scriptWithReplacedBindings.digest());
-                    if (probabilities.containsKey(digest) &&
-                        probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                        double probability = probabilities.get(digest).get(rmnode.getNodeURL()).value();
-                        if (probability == 0) {
-                            intersection = false;
-                            break;
-                        } else {
-                            intersectionProbability *= probability;
-                        }
+        List<PreparedSelectionScript> scripts = criteria.getScripts();
+        // the statistics of each script are looked up once for all the nodes
+        List<Map<String, Probability>> scriptsProbabilities = new ArrayList<>(scripts.size());
+        for (PreparedSelectionScript script : scripts) {
+            Map<String, Probability> scriptProbabilities = probabilities.get(script.getDigest());
+            scriptsProbabilities.add(scriptProbabilities == null ? Collections.<String, Probability> emptyMap()
+                                                                 : scriptProbabilities);
+        }
+
+        // finding intersection
+        HashMap<RMNode, Probability> intersectionMap = new LinkedHashMap<>();
+        for (RMNode rmnode : nodes) {
+            boolean intersection = true;
+            double intersectionProbability = 1;
+            for (Map<String, Probability> scriptProbabilities : scriptsProbabilities) {
+                Probability nodeProbability = scriptProbabilities.get(rmnode.getNodeURL());
+                if (nodeProbability != null) {
+                    double probability = nodeProbability.value();
+                    if (probability == 0) {
+                        intersection = false;
+                        break;
                     } else {
-                        intersectionProbability *= Probability.defaultValue();
+                        intersectionProbability *= probability;
                     }
+                } else {
+                    intersectionProbability *= Probability.defaultValue();
                 }
+            }
 
-                if (intersection) {
-                    intersectionMap.put(rmnode, new Probability(intersectionProbability));
-                }
+            if (intersection) {
+                intersectionMap.put(rmnode, new Probability(intersectionProbability));
             }
+        }
 
-            // sorting results based on calculated probability
-            Set<RMNode> nodeSet = intersectionMap.keySet();
-            List<RMNode> res = new ArrayList<>(nodeSet.size());
-            res.addAll(nodeSet);
-            Collections.sort(res, new NodeProbabilityComparator(intersectionMap));
+        // sorting results based on calculated probability
+        Set<RMNode> nodeSet = intersectionMap.keySet();
+        List<RMNode> res = new ArrayList<>(nodeSet.size());
+        res.addAll(nodeSet);
+        Collections.sort(res, new NodeProbabilityComparator(intersectionMap));
 
-            if (logger.isDebugEnabled()) {
-                logger.debug("The following nodes are selected for scripts execution (time is " +
-                             (System.currentTimeMillis() - startTime) + " ms) :");
-                if (res.size() > 0) {
-                    for (RMNode rmnode : res) {
-                        logger.debug(rmnode.getNodeURL() + " : probability " + intersectionMap.get(rmnode));
-                    }
-                } else {
-                    logger.debug("None");
+        if (logger.isDebugEnabled()) {
+            logger.debug("The following nodes are selected for scripts execution (time is " +
+                         (System.currentTimeMillis() - startTime) + " ms) :");
+            if (res.size() > 0) {
+                for (RMNode rmnode : res) {
+                    logger.debug(rmnode.getNodeURL() + " : probability " + intersectionMap.get(rmnode));
                 }
+            } else {
+                logger.debug("None");
             }
-            return res;
-        } catch (NoSuchAlgorithmException e) {
-            logger.error(e.getMessage(), e);
-            return new ArrayList<>(0);
         }
+        return res;
     }
 
     /**
@@ -169,25 +187,32 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return true if script will pass on the node
      */
     @Override
-    public synchronized boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
-        String digest;
-        SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
-        try {
-            digest = new String(scriptWithReplacedBindings.digest());
-            if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                Probability p = probabilities.get(digest).get(rmnode.getNodeURL());
-                String scriptType = scriptWithReplacedBindings.isDynamic() ? "dynamic" : "static";
-                if (logger.isDebugEnabled())
-                    logger.debug(rmnode.getNodeURL() + " : " + scriptWithReplacedBindings.hashCode() + " known " +
-                                 scriptType + " script");
-                return p.value() == 1;
-            }
-        } catch (NoSuchAlgorithmException e) {
-            logger.error(e.getMessage(), e);
+    public boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
+        return isPassed(new PreparedSelectionScript(script, bindings), rmnode);
+    }
+
+    /**
+     * Predicts script execution result. Allows to avoid duplicate script execution
+     * on the same node.
+     *
+     * @param script - prepared script to execute
+     * @param rmnode - target node
+     * @return true if script will pass on the node
+     */
+    @Override
+    public boolean isPassed(PreparedSelectionScript script, RMNode rmnode) {
+        Map<String, Probability> scriptProbabilities = probabilities.get(script.getDigest());
+        Probability p = scriptProbabilities != null ? scriptProbabilities.get(rmnode.getNodeURL()) : null;
+        if (p != null) {
+            String scriptType = script.isDynamic() ? "dynamic" : "static";
+            if (logger.isDebugEnabled())
+                logger.debug(rmnode.getNodeURL() + " : " + script.getResolvedScript().hashCode() + " known " +
+                             scriptType + " script");
+            return p.value() == 1;
         }
 
         if (logger.isDebugEnabled())
-            logger.debug(rmnode.getNodeURL() + " : " + scriptWithReplacedBindings.hashCode() + " unknown script");
+            logger.debug(rmnode.getNodeURL() + " : " + script.getResolvedScript().hashCode() + " unknown script");
         return false;
     }
 
@@ -201,66 +226,112 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return whether node is selected
      */
     @Override
-    public synchronized boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
+    public boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
             ScriptResult<Boolean> scriptResult, RMNode rmnode) {
+        return processScriptResult(new PreparedSelectionScript(script, bindings), scriptResult, rmnode);
+    }
+
+    /**
+     * Processes script result and updates knowledge base of
+     * selection manager at the same time.
+     *
+     * @param script - executed prepared script
+     * @param scriptResult - obtained script result
+     * @param rmnode - node on which script has been executed
+     * @return whether node is selected
+     */
+    @Override
+    public boolean processScriptResult(PreparedSelectionScript script, ScriptResult<Boolean> scriptResult,
+            RMNode rmnode) {
 
-        boolean result = false;
+        boolean result = scriptResult != null && !scriptResult.errorOccured() && scriptResult.getResult();
 
-        SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
+        ConcurrentMap<String, Probability> scriptProbabilities = getScriptProbabilities(script);
+        String nodeUrl = rmnode.getNodeURL().intern();
 
-        try {
-            String digest = new String(scriptWithReplacedBindings.digest());
-            Probability probability = new Probability(Probability.defaultValue());
-            if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                probability = probabilities.get(digest).get(rmnode.getNodeURL());
+        Probability probability;
+        if (script.isDynamic()) {
+            probability = getDynamicProbability(scriptProbabilities, nodeUrl);
+            // the same node may be updated by several script executor threads
+            synchronized (probability) {
                 assert (probability.value() >= 0 && probability.value() <= 1);
-            }
-
-            if (scriptResult == null || scriptResult.errorOccured() || !scriptResult.getResult()) {
-                // error during script execution or script returned false
-                if (scriptWithReplacedBindings.isDynamic()) {
-                    probability.decrease();
-                } else {
-                    probability = Probability.ZERO;
-                }
-            } else {
-                // script passed
-                result = true;
-                if (scriptWithReplacedBindings.isDynamic()) {
+                if (result) {
                     probability.increase();
                 } else {
-                    probability = Probability.ONE;
+                    // error during script execution or script returned false
+                    probability.decrease();
                 }
             }
+        } else {
+            probability = result ? Probability.ONE : Probability.ZERO;
+            scriptProbabilities.put(nodeUrl, probability);
+        }
 
-            if (!probabilities.containsKey(digest)) {
-                // checking if the number of selection script does not exceeded the maximum
-                if (probabilities.size() >= PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.getValueAsInt()) {
-                    String oldest = digestQueue.poll();
-                    probabilities.remove(oldest);
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Removing the script: " + scriptWithReplacedBindings.hashCode() +
-                                     " from the data base because the limit is reached");
-                    }
+        if (logger.isDebugEnabled()) {
+            logger.debug(rmnode.getNodeURL() + " : script " + script.getResolvedScript().hashCode() +
+                         ", probability " + probability);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the probability of a dynamic script on a node, adding it atomically if needed so that
+     * concurrent updates of the same node all apply to the same probability. The shared probabilities
+     * of static scripts are replaced by a copy instead of being updated.
+     */
+    private static Probability getDynamicProbability(ConcurrentMap<String, Probability> scriptProbabilities,
+            String nodeUrl) {
+        while (true) {
+            Probability probability = scriptProbabilities.get(nodeUrl);
+            if (probability == null) {
+                Probability newProbability = new Probability(Probability.defaultValue());
+                probability = scriptProbabilities.putIfAbsent(nodeUrl, newProbability);
+                if (probability == null) {
+                    return newProbability;
+                }
+            } else if (probability == Probability.ZERO || probability == Probability.ONE) {
+                Probability newProbability = new Probability(probability.value());
+                if (scriptProbabilities.replace(nodeUrl, probability, newProbability)) {
+                    return newProbability;
                 }
-                // adding a new script record
-                probabilities.put(digest, new HashMap<String, Probability>());
-                logger.debug("Scripts cache size " + probabilities.size());
-                digestQueue.offer(digest);
+            } else {
+                return probability;
             }
+        }
+    }
 
+    /**
+     * Returns the node probabilities of a script, adding a new script record if needed.
+     */
+    private ConcurrentMap<String, Probability> getScriptProbabilities(PreparedSelectionScript script) {
+        String digest = script.getDigest();
+        ConcurrentMap<String, Probability> scriptProbabilities = probabilities.get(digest);
+        if (scriptProbabilities != null) {
+            return scriptProbabilities;
+        }
+
+        // checking if the number of selection script does not exceeded the maximum
+        while (probabilities.size() >= PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.getValueAsInt()) {
+            String oldest = digestQueue.poll();
+            if (oldest == null) {
+                break;
+            }
+            probabilities.remove(oldest);
             if (logger.isDebugEnabled()) {
-                logger.debug(rmnode.getNodeURL() + " : script " + scriptWithReplacedBindings.hashCode() +
-                             ", probability " + probability);
+                logger.debug("Removing the script: " + oldest + " from the data base because the limit is reached");
             }
-
-            probabilities.get(digest).put(rmnode.getNodeURL().intern(), probability);
-
-        } catch (NoSuchAlgorithmException e) {
-            logger.error(e.getMessage(), e);
         }
 
-        return result;
+        // adding a new script record
+        ConcurrentMap<String, Probability> newScriptProbabilities = new ConcurrentHashMap<>();
+        scriptProbabilities = probabilities.putIfAbsent(digest, newScriptProbabilities);
+        if (scriptProbabilities == null) {
+            scriptProbabilities = newScriptProbabilities;
+            digestQueue.offer(digest);
+            logger.debug("Scripts cache size " + probabilities.size());
+        }
+        return scriptProbabilities;
     }
 
     /**
@@ -270,23 +341,4 @@ public class ProbablisticSelectionManager extends SelectionManager {
         return logger;
     }
 
-    private SelectionScript replaceBindings(SelectionScript script, Map<String, Serializable> bindings) {
-        String scriptContent = script.getScript();
-        if (bindings != null) {
-            for (Map.Entry<String, Serializable> entry : bindings.entrySet()) {
-                scriptContent = scriptContent.replace(entry.getKey(), entry.getValue().toString());
-            }
-        }
-        try {
-            return new SelectionScript(scriptContent,
-                                       script.getEngineName(),
-                                       script.getParameters(),
-                                       script.isDynamic());
-        } catch (InvalidScriptException e) {
-            logger.warn("Error when replacing bindings of script (revert to use original script):" +
-                        System.lineSeparator() + script.toString(), e);
-            return script;
-        }
-    }
-
 }
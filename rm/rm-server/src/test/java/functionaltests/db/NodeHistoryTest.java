@@ -25,6 +25,7 @@
  */
 package functionaltests.db;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.hibernate.cfg.Configuration;
@@ -34,7 +35,9 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.ow2.proactive.resourcemanager.common.NodeState;
 import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+import org.ow2.proactive.resourcemanager.core.history.NodeUsage;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.db.NodeHistoryBuffer;
 import org.ow2.proactive.resourcemanager.db.RMDBManager;
 
 
@@ -95,6 +98,59 @@ public class NodeHistoryTest {
         dbManager.close();
     }
 
+    @Test
+    public void testBufferedHistory() throws Exception {
+        Configuration config = new Configuration().configure("/functionaltests/config/hibernate-unit.cfg.xml");
+        RMDBManager bufferedDbManager = new RMDBManager(config, true, true);
+
+        try {
+            NodeHistoryBuffer buffer = bufferedDbManager.getNodeHistoryBuffer();
+            buffer.add(createNodeHistory(1));
+            buffer.add(createNodeHistory(2));
+            buffer.add(createNodeHistory(3));
+            buffer.flush();
+
+            Assert.assertEquals(0, buffer.getPendingCount());
+            Assert.assertEquals(3, buffer.getSavedCount());
+
+            List<?> rows = bufferedDbManager.executeSqlQuery("from NodeHistory order by startTime");
+            Assert.assertEquals(3, rows.size());
+            Assert.assertEquals(2, ((NodeHistory) rows.get(0)).getEndTime());
+            Assert.assertEquals(3, ((NodeHistory) rows.get(1)).getEndTime());
+            Assert.assertEquals(0, ((NodeHistory) rows.get(2)).getEndTime());
+        } finally {
+            bufferedDbManager.close();
+        }
+    }
+
+    @Test
+    public void testNodeUsageRollups() throws Exception {
+        Configuration config = new Configuration().configure("/functionaltests/config/hibernate-unit.cfg.xml");
+        RMDBManager rollupsDbManager = new RMDBManager(config, true, true);
+
+        try {
+            rollupsDbManager.saveNodeHistory(createNodeHistory(1));
+
+            NodeHistory busy = createNodeHistory(1000);
+            busy.setNodeState(NodeState.BUSY);
+            busy.setUserName("user");
+            rollupsDbManager.saveNodeHistories(Arrays.asList(busy,
+                                                             createNodeHistory(NodeUsage.BUCKET_DURATION + 1000)));
+
+            Assert.assertEquals(NodeUsage.BUCKET_DURATION,
+                                rollupsDbManager.getNodeUsageTime(NodeUsage.UsageType.USED, "user"));
+            Assert.assertEquals(999 + NodeUsage.BUCKET_DURATION,
+                                rollupsDbManager.getNodeUsageTime(NodeUsage.UsageType.PROVIDED, "provider"));
+            Assert.assertEquals(1, rollupsDbManager.getProvidedNodesCount("provider"));
+
+            // the busy time spans two hourly buckets
+            List<?> usedBuckets = rollupsDbManager.executeSqlQuery("from NodeUsage where name = 'user'");
+            Assert.assertEquals(2, usedBuckets.size());
+        } finally {
+            rollupsDbManager.close();
+        }
+    }
+
     private void assertEquals(NodeHistory expected, NodeHistory actual) {
         Assert.assertEquals(expected.getHost(), actual.getHost());
         Assert.assertEquals(expected.getNodeSource(), actual.getNodeSource());
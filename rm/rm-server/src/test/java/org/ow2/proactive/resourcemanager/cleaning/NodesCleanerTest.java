@@ -0,0 +1,135 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.cleaning;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
+import org.ow2.proactive.resourcemanager.core.RMCore;
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+
+
+public class NodesCleanerTest {
+
+    private RMCore rmcore;
+
+    private RMNode fastNode;
+
+    private RMNode slowNode;
+
+    private CountDownLatch slowNodeCleaned;
+
+    private ExecutorService caller;
+
+    @Before
+    public void setUp() throws Exception {
+        rmcore = mock(RMCore.class);
+        when(rmcore.setFreeNodes(anyListOf(RMNode.class))).thenReturn(new BooleanWrapper(true));
+
+        fastNode = createNode("fast");
+        slowNode = createNode("slow");
+        slowNodeCleaned = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                slowNodeCleaned.await();
+                return null;
+            }
+        }).when(slowNode).clean();
+
+        caller = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        slowNodeCleaned.countDown();
+        caller.shutdownNow();
+        PAResourceManagerProperties.RM_CLEANING_TIMEOUT.updateProperty("60000");
+    }
+
+    @Test
+    public void testCleanNodeIsReleasedWithoutWaitingForSlowerNodes() throws Exception {
+        Future<BooleanWrapper> released = cleanAndRelease(new NodesCleaner(rmcore));
+
+        verify(rmcore, timeout(5000)).setFreeNodes(Collections.singletonList(fastNode));
+        assertThat(released.isDone()).isFalse();
+        verify(rmcore, never()).setFreeNodes(Collections.singletonList(slowNode));
+
+        slowNodeCleaned.countDown();
+
+        assertThat(released.get(5, TimeUnit.SECONDS).getBooleanValue()).isTrue();
+        verify(rmcore).setFreeNodes(Collections.singletonList(slowNode));
+    }
+
+    @Test
+    public void testNodeIsMarkedDownWhenCleaningTimesOut() throws Exception {
+        PAResourceManagerProperties.RM_CLEANING_TIMEOUT.updateProperty("100");
+
+        Future<BooleanWrapper> released = cleanAndRelease(new NodesCleaner(rmcore));
+
+        assertThat(released.get(5, TimeUnit.SECONDS).getBooleanValue()).isFalse();
+        verify(rmcore).setFreeNodes(Collections.singletonList(fastNode));
+        verify(rmcore).setDownNode(slowNode.getNodeURL());
+        verify(rmcore, never()).setFreeNodes(Collections.singletonList(slowNode));
+    }
+
+    private Future<BooleanWrapper> cleanAndRelease(final NodesCleaner nodesCleaner) {
+        return caller.submit(new Callable<BooleanWrapper>() {
+            @Override
+            public BooleanWrapper call() throws Exception {
+                return nodesCleaner.cleanAndRelease(Arrays.asList(slowNode, fastNode));
+            }
+        });
+    }
+
+    private RMNode createNode(String name) {
+        RMNode node = mock(RMNode.class);
+        when(node.getNodeURL()).thenReturn("pnp://localhost/" + name);
+        return node;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
+
+
+public class FreeNodesJournalTest {
+
+    private FreeNodesJournal journal;
+
+    @Before
+    public void setUp() {
+        journal = new FreeNodesJournal(4);
+    }
+
+    @Test
+    public void testUnknownJournalRequiresSnapshot() {
+        journal.nodeAdded("node1");
+        assertThat(journal.getDelta(null, 0)).isNull();
+        assertThat(journal.getDelta("another-journal", journal.getRevision())).isNull();
+    }
+
+    @Test
+    public void testRevisionFromTheFutureRequiresSnapshot() {
+        journal.nodeAdded("node1");
+        assertThat(journal.getDelta(journal.getId(), journal.getRevision() + 1)).isNull();
+    }
+
+    @Test
+    public void testUpToDateRevisionGivesEmptyDelta() {
+        journal.nodeAdded("node1");
+        RMFreeNodesDelta delta = journal.getDelta(journal.getId(), journal.getRevision());
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(delta.getRevision()).isEqualTo(journal.getRevision());
+    }
+
+    @Test
+    public void testDeltaKeepsLastChangeOfEachNode() {
+        long since = journal.getRevision();
+        journal.nodeAdded("node1");
+        journal.nodeAdded("node2");
+        journal.nodeRemoved("node1");
+
+        RMFreeNodesDelta delta = journal.getDelta(journal.getId(), since);
+        assertThat(delta.isSnapshot()).isFalse();
+        assertThat(delta.getAdded()).containsExactly("node2");
+        assertThat(delta.getRemoved()).containsExactly("node1");
+        assertThat(delta.getRevision()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testTooOldRevisionRequiresSnapshot() {
+        long since = journal.getRevision();
+        for (int i = 0; i < 5; i++) {
+            journal.nodeAdded("node" + i);
+        }
+        assertThat(journal.getDelta(journal.getId(), since)).isNull();
+        assertThat(journal.getDelta(journal.getId(), since + 1)).isNotNull();
+    }
+
+    @Test
+    public void testDeltaAppliedToLocalCopy() {
+        Set<String> freeNodes = new HashSet<>();
+        RMFreeNodesDelta.snapshot(journal.getId(), journal.getRevision(), setOf("node1", "node2")).applyTo(freeNodes);
+
+        long since = journal.getRevision();
+        journal.nodeRemoved("node1");
+        journal.nodeAdded("node3");
+        journal.getDelta(journal.getId(), since).applyTo(freeNodes);
+
+        assertThat(freeNodes).containsExactly("node2", "node3");
+    }
+
+    private static Set<String> setOf(String... urls) {
+        Set<String> set = new HashSet<>();
+        for (String url : urls) {
+            set.add(url);
+        }
+        return set;
+    }
+}
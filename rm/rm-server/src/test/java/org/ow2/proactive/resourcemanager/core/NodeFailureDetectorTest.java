@@ -0,0 +1,102 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.resourcemanager.common.NodeHeartbeat;
+
+
+public class NodeFailureDetectorTest {
+
+    private static final String NODE_URL = "pnp://host:1234/node";
+
+    private static final long PERIOD = 1000;
+
+    private NodeFailureDetector detector;
+
+    private NodeHeartbeat heartbeat;
+
+    @Before
+    public void setUp() {
+        detector = new NodeFailureDetector(8);
+        heartbeat = new NodeHeartbeat(Collections.singleton(NODE_URL), PERIOD, 0.5, 4, 100, 1000);
+    }
+
+    @Test
+    public void testUnknownNodeIsNotMonitored() {
+        assertThat(detector.isMonitored(NODE_URL)).isFalse();
+        assertThat(detector.isSuspected(NODE_URL, 1000000)).isFalse();
+        assertThat(detector.getLastHeartbeat(NODE_URL)).isNull();
+    }
+
+    @Test
+    public void testRegularHeartbeatsAreNotSuspected() {
+        long now = sendRegularHeartbeats(20);
+        assertThat(detector.isMonitored(NODE_URL)).isTrue();
+        assertThat(detector.getLastHeartbeat(NODE_URL)).isSameAs(heartbeat);
+        assertThat(detector.isSuspected(NODE_URL, now + PERIOD)).isFalse();
+    }
+
+    @Test
+    public void testLongSilenceIsSuspected() {
+        long now = sendRegularHeartbeats(20);
+        assertThat(detector.isSuspected(NODE_URL, now + 10 * PERIOD)).isTrue();
+    }
+
+    @Test
+    public void testPhiIncreasesWithTimeSinceLastHeartbeat() {
+        long now = sendRegularHeartbeats(20);
+        double previous = detector.phi(NODE_URL, now);
+        for (long elapsed = PERIOD / 2; elapsed < 3 * PERIOD; elapsed += PERIOD / 2) {
+            double phi = detector.phi(NODE_URL, now + elapsed);
+            assertThat(phi).isAtLeast(previous);
+            previous = phi;
+        }
+    }
+
+    @Test
+    public void testRemovedNodeIsNoLongerMonitored() {
+        long now = sendRegularHeartbeats(5);
+        detector.remove(NODE_URL);
+        assertThat(detector.isMonitored(NODE_URL)).isFalse();
+        assertThat(detector.isSuspected(NODE_URL, now + 10 * PERIOD)).isFalse();
+    }
+
+    private long sendRegularHeartbeats(int count) {
+        long now = 0;
+        for (int i = 0; i < count; i++) {
+            now += PERIOD;
+            detector.heartbeat(NODE_URL, heartbeat, now);
+        }
+        return now;
+    }
+
+}
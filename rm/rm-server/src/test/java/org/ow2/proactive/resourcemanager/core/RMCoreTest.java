@@ -57,7 +57,9 @@ import org.objectweb.proactive.core.node.NodeException;
 import org.objectweb.proactive.core.node.NodeInformation;
 import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.common.event.RMEventType;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeDescriptor;
@@ -559,6 +561,22 @@ public class RMCoreTest {
         assertEquals(3, rmState.getTotalAliveNodesNumber());
     }
 
+    @Test
+    public void testGetFreeNodesDelta() {
+        RMFreeNodesDelta snapshot = rmCore.getFreeNodesDelta(null, 0);
+        assertThat(snapshot.isSnapshot()).isTrue();
+        assertThat(snapshot.getAdded()).hasSize(3);
+
+        rmCore.setFreeNodes(ImmutableList.of(mockedUnremovableNode));
+
+        RMFreeNodesDelta delta = rmCore.getFreeNodesDelta(snapshot.getJournalId(), snapshot.getRevision());
+        assertThat(delta.isSnapshot()).isFalse();
+        assertThat(delta.getAdded()).containsExactly(mockedUnremovableNode.getNodeURL());
+        assertThat(delta.getRemoved()).isEmpty();
+
+        assertThat(rmCore.getFreeNodesDelta(delta.getJournalId(), delta.getRevision()).isEmpty()).isTrue();
+    }
+
     @Test
     public void testFreeNodeWithNodeThatIsAlreadyFree() {
         int numberOfNodeEligibleForSchedulingBeforeFreeing = getNumberOfFreeNodes();
@@ -734,6 +752,22 @@ public class RMCoreTest {
         verify(rmCore).restoreNodeState(mockedRemovableNode.getNodeURL(), mockedRemovableNode);
     }
 
+    @Test
+    public void testSetNodesResourcesKnownNodeUrl() throws ActiveObjectCreationException, NodeException {
+        ImmutableMap<String, RMNode> allNodes = ImmutableMap.of(mockedBusyNode.getNodeURL(), mockedBusyNode);
+
+        List<RMNode> freeNodes = Collections.emptyList();
+
+        RMCore rmCore = createRmCore(allNodes, freeNodes);
+
+        NodeResources resources = new NodeResources(0, 4, 32, 16, 0, 0, 0, -1, 0);
+        rmCore.setNodesResources(ImmutableSet.of(mockedBusyNode.getNodeURL(), mockedRemovableNode.getNodeURL()),
+                                 resources);
+
+        verify(mockedBusyNode).setResources(any(NodeResources.class));
+        verify(mockedRemovableNode, never()).setResources(any(NodeResources.class));
+    }
+
     @Test
     public void testRestoreNodeStateWithPreviousNodeStateBusy() {
         configureNodeForStateChange(mockedRemovableNode, NodeState.BUSY);
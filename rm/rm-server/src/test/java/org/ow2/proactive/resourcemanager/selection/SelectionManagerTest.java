@@ -51,6 +51,7 @@ import org.objectweb.proactive.core.node.NodeInformation;
 import org.ow2.proactive.authentication.principals.UserNamePrincipal;
 import org.ow2.proactive.permissions.PrincipalPermission;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.nodesource.NodeSource;
@@ -62,6 +63,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.ResourceRequirements;
 import org.ow2.proactive.utils.Subjects;
 
 import com.google.common.collect.Lists;
@@ -69,6 +71,8 @@ import com.google.common.collect.Lists;
 
 public class SelectionManagerTest {
 
+    private static final long GB = 1024L * 1024L * 1024L;
+
     @After
     public void tearDown() throws Exception {
         RMCore.topologyManager = null;
@@ -145,6 +149,56 @@ public class SelectionManagerTest {
         assertEquals(10, nodeSet.size());
     }
 
+    @Test
+    public void testSelectNodesWithResourceRequirements() {
+        RMCore rmCore = newMockedRMCore();
+        List<RMNode> freeNodes = new ArrayList<>();
+        for (long freeMemory : new long[] { 16, 4, 1 }) {
+            RMNode node = createMockeNode("user", "node-" + freeMemory, "node-" + freeMemory);
+            when(node.getResources()).thenReturn(new NodeResources(0, 4, 32 * GB, freeMemory * GB, 0, 0, 0, -1, 0));
+            freeNodes.add(node);
+        }
+        freeNodes.add(createMockeNode("user", "node-unknown", "node-unknown"));
+        when(rmCore.getFreeNodes()).thenReturn(freeNodes);
+        SelectionManager selectionManager = createSelectionManager(rmCore);
+
+        ResourceRequirements requirements = new ResourceRequirements();
+        requirements.setMemory(2 * GB);
+        Criteria crit = new Criteria(4);
+        crit.setTopology(TopologyDescriptor.ARBITRARY);
+        crit.setBestEffort(true);
+        crit.setResourceRequirements(requirements);
+
+        NodeSet nodeSet = selectionManager.selectNodes(crit, mock(Client.class));
+        assertEquals(3, nodeSet.size());
+        assertEquals("node-4", nodeSet.get(0).getNodeInformation().getURL());
+        assertEquals("node-16", nodeSet.get(1).getNodeInformation().getURL());
+        assertEquals("node-unknown", nodeSet.get(2).getNodeInformation().getURL());
+    }
+
+    @Test
+    public void testArrangeNodesByResourcesKeepsNodeSourceOrder() {
+        List<RMNode> nodes = new ArrayList<>();
+        for (String nodeSourceName : new String[] { "first", "second" }) {
+            for (long freeMemory : new long[] { 16, 4 }) {
+                String nodeName = nodeSourceName + "-" + freeMemory;
+                RMNode node = createMockeNode("user", nodeName, nodeName);
+                when(node.getNodeSourceName()).thenReturn(nodeSourceName);
+                when(node.getResources()).thenReturn(new NodeResources(0, 4, 32 * GB, freeMemory * GB, 0, 0, 0, -1, 0));
+                nodes.add(node);
+            }
+        }
+        ResourceRequirements requirements = new ResourceRequirements();
+        requirements.setMemory(2 * GB);
+
+        List<RMNode> arrangedNodes = SelectionManager.arrangeNodesByResources(nodes, requirements);
+        assertEquals(4, arrangedNodes.size());
+        assertEquals("first-4", arrangedNodes.get(0).getNodeName());
+        assertEquals("first-16", arrangedNodes.get(1).getNodeName());
+        assertEquals("second-4", arrangedNodes.get(2).getNodeName());
+        assertEquals("second-16", arrangedNodes.get(3).getNodeName());
+    }
+
     @Test
     public void testRunScriptsWillNotBeCalled() {
         RMCore rmCore = newMockedRMCore(2);
@@ -44,6 +44,7 @@ import org.junit.rules.TemporaryFolder;
 import org.objectweb.proactive.core.node.NodeException;
 import org.ow2.proactive.jmx.naming.JMXTransportProtocol;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.NodeState;
 import org.ow2.proactive.resourcemanager.common.event.RMEventType;
 import org.ow2.proactive.resourcemanager.common.event.RMNodeEvent;
@@ -280,6 +281,15 @@ public class TestNodeSourcePolicy {
             return false;
         }
 
+        @Override
+        public NodeResources getResources() {
+            return null;
+        }
+
+        @Override
+        public void setResources(NodeResources resources) {
+        }
+
         @Override
         public RMNodeEvent createNodeEvent(RMEventType eventType, NodeState previousNodeState, String initiator) {
             return null;
@@ -44,6 +44,8 @@ import org.junit.Test;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.resourcemanager.selection.PreparedCriteria;
+import org.ow2.proactive.resourcemanager.selection.PreparedSelectionScript;
 import org.ow2.proactive.resourcemanager.selection.SelectionManager;
 import org.ow2.proactive.resourcemanager.selection.SelectionManagerTest;
 import org.ow2.proactive.scripting.InvalidScriptException;
@@ -280,6 +282,33 @@ public class ProbabilisticSelectionManagerTest {
                                                     freeNodes.get(0)));
     }
 
+    @Test
+    public void testPreparedScriptsShareStatistics() throws Exception {
+        SelectionScript script = new SelectionScript("variables.get(\"TOTO\")", "groovy", false);
+        ManagerObjects managerObjects = new ManagerObjects(2).invoke();
+        SelectionManager selectionManager = managerObjects.getSelectionManager();
+        ArrayList<RMNode> freeNodes = managerObjects.getFreeNodes();
+        Map<String, Serializable> bindings = Collections.singletonMap("TOTO", (Serializable) "value");
+
+        PreparedSelectionScript preparedScript = new PreparedSelectionScript(script, bindings);
+        Assert.assertEquals(new PreparedSelectionScript(script, bindings).getDigest(), preparedScript.getDigest());
+        Assert.assertNotEquals(new PreparedSelectionScript(script, Collections.<String, Serializable> emptyMap()).getDigest(),
+                               preparedScript.getDigest());
+
+        selectionManager.processScriptResult(preparedScript, new ScriptResult<>(true), freeNodes.get(0));
+        selectionManager.processScriptResult(preparedScript, new ScriptResult<>(false), freeNodes.get(1));
+
+        Assert.assertTrue(selectionManager.isPassed(script, bindings, freeNodes.get(0)));
+        Assert.assertTrue(selectionManager.isPassed(preparedScript, freeNodes.get(0)));
+        Assert.assertFalse(selectionManager.isPassed(preparedScript, freeNodes.get(1)));
+
+        List<RMNode> arrangedNodes = selectionManager.arrangeNodesForScriptExecution(freeNodes,
+                                                                                     PreparedCriteria.prepare(Collections.singletonList(script),
+                                                                                                              bindings));
+        Assert.assertEquals(1, arrangedNodes.size());
+        Assert.assertEquals("mocked-node-1", arrangedNodes.get(0).getNodeName());
+    }
+
     private class ManagerObjects {
         private int nbNodes;
 
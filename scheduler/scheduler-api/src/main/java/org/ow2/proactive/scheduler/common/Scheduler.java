@@ -1288,6 +1288,36 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     Page<JobInfo> getJobs(int offset, int limit, JobFilterCriteria filterCriteria,
             List<SortParameter<JobSortParameter>> sortParameters) throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieves the jobs of the scheduler following a given job, in the given order.
+     * <p>
+     * Unlike {@link #getJobs(int, int, JobFilterCriteria, List)}, the page is located from the
+     * last job of the previous page instead of an offset, which keeps the pages consistent when
+     * jobs are submitted or removed between two requests and remains fast deep into the history.
+     * The jobs are sorted by id after the given sort parameters, if the id is not one of them.
+     *
+     * @param afterJobId
+     *            id of the last job of the previous page, null to get the first page
+     * @param limit
+     *            max number of jobs to retrieve
+     * @param filterCriteria
+     *            defines types of job (myonly, pending, running, finished), with the same
+     *            permission rules as {@link #getJobs(int, int, JobFilterCriteria, List)}
+     * @param sortParameters
+     *            defines in how jobs must be sorted
+     *
+     * @return jobs list according to all criteria
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     * @throws UnknownJobException
+     *             if the given job does not exist.
+     */
+    Page<JobInfo> getJobsAfter(String afterJobId, int limit, JobFilterCriteria filterCriteria,
+            List<SortParameter<JobSortParameter>> sortParameters)
+            throws NotConnectedException, PermissionException, UnknownJobException;
+
     /**
      * Returns a list of connected users.
      */
@@ -1366,6 +1396,89 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
             boolean finished, int offset, int limit, SortSpecifierContainer sortParams)
             throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieve the tasks following a given task, sorted by job id and task id.
+     * <p>
+     * Unlike {@link #getTaskIds(String, long, long, boolean, boolean, boolean, boolean, int, int)},
+     * the page is located from the last task of the previous page instead of an offset, which
+     * keeps the pages consistent when tasks are added or removed between two requests and remains
+     * fast deep into the history.
+     *
+     * @param afterTaskId
+     *            id of the last task of the previous page, null to get the first page
+     * @param taskTag
+     *            a complete tag to use to filter tasks
+     * @param from
+     *            the starting date to fetch tasks from. The format is in Epoch
+     *            time.
+     * @param to
+     *            the end date to stop fetching tasks. The format is in Epoch
+     *            time.
+     * @param mytasks
+     *            <code>True</code> will only fetch the user tasks,
+     *            <code>False</code> will fetch everyones.
+     * @param running
+     *            fetch the running tasks.
+     * @param pending
+     *            fetch the pending tasks.
+     * @param finished
+     *            fetch the finished tasks.
+     * @param limit
+     *            max number of tasks to retrieve
+     * @return the page of tasks names satisfying the given criterias.
+     *         The total number of tasks (without pagination() is also returned.
+     * @throws NotConnectedException
+     * @throws PermissionException
+     * @throws UnknownTaskException
+     *             if the given task does not exist.
+     */
+    Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException;
+
+    /**
+     * Retrieve the taskstates following a given task, in the given order.
+     * <p>
+     * Unlike {@link #getTaskStates},
+     * the page is located from the last task of the previous page instead of an offset, which
+     * keeps the pages consistent when tasks are added or removed between two requests and remains
+     * fast deep into the history. The tasks are sorted by job id and task id after the given sort
+     * parameters, if they are not already part of them.
+     *
+     * @param afterTaskId
+     *            id of the last task of the previous page, null to get the first page
+     * @param taskTag
+     *            a complete tag to use to filter tasks
+     * @param from
+     *            the starting date to fetch tasks from. The format is in Epoch
+     *            time.
+     * @param to
+     *            the end date to stop fetching tasks. The format is in Epoch
+     *            time.
+     * @param mytasks
+     *            <code>True</code> will only fetch the user tasks,
+     *            <code>False</code> will fetch everyones.
+     * @param running
+     *            fetch the running tasks.
+     * @param pending
+     *            fetch the pending tasks.
+     * @param finished
+     *            fetch the finished tasks.
+     * @param limit
+     *            max number of tasks to retrieve
+     * @param sortParams
+     *            defines in how tasks must be sorted
+     * @return the page of taskstates satisfying the given criterias.
+     *         The total number of tasks (without pagination() is also returned.
+     * @throws NotConnectedException
+     * @throws PermissionException
+     * @throws UnknownTaskException
+     *             if the given task does not exist.
+     */
+    Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit, SortSpecifierContainer sortParams)
+            throws NotConnectedException, PermissionException, UnknownTaskException;
+
     /**
      * Retrieve a job info by it id.
      * 
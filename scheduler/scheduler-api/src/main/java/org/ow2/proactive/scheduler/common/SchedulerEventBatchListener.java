@@ -0,0 +1,52 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.util.List;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * A {@link SchedulerEventListener} able to receive several events in one call.<br>
+ * When a listener implements this interface, the scheduler groups the events waiting to be sent
+ * to this listener instead of calling one method per event.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@PublicAPI
+public interface SchedulerEventBatchListener extends SchedulerEventListener {
+
+    /**
+     * Invoked with a group of events, in the order they occurred.<br>
+     * Implementations can use {@link SchedulerEventCall#deliverAll(SchedulerEventListener, Iterable)}
+     * to handle each event with the corresponding {@link SchedulerEventListener} method.
+     *
+     * @param events the events, in the order they occurred.
+     */
+    void schedulerEventsBatch(List<SchedulerEventCall> events);
+}
@@ -0,0 +1,120 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * A call to one of the {@link SchedulerEventListener} methods, as sent in a batch of events
+ * to a {@link SchedulerEventBatchListener}.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+@PublicAPI
+public final class SchedulerEventCall implements Serializable {
+
+    /** Name of the {@link SchedulerEventListener} method to call */
+    private final String methodName;
+
+    /** Parameter types of the method to call */
+    private final Class<?>[] parameterTypes;
+
+    /** Arguments of the call */
+    private final Object[] arguments;
+
+    /**
+     * Create a new event call.
+     *
+     * @param method the {@link SchedulerEventListener} method to call
+     * @param arguments the arguments of the call
+     */
+    public SchedulerEventCall(Method method, Object[] arguments) {
+        this.methodName = method.getName();
+        this.parameterTypes = method.getParameterTypes();
+        this.arguments = arguments;
+    }
+
+    /**
+     * Get the name of the {@link SchedulerEventListener} method to call
+     *
+     * @return the name of the method to call
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Get the arguments of the call
+     *
+     * @return the arguments of the call
+     */
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Call the event method on the given listener.
+     *
+     * @param listener the listener receiving the event
+     */
+    public void deliverTo(SchedulerEventListener listener) {
+        try {
+            Method method = SchedulerEventListener.class.getMethod(methodName, parameterTypes);
+            method.invoke(listener, arguments);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot deliver event " + this, e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Cannot deliver event " + this, e.getCause());
+        }
+    }
+
+    /**
+     * Call the event methods of a batch on the given listener, in order.
+     *
+     * @param listener the listener receiving the events
+     * @param events the batch of events
+     */
+    public static void deliverAll(SchedulerEventListener listener, Iterable<SchedulerEventCall> events) {
+        for (SchedulerEventCall event : events) {
+            event.deliverTo(listener);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return methodName + Arrays.toString(arguments);
+    }
+}
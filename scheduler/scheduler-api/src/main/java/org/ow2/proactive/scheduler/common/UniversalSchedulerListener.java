@@ -26,6 +26,7 @@
 package org.ow2.proactive.scheduler.common;
 
 import java.io.Serializable;
+import java.util.List;
 
 import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobState;
@@ -41,7 +42,7 @@ import org.ow2.proactive.scheduler.common.task.TaskInfo;
  * @author The ProActive Team
  * @since ProActive Scheduling 2.1
  */
-public class UniversalSchedulerListener implements SchedulerEventListener, Serializable {
+public class UniversalSchedulerListener implements SchedulerEventBatchListener, Serializable {
 
     // wrapped listener
     private final SchedulerEventListener internalListener;
@@ -128,4 +129,19 @@ public class UniversalSchedulerListener implements SchedulerEventListener, Seria
         this.internalListener.usersUpdatedEvent(notification);
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.ow2.proactive.scheduler.common.SchedulerEventBatchListener#schedulerEventsBatch(java.util.List)
+     */
+    @Override
+    public void schedulerEventsBatch(List<SchedulerEventCall> events) {
+        if (this.internalListener instanceof SchedulerEventBatchListener) {
+            ((SchedulerEventBatchListener) this.internalListener).schedulerEventsBatch(events);
+        } else {
+            SchedulerEventCall.deliverAll(this.internalListener, events);
+        }
+    }
+
 }
@@ -25,7 +25,12 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
@@ -133,4 +138,36 @@ public abstract class JobFactory {
 
     public abstract Job createJob(URI filePath, Map<String, String> variables) throws JobCreationException;
 
+    /**
+     * Creates a job using the given job descriptor content.
+     * The default implementation stores the content in a temporary file and calls {@link #createJob(String, Map)},
+     * so relative paths in the job descriptor are resolved against the temporary directory. Implementations which
+     * can parse the content without storing it in a file should override it.
+     *
+     * @param jobInputStream the content of an XML job descriptor, which is not closed by this method.
+     * @return a Job instance created with the given XML content.
+     * @throws JobCreationException if an exception occurred during job creation.
+     */
+    public Job createJob(InputStream jobInputStream) throws JobCreationException {
+        return createJob(jobInputStream, null);
+    }
+
+    /**
+     * @see #createJob(InputStream)
+     */
+    public Job createJob(InputStream jobInputStream, Map<String, String> variables) throws JobCreationException {
+        File jobFile = null;
+        try {
+            jobFile = File.createTempFile("job", ".xml");
+            Files.copy(jobInputStream, jobFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return createJob(jobFile.getAbsolutePath(), variables);
+        } catch (IOException e) {
+            throw new JobCreationException("Cannot store the job descriptor in a temporary file", e);
+        } finally {
+            if (jobFile != null) {
+                jobFile.delete();
+            }
+        }
+    }
+
 }
@@ -27,13 +27,17 @@ package org.ow2.proactive.scheduler.common.job.factories;
 
 import static org.ow2.proactive.scheduler.common.util.VariableSubstitutor.filterAndUpdate;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -46,6 +50,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.XMLEvent;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 import org.iso_relax.verifier.VerifierConfigurationException;
 import org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector;
@@ -57,6 +62,7 @@ import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.job.JobVariable;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.job.factories.spi.JobContentValidatorService;
 import org.ow2.proactive.scheduler.common.job.factories.spi.JobValidatorRegistry;
 import org.ow2.proactive.scheduler.common.job.factories.spi.JobValidatorService;
 import org.ow2.proactive.scheduler.common.task.CommonAttribute;
@@ -163,6 +169,30 @@ public class StaxJobFactory extends JobFactory {
         }
     }
 
+    @Override
+    public Job createJob(InputStream jobInputStream) throws JobCreationException {
+        return createJob(jobInputStream, null);
+    }
+
+    @Override
+    public Job createJob(InputStream jobInputStream, Map<String, String> replacementVariables)
+            throws JobCreationException {
+        try {
+            //read the content once, validators and parser then work on the same buffer
+            byte[] content = IOUtils.toByteArray(jobInputStream);
+            //validate content using the proper XML schema
+            byte[] updatedContent = validate(content);
+            //relative paths are resolved against the working directory
+            relativePathRoot = "./";
+            return parseJob(new ByteArrayInputStream(updatedContent), replacementVariables);
+        } catch (JobCreationException jce) {
+            jce.pushTag(XMLTags.JOB.getXMLName());
+            throw jce;
+        } catch (Exception e) {
+            throw new JobCreationException(e);
+        }
+    }
+
     private Job createJob(File file, Map<String, String> replacementVariables) throws JobCreationException {
         try {
             //Check if the file exist
@@ -173,30 +203,9 @@ public class StaxJobFactory extends JobFactory {
             File updatedFile = validate(file);
             //set relative path
             relativePathRoot = updatedFile.getParentFile().getAbsolutePath();
-            //create and get XML STAX reader
-            XMLStreamReader xmlsr;
-            // use the server side property to accept encoding
-            if (PASchedulerProperties.FILE_ENCODING.isSet()) {
-                xmlsr = xmlInputFactory.createXMLStreamReader(new FileInputStream(updatedFile),
-                                                              PASchedulerProperties.FILE_ENCODING.getValueAsString());
-            } else {
-                xmlsr = xmlInputFactory.createXMLStreamReader(new FileInputStream(updatedFile));
+            try (InputStream jobInputStream = new FileInputStream(updatedFile)) {
+                return parseJob(jobInputStream, replacementVariables);
             }
-            //Dependencies
-            Map<String, ArrayList<String>> dependencies = new HashMap<>();
-            //Create the job starting at the first cursor position of the XML Stream reader
-            Job job = createJob(xmlsr, replacementVariables, dependencies);
-            //Close the stream
-            xmlsr.close();
-            //make dependencies
-            makeDependences(job, dependencies);
-
-            validate((TaskFlowJob) job);
-
-            logger.debug("Job successfully created!");
-            //debug mode only
-            displayJobInfo(job);
-            return job;
         } catch (JobCreationException jce) {
             jce.pushTag(XMLTags.JOB.getXMLName());
             throw jce;
@@ -205,17 +214,42 @@ public class StaxJobFactory extends JobFactory {
         }
     }
 
+    /*
+     * Parse a validated job descriptor
+     */
+    private Job parseJob(InputStream jobInputStream, Map<String, String> replacementVariables)
+            throws XMLStreamException, VerifierConfigurationException, JobCreationException {
+        //create and get XML STAX reader
+        XMLStreamReader xmlsr;
+        // use the server side property to accept encoding
+        if (PASchedulerProperties.FILE_ENCODING.isSet()) {
+            xmlsr = xmlInputFactory.createXMLStreamReader(jobInputStream,
+                                                          PASchedulerProperties.FILE_ENCODING.getValueAsString());
+        } else {
+            xmlsr = xmlInputFactory.createXMLStreamReader(jobInputStream);
+        }
+        //Dependencies
+        Map<String, ArrayList<String>> dependencies = new HashMap<>();
+        //Create the job starting at the first cursor position of the XML Stream reader
+        Job job = createJob(xmlsr, replacementVariables, dependencies);
+        //Close the stream
+        xmlsr.close();
+        //make dependencies
+        makeDependences(job, dependencies);
+
+        validate((TaskFlowJob) job);
+
+        logger.debug("Job successfully created!");
+        //debug mode only
+        displayJobInfo(job);
+        return job;
+    }
+
     /*
      * Validate the given job descriptor
      */
     private File validate(File file) throws VerifierConfigurationException, JobCreationException {
-        Map<String, JobValidatorService> factories;
-        try {
-            factories = JobValidatorRegistry.getInstance().getRegisteredFactories();
-        } catch (Exception e) {
-            logger.error(MSG_UNABLE_TO_INSTANCIATE_JOB_VALIDATION_FACTORIES, e);
-            throw new VerifierConfigurationException(MSG_UNABLE_TO_INSTANCIATE_JOB_VALIDATION_FACTORIES, e);
-        }
+        Map<String, JobValidatorService> factories = getJobValidators();
 
         File updatedFile = file;
 
@@ -234,17 +268,56 @@ public class StaxJobFactory extends JobFactory {
     }
 
     /*
-     * Validate the given job descriptor
+     * Validate the given job descriptor content, validators which cannot work in memory get it in a file
      */
-    private TaskFlowJob validate(TaskFlowJob job) throws VerifierConfigurationException, JobCreationException {
+    private byte[] validate(byte[] content) throws VerifierConfigurationException, JobCreationException {
+        Map<String, JobValidatorService> factories = getJobValidators();
+
+        byte[] updatedContent = content;
 
-        Map<String, JobValidatorService> factories;
         try {
-            factories = JobValidatorRegistry.getInstance().getRegisteredFactories();
+
+            for (JobValidatorService factory : factories.values()) {
+                if (factory instanceof JobContentValidatorService) {
+                    updatedContent = ((JobContentValidatorService) factory).validateJob(updatedContent);
+                } else {
+                    updatedContent = validateInFile(factory, updatedContent);
+                }
+            }
+        } catch (JobValidationException e) {
+            throw e;
         } catch (Exception e) {
-            throw new VerifierConfigurationException(MSG_UNABLE_TO_INSTANCIATE_JOB_VALIDATION_FACTORIES, e);
+            throw new JobValidationException(true, e);
         }
 
+        return updatedContent;
+    }
+
+    private byte[] validateInFile(JobValidatorService factory, byte[] content)
+            throws IOException, JobValidationException {
+        File file = File.createTempFile("job", ".xml");
+        try {
+            Files.write(file.toPath(), content);
+            File updatedFile = factory.validateJob(file);
+            try {
+                return Files.readAllBytes(updatedFile.toPath());
+            } finally {
+                if (!updatedFile.equals(file)) {
+                    updatedFile.delete();
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /*
+     * Validate the given job descriptor
+     */
+    private TaskFlowJob validate(TaskFlowJob job) throws VerifierConfigurationException, JobCreationException {
+
+        Map<String, JobValidatorService> factories = getJobValidators();
+
         TaskFlowJob updatedJob = job;
 
         try {
@@ -261,6 +334,15 @@ public class StaxJobFactory extends JobFactory {
         return updatedJob;
     }
 
+    private Map<String, JobValidatorService> getJobValidators() throws VerifierConfigurationException {
+        try {
+            return JobValidatorRegistry.getInstance().getRegisteredFactories();
+        } catch (Exception e) {
+            logger.error(MSG_UNABLE_TO_INSTANCIATE_JOB_VALIDATION_FACTORIES, e);
+            throw new VerifierConfigurationException(MSG_UNABLE_TO_INSTANCIATE_JOB_VALIDATION_FACTORIES, e);
+        }
+    }
+
     /**
      * Start parsing and creating the job.
      *
@@ -33,6 +33,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.iso_relax.verifier.Schema;
 import org.iso_relax.verifier.Verifier;
@@ -43,6 +45,7 @@ import org.ow2.proactive.scheduler.common.exception.JobCreationException;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
@@ -58,6 +61,11 @@ import com.sun.msv.verifier.ValidityViolation;
  */
 public class ValidationUtil {
 
+    /**
+     * Compiled schemas, by location, shared by all validations as schemas are thread-safe
+     */
+    private static final ConcurrentMap<String, Schema> COMPILED_SCHEMAS = new ConcurrentHashMap<>();
+
     /**
      * Validates the job descriptor file against the specified schema.
      * 
@@ -72,10 +80,48 @@ public class ValidationUtil {
     public static void validate(File jobFile, InputStream schemaIs)
             throws SAXException, IOException, JobCreationException {
         try {
+            validate(new InputSource(jobFile.getAbsolutePath()), compileSchema(schemaIs));
+        } catch (VerifierConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Validates the job descriptor file against the specified schema, compiled once and reused.
+     *
+     * @param jobFile
+     *            the job descriptor file
+     * @param schema
+     *            the job schema
+     *
+     * @throws JobCreationException
+     *             if the job descriptor is invalid
+     */
+    public static void validate(File jobFile, Schemas schema) throws SAXException, IOException, JobCreationException {
+        validate(new InputSource(jobFile.getAbsolutePath()), getCompiledSchema(schema));
+    }
+
+    /**
+     * Validates the job descriptor content against the specified schema, compiled once and reused.
+     *
+     * @param jobInputStream
+     *            the job descriptor content, which is not closed by this method
+     * @param schema
+     *            the job schema
+     *
+     * @throws JobCreationException
+     *             if the job descriptor is invalid
+     */
+    public static void validate(InputStream jobInputStream, Schemas schema)
+            throws SAXException, IOException, JobCreationException {
+        validate(new InputSource(jobInputStream), getCompiledSchema(schema));
+    }
+
+    private static void validate(InputSource jobSource, Schema schema)
+            throws SAXException, IOException, JobCreationException {
+        try {
 
             XMLReader reader = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
-            VerifierFactory vfactory = new com.sun.msv.verifier.jarv.TheFactoryImpl();
-            Schema schema = vfactory.compileSchema(schemaIs);
 
             Verifier verifier = schema.newVerifier();
             VerifierHandler handler = verifier.getVerifierHandler();
@@ -84,7 +130,7 @@ public class ValidationUtil {
             ValidationErrorHandler errHandler = new ValidationErrorHandler(contentHandlerDecorator);
             verifier.setErrorHandler(errHandler);
 
-            reader.parse(jobFile.getAbsolutePath());
+            reader.parse(jobSource);
         } catch (SAXException se) {
             Throwable cause = se.getCause();
             if (cause != null && cause instanceof JobCreationException) {
@@ -98,6 +144,28 @@ public class ValidationUtil {
         }
     }
 
+    private static Schema getCompiledSchema(Schemas schema) throws SAXException, IOException {
+        Schema compiledSchema = COMPILED_SCHEMAS.get(schema.getLocation());
+        if (compiledSchema == null) {
+            try (InputStream schemaIs = ValidationUtil.class.getResourceAsStream(schema.getLocation())) {
+                compiledSchema = compileSchema(schemaIs);
+            } catch (VerifierConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+            Schema previousSchema = COMPILED_SCHEMAS.putIfAbsent(schema.getLocation(), compiledSchema);
+            if (previousSchema != null) {
+                compiledSchema = previousSchema;
+            }
+        }
+        return compiledSchema;
+    }
+
+    private static Schema compileSchema(InputStream schemaIs)
+            throws VerifierConfigurationException, SAXException, IOException {
+        VerifierFactory vfactory = new com.sun.msv.verifier.jarv.TheFactoryImpl();
+        return vfactory.compileSchema(schemaIs);
+    }
+
     private static class ValidationErrorHandler implements ErrorHandler {
         private ContentHandlerDecorator decorator;
 
@@ -0,0 +1,51 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.job.factories.spi;
+
+import org.ow2.proactive.scheduler.common.exception.JobValidationException;
+
+
+/**
+ * Job Validator able to validate a job descriptor kept in memory.
+ *
+ * A validator which does not implement this interface gets the job descriptor written to a temporary file
+ * when the job is created from a stream.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public interface JobContentValidatorService extends JobValidatorService {
+
+    /**
+     * Validate the provided xml job content, before the job is parsed by the scheduler
+     *
+     * @param jobContent xml job content to validate
+     * @return if the validator eventually made some modifications to the job, return a new version
+     * @throws JobValidationException if the job is not valid
+     */
+    byte[] validateJob(byte[] jobContent) throws JobValidationException;
+
+}
@@ -30,7 +30,7 @@ import java.io.File;
 import org.ow2.proactive.scheduler.common.exception.JobValidationException;
 import org.ow2.proactive.scheduler.common.job.JobVariable;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
-import org.ow2.proactive.scheduler.common.job.factories.spi.JobValidatorService;
+import org.ow2.proactive.scheduler.common.job.factories.spi.JobContentValidatorService;
 import org.ow2.proactive.scheduler.common.job.factories.spi.model.validator.ModelValidator;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskVariable;
@@ -39,7 +39,7 @@ import org.ow2.proactive.scheduler.common.task.TaskVariable;
 /**
  * TaskFlowJob validator which validates variables against model definition
  */
-public class DefaultModelJobValidatorServiceProvider implements JobValidatorService {
+public class DefaultModelJobValidatorServiceProvider implements JobContentValidatorService {
 
     public DefaultModelJobValidatorServiceProvider() {
         // empty
@@ -51,6 +51,12 @@ public class DefaultModelJobValidatorServiceProvider implements JobValidatorServ
         return jobFile;
     }
 
+    @Override
+    public byte[] validateJob(byte[] jobContent) throws JobValidationException {
+        // validate any job
+        return jobContent;
+    }
+
     @Override
     public TaskFlowJob validateJob(TaskFlowJob job) throws JobValidationException {
 
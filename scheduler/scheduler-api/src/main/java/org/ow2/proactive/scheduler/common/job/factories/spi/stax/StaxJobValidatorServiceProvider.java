@@ -25,9 +25,9 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories.spi.stax;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.InputStream;
 
 import javax.xml.stream.XMLInputFactory;
@@ -40,13 +40,13 @@ import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.job.factories.Schemas;
 import org.ow2.proactive.scheduler.common.job.factories.ValidationUtil;
 import org.ow2.proactive.scheduler.common.job.factories.XMLTags;
-import org.ow2.proactive.scheduler.common.job.factories.spi.JobValidatorService;
+import org.ow2.proactive.scheduler.common.job.factories.spi.JobContentValidatorService;
 
 
 /**
  * Job XML Validator which validates against the XML schema 
  */
-public class StaxJobValidatorServiceProvider implements JobValidatorService {
+public class StaxJobValidatorServiceProvider implements JobContentValidatorService {
 
     private XMLInputFactory xmlInputFactory = null;
 
@@ -61,11 +61,9 @@ public class StaxJobValidatorServiceProvider implements JobValidatorService {
 
     @Override
     public File validateJob(File jobFile) throws JobValidationException {
-        String findSchemaByNamespaceUsed;
-        try {
-            findSchemaByNamespaceUsed = findSchemaByNamespaceUsed(jobFile);
-            InputStream schemaStream = this.getClass().getResourceAsStream(findSchemaByNamespaceUsed);
-            ValidationUtil.validate(jobFile, schemaStream);
+        try (InputStream jobInputStream = new FileInputStream(jobFile)) {
+            Schemas schema = findSchemaByNamespaceUsed(jobInputStream);
+            ValidationUtil.validate(jobFile, schema);
         } catch (Exception e) {
             // wrap all occurring exceptions as a schema exception
             throw new JobValidationException(true, e);
@@ -74,22 +72,35 @@ public class StaxJobValidatorServiceProvider implements JobValidatorService {
         return jobFile;
     }
 
+    @Override
+    public byte[] validateJob(byte[] jobContent) throws JobValidationException {
+        try {
+            Schemas schema = findSchemaByNamespaceUsed(new ByteArrayInputStream(jobContent));
+            ValidationUtil.validate(new ByteArrayInputStream(jobContent), schema);
+        } catch (Exception e) {
+            // wrap all occurring exceptions as a schema exception
+            throw new JobValidationException(true, e);
+        }
+
+        return jobContent;
+    }
+
     @Override
     public TaskFlowJob validateJob(TaskFlowJob job) throws JobValidationException {
         // validate any job
         return job;
     }
 
-    private String findSchemaByNamespaceUsed(File file)
-            throws FileNotFoundException, XMLStreamException, JobValidationException {
-        XMLStreamReader cursorRoot = xmlInputFactory.createXMLStreamReader(new FileInputStream(file));
+    private Schemas findSchemaByNamespaceUsed(InputStream jobInputStream)
+            throws XMLStreamException, JobValidationException {
+        XMLStreamReader cursorRoot = xmlInputFactory.createXMLStreamReader(jobInputStream);
         try {
             while (cursorRoot.hasNext()) {
-                String namespace = advanceCursorAndFindSchema(cursorRoot);
-                if (namespace != null)
-                    return namespace;
+                Schemas schema = advanceCursorAndFindSchema(cursorRoot);
+                if (schema != null)
+                    return schema;
             }
-            return Schemas.SCHEMA_LATEST.getLocation();
+            return Schemas.SCHEMA_LATEST;
         } catch (Exception e) {
             throw new JobValidationException(e.getMessage(), e);
         } finally {
@@ -99,7 +110,7 @@ public class StaxJobValidatorServiceProvider implements JobValidatorService {
         }
     }
 
-    private String advanceCursorAndFindSchema(XMLStreamReader cursorRoot) throws XMLStreamException {
+    private Schemas advanceCursorAndFindSchema(XMLStreamReader cursorRoot) throws XMLStreamException {
         int eventType;
         String current;
         eventType = cursorRoot.next();
@@ -107,7 +118,7 @@ public class StaxJobValidatorServiceProvider implements JobValidatorService {
             current = cursorRoot.getLocalName();
             if (XMLTags.JOB.matches(current)) {
                 String namespace = cursorRoot.getName().getNamespaceURI();
-                return Schemas.getSchemaByNamespace(namespace).getLocation();
+                return Schemas.getSchemaByNamespace(namespace);
             }
         }
         return null;
@@ -123,11 +123,40 @@ public enum PASchedulerProperties implements PACommonProperties {
      * until the scheduling loop will block as well.*/
     SCHEDULER_STARTTASK_THREADNUMBER("pa.scheduler.core.starttask.threadnumber", PropertyType.INTEGER, "5"),
 
+    /** Maximum number of tasks launched in parallel by the scheduling loop. The creation of the task launchers on
+     * the nodes and the start task actions of these tasks overlap while the next tasks are being selected.*/
+    SCHEDULER_STARTTASK_LAUNCHER_THREADNUMBER(
+            "pa.scheduler.core.starttask.launcher.threadnumber",
+            PropertyType.INTEGER,
+            "5"),
+
+    /** Maximum number of eligible tasks considered by a scheduling loop for each free node, in the order given by
+     * the policy. The other eligible tasks are considered by the next loops. 0 considers all the eligible tasks.*/
+    SCHEDULER_STARTTASK_TASKS_PER_FREE_NODE(
+            "pa.scheduler.core.starttask.tasks.per.free.node",
+            PropertyType.INTEGER,
+            "4"),
+
+    /** Time in ms during which the node of a finished task is kept by the scheduler to start the next compatible
+     * task of the same user on it, without releasing it to the resource manager. 0 disables node leases.*/
+    SCHEDULER_NODE_LEASE_DURATION("pa.scheduler.core.node.lease.duration", PropertyType.INTEGER, "0"),
+
     /** Maximum number of threads used to send events to clients. This property defines the number of clients
      * than can block at the same time. If this number is reached, every clients won't receive events until
      * a thread unlock. */
     SCHEDULER_LISTENERS_THREADNUMBER("pa.scheduler.core.listener.threadnumber", PropertyType.INTEGER, "5"),
 
+    /** Maximum number of events waiting to be sent to a client. When this number is reached, the overflow policy applies. */
+    SCHEDULER_LISTENERS_QUEUE_SIZE("pa.scheduler.core.listener.queue.size", PropertyType.INTEGER, "10000"),
+
+    /** Policy applied when the events queue of a client is full. Either "coalesce" to replace the pending
+     * state update of the same job or task by the new one (events which cannot be coalesced are dropped),
+     * or "drop" to drop new events. In both cases, a client which lost events is disconnected. */
+    SCHEDULER_LISTENERS_OVERFLOW_POLICY("pa.scheduler.core.listener.overflow.policy", PropertyType.STRING, "coalesce"),
+
+    /** Maximum number of events sent in one call to a client supporting batched events. */
+    SCHEDULER_LISTENERS_BATCH_SIZE("pa.scheduler.core.listener.batch.size", PropertyType.INTEGER, "100"),
+
     /** List of the scripts paths to execute at scheduler start. Paths are separated by a ';'. */
     SCHEDULER_STARTSCRIPTS_PATHS("pa.scheduler.startscripts.paths", PropertyType.LIST),
 
@@ -200,6 +229,19 @@ public enum PASchedulerProperties implements PACommonProperties {
     /** If true script tasks are ran in a forked JVM, if false they are ran in the node's JVM */
     TASK_FORK("pa.scheduler.task.fork", PropertyType.BOOLEAN, "true"),
 
+    /**
+     * Maximum number of idle forked JVMs kept alive on a node to run the next forked tasks, also the number of
+     * JVMs pre-started for the tasks without fork environment. 0 disables the pool, every forked task then
+     * starts a new JVM
+     */
+    TASK_FORK_POOL_SIZE("pa.scheduler.task.fork.pool.size", PropertyType.INTEGER, "0"),
+
+    /** Number of tasks executed by a pooled forked JVM before it is replaced by a new one */
+    TASK_FORK_POOL_MAX_TASKS("pa.scheduler.task.fork.pool.maxtasks", PropertyType.INTEGER, "50"),
+
+    /** Time in seconds after which an idle pooled forked JVM is stopped */
+    TASK_FORK_POOL_IDLE_TIMEOUT("pa.scheduler.task.fork.pool.idletimeout", PropertyType.INTEGER, "600"),
+
     /**
      * If true tasks are always ran in RunAsMe mode (implies automatically fork), if false, the user can choose whether to run the task in runasme mode or not
      **/
@@ -356,6 +398,53 @@ public enum PASchedulerProperties implements PACommonProperties {
 
     SCHEDULER_DB_FETCH_TASK_RESULTS_BATCH_SIZE("pa.scheduler.db.fetch.batch_size", PropertyType.INTEGER, "50"),
 
+    /**
+     * Write the task starts and terminations through an in-memory journal, flushed in grouped
+     * transactions, instead of one transaction per update
+     */
+    SCHEDULER_DB_JOURNAL_ENABLED("pa.scheduler.db.journal.enabled", PropertyType.BOOLEAN, "false"),
+
+    /** Maximum delay in ms before a journaled update is written to the database */
+    SCHEDULER_DB_JOURNAL_FLUSH_PERIOD("pa.scheduler.db.journal.flush.period", PropertyType.INTEGER, "200"),
+
+    /** Number of journaled updates triggering a flush before the end of the flush period */
+    SCHEDULER_DB_JOURNAL_FLUSH_OPERATIONS("pa.scheduler.db.journal.flush.operations", PropertyType.INTEGER, "500"),
+
+    /** Number of journaled updates from which the scheduler waits for the journal to be flushed */
+    SCHEDULER_DB_JOURNAL_CAPACITY("pa.scheduler.db.journal.capacity", PropertyType.INTEGER, "10000"),
+
+    /**
+     * Number of finished tasks whose propagated variables are kept in memory for their children,
+     * 0 to always read them from the database
+     */
+    SCHEDULER_DB_PROPAGATED_VARIABLES_CACHE_SIZE(
+            "pa.scheduler.db.propagated_variables.cache.size",
+            PropertyType.INTEGER,
+            "10000"),
+
+    /**
+     * Size in bytes above which the values, exceptions and logs of the task results are written to
+     * the result store instead of the database, -1 to keep all of them in the database
+     */
+    SCHEDULER_DB_RESULT_STORE_THRESHOLD("pa.scheduler.db.result.store.threshold", PropertyType.INTEGER, "-1"),
+
+    /** Directory of the result store (relative to home directory) */
+    SCHEDULER_DB_RESULT_STORE_DIR("pa.scheduler.db.result.store.dir", PropertyType.STRING, "data/results"),
+
+    /**
+     * Maximum time in ms during which the total numbers of jobs and tasks returned with their pages
+     * are reused instead of being counted again. Counts are invalidated by the database writes to the
+     * jobs and tasks they include.
+     * 0 to count them on every request
+     */
+    SCHEDULER_DB_COUNT_CACHE_TTL("pa.scheduler.db.count.cache.ttl", PropertyType.INTEGER, "10000"),
+
+    /**
+     * Number of tasks written to the database in a single JDBC batch when a job is submitted,
+     * also used as hibernate.jdbc.batch_size when the database configuration does not define it
+     */
+    SCHEDULER_DB_SUBMISSION_BATCH_SIZE("pa.scheduler.db.submission.batch_size", PropertyType.INTEGER, "50"),
+
     /* ***************************************************************** */
     /* ***************** EMAIL NOTIFICATION PROPERTIES ***************** */
     /* ***************************************************************** */
@@ -378,6 +467,9 @@ public enum PASchedulerProperties implements PACommonProperties {
 
     LICENSE_SCHEDULING_POLICY_CONFIGURATION("pa.scheduler.license.policy.configuration", PropertyType.STRING),
 
+    /** Path of the resource tokens properties file of the token scheduling policy */
+    TOKEN_SCHEDULING_POLICY_CONFIGURATION("pa.scheduler.token.policy.configuration", PropertyType.STRING),
+
     /* ***************************************************************** */
     /* ******************* PORTAL DISPLAY PROPERTIES ******************* */
     /* ***************************************************************** */
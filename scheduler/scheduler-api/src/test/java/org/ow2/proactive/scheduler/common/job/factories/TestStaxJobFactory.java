@@ -30,10 +30,15 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -128,6 +133,22 @@ public class TestStaxJobFactory {
                      testJob.getVariables().get("from_create_job_parameter").getValue());
     }
 
+    @Test
+    public void testCreateJobFromStreamShouldUseVariableMapToReplaceJobNameVariable() throws Exception {
+        Map<String, String> variablesMap = Maps.newHashMap();
+        variablesMap.put("job_name", "updated_job_name2");
+        try (InputStream jobInputStream = new FileInputStream(new File(jobDescriptorUri))) {
+            Job testScriptJob = factory.createJob(jobInputStream, variablesMap);
+            assertEquals("updated_job_name2", testScriptJob.getName());
+        }
+    }
+
+    @Test(expected = JobCreationException.class)
+    public void testCreateJobFromStreamShouldValidateAgainstSchema() throws Exception {
+        String invalidJob = "<job xmlns=\"" + Schemas.SCHEMA_LATEST.getNamespace() + "\" name=\"invalid\"/>";
+        factory.createJob(new ByteArrayInputStream(invalidJob.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     public void testCreateJobShouldUseSyspropsToReplaceVariables() throws Exception {
         System.setProperty("system_property", "system_property_value");
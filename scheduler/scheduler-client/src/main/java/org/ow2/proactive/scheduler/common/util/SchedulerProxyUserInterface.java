@@ -578,6 +578,13 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
         return uischeduler.getJobs(index, range, filterCriteria, sortParameters);
     }
 
+    @Override
+    public Page<JobInfo> getJobsAfter(String afterJobId, int limit, JobFilterCriteria filterCriteria,
+            List<SortParameter<JobSortParameter>> sortParameters)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        return uischeduler.getJobsAfter(afterJobId, limit, filterCriteria, sortParameters);
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         return uischeduler.getUsers();
@@ -639,6 +646,29 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
                                          sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException {
+        return uischeduler.getTaskIdsAfter(afterTaskId, taskTag, from, to, mytasks, running, pending, finished, limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        return uischeduler.getTaskStatesAfter(afterTaskId,
+                                              taskTag,
+                                              from,
+                                              to,
+                                              mytasks,
+                                              running,
+                                              pending,
+                                              finished,
+                                              limit,
+                                              sortParams);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return uischeduler.getJobInfo(jobId);
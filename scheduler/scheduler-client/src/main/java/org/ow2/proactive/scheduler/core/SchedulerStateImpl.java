@@ -69,7 +69,7 @@ public final class SchedulerStateImpl<T extends JobState> implements SchedulerSt
     private Set<T> finishedJobs = Collections.synchronizedSet(new LinkedHashSet<T>());
 
     /** Scheduler status */
-    private SchedulerStatus status = SchedulerStatus.STARTED;
+    private volatile SchedulerStatus status = SchedulerStatus.STARTED;
 
     /** List of connected user. */
     private SchedulerUsers sUsers = new SchedulerUsers();
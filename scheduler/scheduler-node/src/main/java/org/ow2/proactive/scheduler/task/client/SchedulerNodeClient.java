@@ -563,6 +563,14 @@ public class SchedulerNodeClient implements ISchedulerClient, Serializable {
         return client.getJobs(offset, limit, filterCriteria, sortParameters);
     }
 
+    @Override
+    public Page<JobInfo> getJobsAfter(String afterJobId, int limit, JobFilterCriteria filterCriteria,
+            List<SortParameter<JobSortParameter>> sortParameters)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        renewSession();
+        return client.getJobsAfter(afterJobId, limit, filterCriteria, sortParameters);
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         renewSession();
@@ -591,6 +599,31 @@ public class SchedulerNodeClient implements ISchedulerClient, Serializable {
         return client.getTaskStates(taskTag, from, to, mytasks, running, pending, finished, offset, limit, sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException {
+        renewSession();
+        return client.getTaskIdsAfter(afterTaskId, taskTag, from, to, mytasks, running, pending, finished, limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        renewSession();
+        return client.getTaskStatesAfter(afterTaskId,
+                                         taskTag,
+                                         from,
+                                         to,
+                                         mytasks,
+                                         running,
+                                         pending,
+                                         finished,
+                                         limit,
+                                         sortParams);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         renewSession();
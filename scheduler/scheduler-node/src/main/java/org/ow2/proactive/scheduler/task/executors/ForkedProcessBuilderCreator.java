@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.security.KeyException;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.objectweb.proactive.extensions.processbuilder.OSProcessBuilder;
@@ -39,6 +40,7 @@ import org.ow2.proactive.scheduler.task.context.TaskContextVariableExtractor;
 import org.ow2.proactive.scheduler.task.executors.forked.env.ForkedJvmTaskExecutionCommandCreator;
 import org.ow2.proactive.scheduler.task.utils.ForkerUtils;
 import org.ow2.proactive.scripting.ScriptResult;
+import org.ow2.proactive.utils.ClasspathUtils;
 
 
 public class ForkedProcessBuilderCreator implements Serializable {
@@ -80,6 +82,60 @@ public class ForkedProcessBuilderCreator implements Serializable {
         return processBuilder;
     }
 
+    /**
+     * Creates the command starting a JVM of the forked JVM pool for a given task context.
+     * Tasks sharing the same command can be executed by the same pooled JVM.
+     *
+     * @param context The task context to execute.
+     * @return Returns the command, without the port of the pool channel.
+     * @throws Exception
+     */
+    public List<String> createPooledForkedJvmCommand(TaskContext context) throws Exception {
+        return forkedJvmTaskExecutionCommandCreator.createPooledForkedJvmCommand(context);
+    }
+
+    /**
+     * Creates a process builder starting a JVM of the forked JVM pool. Fork environment scripts
+     * and system environment variables are specific to each task and thus are not applied.
+     *
+     * @param context    The task context for which the JVM is started (used for run as me mode).
+     * @param command    The command created by {@link #createPooledForkedJvmCommand(TaskContext)}.
+     * @param workingDir The working directory to execute the process in.
+     * @return Returns a process builder, ready to execute once the port of the pool channel is added.
+     * @throws Exception
+     */
+    public OSProcessBuilder createPooledForkedProcessBuilder(TaskContext context, List<String> command,
+            File workingDir) throws Exception {
+        OSProcessBuilder processBuilder = getOsProcessBuilder(context, workingDir, context.getSchedulerHome());
+        processBuilder.command().addAll(command);
+        return processBuilder.directory(workingDir);
+    }
+
+    /**
+     * Creates the command starting a JVM of the forked JVM pool for the tasks without fork environment.
+     *
+     * @return Returns the command, without the port of the pool channel.
+     * @throws IOException
+     */
+    public List<String> createDefaultPooledForkedJvmCommand() throws IOException {
+        return forkedJvmTaskExecutionCommandCreator.createDefaultPooledForkedJvmCommand();
+    }
+
+    /**
+     * Creates a process builder starting a JVM of the forked JVM pool as the node user, before any task
+     * is executed.
+     *
+     * @param command    The command created by {@link #createDefaultPooledForkedJvmCommand()}.
+     * @param workingDir The working directory to execute the process in.
+     * @return Returns a process builder, ready to execute once the port of the pool channel is added.
+     */
+    public OSProcessBuilder createDefaultPooledForkedProcessBuilder(List<String> command, File workingDir) {
+        OSProcessBuilder processBuilder = ForkerUtils.getOSProcessBuilderFactory(ClasspathUtils.findSchedulerHome())
+                                                     .getBuilder();
+        processBuilder.command().addAll(command);
+        return processBuilder.directory(workingDir);
+    }
+
     private ScriptResult executeForkEnvironmentScriptAndExtractVariables(TaskContext context, PrintStream outputSink,
             PrintStream errorSink, OSProcessBuilder processBuilder) throws Exception {
         ScriptResult forkEnvironmentScriptResult = null;
@@ -39,15 +39,18 @@ import org.ow2.proactive.scheduler.task.context.TaskContext;
 import org.ow2.proactive.scheduler.task.context.TaskContextSerializer;
 import org.ow2.proactive.scheduler.task.exceptions.ForkedJvmProcessException;
 import org.ow2.proactive.scheduler.task.executors.forked.env.ExecuteForkedTaskInsideNewJvm;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmPool;
 import org.ow2.proactive.scheduler.task.utils.ProcessStreamsReader;
 import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
 
 
 /**
  * Executor in charge to fork a new process for running a non forked task in a dedicated JVM.
+ * When the forked JVM pool of the node is enabled and accepts the task, it is executed in a pooled JVM instead.
  *
  * @see ExecuteForkedTaskInsideNewJvm#fromForkedJVM(String)
  * @see InProcessTaskExecutor
+ * @see ForkedJvmPool
  */
 public class ForkedTaskExecutor implements TaskExecutor {
 
@@ -57,12 +60,25 @@ public class ForkedTaskExecutor implements TaskExecutor {
 
     private final File workingDir;
 
+    /** Pool used for the tasks it accepts, the pool of the node if null */
+    private transient ForkedJvmPool forkedJvmPool;
+
     public ForkedTaskExecutor(File workingDir) {
         this.workingDir = workingDir;
     }
 
+    public ForkedTaskExecutor(File workingDir, ForkedJvmPool forkedJvmPool) {
+        this.workingDir = workingDir;
+        this.forkedJvmPool = forkedJvmPool;
+    }
+
     @Override
     public TaskResultImpl execute(TaskContext context, PrintStream outputSink, PrintStream errorSink) {
+        ForkedJvmPool pool = forkedJvmPool != null ? forkedJvmPool : ForkedJvmPool.getInstance();
+        if (pool.accepts(context)) {
+            return executeInPooledJvm(pool, context, outputSink, errorSink);
+        }
+
         CookieBasedProcessTreeKiller taskProcessTreeKiller = null;
         Process process = null;
         ProcessStreamsReader processStreamsReader = null;
@@ -126,6 +142,20 @@ public class ForkedTaskExecutor implements TaskExecutor {
         }
     }
 
+    private TaskResultImpl executeInPooledJvm(ForkedJvmPool pool, TaskContext context, PrintStream outputSink,
+            PrintStream errorSink) {
+        try {
+            Object result = pool.execute(context, workingDir, outputSink, errorSink);
+            if (result instanceof TaskResultImpl) {
+                return (TaskResultImpl) result;
+            } else {
+                return createTaskResult(context, (Throwable) result);
+            }
+        } catch (Throwable throwable) {
+            return createTaskResult(context, throwable);
+        }
+    }
+
     private TaskResultImpl createTaskResult(TaskContext context, Throwable throwable) {
         return new TaskResultImpl(context.getTaskId(),
                                   new ForkedJvmProcessException("Failed to execute task in a forked JVM", throwable));
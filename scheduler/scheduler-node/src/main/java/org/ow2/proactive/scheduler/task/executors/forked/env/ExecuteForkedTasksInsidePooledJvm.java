@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.env;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.InProcessTaskExecutor;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmChannel;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmOutput;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmTask;
+import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
+
+
+/**
+ * Entry point of a pooled forked JVM: runs, one after the other, the tasks received from the
+ * node on the pool channel, until the channel is closed.
+ * <p>
+ * The output of each task is sent on the channel before its result, followed by the serialized
+ * result (or the exception preventing the task from running). Processes started by a task are
+ * killed when it ends. The {@code user.dir} property is set to the working directory of each task
+ * while it runs, so that its relative files are resolved against it.
+ *
+ * @see ExecuteForkedTaskInsideNewJvm
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ExecuteForkedTasksInsidePooledJvm {
+
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+    private static final String USER_DIR_PROPERTY = "user.dir";
+
+    private final ForkedJvmChannel channel;
+
+    private final PrintStream taskOutput;
+
+    private final PrintStream taskError;
+
+    private ExecuteForkedTasksInsidePooledJvm(ForkedJvmChannel channel) {
+        this.channel = channel;
+        this.taskOutput = new PrintStream(new BufferedOutputStream(new ForkedJvmOutput.ChannelOutputStream(channel,
+                                                                                                           false),
+                                                                   OUTPUT_BUFFER_SIZE),
+                                          true);
+        this.taskError = new PrintStream(new BufferedOutputStream(new ForkedJvmOutput.ChannelOutputStream(channel,
+                                                                                                          true),
+                                                                  OUTPUT_BUFFER_SIZE),
+                                         true);
+    }
+
+    /**
+     * Everything here and called from here should only use System.out and System.err
+     */
+    public static void main(String[] args) throws Throwable {
+        if (args.length != 1) {
+            System.err.println("Port of the forked JVM pool channel is expected");
+            System.exit(-1);
+        }
+
+        try (ForkedJvmChannel channel = new ForkedJvmChannel(new Socket(InetAddress.getLoopbackAddress(),
+                                                                        Integer.parseInt(args[0])))) {
+            channel.send(System.getenv(ForkedJvmChannel.TOKEN_ENVIRONMENT_VARIABLE));
+            new ExecuteForkedTasksInsidePooledJvm(channel).executeTasks();
+        } catch (Throwable throwable) {
+            throwable.printStackTrace(System.err);
+            System.exit(1);
+        }
+
+        // Call to System.exit is necessary at this point as the forked JVM can keep alive non-daemon threads
+        System.exit(0);
+    }
+
+    private void executeTasks() throws IOException, ClassNotFoundException {
+        // output written outside of the task executor (by libraries, threads...) goes to the current task
+        System.setOut(taskOutput);
+        System.setErr(taskError);
+
+        String jvmWorkingDir = System.getProperty(USER_DIR_PROPERTY);
+        for (;;) {
+            ForkedJvmTask task;
+            try {
+                task = (ForkedJvmTask) channel.receive();
+            } catch (EOFException channelClosedByNode) {
+                return;
+            }
+            TaskContext context = task.getContext();
+
+            TaskId taskId = context.getTaskId();
+            String cookieNameSuffix = "Job" + taskId.getJobId().value() + "Task" + taskId.value();
+            CookieBasedProcessTreeKiller taskProcessTreeKiller;
+            taskProcessTreeKiller = CookieBasedProcessTreeKiller.createAllChildrenKiller(cookieNameSuffix);
+            Object result;
+            try {
+                System.setProperty(USER_DIR_PROPERTY, task.getWorkingDir());
+                result = new InProcessTaskExecutor().execute(context, taskOutput, taskError);
+            } catch (Throwable throwable) {
+                throwable.printStackTrace(taskError);
+                result = throwable;
+            } finally {
+                System.setProperty(USER_DIR_PROPERTY, jvmWorkingDir);
+                taskProcessTreeKiller.kill();
+            }
+            taskOutput.flush();
+            taskError.flush();
+            channel.send(serializeTaskResult(result));
+        }
+    }
+
+    private byte[] serializeTaskResult(Object result) throws IOException {
+        try {
+            return serialize(result);
+        } catch (IOException couldNotSerializeResult) {
+            taskError.println("Could not serialize task result:");
+            couldNotSerializeResult.printStackTrace(taskError);
+            taskError.flush();
+            return serialize(couldNotSerializeResult);
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(bytes)) {
+            objectOutputStream.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -30,6 +30,8 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,12 +41,15 @@ import org.ow2.proactive.resourcemanager.utils.OneJar;
 import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
 import org.ow2.proactive.scheduler.common.util.VariableSubstitutor;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.task.SchedulerVars;
 import org.ow2.proactive.scheduler.task.context.TaskContext;
 import org.ow2.proactive.scheduler.task.context.TaskContextVariableExtractor;
 import org.ow2.proactive.scheduler.task.executors.forked.env.command.JavaPrefixCommandExtractor;
 import org.ow2.proactive.scripting.ForkEnvironmentScriptResult;
 import org.ow2.proactive.scripting.ScriptResult;
 
+import org.ow2.proactive.utils.ClasspathUtils;
+
 import com.google.common.base.Strings;
 
 
@@ -73,17 +78,59 @@ public class ForkedJvmTaskExecutionCommandCreator implements Serializable {
      */
     public List<String> createForkedJvmTaskExecutionCommand(TaskContext taskContext,
             ScriptResult forkEnvironmentScriptResult, String serializedContextAbsolutePath) throws Exception {
+        return createForkedJvmCommand(taskContext,
+                                      forkEnvironmentScriptResult,
+                                      ExecuteForkedTaskInsideNewJvm.class.getName(),
+                                      serializedContextAbsolutePath);
+    }
+
+    /**
+     * Creates a command to start a java virtual machine of the forked JVM pool, which runs every task
+     * it receives from the pool channel. The port of the channel has to be appended to the command.
+     *
+     * @param taskContext TaskContext object describing the first task to run, fork environment scripts
+     *                    are not supported.
+     * @return A List, empty if the TaskContext is null, otherwise filled with a command.
+     * @throws Exception If the {@link TaskContextVariableExtractor} could not extract all variables from the
+     *                   TaskContext.
+     * @see ExecuteForkedTasksInsidePooledJvm
+     */
+    public List<String> createPooledForkedJvmCommand(TaskContext taskContext) throws Exception {
+        return createForkedJvmCommand(taskContext, null, ExecuteForkedTasksInsidePooledJvm.class.getName());
+    }
+
+    /**
+     * Creates a command to start a java virtual machine of the forked JVM pool for the tasks without
+     * fork environment, before any of them is executed. The port of the channel has to be appended to the command.
+     *
+     * @return the same command as {@link #createPooledForkedJvmCommand(TaskContext)} for a task without fork
+     *         environment
+     * @throws IOException If the classpath of the scheduler installation could not be resolved.
+     */
+    public List<String> createDefaultPooledForkedJvmCommand() throws IOException {
+        Map<String, Serializable> variables = new HashMap<>(1);
+        variables.put(SchedulerVars.PA_SCHEDULER_HOME.toString(), ClasspathUtils.findSchedulerHome());
+        return createForkedJvmCommand(variables, null, null, ExecuteForkedTasksInsidePooledJvm.class.getName());
+    }
+
+    private List<String> createForkedJvmCommand(TaskContext taskContext, ScriptResult forkEnvironmentScriptResult,
+            String... mainClassAndArguments) throws Exception {
         if (taskContext == null) {
             return new ArrayList<>(0);
         }
         Map<String, Serializable> variables = taskContextVariableExtractor.extractVariables(taskContext, true);
-        String javaHome = System.getProperty("java.home");
-        ArrayList<String> jvmArguments = new ArrayList<>(1);
 
         ForkEnvironment forkEnvironment = null;
         if (taskContext.getInitializer() != null) {
             forkEnvironment = taskContext.getInitializer().getForkEnvironment();
         }
+        return createForkedJvmCommand(variables, forkEnvironment, forkEnvironmentScriptResult, mainClassAndArguments);
+    }
+
+    private List<String> createForkedJvmCommand(Map<String, Serializable> variables, ForkEnvironment forkEnvironment,
+            ScriptResult forkEnvironmentScriptResult, String... mainClassAndArguments) throws IOException {
+        String javaHome = System.getProperty("java.home");
+        ArrayList<String> jvmArguments = new ArrayList<>(1);
 
         // set the task fork property so that script engines have a mean to know
         // if they are running in a forked task or not
@@ -119,15 +166,15 @@ public class ForkedJvmTaskExecutionCommandCreator implements Serializable {
 
         List<String> prefixes = javaPrefixCommandExtractor.extractJavaPrefixCommandToCommandListFromScriptResult(forkEnvironmentScriptResult);
 
-        List<String> javaCommand = new ArrayList<>(prefixes.size() + 3 + jvmArguments.size() + 2);
+        List<String> javaCommand = new ArrayList<>(prefixes.size() + 3 + jvmArguments.size() +
+                                                   mainClassAndArguments.length);
         javaCommand.addAll(prefixes);
         javaCommand.add(javaHome + javaHomePostfixJavaExecutable);
 
         javaCommand.add("-cp");
         javaCommand.add(classpath.toString());
         javaCommand.addAll(jvmArguments);
-        javaCommand.add(ExecuteForkedTaskInsideNewJvm.class.getName());
-        javaCommand.add(serializedContextAbsolutePath);
+        javaCommand.addAll(Arrays.asList(mainClassAndArguments));
 
         return javaCommand;
     }
@@ -0,0 +1,86 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+
+
+/**
+ * Local channel between a node and one of its pooled forked JVMs. Tasks are sent to the
+ * forked JVM, task outputs and results are sent back, as serialized objects.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ForkedJvmChannel implements Closeable {
+
+    /** Environment variable holding the secret the forked JVM sends first, to authenticate on the channel */
+    public static final String TOKEN_ENVIRONMENT_VARIABLE = "PA_FORKED_JVM_POOL_TOKEN";
+
+    private final Socket socket;
+
+    private final ObjectOutputStream output;
+
+    private final ObjectInputStream input;
+
+    public ForkedJvmChannel(Socket socket) throws IOException {
+        this.socket = socket;
+        // both ends create their output first, as creating the input blocks until the peer stream header is read
+        this.output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.output.flush();
+        this.input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    /**
+     * Send an object to the other end of the channel. The stream is reset after each object
+     * so that sent objects are not retained by the channel.
+     */
+    public void send(Object message) throws IOException {
+        synchronized (output) {
+            output.writeObject(message);
+            output.reset();
+            output.flush();
+        }
+    }
+
+    /**
+     * Wait for the next object sent by the other end of the channel.
+     */
+    public Object receive() throws IOException, ClassNotFoundException {
+        return input.readObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Identifies the forked JVMs able to run a task: JVMs started with the same command (java home,
+ * JVM arguments, classpath) under the same user, for tasks of the same job owner, are interchangeable.
+ * JVMs pre-started for the default fork environment have no job owner until they run a first task.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ForkedJvmKey {
+
+    private final List<String> command;
+
+    private final String runAsUser;
+
+    private final String jobOwner;
+
+    /**
+     * @param command the command starting the JVM, without the port of the pool channel
+     * @param runAsUser the user the JVM runs as, null if it runs as the node user
+     * @param jobOwner the owner of the jobs whose tasks the JVM runs, null if it did not run any task yet
+     */
+    public ForkedJvmKey(List<String> command, String runAsUser, String jobOwner) {
+        this.command = Collections.unmodifiableList(new ArrayList<>(command));
+        this.runAsUser = runAsUser;
+        this.jobOwner = jobOwner;
+    }
+
+    public List<String> getCommand() {
+        return command;
+    }
+
+    public String getRunAsUser() {
+        return runAsUser;
+    }
+
+    public String getJobOwner() {
+        return jobOwner;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ForkedJvmKey that = (ForkedJvmKey) o;
+        return command.equals(that.command) &&
+               (runAsUser != null ? runAsUser.equals(that.runAsUser) : that.runAsUser == null) &&
+               (jobOwner != null ? jobOwner.equals(that.jobOwner) : that.jobOwner == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = command.hashCode();
+        result = 31 * result + (runAsUser != null ? runAsUser.hashCode() : 0);
+        result = 31 * result + (jobOwner != null ? jobOwner.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return (runAsUser != null ? runAsUser + "@" : "") + command + " for " + jobOwner;
+    }
+}
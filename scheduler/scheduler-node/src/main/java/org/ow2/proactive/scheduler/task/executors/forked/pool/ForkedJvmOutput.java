@@ -0,0 +1,93 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Serializable;
+
+
+/**
+ * A chunk of the output of a task executed in a pooled forked JVM, sent on the pool channel
+ * before the task result so that the task logs keep their order.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ForkedJvmOutput implements Serializable {
+
+    private final boolean error;
+
+    private final byte[] data;
+
+    public ForkedJvmOutput(boolean error, byte[] data) {
+        this.error = error;
+        this.data = data;
+    }
+
+    /**
+     * Write this chunk to the sink it was written to in the forked JVM.
+     *
+     * @param outputSink standard output sink of the task
+     * @param errorSink error sink of the task
+     */
+    public void writeTo(PrintStream outputSink, PrintStream errorSink) {
+        PrintStream sink = error ? errorSink : outputSink;
+        sink.write(data, 0, data.length);
+        sink.flush();
+    }
+
+    /**
+     * Stream sending everything written to it as output chunks on the given channel.
+     * Writes should be buffered as each one is sent as a separate message.
+     */
+    public static class ChannelOutputStream extends OutputStream {
+
+        private final ForkedJvmChannel channel;
+
+        private final boolean error;
+
+        public ChannelOutputStream(ForkedJvmChannel channel, boolean error) {
+            this.channel = channel;
+            this.error = error;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                byte[] data = new byte[len];
+                System.arraycopy(b, off, data, 0, len);
+                channel.send(new ForkedJvmOutput(error, data));
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.extensions.processbuilder.OSProcessBuilder;
+import org.ow2.proactive.authentication.crypto.CredData;
+import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.ForkedProcessBuilderCreator;
+import org.ow2.proactive.scheduler.task.utils.ForkerUtils;
+
+
+/**
+ * Pool of pre-started forked JVMs, reused by the forked tasks of a node to avoid paying for the
+ * JVM startup, classloading and script engines initialization of every task.
+ * <p>
+ * JVMs are shared by tasks having the same {@link ForkedJvmKey} (java home, JVM arguments, classpath,
+ * run as me user and job owner). Tasks with a fork environment script or system environment variables
+ * always run in a new JVM. A pooled JVM is stopped after a number of tasks, after a failure, when it
+ * was idle for too long, when the task it runs is killed, or to make room for another idle JVM.
+ * <p>
+ * The working directory of a task, its own scratch space or the one of its fork environment, is sent
+ * with the task: relative files are resolved against it through the {@code user.dir} property, while
+ * the pooled JVM process itself runs in a directory of the pool, as the node JVM for non forked tasks.
+ * Processes started by a task and still running when it ends are killed, as with a new JVM.
+ * <p>
+ * The pool of the node pre-starts as many JVMs as its size for the tasks without fork environment,
+ * each one being given to the first job owner which uses it.
+ *
+ * @see PASchedulerProperties#TASK_FORK_POOL_SIZE
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ForkedJvmPool {
+
+    private static final Logger logger = Logger.getLogger(ForkedJvmPool.class);
+
+    private static ForkedJvmPool instance;
+
+    private final int maxIdleJvms;
+
+    private final int maxTasksPerJvm;
+
+    private final long idleTimeout;
+
+    private final ForkedProcessBuilderCreator forkedProcessBuilderCreator = new ForkedProcessBuilderCreator();
+
+    /** Directory the pooled JVMs run in */
+    private final File jvmsDir = new File(System.getProperty("java.io.tmpdir"), "forked_jvm_pool");
+
+    /** Idle JVMs by key, most recently used first */
+    private final Map<ForkedJvmKey, Deque<PooledForkedJvm>> idleJvms = new HashMap<>();
+
+    private int idleJvmsCount;
+
+    private Timer idleJvmsReaper;
+
+    private Thread shutdownHook;
+
+    /**
+     * @param maxIdleJvms maximum number of idle JVMs kept by the pool, 0 disables the pool
+     * @param maxTasksPerJvm number of tasks executed by a JVM before it is stopped
+     * @param idleTimeout time in milliseconds after which an idle JVM is stopped
+     */
+    public ForkedJvmPool(int maxIdleJvms, int maxTasksPerJvm, long idleTimeout) {
+        this.maxIdleJvms = maxIdleJvms;
+        this.maxTasksPerJvm = Math.max(1, maxTasksPerJvm);
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @return the pool of the node, configured with the scheduler properties. Its default JVMs are
+     *         pre-started in the background when it is created.
+     */
+    public static synchronized ForkedJvmPool getInstance() {
+        if (instance == null) {
+            instance = new ForkedJvmPool(PASchedulerProperties.TASK_FORK_POOL_SIZE.getValueAsInt(),
+                                         PASchedulerProperties.TASK_FORK_POOL_MAX_TASKS.getValueAsInt(),
+                                         PASchedulerProperties.TASK_FORK_POOL_IDLE_TIMEOUT.getValueAsInt() * 1000L);
+            final ForkedJvmPool pool = instance;
+            if (pool.maxIdleJvms > 0) {
+                Thread prestart = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        pool.prestartDefaultJvms();
+                    }
+                }, "ForkedJvmPoolPrestart");
+                prestart.setDaemon(true);
+                prestart.start();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the given task can be executed by a pooled JVM, i.e. its fork environment does not
+     *         define an environment specific to the task
+     */
+    public boolean accepts(TaskContext context) {
+        if (maxIdleJvms <= 0) {
+            return false;
+        }
+        ForkEnvironment forkEnvironment = context.getInitializer().getForkEnvironment();
+        return forkEnvironment == null ||
+               (forkEnvironment.getEnvScript() == null && forkEnvironment.getSystemEnvironment().isEmpty());
+    }
+
+    /**
+     * Start idle JVMs for the tasks without fork environment, until the pool is full.
+     * Each JVM is given to the owner of the first task it runs.
+     */
+    public void prestartDefaultJvms() {
+        try {
+            List<String> command = forkedProcessBuilderCreator.createDefaultPooledForkedJvmCommand();
+            ForkedJvmKey key = new ForkedJvmKey(command, null, null);
+            createDir(jvmsDir, true);
+            while (getIdleJvmsCount() < maxIdleJvms) {
+                OSProcessBuilder processBuilder = forkedProcessBuilderCreator.createDefaultPooledForkedProcessBuilder(command,
+                                                                                                                     jvmsDir);
+                release(PooledForkedJvm.start(key, processBuilder));
+            }
+        } catch (Exception e) {
+            logger.warn("Could not pre-start forked JVMs", e);
+        }
+    }
+
+    /**
+     * Execute a task in an idle JVM of the pool, or in a new one if there is none. The JVM is returned
+     * to the pool afterwards, unless it failed or reached its maximum number of tasks.
+     *
+     * @param context the task to execute, it must be {@link #accepts(TaskContext) accepted} by the pool
+     * @param workingDir the working directory of the task
+     * @param outputSink standard output sink
+     * @param errorSink error sink
+     * @return the task result, or the exception thrown by the forked JVM when trying to execute the task
+     * @throws Exception if the JVM could not be started, exited during the execution or if the current
+     *             thread was interrupted
+     */
+    public Object execute(TaskContext context, File workingDir, PrintStream outputSink, PrintStream errorSink)
+            throws Exception {
+        ForkedJvmKey key = new ForkedJvmKey(forkedProcessBuilderCreator.createPooledForkedJvmCommand(context),
+                                            getRunAsUser(context),
+                                            context.getInitializer().getJobOwner());
+        createDir(workingDir, context.isRunAsUser());
+        PooledForkedJvm jvm = acquire(key);
+        if (jvm == null) {
+            jvm = startJvm(key, context);
+        }
+
+        boolean reusable = false;
+        try {
+            Object result = jvm.execute(context, workingDir, outputSink, errorSink);
+            reusable = result instanceof TaskResultImpl;
+            return result;
+        } finally {
+            if (reusable) {
+                release(jvm);
+            } else {
+                jvm.close();
+            }
+        }
+    }
+
+    private PooledForkedJvm startJvm(ForkedJvmKey key, TaskContext context) throws Exception {
+        // shared by the JVMs of every user
+        createDir(jvmsDir, true);
+        return PooledForkedJvm.start(key,
+                                     forkedProcessBuilderCreator.createPooledForkedProcessBuilder(context,
+                                                                                                  key.getCommand(),
+                                                                                                  jvmsDir));
+    }
+
+    private static void createDir(File dir, boolean shared) throws Exception {
+        if (!dir.exists()) {
+            FileUtils.forceMkdir(dir);
+            if (shared) {
+                ForkerUtils.setSharedExecutablePermissions(dir);
+            }
+        }
+    }
+
+    private static String getRunAsUser(TaskContext context) throws Exception {
+        if (!context.isRunAsUser()) {
+            return null;
+        }
+        CredData credentials = context.getDecrypter().decrypt();
+        return credentials.getDomain() != null ? credentials.getDomain() + "\\" + credentials.getLogin()
+                                               : credentials.getLogin();
+    }
+
+    /**
+     * Take an idle JVM of the given key, or else a pre-started JVM which did not run any task yet,
+     * which then belongs to the job owner of the key.
+     */
+    PooledForkedJvm acquire(ForkedJvmKey key) {
+        List<PooledForkedJvm> unusable = new ArrayList<>(0);
+        try {
+            synchronized (this) {
+                PooledForkedJvm jvm = pollUsable(key, unusable);
+                if (jvm == null && key.getRunAsUser() == null && key.getJobOwner() != null) {
+                    jvm = pollUsable(new ForkedJvmKey(key.getCommand(), null, null), unusable);
+                    if (jvm != null) {
+                        jvm.setKey(key);
+                    }
+                }
+                return jvm;
+            }
+        } finally {
+            closeAll(unusable);
+        }
+    }
+
+    private PooledForkedJvm pollUsable(ForkedJvmKey key, List<PooledForkedJvm> unusable) {
+        Deque<PooledForkedJvm> jvms = idleJvms.get(key);
+        while (jvms != null && !jvms.isEmpty()) {
+            PooledForkedJvm jvm = jvms.pollFirst();
+            idleJvmsCount--;
+            if (jvms.isEmpty()) {
+                idleJvms.remove(key);
+            }
+            if (jvm.isUsable()) {
+                return jvm;
+            }
+            unusable.add(jvm);
+        }
+        return null;
+    }
+
+    void release(PooledForkedJvm jvm) {
+        if (jvm.getExecutedTasks() >= maxTasksPerJvm || !jvm.isUsable()) {
+            jvm.close();
+            return;
+        }
+        PooledForkedJvm evicted = null;
+        synchronized (this) {
+            if (idleJvmsCount >= maxIdleJvms) {
+                evicted = pollLeastRecentlyUsed();
+            }
+            Deque<PooledForkedJvm> jvms = idleJvms.get(jvm.getKey());
+            if (jvms == null) {
+                jvms = new ArrayDeque<>();
+                idleJvms.put(jvm.getKey(), jvms);
+            }
+            jvm.setIdleSince(System.currentTimeMillis());
+            jvms.addFirst(jvm);
+            idleJvmsCount++;
+            scheduleIdleJvmsReaper();
+        }
+        if (evicted != null) {
+            closeAll(Collections.singletonList(evicted));
+        }
+    }
+
+    /**
+     * Remove the JVM idle for the longest time, whatever its key, to keep at most
+     * {@link #maxIdleJvms} idle JVMs on the node
+     */
+    private PooledForkedJvm pollLeastRecentlyUsed() {
+        Deque<PooledForkedJvm> oldest = null;
+        for (Deque<PooledForkedJvm> jvms : idleJvms.values()) {
+            // the least recently used JVMs are at the end
+            if (oldest == null || jvms.peekLast().getIdleSince() < oldest.peekLast().getIdleSince()) {
+                oldest = jvms;
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        PooledForkedJvm jvm = oldest.pollLast();
+        idleJvmsCount--;
+        if (oldest.isEmpty()) {
+            idleJvms.remove(jvm.getKey());
+        }
+        return jvm;
+    }
+
+    private void scheduleIdleJvmsReaper() {
+        if (idleJvmsReaper != null) {
+            return;
+        }
+        idleJvmsReaper = new Timer("ForkedJvmPoolReaper", true);
+        long period = Math.max(1000, idleTimeout / 2);
+        idleJvmsReaper.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                closeIdleJvms(System.currentTimeMillis() - idleTimeout);
+            }
+        }, period, period);
+        if (shutdownHook == null) {
+            shutdownHook = new Thread("ForkedJvmPoolShutdown") {
+                @Override
+                public void run() {
+                    closeIdleJvms(Long.MAX_VALUE);
+                }
+            };
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Stop the JVMs idle since before the given time
+     */
+    void closeIdleJvms(long idleSinceLimit) {
+        List<PooledForkedJvm> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Deque<PooledForkedJvm>> it = idleJvms.values().iterator(); it.hasNext();) {
+                Deque<PooledForkedJvm> jvms = it.next();
+                // the least recently used JVMs are at the end
+                while (!jvms.isEmpty() && jvms.peekLast().getIdleSince() < idleSinceLimit) {
+                    expired.add(jvms.pollLast());
+                    idleJvmsCount--;
+                }
+                if (jvms.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+        closeAll(expired);
+    }
+
+    /**
+     * Stop every idle JVM of the pool.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (idleJvmsReaper != null) {
+                idleJvmsReaper.cancel();
+                idleJvmsReaper = null;
+            }
+        }
+        closeIdleJvms(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return the number of idle JVMs in the pool
+     */
+    public synchronized int getIdleJvmsCount() {
+        return idleJvmsCount;
+    }
+
+    private static void closeAll(List<PooledForkedJvm> jvms) {
+        for (PooledForkedJvm jvm : jvms) {
+            try {
+                jvm.close();
+            } catch (RuntimeException e) {
+                logger.warn("Could not stop forked JVM " + jvm.getKey(), e);
+            }
+        }
+    }
+}
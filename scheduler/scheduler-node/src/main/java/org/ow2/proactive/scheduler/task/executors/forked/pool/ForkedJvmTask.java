@@ -0,0 +1,62 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.Serializable;
+
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+
+
+/**
+ * A task sent on the pool channel to a pooled forked JVM, with the working directory it runs in.
+ * The working directory is given per task, as a pooled JVM runs tasks of different working
+ * directories (e.g. their own scratch space).
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ForkedJvmTask implements Serializable {
+
+    private final TaskContext context;
+
+    private final String workingDir;
+
+    public ForkedJvmTask(TaskContext context, String workingDir) {
+        this.context = context;
+        this.workingDir = workingDir;
+    }
+
+    public TaskContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return the absolute path of the working directory of the task
+     */
+    public String getWorkingDir() {
+        return workingDir;
+    }
+}
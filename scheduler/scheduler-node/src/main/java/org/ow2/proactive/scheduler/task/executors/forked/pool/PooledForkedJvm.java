@@ -0,0 +1,361 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.extensions.processbuilder.OSProcessBuilder;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.forked.env.ExecuteForkedTasksInsidePooledJvm;
+import org.ow2.proactive.scheduler.task.utils.ProcessStreamsReader;
+import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
+
+
+/**
+ * Node side of a pooled forked JVM: the process, its channel, and the thread reading the
+ * messages it sends. A pooled JVM runs one task at a time.
+ *
+ * @see ExecuteForkedTasksInsidePooledJvm
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+class PooledForkedJvm {
+
+    private static final Logger logger = Logger.getLogger(PooledForkedJvm.class);
+
+    /** Maximum time to wait for a new JVM to connect to the pool channel */
+    private static final long START_TIMEOUT = 60000;
+
+    /** Interval at which a starting JVM is checked to be alive while waiting for its connection */
+    private static final int ACCEPT_POLL_INTERVAL = 500;
+
+    private static final AtomicLong jvmIds = new AtomicLong();
+
+    private final long id;
+
+    /** Changes once, when a JVM pre-started without job owner runs its first task */
+    private volatile ForkedJvmKey key;
+
+    private final Process process;
+
+    private final ForkedJvmChannel channel;
+
+    private final CookieBasedProcessTreeKiller processTreeKiller;
+
+    /** Sinks of the task being executed, for what the JVM writes on its standard streams */
+    private final CurrentTaskOutputStream processOutput;
+
+    private final CurrentTaskOutputStream processError;
+
+    private final ProcessStreamsReader processStreamsReader;
+
+    /** Messages read from the channel, or the exception which closed it */
+    private final BlockingQueue<Object> messages = new LinkedBlockingQueue<>();
+
+    private int executedTasks;
+
+    private long idleSince;
+
+    private volatile boolean closed;
+
+    private PooledForkedJvm(long id, ForkedJvmKey key, Process process, ForkedJvmChannel channel,
+            CookieBasedProcessTreeKiller processTreeKiller, CurrentTaskOutputStream processOutput,
+            CurrentTaskOutputStream processError, ProcessStreamsReader processStreamsReader) {
+        this.id = id;
+        this.key = key;
+        this.process = process;
+        this.channel = channel;
+        this.processTreeKiller = processTreeKiller;
+        this.processOutput = processOutput;
+        this.processError = processError;
+        this.processStreamsReader = processStreamsReader;
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readMessages();
+            }
+        }, "ForkedJvm" + id + "_CHANNEL");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Start a new JVM and wait for it to connect to its channel.
+     *
+     * @param key the key of the JVM
+     * @param processBuilder a process builder for the JVM command, without the port of the channel
+     * @return the started JVM, ready to execute tasks
+     */
+    static PooledForkedJvm start(ForkedJvmKey key, OSProcessBuilder processBuilder)
+            throws IOException, InterruptedException {
+        long id = jvmIds.incrementAndGet();
+        String token = UUID.randomUUID().toString();
+        String name = "ForkedJvm" + id;
+        CookieBasedProcessTreeKiller processTreeKiller = CookieBasedProcessTreeKiller.createProcessChildrenKiller(name,
+                                                                                                                 processBuilder.environment());
+        processBuilder.environment().put(ForkedJvmChannel.TOKEN_ENVIRONMENT_VARIABLE, token);
+
+        Process process = null;
+        ProcessStreamsReader processStreamsReader = null;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            processBuilder.command().add(Integer.toString(serverSocket.getLocalPort()));
+            process = processBuilder.start();
+            CurrentTaskOutputStream processOutput = new CurrentTaskOutputStream();
+            CurrentTaskOutputStream processError = new CurrentTaskOutputStream();
+            processStreamsReader = new ProcessStreamsReader(name,
+                                                            process,
+                                                            new PrintStream(processOutput, true),
+                                                            new PrintStream(processError, true));
+
+            Socket socket = accept(serverSocket, process);
+            ForkedJvmChannel channel = null;
+            try {
+                socket.setSoTimeout((int) START_TIMEOUT);
+                channel = new ForkedJvmChannel(socket);
+                if (!token.equals(channel.receive())) {
+                    throw new IOException("Forked JVM did not authenticate on the pool channel");
+                }
+                socket.setSoTimeout(0);
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                socket.close();
+                throw new IOException("Could not connect to forked JVM", e);
+            }
+            logger.debug("Started forked JVM " + id + " " + key);
+            return new PooledForkedJvm(id,
+                                       key,
+                                       process,
+                                       channel,
+                                       processTreeKiller,
+                                       processOutput,
+                                       processError,
+                                       processStreamsReader);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (process != null) {
+                process.destroy();
+            }
+            processTreeKiller.kill();
+            if (processStreamsReader != null) {
+                processStreamsReader.close();
+            }
+            throw e;
+        }
+    }
+
+    private static Socket accept(ServerSocket serverSocket, Process process) throws IOException, InterruptedException {
+        serverSocket.setSoTimeout(ACCEPT_POLL_INTERVAL);
+        long deadline = System.currentTimeMillis() + START_TIMEOUT;
+        for (;;) {
+            try {
+                return serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (!isAlive(process)) {
+                    throw new IOException("Forked JVM process exited with code " + process.exitValue() +
+                                          " before connecting to the pool channel");
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IOException("Forked JVM did not connect to the pool channel in " + START_TIMEOUT +
+                                          " ms");
+                }
+            }
+        }
+    }
+
+    /**
+     * Execute a task in this JVM.
+     *
+     * @param workingDir the working directory of the task, it must exist
+     * @return the task result, or the exception thrown by the forked JVM when trying to execute the task
+     * @throws IOException if the channel was closed, the JVM should not be used anymore
+     * @throws InterruptedException if the current thread is interrupted, the JVM should not be used anymore
+     */
+    Object execute(TaskContext context, File workingDir, PrintStream outputSink, PrintStream errorSink)
+            throws IOException, InterruptedException, ClassNotFoundException {
+        executedTasks++;
+        discardPendingOutput();
+        processOutput.setSink(outputSink);
+        processError.setSink(errorSink);
+        try {
+            channel.send(new ForkedJvmTask(context, workingDir.getAbsolutePath()));
+            for (;;) {
+                Object message = messages.take();
+                if (message instanceof ForkedJvmOutput) {
+                    ((ForkedJvmOutput) message).writeTo(outputSink, errorSink);
+                } else if (message instanceof byte[]) {
+                    return deserialize((byte[]) message);
+                } else {
+                    // put it back for the next callers, the channel is closed
+                    messages.offer(message);
+                    throw new IOException("Forked JVM process exited or closed the pool channel, see task logs for more " +
+                                          "information", (Throwable) message);
+                }
+            }
+        } finally {
+            processOutput.setSink(null);
+            processError.setSink(null);
+        }
+    }
+
+    /**
+     * Discard what the JVM wrote since the end of the previous task, so that it does not end up in the
+     * logs of the next one.
+     */
+    private void discardPendingOutput() throws IOException {
+        for (Object pending = messages.poll(); pending != null; pending = messages.poll()) {
+            if (pending instanceof Throwable) {
+                messages.offer(pending);
+                throw new IOException("Forked JVM process exited or closed the pool channel", (Throwable) pending);
+            }
+        }
+    }
+
+    private void readMessages() {
+        try {
+            for (;;) {
+                messages.put(channel.receive());
+            }
+        } catch (Throwable channelClosed) {
+            if (!closed) {
+                logger.debug("Channel of forked JVM " + id + " closed", channelClosed);
+            }
+            messages.offer(channelClosed);
+        }
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return inputStream.readObject();
+        }
+    }
+
+    /**
+     * Stop the JVM and every process it started.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        logger.debug("Stopping forked JVM " + id + " after " + executedTasks + " tasks");
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Could not close channel of forked JVM " + id, e);
+        }
+        process.destroy();
+        processTreeKiller.kill();
+        processStreamsReader.close();
+    }
+
+    /**
+     * @return false if this JVM was closed, exited, or closed its channel
+     */
+    boolean isUsable() {
+        if (closed || !isAlive(process)) {
+            return false;
+        }
+        for (Object pending : messages) {
+            if (pending instanceof Throwable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAlive(Process process) {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException stillRunning) {
+            return true;
+        }
+    }
+
+    ForkedJvmKey getKey() {
+        return key;
+    }
+
+    void setKey(ForkedJvmKey key) {
+        this.key = key;
+    }
+
+    int getExecutedTasks() {
+        return executedTasks;
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void setIdleSince(long idleSince) {
+        this.idleSince = idleSince;
+    }
+
+    /**
+     * Forwards what the JVM writes on its standard streams (e.g. the output of processes started by
+     * a task) to the sinks of the task being executed, or discards it between tasks.
+     */
+    private static class CurrentTaskOutputStream extends OutputStream {
+
+        private volatile PrintStream sink;
+
+        void setSink(PrintStream sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) {
+            PrintStream current = sink;
+            if (current != null) {
+                current.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            PrintStream current = sink;
+            if (current != null) {
+                current.write(b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.TestTaskOutput;
+import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.context.NodeDataSpacesURIs;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.ForkedTaskExecutor;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmPool;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.ow2.proactive.scripting.TaskScript;
+
+
+/**
+ * Executes tasks through the ForkedTaskExecutor with a forked JVM pool.
+ * As pooled JVMs are separate processes, this test is a functionalTest (to avoid leaving alive subprocesses when cancelled)
+ */
+public class ForkedJvmPoolTest {
+
+    private static final String JVM_NAME_SCRIPT = "print('hello'); result=java.lang.management.ManagementFactory.getRuntimeMXBean().getName()";
+
+    private static final int MAX_TASKS_PER_JVM = 3;
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static final String OWNER = "user";
+
+    private ForkedJvmPool pool;
+
+    private File workingDir;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = new ForkedJvmPool(2, MAX_TASKS_PER_JVM, 60000);
+        workingDir = tmpFolder.newFolder("workingDir");
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void tasks_are_executed_in_the_same_jvm() throws Throwable {
+        TestTaskOutput firstOutput = new TestTaskOutput();
+        TaskResultImpl first = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), firstOutput);
+        TestTaskOutput secondOutput = new TestTaskOutput();
+        TaskResultImpl second = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), secondOutput);
+
+        assertEquals(first.value(), second.value());
+        assertEquals(String.format("hello%n"), firstOutput.output());
+        assertEquals(String.format("hello%n"), secondOutput.output());
+        assertEquals(1, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void jvm_is_replaced_after_max_tasks() throws Throwable {
+        Object firstJvm = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value();
+        for (int i = 1; i < MAX_TASKS_PER_JVM; i++) {
+            assertEquals(firstJvm, execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value());
+        }
+        assertEquals(0, pool.getIdleJvmsCount());
+
+        assertNotEquals(firstJvm, execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value());
+    }
+
+    @Test
+    public void jvm_is_replaced_after_it_exits() throws Throwable {
+        Object firstJvm = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value();
+
+        TaskResultImpl exited = execute("System.exit(12)", pooledForkEnvironment(), new TestTaskOutput());
+        assertTrue(exited.hadException());
+        assertEquals(0, pool.getIdleJvmsCount());
+
+        assertNotEquals(firstJvm, execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value());
+    }
+
+    @Test
+    public void tasks_with_different_jvm_arguments_do_not_share_jvms() throws Throwable {
+        ForkEnvironment forkEnvironment = pooledForkEnvironment();
+        forkEnvironment.addJVMArgument("-Dpool.test=true");
+
+        Object firstJvm = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value();
+        TaskResultImpl withArgument = execute("result=System.getProperty('pool.test') + ' ' + " +
+                                              "java.lang.management.ManagementFactory.getRuntimeMXBean().getName()",
+                                              forkEnvironment,
+                                              new TestTaskOutput());
+
+        assertTrue(withArgument.value().toString().startsWith("true "));
+        assertNotEquals("true " + firstJvm, withArgument.value());
+        assertEquals(2, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void tasks_with_system_environment_are_not_pooled() throws Throwable {
+        ForkEnvironment forkEnvironment = pooledForkEnvironment();
+        forkEnvironment.addSystemEnvironmentVariable("POOL_TEST", "true");
+
+        TaskResultImpl result = execute("result=System.getenv('POOL_TEST')", forkEnvironment, new TestTaskOutput());
+
+        assertEquals("true", result.value());
+        assertEquals(0, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void pooled_jvm_contains_task_fork_property() throws Throwable {
+        TaskResultImpl result = execute("result=System.getProperty('" + PASchedulerProperties.TASK_FORK.getKey() +
+                                        "')", pooledForkEnvironment(), new TestTaskOutput());
+
+        assertFalse(result.hadException());
+        assertEquals("true", result.value());
+    }
+
+    @Test
+    public void tasks_running_in_their_scratch_space_are_pooled() throws Throwable {
+        String script = "result=new File('.').getCanonicalPath() + ' ' + " +
+                        "java.lang.management.ManagementFactory.getRuntimeMXBean().getName()";
+        String[] first = execute(script, null, new TestTaskOutput()).value().toString().split(" ");
+        String[] second = execute(script, null, new TestTaskOutput()).value().toString().split(" ");
+
+        // same JVM, each task in its own scratch space
+        assertEquals(first[1], second[1]);
+        assertNotEquals(first[0], second[0]);
+        assertTrue(first[0].startsWith(tmpFolder.getRoot().getCanonicalPath()));
+        assertTrue(second[0].startsWith(tmpFolder.getRoot().getCanonicalPath()));
+        assertEquals(1, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void prestarted_jvms_are_given_to_the_first_owner_using_them() throws Throwable {
+        pool.prestartDefaultJvms();
+        assertEquals(2, pool.getIdleJvmsCount());
+
+        Object firstOwnerJvm = execute(JVM_NAME_SCRIPT, null, new TestTaskOutput()).value();
+        assertEquals(2, pool.getIdleJvmsCount());
+        Object secondOwnerJvm = execute(JVM_NAME_SCRIPT, null, "other", new TestTaskOutput()).value();
+        assertEquals(2, pool.getIdleJvmsCount());
+
+        assertNotEquals(firstOwnerJvm, secondOwnerJvm);
+        assertEquals(firstOwnerJvm, execute(JVM_NAME_SCRIPT, null, new TestTaskOutput()).value());
+        assertEquals(2, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void tasks_are_executed_in_their_working_dir() throws Throwable {
+        TaskResultImpl result = execute("result=new File('.').getCanonicalPath()",
+                                        pooledForkEnvironment(),
+                                        new TestTaskOutput());
+
+        assertEquals(workingDir.getCanonicalPath(), result.value());
+        assertEquals(1, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void tasks_of_different_owners_do_not_share_jvms() throws Throwable {
+        Object firstOwnerJvm = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value();
+        Object secondOwnerJvm = execute(JVM_NAME_SCRIPT,
+                                        pooledForkEnvironment(),
+                                        "other",
+                                        new TestTaskOutput()).value();
+
+        assertNotEquals(firstOwnerJvm, secondOwnerJvm);
+        assertEquals(2, pool.getIdleJvmsCount());
+    }
+
+    @Test
+    public void idle_jvms_are_limited_for_the_whole_pool() throws Throwable {
+        Object firstJvm = execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value();
+        for (int i = 0; i < 2; i++) {
+            ForkEnvironment forkEnvironment = pooledForkEnvironment();
+            forkEnvironment.addJVMArgument("-Dpool.test=" + i);
+            execute(JVM_NAME_SCRIPT, forkEnvironment, new TestTaskOutput());
+        }
+        assertEquals(2, pool.getIdleJvmsCount());
+
+        // the least recently used JVM was stopped to keep the other ones
+        assertNotEquals(firstJvm, execute(JVM_NAME_SCRIPT, pooledForkEnvironment(), new TestTaskOutput()).value());
+        assertEquals(2, pool.getIdleJvmsCount());
+    }
+
+    private ForkEnvironment pooledForkEnvironment() {
+        ForkEnvironment forkEnvironment = new ForkEnvironment();
+        forkEnvironment.setWorkingDir(workingDir.getAbsolutePath());
+        return forkEnvironment;
+    }
+
+    private TaskResultImpl execute(String script, ForkEnvironment forkEnvironment, TestTaskOutput taskOutput)
+            throws Exception {
+        return execute(script, forkEnvironment, OWNER, taskOutput);
+    }
+
+    private TaskResultImpl execute(String script, ForkEnvironment forkEnvironment, String owner,
+            TestTaskOutput taskOutput) throws Exception {
+        // as the task launcher, run the task in the working dir of its fork environment if any, else in a scratch dir
+        File taskWorkingDir = tmpFolder.newFolder();
+        if (forkEnvironment != null && forkEnvironment.getWorkingDir() != null) {
+            taskWorkingDir = new File(forkEnvironment.getWorkingDir());
+        }
+        ForkedTaskExecutor taskExecutor = new ForkedTaskExecutor(taskWorkingDir, pool);
+
+        TaskLauncherInitializer initializer = new TaskLauncherInitializer();
+        initializer.setTaskId((TaskIdImpl.createTaskId(JobIdImpl.makeJobId("1000"), "job", 1000L)));
+        initializer.setJobOwner(owner);
+        initializer.setForkEnvironment(forkEnvironment);
+
+        return taskExecutor.execute(new TaskContext(new ScriptExecutableContainer(new TaskScript(new SimpleScript(script,
+                                                                                                                  "groovy"))),
+                                                    initializer,
+                                                    null,
+                                                    new NodeDataSpacesURIs("", "", "", "", "", ""),
+                                                    "",
+                                                    ""),
+                                    taskOutput.outputStream,
+                                    taskOutput.error);
+    }
+}
@@ -26,17 +26,27 @@
 package org.ow2.proactive.scheduler.core;
 
 import java.lang.reflect.Method;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
+import org.ow2.proactive.scheduler.common.SchedulerEventCall;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.threading.ReifiedMethodCall;
 
@@ -44,6 +54,12 @@ import org.ow2.proactive.threading.ReifiedMethodCall;
 /**
  * ClientRequestHandler is used to delegate event call to client.
  * This class should be used with the ThreadPoolController which handles threads.
+ * <p>
+ * Events waiting to be sent are stored in a bounded queue. When the queue is full, the overflow policy
+ * applies: successive state updates of the same job or task are coalesced, and events which cannot be kept
+ * are dropped. A coalesced update takes the place of the new event at the tail of the queue, so that the
+ * client never receives a state before the events which preceded it. A client which lost events is marked
+ * as dirty, as it no longer has a consistent view.
  *
  * @author The ProActive Team
  * @since ProActive Scheduling 2.0
@@ -55,6 +71,20 @@ public class ClientRequestHandler {
     /** Number of threads used by the thread pool for clients events sending */
     private static final int THREAD_NUMBER = PASchedulerProperties.SCHEDULER_LISTENERS_THREADNUMBER.getValueAsInt();
 
+    /** Maximum number of events waiting to be sent to one client */
+    private static final int QUEUE_SIZE = PASchedulerProperties.SCHEDULER_LISTENERS_QUEUE_SIZE.getValueAsInt();
+
+    /** Maximum number of events sent in one call to a client supporting batches */
+    private static final int BATCH_SIZE = Math.max(1,
+                                                   PASchedulerProperties.SCHEDULER_LISTENERS_BATCH_SIZE.getValueAsInt());
+
+    /** Policy applied when the queue of a client is full */
+    private static final OverflowPolicy OVERFLOW_POLICY = OverflowPolicy.fromProperty(PASchedulerProperties.SCHEDULER_LISTENERS_OVERFLOW_POLICY.getValueAsString());
+
+    private static final String JOB_STATE_UPDATED_EVENT_METHOD = "jobStateUpdatedEvent";
+
+    private static final String TASK_STATE_UPDATED_EVENT_METHOD = "taskStateUpdatedEvent";
+
     /** thread pool */
     private static final ExecutorService threadPoolForNetworkCalls = Executors.newFixedThreadPool(THREAD_NUMBER,
                                                                                                   new NamedThreadFactory("ClientEventHandlerPool"));
@@ -86,11 +116,27 @@ public class ClientRequestHandler {
     private final SchedulerEventListener client;
 
     /** Events queue to be stored */
-    private final LinkedList<ReifiedMethodCall> eventCallsToStore;
+    private final ArrayDeque<ReifiedMethodCall> eventCallsToStore;
+
+    /** Last stored state update per job or task id, the one which can be coalesced with a new update */
+    private final Map<Object, ReifiedMethodCall> lastStateUpdates;
 
     /** Cross reference to the front-end : used to mark client as dirty */
     private final SchedulerFrontendState frontend;
 
+    private final int queueSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    private final AtomicLong sentEvents = new AtomicLong();
+
+    /** True when events have been dropped for this client */
+    private volatile boolean stale = false;
+
     /**
      * Create a new instance of ClientRequestHandler
      *
@@ -99,10 +145,18 @@ public class ClientRequestHandler {
      * @param client the reference on the client itself.
      */
     public ClientRequestHandler(SchedulerFrontendState frontend, UniqueID clientId, SchedulerEventListener client) {
+        this(frontend, clientId, client, QUEUE_SIZE, OVERFLOW_POLICY);
+    }
+
+    ClientRequestHandler(SchedulerFrontendState frontend, UniqueID clientId, SchedulerEventListener client,
+            int queueSize, OverflowPolicy overflowPolicy) {
         this.client = client;
         this.frontend = frontend;
         this.clientId = clientId;
-        this.eventCallsToStore = new LinkedList<>();
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.eventCallsToStore = new ArrayDeque<>();
+        this.lastStateUpdates = new HashMap<>();
     }
 
     /**
@@ -113,30 +167,161 @@ public class ClientRequestHandler {
      */
     public void addEvent(Method method, Object... args) {
         synchronized (eventCallsToStore) {
-            eventCallsToStore.add(new ReifiedMethodCall(method, args));
+            if (stale) {
+                // the client will be disconnected, no need to keep its events
+                droppedEvents.incrementAndGet();
+                return;
+            }
+            Object stateUpdateId = getStateUpdateId(method, args);
+            if (eventCallsToStore.size() >= queueSize) {
+                if (!(overflowPolicy == OverflowPolicy.COALESCE && coalesce(stateUpdateId, method, args))) {
+                    dropEvent(method);
+                }
+                return;
+            }
+            ReifiedMethodCall methodCall = new ReifiedMethodCall(method, args);
+            eventCallsToStore.add(methodCall);
+            if (stateUpdateId != null) {
+                lastStateUpdates.put(stateUpdateId, methodCall);
+            }
             requestLeft.incrementAndGet();
         }
         tryStartTask();
     }
 
+    /**
+     * Replace the arguments of the last stored update of the same job or task, if it is the same kind of update,
+     * and move it to the tail of the queue, where the new event would have been stored.
+     *
+     * @return true if the event has been coalesced
+     */
+    private boolean coalesce(Object stateUpdateId, Method method, Object[] args) {
+        if (stateUpdateId == null) {
+            return false;
+        }
+        ReifiedMethodCall lastUpdate = lastStateUpdates.get(stateUpdateId);
+        if (lastUpdate == null || !lastUpdate.getMethod().equals(method)) {
+            return false;
+        }
+        NotificationData<?> lastNotification = (NotificationData<?>) lastUpdate.getArguments()[0];
+        NotificationData<?> notification = (NotificationData<?>) args[0];
+        if (lastNotification.getEventType() != notification.getEventType()) {
+            return false;
+        }
+        // the update was most likely queued recently, the queue is searched from its tail
+        eventCallsToStore.removeLastOccurrence(lastUpdate);
+        lastUpdate.setArguments(args);
+        eventCallsToStore.add(lastUpdate);
+        coalescedEvents.incrementAndGet();
+        return true;
+    }
+
+    private void dropEvent(Method method) {
+        droppedEvents.incrementAndGet();
+        stale = true;
+        logger.warn("Events queue of client " + clientId + " is full (" + queueSize + " events), dropping " +
+                    method.getName() + " and marking the client as dirty");
+        frontend.markAsDirty(clientId);
+    }
+
+    /**
+     * Returns the job or task id of a state update event which can be coalesced, null for other events.
+     */
+    private static Object getStateUpdateId(Method method, Object[] args) {
+        if (args == null || args.length != 1 || !(args[0] instanceof NotificationData)) {
+            return null;
+        }
+        Object data = ((NotificationData<?>) args[0]).getData();
+        if (JOB_STATE_UPDATED_EVENT_METHOD.equals(method.getName()) && data instanceof JobInfo) {
+            return ((JobInfo) data).getJobId();
+        } else if (TASK_STATE_UPDATED_EVENT_METHOD.equals(method.getName()) && data instanceof TaskInfo) {
+            return ((TaskInfo) data).getTaskId();
+        }
+        return null;
+    }
+
     /**
      * Try to create a task with new events to send, and start it in the thread pool.
      * Can do nothing if some previous events are currently being sent.
      *
      * Can be called from two different thread, even if it is private!
      */
-    @SuppressWarnings("unchecked")
     private void tryStartTask() {
         synchronized (eventCallsToStore) {
             if (eventCallsToStore.size() > 0 && !busy.get()) {
-                LinkedList<ReifiedMethodCall> tasks = (LinkedList<ReifiedMethodCall>) eventCallsToStore.clone();
+                List<ReifiedMethodCall> tasks = new ArrayList<>(eventCallsToStore);
                 eventCallsToStore.clear();
+                lastStateUpdates.clear();
                 busy.set(true);
                 threadPoolForNetworkCalls.execute(new TaskRunnable(tasks));
             }
         }
     }
 
+    /**
+     * Returns the id of the client
+     */
+    public UniqueID getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Returns the number of events waiting to be sent to the client
+     */
+    public int getQueueDepth() {
+        synchronized (eventCallsToStore) {
+            return eventCallsToStore.size();
+        }
+    }
+
+    /**
+     * Returns the number of events dropped because the queue of the client was full
+     */
+    public long getDroppedEventsCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Returns the number of events merged into a pending event of the same job or task
+     */
+    public long getCoalescedEventsCount() {
+        return coalescedEvents.get();
+    }
+
+    /**
+     * Returns the number of events sent to the client
+     */
+    public long getSentEventsCount() {
+        return sentEvents.get();
+    }
+
+    /**
+     * Returns true if events have been dropped for this client
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Policy applied when the events queue of a client is full.
+     */
+    enum OverflowPolicy {
+        /** Coalesce with the pending update of the same job or task, sent in place of the event, drop it otherwise */
+        COALESCE,
+        /** Drop the event */
+        DROP;
+
+        static OverflowPolicy fromProperty(String value) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(value)) {
+                    return policy;
+                }
+            }
+            logger.warn("Unknown listener overflow policy " + value + ", using " + COALESCE);
+            return COALESCE;
+        }
+    }
+
     /**
      * TaskRunnable is the task in charge to send the events in its list.
      *
@@ -146,14 +331,14 @@ public class ClientRequestHandler {
     class TaskRunnable implements Runnable {
 
         /** Events queue to be sent */
-        private final LinkedList<ReifiedMethodCall> eventCallsToSend;
+        private final List<ReifiedMethodCall> eventCallsToSend;
 
         /**
          * Create a new instance of Task
          *
-         * @param eventCallsToSend
+         * @param eventCalls
          */
-        public TaskRunnable(LinkedList<ReifiedMethodCall> eventCalls) {
+        public TaskRunnable(List<ReifiedMethodCall> eventCalls) {
             if (eventCalls == null || eventCalls.size() == 0) {
                 throw new IllegalArgumentException("List argument must not be null nor empty !");
             }
@@ -172,10 +357,14 @@ public class ClientRequestHandler {
                         requestLeft.notify();
                     }
                 }
-                //loop on the list and send events
-                while (!eventCallsToSend.isEmpty()) {
-                    ReifiedMethodCall methodCall = eventCallsToSend.removeFirst();
-                    methodCall.getMethod().invoke(client, methodCall.getArguments());
+                if (client instanceof SchedulerEventBatchListener && eventCallsToSend.size() > 1) {
+                    sendBatches((SchedulerEventBatchListener) client);
+                } else {
+                    //loop on the list and send events
+                    for (ReifiedMethodCall methodCall : eventCallsToSend) {
+                        methodCall.getMethod().invoke(client, methodCall.getArguments());
+                        sentEvents.incrementAndGet();
+                    }
                 }
                 busy.set(false);
                 //try to empty the events list if no event comes from the core
@@ -192,6 +381,23 @@ public class ClientRequestHandler {
             }
         }
 
+        /**
+         * Send the events by groups of at most {@code BATCH_SIZE} events, one remote call per group.
+         */
+        private void sendBatches(SchedulerEventBatchListener batchListener) {
+            for (int from = 0; from < eventCallsToSend.size(); from += BATCH_SIZE) {
+                List<ReifiedMethodCall> calls = eventCallsToSend.subList(from,
+                                                                         Math.min(from + BATCH_SIZE,
+                                                                                  eventCallsToSend.size()));
+                List<SchedulerEventCall> batch = new ArrayList<>(calls.size());
+                for (ReifiedMethodCall methodCall : calls) {
+                    batch.add(new SchedulerEventCall(methodCall.getMethod(), methodCall.getArguments()));
+                }
+                batchListener.schedulerEventsBatch(batch);
+                sentEvents.addAndGet(batch.size());
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,144 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * Free nodes urls of a scheduling loop, on top of the read-only view of the free nodes kept by the
+ * resource manager proxy: the nodes the loop acquires or gives back are recorded by this set instead
+ * of being applied to a copy of all the free nodes, so that the cost of a loop depends on the nodes it
+ * uses, not on the size of the resource manager.
+ * <p>
+ * The view must not change while the set is used, which holds as it is only updated by the scheduling
+ * thread at the beginning of each loop.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+final class FreeResources extends AbstractSet<String> {
+
+    private final Set<String> freeNodes;
+
+    /** Free nodes of the view which are not free anymore */
+    private final Set<String> removed = new HashSet<>();
+
+    /** Free nodes which are not in the view, never in it */
+    private final Set<String> added = new HashSet<>();
+
+    /**
+     * @param freeNodes read-only view of the free nodes of the resource manager
+     */
+    FreeResources(Set<String> freeNodes) {
+        this.freeNodes = freeNodes;
+    }
+
+    @Override
+    public boolean contains(Object url) {
+        return added.contains(url) || (freeNodes.contains(url) && !removed.contains(url));
+    }
+
+    @Override
+    public int size() {
+        return freeNodes.size() - removed.size() + added.size();
+    }
+
+    @Override
+    public boolean add(String url) {
+        if (freeNodes.contains(url)) {
+            return removed.remove(url);
+        }
+        return added.add(url);
+    }
+
+    @Override
+    public boolean remove(Object url) {
+        if (added.remove(url)) {
+            return true;
+        }
+        return freeNodes.contains(url) && removed.add((String) url);
+    }
+
+    /**
+     * Removes the given urls one by one, as {@link AbstractSet#removeAll(Collection)} may remove them
+     * through the iterator of this set, which does not support it.
+     */
+    @Override
+    public boolean removeAll(Collection<?> urls) {
+        boolean modified = false;
+        for (Object url : urls) {
+            modified |= remove(url);
+        }
+        return modified;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private final Iterator<String> freeNodesIterator = freeNodes.iterator();
+
+            private final Iterator<String> addedIterator = added.iterator();
+
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && freeNodesIterator.hasNext()) {
+                    String url = freeNodesIterator.next();
+                    if (!removed.contains(url)) {
+                        next = url;
+                    }
+                }
+                return next != null || addedIterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (next != null) {
+                    String url = next;
+                    next = null;
+                    return url;
+                }
+                return addedIterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
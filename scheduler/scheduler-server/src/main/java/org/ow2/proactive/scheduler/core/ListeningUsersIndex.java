@@ -0,0 +1,157 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.job.UserIdentificationImpl;
+
+import com.google.common.collect.Iterables;
+
+
+/**
+ * Index of the users listening to scheduler events, by subscribed event type and,
+ * for users listening to their own events only, by owner.
+ * <p>
+ * Dispatching an event only visits the listeners interested in it instead of every connected user.
+ * Listeners are rarely added or removed while events are dispatched constantly, so updates are
+ * serialized and lookups are lock-free, on copy-on-write sets.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+class ListeningUsersIndex {
+
+    /** Users listening to an event whatever its owner */
+    private final Map<SchedulerEvent, Set<ListeningUser>> allOwnersListeners;
+
+    /** Users listening to an event for their own jobs only, by username */
+    private final Map<SchedulerEvent, ConcurrentMap<String, Set<ListeningUser>>> ownerListeners;
+
+    /** Sets each user was added to, kept so that it can be removed after its subscription changed */
+    private final Map<ListeningUser, List<Set<ListeningUser>>> registrations;
+
+    ListeningUsersIndex() {
+        this.allOwnersListeners = new EnumMap<>(SchedulerEvent.class);
+        this.ownerListeners = new EnumMap<>(SchedulerEvent.class);
+        this.registrations = new HashMap<>();
+        for (SchedulerEvent event : SchedulerEvent.values()) {
+            allOwnersListeners.put(event, new CopyOnWriteArraySet<ListeningUser>());
+            ownerListeners.put(event, new ConcurrentHashMap<String, Set<ListeningUser>>());
+        }
+    }
+
+    /**
+     * Index the given user according to its current subscription (events and my events only flag).
+     * If the user was already indexed, its previous subscription is replaced.
+     *
+     * @param user the listening user to index
+     */
+    synchronized void add(ListeningUser user) {
+        remove(user);
+        UserIdentificationImpl ident = user.getUser();
+        Collection<SchedulerEvent> events = ident.getUserEvents() == null ? EnumSet.allOf(SchedulerEvent.class)
+                                                                          : ident.getUserEvents();
+        List<Set<ListeningUser>> userSets = new ArrayList<>(events.size());
+        for (SchedulerEvent event : events) {
+            Set<ListeningUser> listeners;
+            if (ident.isMyEventsOnly()) {
+                ConcurrentMap<String, Set<ListeningUser>> byOwner = ownerListeners.get(event);
+                listeners = byOwner.get(ident.getUsername());
+                if (listeners == null) {
+                    listeners = new CopyOnWriteArraySet<>();
+                    byOwner.put(ident.getUsername(), listeners);
+                }
+            } else {
+                listeners = allOwnersListeners.get(event);
+            }
+            listeners.add(user);
+            userSets.add(listeners);
+        }
+        registrations.put(user, userSets);
+    }
+
+    /**
+     * Remove the given user from the index, if it was indexed.
+     *
+     * @param user the listening user to remove
+     */
+    synchronized void remove(ListeningUser user) {
+        List<Set<ListeningUser>> userSets = registrations.remove(user);
+        if (userSets == null) {
+            return;
+        }
+        for (Set<ListeningUser> listeners : userSets) {
+            listeners.remove(user);
+        }
+        String owner = user.getUser().getUsername();
+        for (ConcurrentMap<String, Set<ListeningUser>> byOwner : ownerListeners.values()) {
+            Set<ListeningUser> listeners = byOwner.get(owner);
+            if (listeners != null && listeners.isEmpty()) {
+                byOwner.remove(owner, listeners);
+            }
+        }
+    }
+
+    /**
+     * Get the users interested in an event.
+     *
+     * @param event the type of the event
+     * @param owner the owner of the job, task or user concerned by the event, or null if the event
+     *            is not related to a particular user (every listener of this event type is returned)
+     * @return the users listening to this event
+     */
+    Iterable<ListeningUser> getListeners(SchedulerEvent event, String owner) {
+        Set<ListeningUser> allOwners = allOwnersListeners.get(event);
+        ConcurrentMap<String, Set<ListeningUser>> byOwner = ownerListeners.get(event);
+        if (owner == null) {
+            return Iterables.concat(allOwners, Iterables.concat(byOwner.values()));
+        }
+        Set<ListeningUser> ownerOnly = byOwner.get(owner);
+        if (ownerOnly == null) {
+            return allOwners;
+        }
+        return Iterables.concat(allOwners, ownerOnly);
+    }
+
+    /**
+     * @return the number of indexed users
+     */
+    synchronized int size() {
+        return registrations.size();
+    }
+}
@@ -27,13 +27,13 @@ package org.ow2.proactive.scheduler.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.log4j.Logger;
@@ -89,8 +89,12 @@ class LiveJobs {
 
         final ReentrantLock jobLock = new ReentrantLock();
 
+        /** Position of the job in {@link LiveJobs#jobsByPriority} */
+        private volatile PriorityKey priorityKey;
+
         private JobData(InternalJob job) {
             this.job = job;
+            this.priorityKey = new PriorityKey(job.getPriority(), job.getId());
         }
 
         void unlock() {
@@ -98,21 +102,47 @@ class LiveJobs {
         }
     }
 
+    /**
+     * Tasks which terminated normally, whose database update and events are deferred
+     * until their batch is saved.
+     */
+    private static final class FinishedTasks {
+
+        final Map<InternalTask, TaskResultImpl> results = new LinkedHashMap<>();
+
+        final List<TaskInfoImpl> taskInfos = new ArrayList<>();
+
+        boolean jobFinished;
+    }
+
     private final SchedulerDBManager dbManager;
 
     private final SchedulerStateUpdate listener;
 
     private final Map<JobId, JobData> jobs = new ConcurrentHashMap<>();
 
+    /**
+     * Same jobs as {@link #jobs}, ordered by descending priority then by job id,
+     * the scheduling order of {@link org.ow2.proactive.scheduler.policy.DefaultPolicy}
+     */
+    private final ConcurrentSkipListMap<PriorityKey, JobData> jobsByPriority = new ConcurrentSkipListMap<>();
+
     private final ConcurrentHashMap<TaskIdWrapper, RunningTaskData> runningTasksData = new ConcurrentHashMap<>();
 
     private final OnErrorPolicyInterpreter onErrorPolicyInterpreter = new OnErrorPolicyInterpreter();
 
     private final StartAtUpdater startAtUpdater = new StartAtUpdater();
 
+    private final SchedulingLoopStatistics loopStatistics;
+
     LiveJobs(SchedulerDBManager dbManager, SchedulerStateUpdate listener) {
+        this(dbManager, listener, new SchedulingLoopStatistics());
+    }
+
+    LiveJobs(SchedulerDBManager dbManager, SchedulerStateUpdate listener, SchedulingLoopStatistics loopStatistics) {
         this.dbManager = dbManager;
         this.listener = listener;
+        this.loopStatistics = loopStatistics;
     }
 
     Collection<RunningTaskData> getRunningTasks() {
@@ -124,7 +154,7 @@ class LiveJobs {
     }
 
     void jobRecovered(InternalJob job) {
-        jobs.put(job.getId(), new JobData(job));
+        addJobData(new JobData(job));
         for (InternalTask task : job.getITasks()) {
             if (task.getStatus() == TaskStatus.RUNNING) {
                 logger.info("Recover task " + task.getId() + " (" + task.getName() + ") of job " + job.getId() + " (" +
@@ -187,6 +217,7 @@ class LiveJobs {
         }
         try {
             jobData.job.setPriority(priority);
+            reindexJob(jobData);
 
             dbManager.changeJobPriority(jobId, priority);
 
@@ -294,62 +325,68 @@ class LiveJobs {
         job.submitAction();
         dbManager.newJobSubmitted(job);
         ClientJobState clientJobState = new ClientJobState(job);
-        jobs.put(job.getId(), new JobData(job));
+        addJobData(new JobData(job));
         listener.jobSubmitted(clientJobState);
     }
 
-    Map<JobId, JobDescriptor> lockJobsToSchedule() {
-
-        TreeSet<JobPriority> prioritiesScheduled = new TreeSet<>();
-        TreeSet<JobPriority> prioritiesNotScheduled = new TreeSet<>();
-
-        Map<JobId, JobDescriptor> result = new HashMap<>();
-        for (Map.Entry<JobId, JobData> entry : jobs.entrySet()) {
-            JobData value = entry.getValue();
-
-            if (value.jobLock.tryLock()) {
-                InternalJob job = entry.getValue().job;
-                result.put(job.getId(), job.getJobDescriptor());
-                prioritiesScheduled.add(job.getPriority());
+    private void addJobData(JobData jobData) {
+        jobs.put(jobData.job.getId(), jobData);
+        jobsByPriority.put(jobData.priorityKey, jobData);
+    }
 
-                if (unlockIfConflict(prioritiesScheduled, prioritiesNotScheduled, result))
-                    return new HashMap<>(0);
-            } else {
-                prioritiesNotScheduled.add(value.job.getPriority());
-                if (unlockIfConflict(prioritiesScheduled, prioritiesNotScheduled, result))
-                    return new HashMap<>(0);
-            }
+    private void removeJobData(JobId jobId) {
+        JobData jobData = jobs.remove(jobId);
+        if (jobData != null) {
+            jobsByPriority.remove(jobData.priorityKey);
         }
-        return result;
     }
 
-    private boolean unlockIfConflict(TreeSet<JobPriority> prioritiesScheduled,
-            TreeSet<JobPriority> prioritiesNotScheduled, Map<JobId, JobDescriptor> result) {
-        if (priorityConflict(prioritiesScheduled, prioritiesNotScheduled)) {
-            unlockJobsToSchedule(result.values());
-            return true;
+    /**
+     * Move the job to its new position in the priority index, the job lock must be held.
+     * The new position is added before the old one is removed so that a concurrent iteration never misses the job.
+     */
+    private void reindexJob(JobData jobData) {
+        PriorityKey oldKey = jobData.priorityKey;
+        PriorityKey newKey = new PriorityKey(jobData.job.getPriority(), jobData.job.getId());
+        if (oldKey.compareTo(newKey) != 0) {
+            jobsByPriority.put(newKey, jobData);
+            jobData.priorityKey = newKey;
+            jobsByPriority.remove(oldKey);
         }
-        return false;
+    }
+
+    boolean hasJobs() {
+        return !jobs.isEmpty();
     }
 
     /**
-     * This method checks if there is a conflict priority between the jobs
-     * selected to be scheduled and those not selected. There is a conflict if
-     * any job scheduled has a strictly lower priority than any unscheduled job
-     *
-     * @param prioritiesScheduled
-     * @param prioritiesNotScheduled
-     * @return
+     * Lock the jobs which can be scheduled.
+     * The returned map iterates over the jobs by descending priority then by job id.
+     * A job whose lock is held by another thread (e.g. while it is terminating tasks) is skipped
+     * until the next scheduling loop instead of preventing the other jobs from being scheduled.
      */
-    public boolean priorityConflict(TreeSet<JobPriority> prioritiesScheduled,
-            TreeSet<JobPriority> prioritiesNotScheduled) {
+    Map<JobId, JobDescriptor> lockJobsToSchedule() {
+        Map<JobId, JobDescriptor> result = new LinkedHashMap<>();
+        for (JobData value : jobsByPriority.values()) {
+            JobId jobId = value.job.getId();
+            // a job being re-indexed can be seen twice
+            if (result.containsKey(jobId)) {
+                continue;
+            }
 
-        for (JobPriority jp : prioritiesNotScheduled) {
-            if (!prioritiesScheduled.headSet(jp).isEmpty()) {
-                return true;
+            if (value.jobLock.tryLock()) {
+                if (!jobs.containsKey(jobId)) {
+                    // terminated meanwhile
+                    value.unlock();
+                    continue;
+                }
+                result.put(jobId, value.job.getJobDescriptor());
+            } else {
+                loopStatistics.busyJobSkipped();
+                jlogger.debug(jobId, "busy, skipped by this scheduling loop");
             }
         }
-        return false;
+        return result;
     }
 
     void unlockJobsToSchedule(Collection<JobDescriptor> jobDescriptors) {
@@ -542,125 +579,177 @@ class LiveJobs {
             return emptyResult(taskId);
         }
         try {
-            InternalTask task;
-            try {
-                task = jobData.job.getTask(taskId);
-            } catch (UnknownTaskException e) {
-                logger.error("Unexpected exception", e);
-                return emptyResult(taskId);
+            return taskTerminatedWithResult(jobData, taskId, result, null);
+        } finally {
+            jobData.unlock();
+        }
+    }
+
+    /**
+     * Terminates several tasks of the same job with their results, under a single acquisition of the job lock.
+     * The successful results are written to the database in one transaction, after which their events are sent
+     * in termination order. A failed task or a task with a control flow action is handled as if it terminated
+     * alone, once the results that precede it have been written.
+     *
+     * @param jobId the job of the terminated tasks
+     * @param results the results of the terminated tasks, in termination order
+     * @return the termination data of all the given tasks
+     */
+    public TerminationData tasksTerminatedWithResult(JobId jobId, Map<TaskId, TaskResultImpl> results) {
+        TerminationData terminationData = TerminationData.newTerminationData();
+        JobData jobData = lockJob(jobId);
+        if (jobData == null) {
+            for (TaskId taskId : results.keySet()) {
+                try {
+                    terminationData.addAll(emptyResult(taskId));
+                } catch (RuntimeException e) {
+                    logger.error("Failed to terminate task " + taskId, e);
+                }
             }
-            if (task.getStatus() != TaskStatus.RUNNING) {
-                tlogger.info(taskId, "task isn't running anymore");
-                return emptyResult(taskId);
+            return terminationData;
+        }
+        try {
+            FinishedTasks finishedTasks = new FinishedTasks();
+            for (Map.Entry<TaskId, TaskResultImpl> entry : results.entrySet()) {
+                TaskResultImpl result = entry.getValue();
+                boolean deferred = !result.hadException() && result.getAction() == null;
+                if (!deferred) {
+                    saveFinishedTasks(jobData.job, finishedTasks);
+                }
+                try {
+                    terminationData.addAll(taskTerminatedWithResult(jobData,
+                                                                    entry.getKey(),
+                                                                    result,
+                                                                    deferred ? finishedTasks : null));
+                } catch (RuntimeException e) {
+                    logger.error("Failed to terminate task " + entry.getKey(), e);
+                }
             }
+            saveFinishedTasks(jobData.job, finishedTasks);
+            return terminationData;
+        } finally {
+            jobData.unlock();
+        }
+    }
 
-            TaskIdWrapper taskIdWrapper = TaskIdWrapper.wrap(taskId);
-            RunningTaskData taskData = runningTasksData.remove(taskIdWrapper);
-            if (taskData == null) {
-                tlogger.info(taskId, "Task " + taskId + " terminates after a recovery of the scheduler");
-                taskData = new RunningTaskData(task,
-                                               jobData.job.getOwner(),
-                                               jobData.job.getCredentials(),
-                                               task.getExecuterInformation().getLauncher());
-            }
+    private TerminationData taskTerminatedWithResult(JobData jobData, TaskId taskId, TaskResultImpl result,
+            FinishedTasks finishedTasks) {
+        InternalTask task;
+        try {
+            task = jobData.job.getTask(taskId);
+        } catch (UnknownTaskException e) {
+            logger.error("Unexpected exception", e);
+            return emptyResult(taskId);
+        }
+        if (task.getStatus() != TaskStatus.RUNNING) {
+            tlogger.info(taskId, "task isn't running anymore");
+            return emptyResult(taskId);
+        }
 
-            TerminationData terminationData = createAndFillTerminationData(result,
-                                                                           taskData,
-                                                                           jobData.job,
-                                                                           TerminationData.TerminationStatus.NORMAL);
+        TaskIdWrapper taskIdWrapper = TaskIdWrapper.wrap(taskId);
+        RunningTaskData taskData = runningTasksData.remove(taskIdWrapper);
+        if (taskData == null) {
+            tlogger.info(taskId, "Task " + taskId + " terminates after a recovery of the scheduler");
+            taskData = new RunningTaskData(task,
+                                           jobData.job.getOwner(),
+                                           jobData.job.getCredentials(),
+                                           task.getExecuterInformation().getLauncher());
+        }
 
-            boolean errorOccurred = result.hadException();
-            if (errorOccurred) {
-                tlogger.error(taskId, "error", result.getException());
-            }
+        TerminationData terminationData = createAndFillTerminationData(result,
+                                                                       taskData,
+                                                                       jobData.job,
+                                                                       TerminationData.TerminationStatus.NORMAL);
+
+        boolean errorOccurred = result.hadException();
+        if (errorOccurred) {
+            tlogger.error(taskId, "error", result.getException());
+        }
+
+        tlogger.info(taskId, "finished with" + (errorOccurred ? "" : "out") + " errors");
+
+        if (errorOccurred) {
+            tlogger.info(taskId, "task has terminated with an error ");
+            task.decreaseNumberOfExecutionLeft();
+
+            boolean requiresPauseJobOnError = onErrorPolicyInterpreter.requiresPauseJobOnError(task);
+
+            int numberOfExecutionLeft = task.getNumberOfExecutionLeft();
+
+            if (numberOfExecutionLeft <= 0 && onErrorPolicyInterpreter.requiresCancelJobOnError(task)) {
+                tlogger.info(taskId, "no retry left and task is tagged with cancel job on error");
+
+                jobData.job.increaseNumberOfFaultyTasks(taskId);
+                endJob(jobData,
+                       terminationData,
+                       task,
+                       result,
+                       "An error occurred in your task and the maximum number of executions has been reached. " +
+                               "You also ask to cancel the job in such a situation!",
+                       JobStatus.CANCELED);
 
-            tlogger.info(taskId, "finished with" + (errorOccurred ? "" : "out") + " errors");
+                jlogger.info(taskId.getJobId(), "job has been canceled");
 
-            if (errorOccurred) {
-                tlogger.info(taskId, "task has terminated with an error ");
-                task.decreaseNumberOfExecutionLeft();
+                return terminationData;
+            } else if (numberOfExecutionLeft > 0) {
+                tlogger.info(taskId, "number of execution left is " + numberOfExecutionLeft);
 
-                boolean requiresPauseJobOnError = onErrorPolicyInterpreter.requiresPauseJobOnError(task);
+                if (onErrorPolicyInterpreter.requiresPauseTaskOnError(task) || requiresPauseJobOnError) {
 
-                int numberOfExecutionLeft = task.getNumberOfExecutionLeft();
+                    long waitTime = jobData.job.getNextWaitingTime(task.getMaxNumberOfExecution() -
+                                                                   numberOfExecutionLeft);
+                    restartTaskOnError(jobData,
+                                       task,
+                                       TaskStatus.WAITING_ON_ERROR,
+                                       result,
+                                       waitTime,
+                                       terminationData);
 
-                if (numberOfExecutionLeft <= 0 && onErrorPolicyInterpreter.requiresCancelJobOnError(task)) {
-                    tlogger.info(taskId, "no retry left and task is tagged with cancel job on error");
+                    tlogger.info(taskId, "new restart is scheduled");
 
+                    return terminationData;
+                } else {
                     jobData.job.increaseNumberOfFaultyTasks(taskId);
-                    endJob(jobData,
-                           terminationData,
-                           task,
-                           result,
-                           "An error occurred in your task and the maximum number of executions has been reached. " +
-                                   "You also ask to cancel the job in such a situation!",
-                           JobStatus.CANCELED);
 
-                    jlogger.info(taskId.getJobId(), "job has been canceled");
+                    long waitTime = jobData.job.getNextWaitingTime(task.getMaxNumberOfExecution() -
+                                                                   numberOfExecutionLeft);
+                    restartTaskOnError(jobData,
+                                       task,
+                                       TaskStatus.WAITING_ON_ERROR,
+                                       result,
+                                       waitTime,
+                                       terminationData);
+
+                    tlogger.info(taskId, "new restart is scheduled");
 
                     return terminationData;
-                } else if (numberOfExecutionLeft > 0) {
-                    tlogger.info(taskId, "number of execution left is " + numberOfExecutionLeft);
-
-                    if (onErrorPolicyInterpreter.requiresPauseTaskOnError(task) || requiresPauseJobOnError) {
-
-                        long waitTime = jobData.job.getNextWaitingTime(task.getMaxNumberOfExecution() -
-                                                                       numberOfExecutionLeft);
-                        restartTaskOnError(jobData,
-                                           task,
-                                           TaskStatus.WAITING_ON_ERROR,
-                                           result,
-                                           waitTime,
-                                           terminationData);
-
-                        tlogger.info(taskId, "new restart is scheduled");
-
-                        return terminationData;
-                    } else {
-                        jobData.job.increaseNumberOfFaultyTasks(taskId);
-
-                        long waitTime = jobData.job.getNextWaitingTime(task.getMaxNumberOfExecution() -
-                                                                       numberOfExecutionLeft);
-                        restartTaskOnError(jobData,
-                                           task,
-                                           TaskStatus.WAITING_ON_ERROR,
-                                           result,
-                                           waitTime,
-                                           terminationData);
-
-                        tlogger.info(taskId, "new restart is scheduled");
-
-                        return terminationData;
-                    }
-                } else if (numberOfExecutionLeft <= 0) {
-                    if (!onErrorPolicyInterpreter.requiresPauseTaskOnError(task) &&
-                        !onErrorPolicyInterpreter.requiresPauseJobOnError(task) &&
-                        !onErrorPolicyInterpreter.requiresCancelJobOnError(task)) {
-                        jobData.job.increaseNumberOfFaultyTasks(taskId);
-                    } else if (onErrorPolicyInterpreter.requiresPauseTaskOnError(task)) {
-                        suspendTaskOnError(jobData, task, result.getTaskDuration());
-                        tlogger.info(taskId,
-                                     "Task always contains errors after automatic restart, so it stays in In_Error state");
-                        return terminationData;
-                    } else if (requiresPauseJobOnError) {
-                        suspendTaskOnError(jobData, task, result.getTaskDuration());
-                        pauseJob(task.getJobId());
-                        logger.info("Task always contains errors after automatic restart, so Job is always paused on error");
-                        return terminationData;
-                    }
+                }
+            } else if (numberOfExecutionLeft <= 0) {
+                if (!onErrorPolicyInterpreter.requiresPauseTaskOnError(task) &&
+                    !onErrorPolicyInterpreter.requiresPauseJobOnError(task) &&
+                    !onErrorPolicyInterpreter.requiresCancelJobOnError(task)) {
+                    jobData.job.increaseNumberOfFaultyTasks(taskId);
+                } else if (onErrorPolicyInterpreter.requiresPauseTaskOnError(task)) {
+                    suspendTaskOnError(jobData, task, result.getTaskDuration());
+                    tlogger.info(taskId,
+                                 "Task always contains errors after automatic restart, so it stays in In_Error state");
+                    return terminationData;
+                } else if (requiresPauseJobOnError) {
+                    suspendTaskOnError(jobData, task, result.getTaskDuration());
+                    pauseJob(task.getJobId());
+                    logger.info("Task always contains errors after automatic restart, so Job is always paused on error");
+                    return terminationData;
+                }
 
-                    if (requiresPauseJobOnError) {
-                        pauseJob(task.getJobId());
-                    }
+                if (requiresPauseJobOnError) {
+                    pauseJob(task.getJobId());
                 }
             }
+        }
 
-            terminateTask(jobData, task, errorOccurred, result, terminationData);
+        terminateTask(jobData, task, errorOccurred, result, terminationData, finishedTasks);
 
-            return terminationData;
-        } finally {
-            jobData.unlock();
-        }
+        return terminationData;
     }
 
     private TerminationData createAndFillTerminationData(TaskResultImpl result, RunningTaskData taskData,
@@ -731,7 +820,7 @@ class LiveJobs {
                 // terminating job
                 job.terminate();
                 jlogger.debug(job.getId(), "terminated");
-                jobs.remove(job.getId());
+                removeJobData(job.getId());
                 terminationData.addJobToTerminate(job.getId());
             }
 
@@ -919,6 +1008,15 @@ class LiveJobs {
 
     private void terminateTask(JobData jobData, InternalTask task, boolean errorOccurred, TaskResultImpl result,
             TerminationData terminationData) {
+        terminateTask(jobData, task, errorOccurred, result, terminationData, null);
+    }
+
+    /**
+     * @param finishedTasks the batch in which the database update and the events of the task are deferred,
+     *                      or null to perform them immediately
+     */
+    private void terminateTask(JobData jobData, InternalTask task, boolean errorOccurred, TaskResultImpl result,
+            TerminationData terminationData, FinishedTasks finishedTasks) {
         InternalJob job = jobData.job;
         TaskId taskId = task.getId();
 
@@ -938,22 +1036,42 @@ class LiveJobs {
             terminationData.addJobToTerminate(job.getId());
         }
 
+        FinishedTasks tasksToSave = finishedTasks != null ? finishedTasks : new FinishedTasks();
+
         // Update database
         if (result.getAction() != null) {
             dbManager.updateAfterWorkflowTaskFinished(job, changesInfo, result);
         } else {
-            dbManager.updateAfterTaskFinished(job, task, result);
+            tasksToSave.results.put(task, result);
         }
+        tasksToSave.taskInfos.add(new TaskInfoImpl((TaskInfoImpl) task.getTaskInfo()));
+        tasksToSave.jobFinished = jobFinished;
 
-        // send event
-        listener.taskStateUpdated(job.getOwner(),
-                                  new NotificationData<TaskInfo>(SchedulerEvent.TASK_RUNNING_TO_FINISHED,
-                                                                 new TaskInfoImpl((TaskInfoImpl) task.getTaskInfo())));
         // if this job is finished (every task have finished)
         jlogger.info(job.getId(),
                      "finished tasks " + job.getNumberOfFinishedTasks() + ", total tasks " +
                                   job.getTotalNumberOfTasks() + ", finished " + jobFinished);
-        if (jobFinished) {
+
+        if (finishedTasks == null) {
+            saveFinishedTasks(job, tasksToSave);
+        }
+    }
+
+    /**
+     * Writes the finished tasks of a batch to the database, then sends their events.
+     */
+    private void saveFinishedTasks(InternalJob job, FinishedTasks finishedTasks) {
+        if (!finishedTasks.results.isEmpty()) {
+            dbManager.updateAfterTasksFinished(job, finishedTasks.results);
+        }
+
+        // send event
+        for (TaskInfoImpl taskInfo : finishedTasks.taskInfos) {
+            listener.taskStateUpdated(job.getOwner(),
+                                      new NotificationData<TaskInfo>(SchedulerEvent.TASK_RUNNING_TO_FINISHED,
+                                                                     taskInfo));
+        }
+        if (finishedTasks.jobFinished) {
             // send event to client
             listener.jobStateUpdated(job.getOwner(),
                                      new NotificationData<JobInfo>(SchedulerEvent.JOB_RUNNING_TO_FINISHED,
@@ -961,6 +1079,10 @@ class LiveJobs {
 
             listener.jobUpdatedFullData(job);
         }
+
+        finishedTasks.results.clear();
+        finishedTasks.taskInfos.clear();
+        finishedTasks.jobFinished = false;
     }
 
     private TerminationData terminateJob(JobId jobId, JobStatus jobStatus) {
@@ -990,7 +1112,7 @@ class LiveJobs {
             String errorMsg, JobStatus jobStatus) {
         JobId jobId = jobData.job.getId();
 
-        jobs.remove(jobId);
+        removeJobData(jobId);
         terminationData.addJobToTerminate(jobId);
 
         InternalJob job = jobData.job;
@@ -1112,4 +1234,27 @@ class LiveJobs {
         }
     }
 
+    /**
+     * Immutable position of a job in the priority index
+     */
+    private static final class PriorityKey implements Comparable<PriorityKey> {
+
+        private final JobPriority priority;
+
+        private final JobId jobId;
+
+        private PriorityKey(JobPriority priority, JobId jobId) {
+            this.priority = priority;
+            this.jobId = jobId;
+        }
+
+        @Override
+        public int compareTo(PriorityKey other) {
+            int byPriority = other.priority.compareTo(priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            return jobId.compareTo(other.jobId);
+        }
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.scheduler.common.SchedulerConstants;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxiesManager;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.utils.NodeSet;
+
+
+/**
+ * Nodes kept by the scheduler after the end of a task, for a short duration, so that the next
+ * compatible task starts on them without releasing them to the resource manager and selecting them again.
+ * <p>
+ * A leased node is handed to a task whose {@link SchedulingTaskComparator} is equal to the one of
+ * the task which used the node, i.e. a task of the same owner with the same selection scripts and node
+ * exclusion. Leased nodes are returned to the resource manager when their lease expires, or when no job
+ * is left to schedule.
+ * <p>
+ * Leases are disabled when their duration is 0.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+final class NodeLeases {
+
+    private static final Logger logger = Logger.getLogger(NodeLeases.class);
+
+    private final long duration;
+
+    private final SchedulingLoopStatistics statistics;
+
+    /** Leases ordered by expiration time */
+    private final LinkedList<NodeLease> leases = new LinkedList<>();
+
+    NodeLeases(long duration, SchedulingLoopStatistics statistics) {
+        this.duration = duration;
+        this.statistics = statistics;
+    }
+
+    boolean isEnabled() {
+        return duration > 0;
+    }
+
+    /**
+     * Keeps the node of a finished task if the task allows it to be reused without cleaning.
+     *
+     * @return true if the node is leased and must not be released to the resource manager
+     */
+    boolean offer(InternalJob job, InternalTask task, NodeSet nodes, String owner, Credentials credentials) {
+        if (!isEnabled() || nodes == null || nodes.size() != 1 || nodes.getTotalNumberOfNodes() != 1 ||
+            task.isParallel() || task.getCleaningScript() != null ||
+            task.getRuntimeGenericInformation().containsKey(SchedulerConstants.NODE_ACCESS_TOKEN)) {
+            return false;
+        }
+        NodeLease lease = new NodeLease(new SchedulingTaskComparator(task, job),
+                                        nodes.get(0),
+                                        owner,
+                                        credentials,
+                                        System.currentTimeMillis() + duration);
+        synchronized (this) {
+            leases.addLast(lease);
+        }
+        statistics.nodeLeased();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Node " + lease.node.getNodeInformation().getURL() + " of task " + task.getId() +
+                         " is leased for " + duration + " ms");
+        }
+        return true;
+    }
+
+    /**
+     * Takes the leased nodes which can be used by the given task.
+     *
+     * @param signature the comparator of the task to start
+     * @param maxNodes the maximum number of nodes to take
+     * @return the taken nodes, possibly empty
+     */
+    NodeSet acquire(SchedulingTaskComparator signature, int maxNodes) {
+        NodeSet nodes = new NodeSet();
+        synchronized (this) {
+            Iterator<NodeLease> iterator = leases.iterator();
+            while (iterator.hasNext() && nodes.size() < maxNodes) {
+                NodeLease lease = iterator.next();
+                if (lease.signature.equals(signature)) {
+                    iterator.remove();
+                    nodes.add(lease.node);
+                }
+            }
+        }
+        if (!nodes.isEmpty()) {
+            statistics.leasesReused(nodes.size());
+        }
+        return nodes;
+    }
+
+    synchronized boolean isEmpty() {
+        return leases.isEmpty();
+    }
+
+    synchronized Set<String> getLeasedNodesUrls() {
+        Set<String> urls = new HashSet<>(leases.size());
+        for (NodeLease lease : leases) {
+            urls.add(lease.node.getNodeInformation().getURL());
+        }
+        return urls;
+    }
+
+    /**
+     * Returns the nodes whose lease has expired to the resource manager.
+     */
+    void releaseExpired(RMProxiesManager proxiesManager, long now) {
+        List<NodeLease> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!leases.isEmpty() && leases.getFirst().expirationTime <= now) {
+                expired.add(leases.removeFirst());
+            }
+        }
+        release(proxiesManager, expired);
+    }
+
+    /**
+     * Returns all the leased nodes to the resource manager.
+     */
+    void releaseAll(RMProxiesManager proxiesManager) {
+        List<NodeLease> released;
+        synchronized (this) {
+            released = new ArrayList<>(leases);
+            leases.clear();
+        }
+        release(proxiesManager, released);
+    }
+
+    private void release(RMProxiesManager proxiesManager, List<NodeLease> released) {
+        for (NodeLease lease : released) {
+            NodeSet nodes = new NodeSet();
+            nodes.add(lease.node);
+            try {
+                proxiesManager.getUserRMProxy(lease.owner, lease.credentials).releaseNodes(nodes);
+            } catch (Throwable t) {
+                logger.warn("Failed to release leased node " + lease.node.getNodeInformation().getURL(), t);
+            }
+        }
+        if (!released.isEmpty()) {
+            statistics.leasesReturned(released.size());
+            logger.debug(released.size() + " leased nodes returned to the resource manager");
+        }
+    }
+
+    private static final class NodeLease {
+
+        private final SchedulingTaskComparator signature;
+
+        private final Node node;
+
+        private final String owner;
+
+        private final Credentials credentials;
+
+        private final long expirationTime;
+
+        NodeLease(SchedulingTaskComparator signature, Node node, String owner, Credentials credentials,
+                long expirationTime) {
+            this.signature = signature;
+            this.node = node;
+            this.owner = owner;
+            this.credentials = credentials;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+}
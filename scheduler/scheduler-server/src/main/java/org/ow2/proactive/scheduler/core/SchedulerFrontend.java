@@ -336,6 +336,8 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
                                                            policyFullName,
                                                            null);
 
+            jmxHelper.registerSchedulingLoopMBean(schedulingService.getSchedulingLoopStatistics());
+
             recoveredState.enableLiveLogsForRunningTasks(schedulingService);
             releaseBusyNodesWithNoRunningTask(rmProxy, recoveredState);
 
@@ -954,8 +956,7 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
             jobMap = schedulingService.lockJobsToSchedule();
             policy = (Policy) Class.forName(getCurrentPolicy()).newInstance();
 
-            // If there are some jobs which could not be locked it is not possible to do any priority scheduling decision,
-            // we wait for next scheduling loop
+            // busy jobs are skipped, if every job is busy we wait for next scheduling loop
             if (jobMap.isEmpty()) {
                 return eligibleTasks;
             }
@@ -1245,6 +1246,39 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
                                  sortParameters);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ImmediateService
+    public Page<JobInfo> getJobsAfter(String afterJobId, int limit, JobFilterCriteria filterCriteria,
+            List<SortParameter<JobSortParameter>> sortParameters)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        UserIdentificationImpl ident = frontendState.checkPermission("getJobs",
+                                                                     "You don't have permissions to load jobs");
+
+        String user = filterCriteria.isMyJobsOnly() ? ident.getUsername() : null;
+        JobId afterId = null;
+        if (afterJobId != null) {
+            try {
+                afterId = JobIdImpl.makeJobId(afterJobId);
+            } catch (NumberFormatException e) {
+                throw new UnknownJobException("Invalid job id: " + afterJobId, e);
+            }
+        }
+        Page<JobInfo> jobs = dbManager.getJobsAfter(afterId,
+                                                    limit,
+                                                    user,
+                                                    filterCriteria.isPending(),
+                                                    filterCriteria.isRunning(),
+                                                    filterCriteria.isFinished(),
+                                                    sortParameters);
+        if (jobs == null) {
+            throw new UnknownJobException(afterId);
+        }
+        return jobs;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1389,6 +1423,73 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
 
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException {
+        RestPageParameters params = new RestPageParameters(frontendState,
+                                                           "getTaskIds",
+                                                           from,
+                                                           to,
+                                                           mytasks,
+                                                           running,
+                                                           pending,
+                                                           finished,
+                                                           0,
+                                                           limit,
+                                                           taskTag,
+                                                           SortSpecifierContainer.EMPTY_CONTAINER);
+        Page<TaskInfo> pTaskInfo = dbManager.getTasksAfter(afterTaskId,
+                                                           params.getFrom(),
+                                                           params.getTo(),
+                                                           params.getTag(),
+                                                           params.getLimit(),
+                                                           params.getUserName(),
+                                                           params.isPending(),
+                                                           params.isRunning(),
+                                                           params.isFinished());
+        if (pTaskInfo == null) {
+            throw new UnknownTaskException(afterTaskId, afterTaskId.getJobId());
+        }
+        List<TaskId> lTaskId = new ArrayList<TaskId>(pTaskInfo.getList().size());
+        for (TaskInfo taskInfo : pTaskInfo.getList()) {
+            lTaskId.add(taskInfo.getTaskId());
+        }
+        return new Page<TaskId>(lTaskId, pTaskInfo.getSize());
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        RestPageParameters params = new RestPageParameters(frontendState,
+                                                           "getTaskStates",
+                                                           from,
+                                                           to,
+                                                           mytasks,
+                                                           running,
+                                                           pending,
+                                                           finished,
+                                                           0,
+                                                           limit,
+                                                           taskTag,
+                                                           sortParams);
+        Page<TaskState> pTasks = dbManager.getTaskStatesAfter(afterTaskId,
+                                                              params.getFrom(),
+                                                              params.getTo(),
+                                                              params.getTag(),
+                                                              params.getLimit(),
+                                                              params.getUserName(),
+                                                              params.isPending(),
+                                                              params.isRunning(),
+                                                              params.isFinished(),
+                                                              params.getSortParams());
+        if (pTasks == null) {
+            throw new UnknownTaskException(afterTaskId, afterTaskId.getJobId());
+        }
+        return pTasks;
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return getJobState(JobIdImpl.makeJobId(jobId)).getJobInfo();
@@ -37,6 +37,7 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.api.PAActiveObject;
@@ -202,6 +203,15 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     /** Job identification management */
     private final Map<JobId, IdentifiedJob> jobs;
 
+    /** Listening users indexed by subscribed event type and owner */
+    private final ListeningUsersIndex listenersIndex;
+
+    /**
+     * Serializes connections, disconnections and listener changes. Lookups and
+     * permission checks do not take it
+     */
+    private final Object connectionsLock = new Object();
+
     /** Session timer */
     private final Timer sessionTimer;
 
@@ -217,12 +227,13 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     private final Map<JobId, ClientJobState> jobsMap;
 
     SchedulerFrontendState(SchedulerStateImpl sState, SchedulerJMXHelper jmxHelper) {
-        this.identifications = new HashMap<>();
-        this.credentials = new HashMap<>();
+        this.identifications = new ConcurrentHashMap<>();
+        this.credentials = new ConcurrentHashMap<>();
         this.dirtyList = new HashSet<>();
         this.jmxHelper = jmxHelper;
-        this.jobsMap = new HashMap<>();
-        this.jobs = new HashMap<>();
+        this.jobsMap = new ConcurrentHashMap<>();
+        this.jobs = new ConcurrentHashMap<>();
+        this.listenersIndex = new ListeningUsersIndex();
         this.sessionTimer = new Timer("SessionTimer");
         this.sState = sState;
         recover(sState);
@@ -286,18 +297,20 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @throws SchedulerException
      *             If an error occurred during connection with the front-end.
      */
-    synchronized void connect(UniqueID sourceBodyID, UserIdentificationImpl identification, Credentials cred)
+    void connect(UniqueID sourceBodyID, UserIdentificationImpl identification, Credentials cred)
             throws AlreadyConnectedException {
-        if (identifications.containsKey(sourceBodyID)) {
-            logger.warn("Active object already connected for this user :" + identification.getUsername());
-            throw new AlreadyConnectedException("This active object is already connected to the scheduler !");
+        synchronized (connectionsLock) {
+            if (identifications.containsKey(sourceBodyID)) {
+                logger.warn("Active object already connected for this user :" + identification.getUsername());
+                throw new AlreadyConnectedException("This active object is already connected to the scheduler !");
+            }
+            logger.info(identification.getUsername() + " successfully connected !");
+            identifications.put(sourceBodyID, new ListeningUser(identification));
+            credentials.put(sourceBodyID, cred);
+            renewUserSession(sourceBodyID, identification);
+            // add this new user in the list of connected user
+            sState.getUsers().update(identification);
         }
-        logger.info(identification.getUsername() + " successfully connected !");
-        identifications.put(sourceBodyID, new ListeningUser(identification));
-        credentials.put(sourceBodyID, cred);
-        renewUserSession(sourceBodyID, identification);
-        // add this new user in the list of connected user
-        sState.getUsers().update(identification);
         // send events
         usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, identification));
     }
@@ -306,6 +319,8 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * Create or renew the session (timer task) for the given user
      * identification. A call to this method will cancel the previous session
      * (timerTask), create and schedule a new one and purge the timer.
+     * Sessions of the same user are renewed under the lock of its identification,
+     * so that concurrent requests cannot leave a stale session scheduled.
      * 
      * @param id
      *            The unique ID of the user
@@ -313,45 +328,52 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      *            the user on which to renew the session
      */
     private void renewUserSession(final UniqueID id, UserIdentificationImpl identification) {
-        if (identifications.get(id).isListening()) {
-            // if this id has a listener, do not renew user session
+        ListeningUser listeningUser = identifications.get(id);
+        if (listeningUser == null) {
+            // disconnected in the meantime
             return;
         }
         final String userName = identification.getUsername();
-        TimerTask session = identification.getSession();
-        if (session != null) {
-            session.cancel();
-        }
-        identification.setSession(new TimerTask() {
-            @Override
-            public void run() {
-                logger.info("End of session for user " + userName + ", id=" + id);
-                disconnect(id);
+        synchronized (identification) {
+            if (listeningUser.isListening()) {
+                // if this id has a listener, do not renew user session
+                return;
+            }
+            TimerTask session = identification.getSession();
+            if (session != null) {
+                session.cancel();
             }
-        });
-        sessionTimer.purge();
-        sessionTimer.schedule(identification.getSession(), USER_SESSION_DURATION);
+            identification.setSession(new TimerTask() {
+                @Override
+                public void run() {
+                    logger.info("End of session for user " + userName + ", id=" + id);
+                    disconnect(id);
+                }
+            });
+            sessionTimer.purge();
+            sessionTimer.schedule(identification.getSession(), USER_SESSION_DURATION);
+        }
     }
 
-    synchronized SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
+    SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
         // checking permissions
         checkPermission("getStatus", YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATUS);
         return sState.getStatus();
     }
 
-    synchronized SchedulerState getState() throws NotConnectedException, PermissionException {
+    SchedulerState getState() throws NotConnectedException, PermissionException {
         return getState(false);
     }
 
-    synchronized SchedulerState getStateInternally() {
+    SchedulerState getStateInternally() {
         return sState;
     }
 
-    synchronized SchedulerState getState(boolean myJobsOnly) throws NotConnectedException, PermissionException {
+    SchedulerState getState(boolean myJobsOnly) throws NotConnectedException, PermissionException {
         // checking permissions
         checkPermission("getState", YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE);
 
-        ListeningUser ui = identifications.get(PAActiveObject.getContext().getCurrentRequest().getSourceBodyID());
+        ListeningUser ui = getListeningUser(PAActiveObject.getContext().getCurrentRequest().getSourceBodyID());
 
         return myJobsOnly ? sState.filterOnUser(ui.getUser().getUsername()) : sState;
 
@@ -369,7 +391,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @throws PermissionException
      *             if permission is denied
      */
-    synchronized void handleOnlyMyJobsPermission(boolean myOnly, UserIdentificationImpl ui, String errorMessage)
+    void handleOnlyMyJobsPermission(boolean myOnly, UserIdentificationImpl ui, String errorMessage)
             throws PermissionException {
         ui.checkPermission(new HandleOnlyMyJobsPermission(myOnly),
                            ui.getUsername() + " does not have permissions to handle other users jobs (" + errorMessage +
@@ -390,19 +412,19 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @throws PermissionException
      *             if permission is denied
      */
-    synchronized void handleJobsWithGenericInformationPermission(Map<String, String> genericInformation,
+    void handleJobsWithGenericInformationPermission(Map<String, String> genericInformation,
             UserIdentificationImpl ui, String errorMessage) throws PermissionException {
         ui.checkPermission(new HandleJobsWithGenericInformationPermission(genericInformation),
                            ui.getUsername() + " does not have permissions to handle this job (" + errorMessage + ")");
     }
 
-    synchronized void addEventListener(SchedulerEventListener sel, boolean myEventsOnly, SchedulerEvent... events)
+    void addEventListener(SchedulerEventListener sel, boolean myEventsOnly, SchedulerEvent... events)
             throws NotConnectedException, PermissionException {
         addEventListener(sel, myEventsOnly, false, events);
     }
 
-    synchronized SchedulerState addEventListener(SchedulerEventListener sel, boolean myEventsOnly,
-            boolean getCurrentState, SchedulerEvent... events) throws NotConnectedException, PermissionException {
+    SchedulerState addEventListener(SchedulerEventListener sel, boolean myEventsOnly, boolean getCurrentState,
+            SchedulerEvent... events) throws NotConnectedException, PermissionException {
         // checking permissions
         ListeningUser uIdent = checkPermissionReturningListeningUser("addEventListener",
                                                                      YOU_DO_NOT_HAVE_PERMISSION_TO_ADD_A_LISTENER);
@@ -429,28 +451,58 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             // check get state permission
             handleOnlyMyJobsPermission(myEventsOnly, uIdent.getUser(), YOU_DO_NOT_HAVE_PERMISSION_TO_ADD_A_LISTENER);
         }
-        // prepare user for receiving events
-        uIdent.getUser().setUserEvents(events);
-        // set if the user wants to get its events only or every events
-        uIdent.getUser().setMyEventsOnly(myEventsOnly);
-        // add the listener to the list of listener for this user.
         UniqueID id = PAActiveObject.getContext().getCurrentRequest().getSourceBodyID();
-        uIdent.setListener(new ClientRequestHandler(this, id, sel));
-        // cancel timer for this user : session is now managed by events
-        uIdent.getUser().getSession().cancel();
+        synchronized (connectionsLock) {
+            // the user may have been disconnected since its permissions were checked
+            if (identifications.get(id) != uIdent) {
+                logger.info(ACCESS_DENIED);
+                throw new NotConnectedException(ACCESS_DENIED);
+            }
+            // prepare user for receiving events
+            uIdent.getUser().setUserEvents(events);
+            // set if the user wants to get its events only or every events
+            uIdent.getUser().setMyEventsOnly(myEventsOnly);
+            // add the listener to the list of listener for this user.
+            ClientRequestHandler listener = new ClientRequestHandler(this, id, sel);
+            clearListener(uIdent);
+            synchronized (uIdent.getUser()) {
+                uIdent.setListener(listener);
+                // cancel timer for this user : session is now managed by events
+                uIdent.getUser().getSession().cancel();
+            }
+            listenersIndex.add(uIdent);
+            jmxHelper.registerListenerMBean(listener);
+        }
         // return to the user
         return currentState;
     }
 
-    synchronized void removeEventListener() throws NotConnectedException, PermissionException {
+    void removeEventListener() throws NotConnectedException, PermissionException {
         // Remove the listener on that user designated by its given UniqueID,
         // then renew its user session as it is no more managed by the listener.
         UniqueID id = checkAccess();
-        ListeningUser uIdent = identifications.get(id);
-        uIdent.clearListener();
-        // recreate the session for this user which is no more managed by
-        // listener
-        renewUserSession(id, uIdent.getUser());
+        synchronized (connectionsLock) {
+            ListeningUser uIdent = identifications.get(id);
+            if (uIdent == null) {
+                logger.info(ACCESS_DENIED);
+                throw new NotConnectedException(ACCESS_DENIED);
+            }
+            clearListener(uIdent);
+            // recreate the session for this user which is no more managed by
+            // listener
+            renewUserSession(id, uIdent.getUser());
+        }
+    }
+
+    /**
+     * Clear the listener of a user, if any, and unregister its monitoring MBean.
+     */
+    private void clearListener(ListeningUser uIdent) {
+        if (uIdent.isListening()) {
+            listenersIndex.remove(uIdent);
+            jmxHelper.unregisterListenerMBean(uIdent.getListener());
+            uIdent.clearListener();
+        }
     }
 
     private UniqueID checkAccess() throws NotConnectedException {
@@ -462,7 +514,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return id;
     }
 
-    synchronized InternalJob createJob(Job userJob, UserIdentificationImpl ident)
+    InternalJob createJob(Job userJob, UserIdentificationImpl ident)
             throws NotConnectedException, PermissionException, SubmissionClosedException, JobCreationException {
         UniqueID id = checkAccess();
 
@@ -493,12 +545,14 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return job;
     }
 
-    synchronized void jobSubmitted(InternalJob job, UserIdentificationImpl ident)
+    void jobSubmitted(InternalJob job, UserIdentificationImpl ident)
             throws NotConnectedException, PermissionException, SubmissionClosedException, JobCreationException {
         // put the job inside the frontend management list
         jobs.put(job.getId(), new IdentifiedJob(job.getId(), ident, job.getGenericInformation()));
         // increase number of submit for this user
-        ident.addSubmit();
+        synchronized (ident) {
+            ident.addSubmit();
+        }
         // send update user event
         usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident));
         jlogger.info(job.getId(),
@@ -511,11 +565,11 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized ListeningUser checkPermissionReturningListeningUser(String methodName, String permissionMsg)
+    ListeningUser checkPermissionReturningListeningUser(String methodName, String permissionMsg)
             throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
 
-        ListeningUser ident = identifications.get(id);
+        ListeningUser ident = getListeningUser(id);
         // renew session for this user
         renewUserSession(id, ident.getUser());
 
@@ -531,12 +585,26 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return ident;
     }
 
-    synchronized UserIdentificationImpl checkPermission(String methodName, String permissionMsg)
+    /**
+     * Returns the listening user connected with the given id.
+     *
+     * @throws NotConnectedException if the user disconnected since the access check
+     */
+    private ListeningUser getListeningUser(UniqueID id) throws NotConnectedException {
+        ListeningUser ident = identifications.get(id);
+        if (ident == null) {
+            logger.info(ACCESS_DENIED);
+            throw new NotConnectedException(ACCESS_DENIED);
+        }
+        return ident;
+    }
+
+    UserIdentificationImpl checkPermission(String methodName, String permissionMsg)
             throws NotConnectedException, PermissionException {
         return checkPermissionReturningListeningUser(methodName, permissionMsg).getUser();
     }
 
-    synchronized void disconnect() throws NotConnectedException, PermissionException {
+    void disconnect() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
         disconnect(id);
     }
@@ -547,27 +615,33 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @param id
      *            the uniqueID of the user
      */
-    private synchronized void disconnect(UniqueID id) {
-        credentials.remove(id);
-        ListeningUser ident = identifications.remove(id);
-        if (ident != null) {
+    private void disconnect(UniqueID id) {
+        ListeningUser ident;
+        synchronized (connectionsLock) {
+            credentials.remove(id);
+            ident = identifications.remove(id);
+            if (ident == null) {
+                return;
+            }
             // remove listeners if needed
-            ident.clearListener();
+            clearListener(ident);
             // remove this user to the list of connected user if it has not
             // already been removed
             ident.getUser().setToRemove();
             sState.getUsers().update(ident.getUser());
-            // cancel the timer
+        }
+        // cancel the timer
+        synchronized (ident.getUser()) {
             ident.getUser().getSession().cancel();
-            // log and send events
-            String user = ident.getUser().getUsername();
-            logger.info("User '" + user + "' has disconnect the scheduler !");
-            dispatchUsersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident.getUser()),
-                                 false);
         }
+        // log and send events
+        String user = ident.getUser().getUsername();
+        logger.info("User '" + user + "' has disconnect the scheduler !");
+        dispatchUsersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident.getUser()),
+                             false);
     }
 
-    synchronized boolean isConnected() {
+    boolean isConnected() {
         try {
             checkAccess();
             return true;
@@ -576,14 +650,14 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void renewSession() throws NotConnectedException {
+    void renewSession() throws NotConnectedException {
         UniqueID id = checkAccess();
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
     }
 
-    synchronized IdentifiedJob getIdentifiedJob(JobId jobId) throws UnknownJobException {
+    IdentifiedJob getIdentifiedJob(JobId jobId) throws UnknownJobException {
         IdentifiedJob ij = jobs.get(jobId);
 
         if (ij == null) {
@@ -596,17 +670,16 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
 
     }
 
-    synchronized void checkChangeJobPriority(JobId jobId, JobPriority priority)
+    void checkChangeJobPriority(JobId jobId, JobPriority priority)
             throws NotConnectedException, UnknownJobException, PermissionException, JobAlreadyFinishedException {
 
         checkPermissions("changeJobPriority",
                          getIdentifiedJob(jobId),
                          YOU_DO_NOT_HAVE_PERMISSION_TO_CHANGE_THE_PRIORITY_OF_THIS_JOB);
 
-        UserIdentificationImpl ui = identifications.get(PAActiveObject.getContext()
-                                                                      .getCurrentRequest()
-                                                                      .getSourceBodyID())
-                                                   .getUser();
+        UserIdentificationImpl ui = getListeningUser(PAActiveObject.getContext()
+                                                                   .getCurrentRequest()
+                                                                   .getSourceBodyID()).getUser();
 
         try {
             ui.checkPermission(new ChangePriorityPermission(priority.getPriority()),
@@ -623,7 +696,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void checkPermissions(String methodName, IdentifiedJob identifiedJob, String errorMessage)
+    void checkPermissions(String methodName, IdentifiedJob identifiedJob, String errorMessage)
             throws NotConnectedException, UnknownJobException, PermissionException {
         try {
             checkJobOwner(methodName, identifiedJob, errorMessage);
@@ -641,7 +714,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void checkJobOwner(String methodName, IdentifiedJob IdentifiedJob, String permissionMsg)
+    void checkJobOwner(String methodName, IdentifiedJob IdentifiedJob, String permissionMsg)
             throws NotConnectedException, UnknownJobException, PermissionException {
         ListeningUser ident = checkPermissionReturningListeningUser(methodName, permissionMsg);
 
@@ -650,27 +723,28 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized Set<TaskId> getJobTasks(JobId jobId) {
+    Set<TaskId> getJobTasks(JobId jobId) {
         JobState jobState = jobsMap.get(jobId);
+        if (jobState == null) {
+            return Collections.emptySet();
+        }
         synchronized (jobState) {
-            if (jobState == null) {
-                return Collections.emptySet();
-            } else {
-                Set<TaskId> tasks = new HashSet<>(jobState.getTasks().size());
-                for (TaskState task : jobState.getTasks()) {
-                    tasks.add(task.getId());
-                }
-                return tasks;
+            Set<TaskId> tasks = new HashSet<>(jobState.getTasks().size());
+            for (TaskState task : jobState.getTasks()) {
+                tasks.add(task.getId());
             }
+            return tasks;
         }
     }
 
-    synchronized JobState getJobState(JobId jobId)
-            throws NotConnectedException, UnknownJobException, PermissionException {
+    JobState getJobState(JobId jobId) throws NotConnectedException, UnknownJobException, PermissionException {
         checkPermissions("getJobState",
                          getIdentifiedJob(jobId),
                          YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE_OF_THIS_JOB);
         ClientJobState jobState = jobsMap.get(jobId);
+        if (jobState == null) {
+            throw new UnknownJobException(jobId);
+        }
         ClientJobState jobStateCopy;
         synchronized (jobState) {
             try {
@@ -683,15 +757,15 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return jobStateCopy;
     }
 
-    synchronized TaskState getTaskState(JobId jobId, TaskId taskId)
+    TaskState getTaskState(JobId jobId, TaskId taskId)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
         checkPermissions("getJobState",
                          getIdentifiedJob(jobId),
                          YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE_OF_THIS_TASK);
-        if (jobsMap.get(jobId) == null) {
+        JobState jobState = jobsMap.get(jobId);
+        if (jobState == null) {
             throw new UnknownJobException(jobId);
         }
-        JobState jobState = jobsMap.get(jobId);
         synchronized (jobState) {
             TaskState ts = jobState.getHMTasks().get(taskId);
             if (ts == null) {
@@ -701,7 +775,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized TaskState getTaskState(JobId jobId, String taskName)
+    TaskState getTaskState(JobId jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
 
         checkPermissions("getJobState",
@@ -721,6 +795,9 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             throw new UnknownTaskException(taskName, jobId);
         }
         JobState jobState = jobsMap.get(jobId);
+        if (jobState == null) {
+            throw new UnknownJobException(jobId);
+        }
         synchronized (jobState) {
             TaskState ts = jobState.getHMTasks().get(taskId);
             if (ts == null) {
@@ -730,7 +807,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized TaskId getTaskId(JobId jobId, String taskName) throws UnknownTaskException, UnknownJobException {
+    TaskId getTaskId(JobId jobId, String taskName) throws UnknownTaskException, UnknownJobException {
         if (jobsMap.get(jobId) == null) {
             throw new UnknownJobException(jobId);
         }
@@ -746,10 +823,10 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return taskId;
     }
 
-    synchronized void checkChangePolicy() throws NotConnectedException, PermissionException {
+    void checkChangePolicy() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
 
@@ -762,10 +839,10 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void checkLinkResourceManager() throws NotConnectedException, PermissionException {
+    void checkLinkResourceManager() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
 
@@ -821,6 +898,31 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
+    /**
+     * Add an event to the queue of every listener interested in it. Only the
+     * listeners indexed for this event type and owner are visited.
+     *
+     * @param eventType
+     *            the type of the event
+     * @param owner
+     *            the owner of the job, task or user concerned by the event, or
+     *            null if the event must be sent to every listener of this type
+     * @param methodName
+     *            the name of the listener method to call
+     * @param argument
+     *            the argument of the listener method
+     */
+    private void dispatch(SchedulerEvent eventType, String owner, String methodName, Object argument) {
+        Method method = eventMethods.get(methodName);
+        for (ListeningUser listeningUser : listenersIndex.getListeners(eventType, owner)) {
+            // the listener may have been cleared since the index was read
+            ClientRequestHandler listener = listeningUser.getListener();
+            if (listener != null) {
+                listener.addEvent(method, argument);
+            }
+        }
+    }
+
     /**
      * Dispatch the scheduler state updated event
      * 
@@ -832,18 +934,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 logger.debug("event [" + eventType.toString() + "]");
             }
-            for (ListeningUser userId : identifications.values()) {
-                // if this user has a listener
-                if (userId.isListening()) {
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUser().getUserEvents() == null) ||
-                        userId.getUser().getUserEvents().contains(eventType)) {
-                        userId.getListener().addEvent(eventMethods.get(SCHEDULER_STATE_UPDATED_EVENT_METHOD),
-                                                      eventType);
-                    }
-                }
-            }
+            dispatch(eventType, null, SCHEDULER_STATE_UPDATED_EVENT_METHOD, eventType);
             clearListeners();
         } catch (SecurityException e) {
             logger.error("", e);
@@ -861,24 +952,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 jlogger.debug(job.getJobInfo().getJobId(), " event [" + SchedulerEvent.JOB_SUBMITTED + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified
-                    // event is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(SchedulerEvent.JOB_SUBMITTED)) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(job.getOwner()))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(JOB_SUBMITTED_EVENT_METHOD), job);
-                        }
-                    }
-
-                }
-            }
+            dispatch(SchedulerEvent.JOB_SUBMITTED, job.getOwner(), JOB_SUBMITTED_EVENT_METHOD, job);
             clearListeners();
         } catch (SecurityException e) {
             logger.error("", e);
@@ -906,24 +980,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
                     jlogger.debug(notification.getData().getJobId(), " event [" + notification.getEventType() + "]");
                 }
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(notification.getEventType())) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(owner))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(JOB_STATE_UPDATED_EVENT_METHOD),
-                                                                   notification);
-                        }
-                    }
-                }
-            }
+            dispatch(notification.getEventType(), owner, JOB_STATE_UPDATED_EVENT_METHOD, notification);
             clearListeners();
         } catch (SecurityException e) {
             logger.error("", e);
@@ -941,25 +998,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 jlogger.debug(job.getJobInfo().getJobId(), " event [" + SchedulerEvent.JOB_UPDATED + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified
-                    // event is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(SchedulerEvent.JOB_UPDATED)) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(job.getOwner()))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(JOB_UPDATED_FULL_DATA_EVENT_METHOD),
-                                                                   job);
-                        }
-                    }
-
-                }
-            }
+            dispatch(SchedulerEvent.JOB_UPDATED, job.getOwner(), JOB_UPDATED_FULL_DATA_EVENT_METHOD, job);
             clearListeners();
         } catch (SecurityException e) {
             logger.error("", e);
@@ -979,24 +1018,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 tlogger.debug(notification.getData().getTaskId(), "event [" + notification.getEventType() + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(notification.getEventType())) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(owner))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(TASK_STATE_UPDATED_EVENT_METHOD),
-                                                                   notification);
-                        }
-                    }
-                }
-            }
+            dispatch(notification.getEventType(), owner, TASK_STATE_UPDATED_EVENT_METHOD, notification);
             clearListeners();
         } catch (SecurityException e) {
             logger.error("", e);
@@ -1014,25 +1036,10 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 logger.debug("event [" + notification.getEventType() + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(notification.getEventType())) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() &&
-                             userId.getUsername().equals(notification.getData().getUsername()))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(USERS_UPDATED_EVENT_METHOD),
-                                                                   notification);
-                        }
-                    }
-                }
-            }
+            dispatch(notification.getEventType(),
+                     notification.getData().getUsername(),
+                     USERS_UPDATED_EVENT_METHOD,
+                     notification);
             // Important condition to avoid recursive checks
             if (checkForDownUser) {
                 clearListeners();
@@ -1044,7 +1051,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void schedulerStateUpdated(SchedulerEvent eventType) {
+    public void schedulerStateUpdated(SchedulerEvent eventType) {
         switch (eventType) {
             case STARTED:
                 sState.setState(SchedulerStatus.STARTED);
@@ -1087,7 +1094,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void jobSubmitted(JobState job) {
+    public void jobSubmitted(JobState job) {
         ClientJobState storedJobState = new ClientJobState(job);
         jobsMap.put(job.getId(), storedJobState);
         sState.update(storedJobState);
@@ -1095,7 +1102,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
+    public void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
         ClientJobState js = jobsMap.get(notification.getData().getJobId());
         synchronized (js) {
             js.update(notification.getData());
@@ -1140,13 +1147,13 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void jobUpdatedFullData(JobState jobstate) {
+    public void jobUpdatedFullData(JobState jobstate) {
         ClientJobState storedJobState = new ClientJobState(jobstate);
         dispatchJobUpdatedFullData(storedJobState);
     }
 
     @Override
-    public synchronized void taskStateUpdated(String owner, NotificationData<TaskInfo> notification) {
+    public void taskStateUpdated(String owner, NotificationData<TaskInfo> notification) {
         JobState jobState = jobsMap.get(notification.getData().getJobId());
         synchronized (jobState) {
             jobState.update(notification.getData());
@@ -1177,7 +1184,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void usersUpdated(NotificationData<UserIdentification> notification) {
+    public void usersUpdated(NotificationData<UserIdentification> notification) {
         switch (notification.getEventType()) {
             case USERS_UPDATE:
                 dispatchUsersUpdated(notification, true);
@@ -1191,7 +1198,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     public String getCurrentUser() throws NotConnectedException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
         return ident.getUsername();
@@ -1200,7 +1207,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     public UserData getCurrentUserData() throws NotConnectedException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
         UserData userData = new UserData();
@@ -1209,7 +1216,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return userData;
     }
 
-    synchronized List<SchedulerUserInfo> getUsers() {
+    List<SchedulerUserInfo> getUsers() {
         List<SchedulerUserInfo> users = new ArrayList<>(identifications.size());
         for (ListeningUser listeningUser : identifications.values()) {
             UserIdentificationImpl user = listeningUser.getUser();
@@ -1225,7 +1232,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     public Map<String, Object> getSchedulerProperties() throws NotConnectedException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         renewUserSession(id, ident);
         return PASchedulerProperties.getPropertiesAsHashMap();
     }
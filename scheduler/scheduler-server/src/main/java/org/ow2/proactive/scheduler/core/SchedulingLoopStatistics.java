@@ -0,0 +1,121 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Counters describing the outcome of the scheduling loops, exposed through JMX.
+ * <p>
+ * A loop is empty when it does not start any task, it is aborted when none of the live jobs could be
+ * locked because they were all busy. The node lease counters tell how often the node of a finished task
+ * was reused by the next task instead of being returned to the resource manager.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public final class SchedulingLoopStatistics {
+
+    private final AtomicLong loops = new AtomicLong();
+
+    private final AtomicLong emptyLoops = new AtomicLong();
+
+    private final AtomicLong abortedLoops = new AtomicLong();
+
+    private final AtomicLong skippedBusyJobs = new AtomicLong();
+
+    private final AtomicLong startedTasks = new AtomicLong();
+
+    private final AtomicLong leasedNodes = new AtomicLong();
+
+    private final AtomicLong reusedLeases = new AtomicLong();
+
+    private final AtomicLong returnedLeases = new AtomicLong();
+
+    void loopCompleted(int numberOfTaskStarted) {
+        loops.incrementAndGet();
+        if (numberOfTaskStarted == 0) {
+            emptyLoops.incrementAndGet();
+        } else {
+            startedTasks.addAndGet(numberOfTaskStarted);
+        }
+    }
+
+    void loopAborted() {
+        loops.incrementAndGet();
+        emptyLoops.incrementAndGet();
+        abortedLoops.incrementAndGet();
+    }
+
+    void busyJobSkipped() {
+        skippedBusyJobs.incrementAndGet();
+    }
+
+    void nodeLeased() {
+        leasedNodes.incrementAndGet();
+    }
+
+    void leasesReused(int count) {
+        reusedLeases.addAndGet(count);
+    }
+
+    void leasesReturned(int count) {
+        returnedLeases.addAndGet(count);
+    }
+
+    public long getLoopsCount() {
+        return loops.get();
+    }
+
+    public long getEmptyLoopsCount() {
+        return emptyLoops.get();
+    }
+
+    public long getAbortedLoopsCount() {
+        return abortedLoops.get();
+    }
+
+    public long getSkippedBusyJobsCount() {
+        return skippedBusyJobs.get();
+    }
+
+    public long getStartedTasksCount() {
+        return startedTasks.get();
+    }
+
+    public long getLeasedNodesCount() {
+        return leasedNodes.get();
+    }
+
+    public long getReusedLeasesCount() {
+        return reusedLeases.get();
+    }
+
+    public long getReturnedLeasesCount() {
+        return returnedLeases.get();
+    }
+}
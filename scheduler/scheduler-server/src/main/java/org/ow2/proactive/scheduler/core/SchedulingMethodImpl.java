@@ -36,8 +36,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.ActiveObjectCreationException;
@@ -47,7 +52,6 @@ import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeFactory;
 import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.authentication.crypto.Credentials;
-import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.frontend.topology.TopologyDisabledException;
 import org.ow2.proactive.scheduler.common.JobDescriptor;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
@@ -55,21 +59,26 @@ import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.TaskTerminateNotification;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.job.JobType;
+import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.util.VariableSubstitutor;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.helpers.VariableBatchSizeIterator;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.core.rmproxies.RMProxiesManager;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxy;
 import org.ow2.proactive.scheduler.core.rmproxies.RMProxyCreationException;
+import org.ow2.proactive.scheduler.core.rmproxies.SchedulingRMState;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.policy.Policy;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.internal.ExecuterInformation;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.proactive.scheduler.util.JobLogger;
 import org.ow2.proactive.scheduler.util.TaskLogger;
@@ -101,15 +110,17 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     /** Number of time to retry an active object creation if it fails to create */
     protected static final int ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER = 3;
 
-    /** Maximum blocking time for the do task action */
-    protected int dotaskActionTimeout;
-
-    protected int activeObjectCreationRetryTimeNumber;
+    /** Number of active object creation failures in the current scheduling loop, counted by the task launches.
+     * A successful creation does not reset it, as the launches of the loop run concurrently. */
+    protected final AtomicInteger activeObjectCreationFailures = new AtomicInteger();
 
     protected final SchedulingService schedulingService;
 
     protected TimeoutThreadPoolExecutor threadPool;
 
+    /** Launches the tasks on their nodes while the scheduling thread selects the next ones */
+    protected ExecutorService taskLaunchThreadPool;
+
     protected PrivateKey corePrivateKey;
 
     private TaskTerminateNotification terminateNotification;
@@ -132,9 +143,24 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
         this.threadPool = TimeoutThreadPoolExecutor.newFixedThreadPool(PASchedulerProperties.SCHEDULER_STARTTASK_THREADNUMBER.getValueAsInt(),
                                                                        new NamedThreadFactory("DoTask_Action"));
+        this.taskLaunchThreadPool = Executors.newFixedThreadPool(PASchedulerProperties.SCHEDULER_STARTTASK_LAUNCHER_THREADNUMBER.getValueAsInt(),
+                                                                 new NamedThreadFactory("Task_Launch"));
         this.corePrivateKey = Credentials.getPrivateKey(PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_AUTH_PRIVKEY_PATH.getValueAsString()));
     }
 
+    /**
+     * Create a scheduling method which starts the tasks with the given thread pools, without any termination
+     * notification active object.
+     */
+    SchedulingMethodImpl(SchedulingService schedulingService, TimeoutThreadPoolExecutor threadPool,
+            ExecutorService taskLaunchThreadPool) {
+        this.schedulingService = schedulingService;
+        this.checkEligibleTaskDescriptorScript = new CheckEligibleTaskDescriptorScript();
+        this.threadPool = threadPool;
+        this.taskLaunchThreadPool = taskLaunchThreadPool;
+        this.terminateNotificationNodeURL = null;
+    }
+
     RMProxiesManager getRMProxiesManager() {
         return schedulingService.getInfrastructure().getRMProxiesManager();
     }
@@ -162,49 +188,68 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
      * @return the number of tasks that have been started
      */
     public int schedule() {
+        SchedulingLoopStatistics loopStatistics = schedulingService.getSchedulingLoopStatistics();
+
+        NodeLeases nodeLeases = schedulingService.getNodeLeases();
+        if (!schedulingService.hasJobsToSchedule()) {
+            // no task can use the leased nodes
+            nodeLeases.releaseAll(getRMProxiesManager());
+            loopStatistics.loopCompleted(0);
+            return 0;
+        }
+        nodeLeases.releaseExpired(getRMProxiesManager(), System.currentTimeMillis());
+
         Policy currentPolicy = schedulingService.getPolicy();
 
-        //Number of time to retry an active object creation before leaving scheduling loop
-        activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+        //Number of failed active object creations before no more node is given to the task launches of this loop
+        activeObjectCreationFailures.set(0);
 
-        //get job Descriptor list with eligible jobs (running and pending)
+        //get rmState and update it in scheduling policy, before locking any job as it queries the RM
+        Set<String> freeResources = getFreeResources(currentPolicy);
+        //if there is no free resources, stop it right now without starting any task
+        if (freeResources.isEmpty()) {
+            loopStatistics.loopCompleted(0);
+            return 0;
+        }
+
+        //get job Descriptor list with eligible jobs (running and pending), busy jobs are skipped
         Map<JobId, JobDescriptor> jobMap = schedulingService.lockJobsToSchedule();
 
         Map<JobId, JobDescriptor> toUnlock = jobMap;
 
         logSelectedJobs(jobMap);
 
-        // If there are some jobs which could not be locked it is not possible to do any priority scheduling decision,
-        // we wait for next scheduling loop and don't start any task
+        // every job was busy, we wait for next scheduling loop and don't start any task
         if (jobMap.isEmpty()) {
+            loopStatistics.loopAborted();
             return 0;
         }
 
-        return startTasks(currentPolicy, jobMap, toUnlock);
+        int numberOfTaskStarted = startTasks(currentPolicy, jobMap, toUnlock, freeResources);
+        loopStatistics.loopCompleted(numberOfTaskStarted);
+        return numberOfTaskStarted;
     }
 
-    private int startTasks(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap, Map<JobId, JobDescriptor> toUnlock) {
+    private int startTasks(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap, Map<JobId, JobDescriptor> toUnlock,
+            Set<String> freeResources) {
         try {
             List<JobDescriptor> descriptors = new ArrayList<>(jobMap.values());
 
-            //get rmState and update it in scheduling policy
-            Set<String> freeResources = getFreeResources(currentPolicy);
-            //if there is no free resources, stop it right now without starting any task
-            if (freeResources.isEmpty()) {
-                return 0;
-            }
-
-            // ask the policy all the tasks to be schedule according to the jobs list.
-            LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy = currentPolicy.getOrderedTasks(descriptors);
+            // ask the policy the tasks to be schedule according to the jobs list,
+            // they may be read from the job descriptors so they are copied before unlocking the jobs,
+            // only the first ones which the free resources can absorb are pulled from the policy
+            Iterator<EligibleTaskDescriptor> orderedTasks = currentPolicy.getOrderedTasksIterator(descriptors);
+            List<EligibleTaskDescriptor> tasksRetrievedFromPolicy = copyOrderedTasks(orderedTasks,
+                                                                                     freeResources.size());
 
             //if there is no task to scheduled, return without starting any task
-            if (fullListOfTaskRetrievedFromPolicy == null || fullListOfTaskRetrievedFromPolicy.isEmpty()) {
+            if (tasksRetrievedFromPolicy.isEmpty()) {
                 return 0;
             }
 
             toUnlock = unlockResources(toUnlock);
 
-            return getNumberOfTaskStarted(currentPolicy, jobMap, freeResources, fullListOfTaskRetrievedFromPolicy);
+            return getNumberOfTaskStarted(currentPolicy, jobMap, freeResources, tasksRetrievedFromPolicy.iterator());
         } finally {
             if (toUnlock != null) {
                 schedulingService.unlockJobsToSchedule(toUnlock.values());
@@ -212,9 +257,37 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         }
     }
 
+    /**
+     * Copy the first tasks given by the policy, until the number of tasks which fit in the free nodes reaches
+     * {@link PASchedulerProperties#SCHEDULER_STARTTASK_TASKS_PER_FREE_NODE} times the number of free nodes.
+     * The tasks needing more nodes than the free ones cannot be started in this loop and are not counted.
+     *
+     * @param orderedTasks the tasks in the order given by the policy
+     * @param freeNodesNumber the number of free nodes
+     * @return the tasks considered by this scheduling loop
+     */
+    static List<EligibleTaskDescriptor> copyOrderedTasks(Iterator<EligibleTaskDescriptor> orderedTasks,
+            int freeNodesNumber) {
+        List<EligibleTaskDescriptor> tasks = new ArrayList<>();
+        if (orderedTasks == null) {
+            return tasks;
+        }
+        int tasksPerFreeNode = PASchedulerProperties.SCHEDULER_STARTTASK_TASKS_PER_FREE_NODE.getValueAsInt();
+        long maxFittingTasks = tasksPerFreeNode > 0 ? (long) tasksPerFreeNode * freeNodesNumber : Long.MAX_VALUE;
+        long fittingTasks = 0;
+        while (fittingTasks < maxFittingTasks && orderedTasks.hasNext()) {
+            EligibleTaskDescriptor task = orderedTasks.next();
+            tasks.add(task);
+            if (task.getNumberOfNodesNeeded() <= freeNodesNumber) {
+                fittingTasks++;
+            }
+        }
+        return tasks;
+    }
+
     private int getNumberOfTaskStarted(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap,
-            Set<String> freeResources, LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy) {
-        return selectAndStartTasks(currentPolicy, jobMap, freeResources, fullListOfTaskRetrievedFromPolicy);
+            Set<String> freeResources, Iterator<EligibleTaskDescriptor> tasksRetrievedFromPolicy) {
+        return selectAndStartTasks(currentPolicy, jobMap, freeResources, tasksRetrievedFromPolicy);
 
     }
 
@@ -225,9 +298,12 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     private Set<String> getFreeResources(Policy currentPolicy) {
-        RMState rmState = getRMProxiesManager().getRmProxy().getState();
-        currentPolicy.setRMState(rmState);
-        Set<String> freeResources = rmState.getFreeNodes();
+        RMProxy rmProxy = getRMProxiesManager().getRmProxy();
+        // the scheduling loop removes the nodes it acquires, they are recorded on top of the free nodes view
+        Set<String> freeResources = new FreeResources(rmProxy.getFreeNodes());
+        // leased nodes are busy in the resource manager but available to the compatible tasks
+        freeResources.addAll(schedulingService.getNodeLeases().getLeasedNodesUrls());
+        currentPolicy.setRMState(new SchedulingRMState(rmProxy, freeResources));
         if (logger.isDebugEnabled()) {
             logger.debug("eligible nodes : " + (freeResources.size() < 5 ? freeResources : freeResources.size()));
         }
@@ -244,17 +320,29 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     private int selectAndStartTasks(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap, Set<String> freeResources,
-            LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy) {
-        int numberOfTaskStarted = 0;
+            Iterator<EligibleTaskDescriptor> tasksRetrievedFromPolicy) {
+        List<Future<Boolean>> taskLaunches = new ArrayList<>();
+        int numberOfTaskStarted;
+        try {
+            selectAndLaunchTasks(currentPolicy, jobMap, freeResources, tasksRetrievedFromPolicy, taskLaunches);
+        } finally {
+            numberOfTaskStarted = waitForTaskLaunches(taskLaunches);
+        }
+        return numberOfTaskStarted;
+    }
 
-        VariableBatchSizeIterator progressiveIterator = new VariableBatchSizeIterator(fullListOfTaskRetrievedFromPolicy);
+    private void selectAndLaunchTasks(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap,
+            Set<String> freeResources, Iterator<EligibleTaskDescriptor> tasksRetrievedFromPolicy,
+            List<Future<Boolean>> taskLaunches) {
+        VariableBatchSizeIterator<EligibleTaskDescriptor> progressiveIterator;
+        progressiveIterator = new VariableBatchSizeIterator<>(tasksRetrievedFromPolicy);
 
         while (progressiveIterator.hasMoreElements() && !freeResources.isEmpty()) {
 
             LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy = new LinkedList<>(progressiveIterator.getNextElements(freeResources.size()));
 
             if (logger.isDebugEnabled()) {
-                loggingEligibleTasksDetails(fullListOfTaskRetrievedFromPolicy, taskRetrievedFromPolicy);
+                loggingEligibleTasksDetails(taskRetrievedFromPolicy);
             }
 
             updateVariablesForTasksToSchedule(jobMap, taskRetrievedFromPolicy);
@@ -280,6 +368,8 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                                                                    taskRetrievedFromPolicy,
                                                                    freeResources.size(),
                                                                    tasksToSchedule);
+                    //the tasks whose resource tokens are unavailable stay pending without asking nodes to the RM
+                    neededResourcesNumber = acquireResourceTokens(currentPolicy, tasksToSchedule);
                 }
                 if (logger.isDebugEnabled()) {
                     logger.debug("tasksToSchedule : " + tasksToSchedule);
@@ -290,29 +380,36 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                     break;
                 }
 
-                NodeSet nodeSet = getRMNodes(jobMap, neededResourcesNumber, tasksToSchedule, freeResources);
+                NodeSet nodeSet = getNodes(jobMap, neededResourcesNumber, tasksToSchedule, freeResources);
 
                 if (nodeSet != null) {
                     freeResources.removeAll(nodeSet.getAllNodesUrls());
                 }
 
-                //start selected tasks
-                Node node = null;
+                //start selected tasks, the launches run in the task launch thread pool
                 InternalJob currentJob = null;
                 try {
                     while (nodeSet != null && !nodeSet.isEmpty()) {
-                        EligibleTaskDescriptor taskDescriptor = tasksToSchedule.removeFirst();
+                        EligibleTaskDescriptor taskDescriptor = tasksToSchedule.getFirst();
                         currentJob = ((JobDescriptorImpl) jobMap.get(taskDescriptor.getJobId())).getInternal();
                         InternalTask internalTask = currentJob.getIHMTasks().get(taskDescriptor.getTaskId());
 
-                        if (currentPolicy.isTaskExecutable(nodeSet, taskDescriptor)) {
-                            //create launcher and try to start the task
-                            node = nodeSet.get(0);
-
-                            if (createExecution(nodeSet, node, currentJob, internalTask, taskDescriptor)) {
-                                numberOfTaskStarted++;
-                            }
+                        if (isActiveObjectCreationRetryExhausted()) {
+                            //launcher creations keep failing, get back every remaining nodes to the resource manager
+                            releaseNodes(currentJob, nodeSet);
+                            freeResources.addAll(nodeSet.getAllNodesUrls());
+                            break;
+                        }
 
+                        Future<Boolean> taskLaunch = null;
+                        if (currentPolicy.isTaskExecutable(nodeSet, taskDescriptor)) {
+                            taskLaunch = launchExecution(nodeSet, currentJob, internalTask, taskDescriptor);
+                        }
+                        tasksToSchedule.removeFirst();
+                        if (taskLaunch != null) {
+                            taskLaunches.add(taskLaunch);
+                        } else {
+                            releaseResourceTokens(currentPolicy, taskDescriptor.getTaskId());
                         }
 
                         //if every task that should be launched have been removed
@@ -326,19 +423,6 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                             break;
                         }
                     }
-                } catch (ActiveObjectCreationException e1) {
-                    //Something goes wrong with the active object creation (createLauncher)
-                    logger.warn("An exception occured while creating the task launcher.", e1);
-                    //so try to get back every remaining nodes to the resource manager
-                    try {
-                        releaseNodes(currentJob, nodeSet);
-                        freeResources.addAll(nodeSet.getAllNodesUrls());
-                    } catch (Exception e2) {
-                        logger.info("Unable to get back the nodeSet to the RM", e2);
-                    }
-                    if (--activeObjectCreationRetryTimeNumber == 0) {
-                        break;
-                    }
                 } catch (Exception e1) {
                     //if we are here, it is that something append while launching the current task.
                     logger.warn("An exception occured while starting task.", e1);
@@ -350,22 +434,82 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                         logger.info("Unable to get back the nodeSet to the RM", e2);
                     }
                 }
+                //the tasks that have not been started give back their resource tokens
+                for (EligibleTaskDescriptor taskDescriptor : tasksToSchedule) {
+                    releaseResourceTokens(currentPolicy, taskDescriptor.getTaskId());
+                }
+                if (isActiveObjectCreationRetryExhausted()) {
+                    break;
+                }
             }
             if (freeResources.isEmpty()) {
                 break;
             }
-            if (activeObjectCreationRetryTimeNumber == 0) {
+            if (isActiveObjectCreationRetryExhausted()) {
                 break;
             }
         }
+    }
+
+    /**
+     * Reserve the resource tokens of the given compatible tasks before asking their nodes.
+     * The tasks whose tokens are unavailable are removed from the given list.
+     *
+     * @param currentPolicy the policy which reserves the tokens
+     * @param tasksToSchedule the compatible tasks to be scheduled
+     * @return the number of nodes needed to start the remaining tasks
+     */
+    private int acquireResourceTokens(Policy currentPolicy, LinkedList<EligibleTaskDescriptor> tasksToSchedule) {
+        int neededResourcesNumber = 0;
+        Iterator<EligibleTaskDescriptor> it = tasksToSchedule.iterator();
+        while (it.hasNext()) {
+            EligibleTaskDescriptor etd = it.next();
+            if (currentPolicy.acquireResourceTokens(etd)) {
+                neededResourcesNumber += ((EligibleTaskDescriptorImpl) etd).getInternal().getNumberOfNodesNeeded();
+            } else {
+                tlogger.debug(etd.getTaskId(), "resource tokens unavailable, kept pending");
+                it.remove();
+            }
+        }
+        return neededResourcesNumber;
+    }
+
+    private void releaseResourceTokens(Policy currentPolicy, TaskId taskId) {
+        try {
+            currentPolicy.releaseResourceTokens(taskId);
+        } catch (Throwable e) {
+            tlogger.info(taskId, "cannot release its resource tokens: " + e.getMessage());
+        }
+    }
+
+    private boolean isActiveObjectCreationRetryExhausted() {
+        return activeObjectCreationFailures.get() >= ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+    }
+
+    /**
+     * Wait for the end of the task launches of the scheduling loop, so that the next loop sees the started tasks.
+     *
+     * @return the number of tasks that have been started
+     */
+    int waitForTaskLaunches(List<Future<Boolean>> taskLaunches) {
+        int numberOfTaskStarted = 0;
+        for (Future<Boolean> taskLaunch : taskLaunches) {
+            try {
+                if (taskLaunch.get()) {
+                    numberOfTaskStarted++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for the tasks to be started", e);
+                break;
+            } catch (ExecutionException e) {
+                logger.warn("An exception occured while starting task.", e.getCause());
+            }
+        }
         return numberOfTaskStarted;
     }
 
-    private void loggingEligibleTasksDetails(LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy,
-            LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy) {
-        logger.debug("full list of eligible tasks: " +
-                     (fullListOfTaskRetrievedFromPolicy.size() < 5 ? fullListOfTaskRetrievedFromPolicy
-                                                                   : fullListOfTaskRetrievedFromPolicy.size()));
+    private void loggingEligibleTasksDetails(LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy) {
         logger.debug("working list of eligible tasks: " +
                      (taskRetrievedFromPolicy.size() < 5 ? taskRetrievedFromPolicy : taskRetrievedFromPolicy.size()));
     }
@@ -447,6 +591,52 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         return neededResource;
     }
 
+    /**
+     * Take the leased nodes compatible with the given tasks, then ask to the RM the missing nodes.
+     *
+     * @see #getRMNodes(Map, int, LinkedList, Set)
+     */
+    private NodeSet getNodes(Map<JobId, JobDescriptor> jobMap, int neededResourcesNumber,
+            LinkedList<EligibleTaskDescriptor> tasksToSchedule, Set<String> freeResources) {
+        NodeLeases nodeLeases = schedulingService.getNodeLeases();
+        if (nodeLeases.isEmpty()) {
+            return getRMNodes(jobMap, neededResourcesNumber, tasksToSchedule, freeResources);
+        }
+
+        EligibleTaskDescriptor etd = tasksToSchedule.getFirst();
+        InternalJob currentJob = ((JobDescriptorImpl) jobMap.get(etd.getJobId())).getInternal();
+        InternalTask internalTask0 = currentJob.getIHMTasks().get(etd.getTaskId());
+        NodeSet nodeSet = nodeLeases.acquire(new SchedulingTaskComparator(internalTask0, currentJob),
+                                             neededResourcesNumber);
+        if (nodeSet.size() == neededResourcesNumber) {
+            logger.debug("provided leased nodes " + nodeSet.size());
+            return nodeSet;
+        }
+
+        Set<String> freeResourcesOfRM = new FreeResources(freeResources);
+        freeResourcesOfRM.removeAll(nodeLeases.getLeasedNodesUrls());
+        NodeSet rmNodeSet = getRMNodes(jobMap,
+                                       neededResourcesNumber - nodeSet.size(),
+                                       tasksToSchedule,
+                                       freeResourcesOfRM);
+        if (rmNodeSet == null) {
+            if (!nodeSet.isEmpty()) {
+                try {
+                    releaseNodes(currentJob, nodeSet);
+                } catch (RMProxyCreationException e) {
+                    logger.info("Unable to get back the leased nodes to the RM", e);
+                }
+            }
+            return null;
+        }
+        logger.debug("provided leased nodes " + nodeSet.size());
+        nodeSet.addAll(rmNodeSet);
+        if (rmNodeSet.getExtraNodes() != null) {
+            nodeSet.setExtraNodes(rmNodeSet.getExtraNodes());
+        }
+        return nodeSet;
+    }
+
     /**
      * Ask to the RM the given number of node resources.<br>
      * If there is a problem with these task selection (such as bad selectionScript) this method
@@ -612,98 +802,161 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     /**
-     * Create launcher and try to start the task.
+     * Reserve the nodes of the task and submit its launch to the task launch thread pool.
      *
      * @param nodeSet the node set containing every available nodes that can be used for execution
-     * @param node the node on which to start the task
      * @param job the job that owns the task to be started
      * @param task the task to be started
      * @param taskDescriptor the descriptor of the task to be started
-     *
+     * @return the launch of the task, which result tells whether it has been started,
+     *         or null if the task cannot be started on the given nodes
      */
-    protected boolean createExecution(NodeSet nodeSet, Node node, InternalJob job, InternalTask task,
-            TaskDescriptor taskDescriptor) throws Exception {
-        TaskLauncher launcher = null;
-        LiveJobs.JobData jobData = null;
-        try {
-            jobData = schedulingService.lockJob(job.getId());
-            //enough nodes to be launched at same time for a communicating task
-            // task is not paused
-            if (nodeSet.size() >= task.getNumberOfNodesNeeded() && (task.getStatus() != TaskStatus.PAUSED) &&
-                (jobData != null)) {
-                //start dataspace app for this job
-                DataSpaceServiceStarter dsStarter = schedulingService.getInfrastructure().getDataSpaceServiceStarter();
-                job.startDataSpaceApplication(dsStarter.getNamingService(), ImmutableList.of(task));
-
-                NodeSet nodes = new NodeSet();
-                try {
-
-                    // create launcher
-                    launcher = task.createLauncher(node);
+    protected Future<Boolean> launchExecution(NodeSet nodeSet, InternalJob job, InternalTask task,
+            TaskDescriptor taskDescriptor) {
+        //enough nodes to be launched at same time for a communicating task
+        // task is not paused
+        if (nodeSet.size() < task.getNumberOfNodesNeeded() || task.getStatus() == TaskStatus.PAUSED) {
+            return null;
+        }
+        Node node = nodeSet.remove(0);
+
+        //if topology is enabled and it is a multi task, give every nodes to the multi-nodes task
+        // we will need to update this code once topology will be allowed for single-node task
+        NodeSet nodes = new NodeSet();
+        if (task.isParallel()) {
+            nodes = new NodeSet(nodeSet);
+            nodeSet.clear();
+        }
 
-                    activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+        return taskLaunchThreadPool.submit(new TaskLaunch(node, nodes, job, task, taskDescriptor));
+    }
 
-                    nodeSet.remove(0);
+    /**
+     * Create launcher and try to start the task.
+     * The job lock is held to start the dataspace application and prepare the launcher initializer,
+     * then to set the executer information and start the task, but not while the launcher active object is
+     * created on the remote node: the task is neither read nor modified meanwhile.
+     * If the job or the task changed meanwhile, the launcher is terminated and the nodes are released.
+     *
+     * @param node the node on which to start the task
+     * @param nodes the other nodes given to a multi-nodes task
+     * @param job the job that owns the task to be started
+     * @param task the task to be started
+     * @param taskDescriptor the descriptor of the task to be started
+     * @param selectedStatus the status of the task when it was selected
+     * @return true if the task has been started
+     */
+    protected boolean createExecution(Node node, NodeSet nodes, InternalJob job, InternalTask task,
+            TaskDescriptor taskDescriptor, TaskStatus selectedStatus) {
+        LiveJobs.JobData jobData = schedulingService.lockJob(job.getId());
+        if (jobData == null) {
+            releaseTaskNodes(job, node, nodes);
+            return false;
+        }
+        TaskLauncherInitializer initializer;
+        try {
+            if (task.getStatus() != selectedStatus) {
+                releaseTaskNodes(job, node, nodes);
+                return false;
+            }
+            //start dataspace app for this job
+            DataSpaceServiceStarter dsStarter = schedulingService.getInfrastructure().getDataSpaceServiceStarter();
+            job.startDataSpaceApplication(dsStarter.getNamingService(), ImmutableList.of(task));
+            initializer = task.createLauncherInitializer();
+        } catch (Exception e) {
+            logger.warn("An exception occured while starting task.", e);
+            releaseTaskNodes(job, node, nodes);
+            return false;
+        } finally {
+            jobData.unlock();
+        }
 
-                    //if topology is enabled and it is a multi task, give every nodes to the multi-nodes task
-                    // we will need to update this code once topology will be allowed for single-node task
-                    if (task.isParallel()) {
-                        nodes = new NodeSet(nodeSet);
-                        task.getExecuterInformation().addNodes(nodes);
-                        nodeSet.clear();
-                    }
+        TaskLauncher launcher;
+        try {
+            // create launcher
+            launcher = task.createLauncher(initializer, node);
+        } catch (Exception e) {
+            if (e instanceof ActiveObjectCreationException) {
+                activeObjectCreationFailures.incrementAndGet();
+            }
+            logger.warn("An exception occured while creating the task launcher.", e);
+            releaseTaskNodes(job, node, nodes);
+            return false;
+        }
 
-                    //set nodes in the executable container
-                    task.getExecutableContainer().setNodes(nodes);
+        jobData = schedulingService.lockJob(job.getId());
+        try {
+            if (jobData == null || task.getStatus() != selectedStatus) {
+                tlogger.info(task.getId(), "not started, it has been modified while its launcher was created");
+                terminateLauncher(task, launcher);
+                releaseTaskNodes(job, node, nodes);
+                return false;
+            }
 
-                    tlogger.debug(task.getId(), "deploying");
+            task.setExecuterInformation(new ExecuterInformation(launcher, node));
+            if (task.isParallel()) {
+                task.getExecuterInformation().addNodes(nodes);
+            }
 
-                    // Dynamically adjust the start-task-timeout according to the number dependency tasks in a merge.
-                    // above 500 parent tasks, it is worth adjusting.
-                    if (taskDescriptor.getParents().size() > 500) {
-                        dotaskActionTimeout = (int) (taskDescriptor.getParents().size() / 500.0 *
-                                                     PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt());
-                    } else {
-                        // reset the dotaskActionTimeout to its default value otherwise.
-                        dotaskActionTimeout = PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
-                    }
+            //set nodes in the executable container
+            task.getExecutableContainer().setNodes(nodes);
 
-                    Future<Void> taskExecutionSubmittedFuture = threadPool.submitWithTimeout(new TimedDoTaskAction(job,
-                                                                                                                   taskDescriptor,
-                                                                                                                   launcher,
-                                                                                                                   schedulingService,
-                                                                                                                   terminateNotification,
-                                                                                                                   corePrivateKey,
-                                                                                                                   terminateNotificationNodeURL),
-                                                                                             dotaskActionTimeout,
-                                                                                             TimeUnit.MILLISECONDS);
-                    waitForTaskToBeStarted(taskExecutionSubmittedFuture);
-
-                    finalizeStarting(job, task, node, launcher);
-                    return true;
-                } catch (Exception t) {
-                    try {
-                        //if there was a problem, free nodeSet for multi-nodes task
-                        nodes.add(node);
-                        releaseNodes(job, nodes);
-                    } catch (Throwable ni) {
-                        //miam miam
-                    }
-                    throw t;
-                }
+            tlogger.debug(task.getId(), "deploying");
 
+            // Dynamically adjust the start-task-timeout according to the number dependency tasks in a merge.
+            // above 500 parent tasks, it is worth adjusting.
+            int dotaskActionTimeout;
+            if (taskDescriptor.getParents().size() > 500) {
+                dotaskActionTimeout = (int) (taskDescriptor.getParents().size() / 500.0 *
+                                             PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt());
             } else {
-                return false;
+                dotaskActionTimeout = PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
             }
+
+            Future<Void> taskExecutionSubmittedFuture = threadPool.submitWithTimeout(new TimedDoTaskAction(job,
+                                                                                                           taskDescriptor,
+                                                                                                           launcher,
+                                                                                                           schedulingService,
+                                                                                                           terminateNotification,
+                                                                                                           corePrivateKey,
+                                                                                                           terminateNotificationNodeURL),
+                                                                                     dotaskActionTimeout,
+                                                                                     TimeUnit.MILLISECONDS);
+            waitForTaskToBeStarted(taskExecutionSubmittedFuture, dotaskActionTimeout);
+
+            finalizeStarting(job, task, node, launcher);
+            return true;
+        } catch (Exception e) {
+            logger.warn("An exception occured while starting task.", e);
+            //if there was a problem, free nodeSet for multi-nodes task
+            releaseTaskNodes(job, node, nodes);
+            return false;
         } finally {
             if (jobData != null) {
                 jobData.unlock();
             }
         }
+    }
 
+    private void releaseTaskNodes(InternalJob job, Node node, NodeSet nodes) {
+        try {
+            NodeSet taskNodes = new NodeSet(nodes);
+            taskNodes.add(node);
+            releaseNodes(job, taskNodes);
+        } catch (Throwable e) {
+            logger.info("Unable to get back the nodeSet to the RM", e);
+        }
     }
 
-    private void waitForTaskToBeStarted(Future<Void> taskExecutionSubmittedFuture) {
+    private void terminateLauncher(InternalTask task, TaskLauncher launcher) {
+        try {
+            PAActiveObject.terminateActiveObject(launcher, true);
+        } catch (Throwable e) {
+            tlogger.info(task.getId(), "cannot terminate its task launcher: " + e.getMessage());
+        }
+    }
+
+    private void waitForTaskToBeStarted(Future<Void> taskExecutionSubmittedFuture, int dotaskActionTimeout) {
         try {
             // before signaling that the task is started, we need
             // to make sure the task is correctly submitted to the
@@ -714,6 +967,47 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         }
     }
 
+    /**
+     * Start of a task on its reserved nodes, run by the task launch thread pool
+     */
+    private class TaskLaunch implements Callable<Boolean> {
+
+        private final Node node;
+
+        private final NodeSet nodes;
+
+        private final InternalJob job;
+
+        private final InternalTask task;
+
+        private final TaskDescriptor taskDescriptor;
+
+        private final TaskStatus selectedStatus;
+
+        private TaskLaunch(Node node, NodeSet nodes, InternalJob job, InternalTask task,
+                TaskDescriptor taskDescriptor) {
+            this.node = node;
+            this.nodes = nodes;
+            this.job = job;
+            this.task = task;
+            this.taskDescriptor = taskDescriptor;
+            this.selectedStatus = task.getStatus();
+        }
+
+        @Override
+        public Boolean call() {
+            boolean started = false;
+            try {
+                started = createExecution(node, nodes, job, task, taskDescriptor, selectedStatus);
+                return started;
+            } finally {
+                if (!started) {
+                    releaseResourceTokens(schedulingService.getPolicy(), task.getId());
+                }
+            }
+        }
+    }
+
     /**
      * Finalize the start of the task by mark it as started. Also mark the job if it is not already started.
      *
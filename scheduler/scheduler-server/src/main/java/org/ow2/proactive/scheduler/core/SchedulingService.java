@@ -32,7 +32,9 @@ import java.security.PublicKey;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -101,6 +103,17 @@ public class SchedulingService {
 
     private final LiveJobs jobs;
 
+    private final SchedulingLoopStatistics schedulingLoopStatistics = new SchedulingLoopStatistics();
+
+    private final NodeLeases nodeLeases = new NodeLeases(PASchedulerProperties.SCHEDULER_NODE_LEASE_DURATION.getValueAsInt(),
+                                                         schedulingLoopStatistics);
+
+    /**
+     * Task terminations waiting to be handled, by job, in termination order. A job is present
+     * while the runnable which handles its terminations as a batch has not started yet.
+     */
+    private final Map<JobId, Map<TaskId, TaskResultImpl>> pendingTerminations = new HashMap<>();
+
     private final SchedulerStateUpdate listener;
 
     private final ListenJobLogsSupport listenJobLogsSupport;
@@ -125,7 +138,7 @@ public class SchedulingService {
             throws Exception {
         this.infrastructure = infrastructure;
         this.listener = listener;
-        this.jobs = new LiveJobs(infrastructure.getDBManager(), listener);
+        this.jobs = new LiveJobs(infrastructure.getDBManager(), listener, schedulingLoopStatistics);
         if (recoveredState != null) {
             recover(recoveredState);
         }
@@ -258,6 +271,7 @@ public class SchedulingService {
         infrastructure.schedule(new Runnable() {
             public void run() {
                 if (jobs.getRunningTasks().isEmpty()) {
+                    nodeLeases.releaseAll(infrastructure.getRMProxiesManager());
                     listener.schedulerStateUpdated(SchedulerEvent.SHUTDOWN);
                 } else {
                     infrastructure.schedule(this, 5000);
@@ -335,6 +349,8 @@ public class SchedulingService {
             }
         }
 
+        nodeLeases.releaseAll(infrastructure.getRMProxiesManager());
+
         listenJobLogsSupport.shutdown();
         infrastructure.shutdown();
 
@@ -406,6 +422,21 @@ public class SchedulingService {
         return infrastructure;
     }
 
+    NodeLeases getNodeLeases() {
+        return nodeLeases;
+    }
+
+    public SchedulingLoopStatistics getSchedulingLoopStatistics() {
+        return schedulingLoopStatistics;
+    }
+
+    /*
+     * Should be called only by scheduling method impl when job scheduling starts
+     */
+    public boolean hasJobsToSchedule() {
+        return jobs.hasJobs();
+    }
+
     /*
      * Should be called only by scheduling method impl when job scheduling starts
      */
@@ -483,7 +514,9 @@ public class SchedulingService {
             return infrastructure.getClientOperationsThreadPool().submit(new Callable<Boolean>() {
                 @Override
                 public Boolean call() throws Exception {
-                    return jobs.updateStartAt(jobId, startAt);
+                    Boolean result = jobs.updateStartAt(jobId, startAt);
+                    wakeUpSchedulingThread();
+                    return result;
                 }
 
             }).get();
@@ -793,16 +826,37 @@ public class SchedulingService {
     }
 
     public void taskTerminatedWithResult(final TaskId taskId, final TaskResult taskResult) {
+        final JobId jobId = taskId.getJobId();
+        boolean firstOfBatch;
+        synchronized (pendingTerminations) {
+            Map<TaskId, TaskResultImpl> pending = pendingTerminations.get(jobId);
+            firstOfBatch = pending == null;
+            if (firstOfBatch) {
+                pending = new LinkedHashMap<>();
+                pendingTerminations.put(jobId, pending);
+            }
+            if (!pending.containsKey(taskId)) {
+                // as when terminations are handled one by one, a task only terminates with its first result
+                pending.put(taskId, (TaskResultImpl) taskResult);
+            }
+        }
+        if (!firstOfBatch) {
+            // the terminations of this job are already waiting to be handled
+            return;
+        }
         infrastructure.getInternalOperationsThreadPool().submit(new Runnable() {
             @Override
             public void run() {
+                Map<TaskId, TaskResultImpl> results;
+                synchronized (pendingTerminations) {
+                    results = pendingTerminations.remove(jobId);
+                }
                 try {
-                    TerminationData terminationData = jobs.taskTerminatedWithResult(taskId,
-                                                                                    (TaskResultImpl) taskResult);
+                    TerminationData terminationData = jobs.tasksTerminatedWithResult(jobId, results);
                     terminationData.handleTermination(SchedulingService.this);
                     wakeUpSchedulingThread();
                 } catch (Throwable e) {
-                    logger.error("Failed to terminate task " + taskId, e);
+                    logger.error("Failed to terminate tasks " + results.keySet(), e);
                 }
             }
         });
@@ -1095,7 +1149,13 @@ public class SchedulingService {
     }
 
     protected void sleepSchedulingThread() throws InterruptedException {
-        schedulingThread.sleepSchedulingThread();
+        // wake up when the tasks delayed by the policy are due
+        long nextEligibleTasksTime = policy.getNextEligibleTasksTime();
+        if (nextEligibleTasksTime == Long.MAX_VALUE) {
+            schedulingThread.sleepSchedulingThread();
+        } else {
+            schedulingThread.sleepSchedulingThread(nextEligibleTasksTime - System.currentTimeMillis());
+        }
     }
 
     protected void wakeUpSchedulingThread() {
@@ -1165,6 +1225,9 @@ public class SchedulingService {
                 logger.info("HOUSEKEEPING of jobs " + longJobIdList + " performed (Hibernate context removal took " +
                             (inMemoryTimeStop - inMemoryTimeStart) + " ms" + " and db removal took " +
                             (dbTimeStop - dbTimeStart) + " ms)");
+
+                // contents of the results removed from the database which could not be removed with their jobs
+                getInfrastructure().getDBManager().removeOrphanedResultContents();
             } catch (Throwable e) {
                 logger.error("Error performing HOUSEKEEPING of jobs", e);
             }
@@ -73,6 +73,19 @@ public final class SchedulingThread extends Thread {
         }
     }
 
+    /**
+     * Sleep at most the given time, bounded by the scheduler main loop time out.
+     * An elapsed time falls back to the time out, so that the loop does not spin on due tasks
+     * which cannot be started.
+     *
+     * @param maxSleepTime the maximum time to sleep in milliseconds
+     */
+    protected void sleepSchedulingThread(long maxSleepTime) throws InterruptedException {
+        synchronized (this) {
+            this.wait(maxSleepTime > 0 ? Math.min(SCHEDULER_TIME_OUT, maxSleepTime) : SCHEDULER_TIME_OUT);
+        }
+    }
+
     protected void wakeUpSchedulingThread() {
         synchronized (this) {
             this.notifyAll();
@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.core;
 
 import static org.ow2.proactive.scheduler.core.TerminationData.TerminationStatus.ABORTED;
 import static org.ow2.proactive.scheduler.core.TerminationData.TerminationStatus.NODEFAILED;
+import static org.ow2.proactive.scheduler.core.TerminationData.TerminationStatus.NORMAL;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -151,6 +152,12 @@ final class TerminationData {
         tasksToRestart.put(TaskIdWrapper.wrap(taskId), new TaskRestartData(taskId, waitTime));
     }
 
+    void addAll(TerminationData terminationData) {
+        jobsToTerminate.addAll(terminationData.jobsToTerminate);
+        tasksToTerminate.putAll(terminationData.tasksToTerminate);
+        tasksToRestart.putAll(terminationData.tasksToRestart);
+    }
+
     boolean isEmpty() {
         return tasksToTerminate.isEmpty() && tasksToRestart.isEmpty() && jobsToTerminate.isEmpty();
     }
@@ -232,6 +239,12 @@ final class TerminationData {
 
     private void terminateRunningTask(SchedulingService service, TaskTerminationData taskToTerminate,
             RunningTaskData taskData) {
+        try {
+            service.getPolicy().releaseResourceTokens(taskData.getTask().getId());
+        } catch (Throwable t) {
+            logger.info("Failed to release the resource tokens of task '" + taskData.getTask().getId() + "'", t);
+        }
+
         Map<String, String> genericInformation = new HashMap<>();
         VariablesMap variables = null;
         if (taskToTerminate.internalJob != null) {
@@ -256,6 +269,20 @@ final class TerminationData {
             }
         }
 
+        try {
+            if (taskToTerminate.terminationStatus == NORMAL && taskToTerminate.internalJob != null &&
+                service.getNodeLeases().offer(taskToTerminate.internalJob,
+                                              taskData.getTask(),
+                                              taskData.getNodes(),
+                                              taskData.getUser(),
+                                              taskData.getCredentials())) {
+                // the node is kept for the next compatible task
+                return;
+            }
+        } catch (Throwable t) {
+            logger.info("Failed to lease the node of task '" + taskData.getTask().getId() + "'", t);
+        }
+
         try {
             logger.debug("Releasing nodes for task '" + taskData.getTask().getId() + "'");
             RMProxiesManager proxiesManager = service.getInfrastructure().getRMProxiesManager();
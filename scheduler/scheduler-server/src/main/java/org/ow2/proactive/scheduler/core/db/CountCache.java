@@ -0,0 +1,176 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Short-lived cache of the total numbers of jobs and tasks returned with the pages of jobs and
+ * tasks, so that clients polling the same lists do not count the whole tables on every request.
+ * <p>
+ * Counts are kept by owner of the counted jobs and tasks. A write to the jobs of an owner
+ * invalidates the counts of this owner and the counts of all the owners, the counts of the other
+ * owners are kept. A count computed concurrently with a write it depends on is not kept, as it may
+ * not include it.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+class CountCache {
+
+    /** Number of counts of an owner from which they are emptied, as expired counts are only removed when read */
+    private static final int MAX_COUNTS = 1000;
+
+    /** Owner of the counts of the jobs and tasks of all the owners */
+    private static final String ALL_OWNERS = "";
+
+    private final long timeToLive;
+
+    private final ConcurrentMap<String, OwnerCounts> countsByOwner = new ConcurrentHashMap<>();
+
+    /**
+     * @param timeToLive time in ms during which a count is reused, 0 to always count again
+     */
+    CountCache(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param owner the owner of the counted jobs and tasks, null or empty for all the owners
+     * @return the count stored for the given key, or null if it is unknown or expired
+     */
+    Integer get(String owner, Object key) {
+        if (timeToLive <= 0) {
+            return null;
+        }
+        OwnerCounts ownerCounts = countsByOwner.get(normalize(owner));
+        if (ownerCounts == null) {
+            return null;
+        }
+        Count count = ownerCounts.counts.get(key);
+        if (count == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - count.time > timeToLive) {
+            ownerCounts.counts.remove(key, count);
+            return null;
+        }
+        return count.value;
+    }
+
+    /**
+     * @return the version of the counts of the given owner, to get before counting
+     */
+    long getVersion(String owner) {
+        return ownerCounts(normalize(owner)).version.get();
+    }
+
+    /**
+     * Stores a count, unless the counts of its owner were invalidated since the given version.
+     *
+     * @param version the {@link #getVersion(String) version} of the counts of the owner when the count started
+     */
+    void put(String owner, Object key, int value, long version) {
+        if (timeToLive > 0) {
+            OwnerCounts ownerCounts = ownerCounts(normalize(owner));
+            if (ownerCounts.counts.size() >= MAX_COUNTS) {
+                ownerCounts.counts.clear();
+            }
+            ownerCounts.counts.put(key, new Count(value, System.currentTimeMillis()));
+            if (ownerCounts.version.get() != version) {
+                ownerCounts.counts.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the counts which may include the jobs and tasks of the given owner.
+     *
+     * @param owner the owner of the written jobs and tasks, null if it is unknown
+     */
+    void invalidate(String owner) {
+        if (owner == null) {
+            invalidate();
+        } else {
+            ownerCounts(normalize(owner)).invalidate();
+            ownerCounts(ALL_OWNERS).invalidate();
+        }
+    }
+
+    /**
+     * Invalidates all the counts.
+     */
+    void invalidate() {
+        for (OwnerCounts ownerCounts : countsByOwner.values()) {
+            ownerCounts.invalidate();
+        }
+    }
+
+    private OwnerCounts ownerCounts(String owner) {
+        OwnerCounts ownerCounts = countsByOwner.get(owner);
+        if (ownerCounts == null) {
+            OwnerCounts created = new OwnerCounts();
+            ownerCounts = countsByOwner.putIfAbsent(owner, created);
+            if (ownerCounts == null) {
+                ownerCounts = created;
+            }
+        }
+        return ownerCounts;
+    }
+
+    private static String normalize(String owner) {
+        return owner == null ? ALL_OWNERS : owner;
+    }
+
+    private static final class OwnerCounts {
+
+        private final ConcurrentHashMap<Object, Count> counts = new ConcurrentHashMap<>();
+
+        /** Incremented by each invalidation */
+        private final AtomicLong version = new AtomicLong();
+
+        private void invalidate() {
+            version.incrementAndGet();
+            counts.clear();
+        }
+    }
+
+    private static final class Count {
+
+        private final int value;
+
+        private final long time;
+
+        private Count(int value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+}
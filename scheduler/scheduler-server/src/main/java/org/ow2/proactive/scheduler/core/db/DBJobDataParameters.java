@@ -99,4 +99,8 @@ public class DBJobDataParameters {
     public Set<JobStatus> getStatuses() {
         return status;
     }
+
+    public boolean isAllJobs() {
+        return pending && running && finished;
+    }
 }
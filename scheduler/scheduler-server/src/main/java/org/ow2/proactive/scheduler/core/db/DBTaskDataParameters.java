@@ -64,8 +64,29 @@ public class DBTaskDataParameters {
 
     private final Set<TaskStatus> status;
 
+    private final boolean sortedAfterTask;
+
+    private final TaskData.DBTaskId afterTaskId;
+
     DBTaskDataParameters(String tag, long from, long to, int offset, int limit, String user, boolean pending,
             boolean running, boolean finished, SortSpecifierContainer sortParams) {
+        this(tag, from, to, offset, limit, user, pending, running, finished, sortParams, false, null);
+    }
+
+    /**
+     * Parameters of a page of tasks located from the last task of the previous page instead of an
+     * offset.
+     *
+     * @param afterTaskId the last task of the previous page, null to get the first page
+     */
+    DBTaskDataParameters(String tag, long from, long to, int limit, String user, boolean pending, boolean running,
+            boolean finished, SortSpecifierContainer sortParams, TaskData.DBTaskId afterTaskId) {
+        this(tag, from, to, 0, limit, user, pending, running, finished, sortParams, true, afterTaskId);
+    }
+
+    private DBTaskDataParameters(String tag, long from, long to, int offset, int limit, String user, boolean pending,
+            boolean running, boolean finished, SortSpecifierContainer sortParams, boolean sortedAfterTask,
+            TaskData.DBTaskId afterTaskId) {
         this.tag = tag;
         this.from = from;
         this.to = to;
@@ -76,6 +97,8 @@ public class DBTaskDataParameters {
         this.running = running;
         this.finished = finished;
         this.sortParams = sortParams;
+        this.sortedAfterTask = sortedAfterTask;
+        this.afterTaskId = afterTaskId;
 
         Set<TaskStatus> newStatus = new HashSet<>();
 
@@ -154,6 +177,21 @@ public class DBTaskDataParameters {
         return sortParams;
     }
 
+    /**
+     * @return true if the page is located from the last task of the previous page instead of an
+     *         offset
+     */
+    public boolean isSortedAfterTask() {
+        return sortedAfterTask;
+    }
+
+    /**
+     * @return the last task of the previous page, null for the first page
+     */
+    public TaskData.DBTaskId getAfterTaskId() {
+        return afterTaskId;
+    }
+
     public static class Builder {
 
         private String tag;
@@ -0,0 +1,166 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Content-addressed {@link TaskResultStore} on the local file system.
+ * <p>
+ * A content is stored once in a file named after its SHA-256 digest, which is also its
+ * reference, so identical results of replicated tasks share the same file. Files are written in
+ * a temporary file then moved in place, and can be read as a stream without loading them in memory.
+ * <p>
+ * As a content may be shared, it is only removed when no task result references it anymore and
+ * it was not stored again during the last grace period: storing an existing content refreshes
+ * the modification time of its file, so that a result being saved keeps its content.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class FileTaskResultStore implements TaskResultStore {
+
+    private final Path root;
+
+    private final Path temporaryDirectory;
+
+    private final long gracePeriod;
+
+    /**
+     * @param root the directory of the stored contents
+     * @param gracePeriod the time in ms during which a content stored again is not removed
+     */
+    public FileTaskResultStore(File root, long gracePeriod) throws IOException {
+        this.root = root.toPath();
+        this.temporaryDirectory = this.root.resolve("tmp");
+        this.gracePeriod = gracePeriod;
+        Files.createDirectories(temporaryDirectory);
+    }
+
+    @Override
+    public String put(byte[] content) throws IOException {
+        String reference = Hashing.sha256().hashBytes(content).toString();
+        Path file = path(reference);
+        if (Files.exists(file)) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return reference;
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = Files.createTempFile(temporaryDirectory, reference, null);
+        try {
+            Files.write(temporaryFile, content);
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // stored concurrently with the same content
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        return reference;
+    }
+
+    @Override
+    public byte[] get(String reference) throws IOException {
+        try {
+            return Files.readAllBytes(path(reference));
+        } catch (NoSuchFileException e) {
+            throw new IOException("Content " + reference + " not found in " + root, e);
+        }
+    }
+
+    @Override
+    public InputStream openStream(String reference) throws IOException {
+        try {
+            return Files.newInputStream(path(reference));
+        } catch (NoSuchFileException e) {
+            throw new IOException("Content " + reference + " not found in " + root, e);
+        }
+    }
+
+    @Override
+    public void remove(String reference) throws IOException {
+        Path file = path(reference);
+        try {
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            if (System.currentTimeMillis() - lastModified >= gracePeriod) {
+                Files.deleteIfExists(file);
+            }
+        } catch (NoSuchFileException e) {
+            // already removed
+        }
+    }
+
+    @Override
+    public Collection<String> listRemovable() throws IOException {
+        List<String> removable = new ArrayList<>();
+        long storedBefore = System.currentTimeMillis() - gracePeriod;
+        // contents are in two levels of directories named after the first characters of their reference
+        try (DirectoryStream<Path> firstLevel = Files.newDirectoryStream(root, "??")) {
+            for (Path firstLevelDirectory : firstLevel) {
+                try (DirectoryStream<Path> secondLevel = Files.newDirectoryStream(firstLevelDirectory, "??")) {
+                    for (Path secondLevelDirectory : secondLevel) {
+                        try (DirectoryStream<Path> files = Files.newDirectoryStream(secondLevelDirectory)) {
+                            for (Path file : files) {
+                                if (Files.getLastModifiedTime(file).toMillis() <= storedBefore) {
+                                    removable.add(file.getFileName().toString());
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return removable;
+    }
+
+    private Path path(String reference) {
+        if (reference.length() < 4 || !reference.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Invalid content reference: " + reference);
+        }
+        return root.resolve(reference.substring(0, 2)).resolve(reference.substring(2, 4)).resolve(reference);
+    }
+
+}
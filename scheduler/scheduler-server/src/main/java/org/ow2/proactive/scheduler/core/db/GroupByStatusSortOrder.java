@@ -25,6 +25,9 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.criterion.CriteriaQuery;
@@ -68,6 +71,49 @@ public class GroupByStatusSortOrder extends Order {
                " else 2 end " + (ascending ? " asc" : " desc");
     }
 
+    /**
+     * Returns the rank of the group of a status, in ascending order.
+     */
+    static int groupOf(JobStatus status) {
+        switch (status) {
+            case PENDING:
+                return 0;
+            case RUNNING:
+            case STALLED:
+            case PAUSED:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * Returns the statuses in the same group as the given status.
+     */
+    static Set<JobStatus> statusesInGroupOf(JobStatus status) {
+        Set<JobStatus> statuses = EnumSet.noneOf(JobStatus.class);
+        for (JobStatus candidate : JobStatus.values()) {
+            if (groupOf(candidate) == groupOf(status)) {
+                statuses.add(candidate);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Returns the statuses whose group is sorted after the group of the given status.
+     */
+    static Set<JobStatus> statusesAfter(JobStatus status, boolean ascending) {
+        Set<JobStatus> statuses = EnumSet.noneOf(JobStatus.class);
+        for (JobStatus candidate : JobStatus.values()) {
+            int difference = groupOf(candidate) - groupOf(status);
+            if (ascending ? difference > 0 : difference < 0) {
+                statuses.add(candidate);
+            }
+        }
+        return statuses;
+    }
+
     @Override
     public Order ignoreCase() {
         throw new UnsupportedOperationException("not implemented");
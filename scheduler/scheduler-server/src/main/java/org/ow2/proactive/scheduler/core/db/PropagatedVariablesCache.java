@@ -0,0 +1,136 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+
+
+/**
+ * Propagated variables of the last finished tasks, kept by job so that the children of a task
+ * usually find the variables of their parents without reading the task results from the database.
+ * <p>
+ * The cache holds at most {@code capacity} tasks. When it is full, the tasks of the least recently
+ * used jobs are evicted first, then the oldest tasks of the current job. An evicted task is not an
+ * error: its propagated variables are simply read from the database again.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+class PropagatedVariablesCache {
+
+    private final int capacity;
+
+    /** Propagated variables by job id then by task, jobs in access order */
+    private final LinkedHashMap<Long, LinkedHashMap<TaskId, Map<String, byte[]>>> jobs;
+
+    private int size;
+
+    PropagatedVariablesCache(int capacity) {
+        this.capacity = capacity;
+        this.jobs = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Stores the propagated variables of a finished task, replacing the ones of a previous execution.
+     *
+     * @param taskId the finished task
+     * @param propagatedVariables its serialized propagated variables, possibly null
+     */
+    synchronized void put(TaskId taskId, Map<String, byte[]> propagatedVariables) {
+        if (capacity <= 0) {
+            return;
+        }
+        long jobId = taskId.getJobId().longValue();
+        LinkedHashMap<TaskId, Map<String, byte[]>> tasks = jobs.get(jobId);
+        if (tasks == null) {
+            tasks = new LinkedHashMap<>();
+            jobs.put(jobId, tasks);
+        }
+        // removed first so that the task is evicted after the ones finished before it
+        boolean replaced = tasks.containsKey(taskId);
+        tasks.remove(taskId);
+        tasks.put(taskId, propagatedVariables);
+        if (!replaced) {
+            size++;
+        }
+        evict();
+    }
+
+    /**
+     * Returns the cached propagated variables of the given tasks of a job. Tasks which are not in
+     * the cache are absent from the returned map, tasks which did not propagate any variable are
+     * mapped to null.
+     */
+    synchronized Map<TaskId, Map<String, byte[]>> get(JobId jobId, Collection<TaskId> taskIds) {
+        Map<TaskId, Map<String, byte[]>> found = new HashMap<>();
+        LinkedHashMap<TaskId, Map<String, byte[]>> tasks = jobs.get(jobId.longValue());
+        if (tasks != null) {
+            for (TaskId taskId : taskIds) {
+                if (tasks.containsKey(taskId)) {
+                    found.put(taskId, tasks.get(taskId));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Forgets the tasks of a job, once no task of this job can be scheduled anymore.
+     */
+    synchronized void removeJob(long jobId) {
+        LinkedHashMap<TaskId, Map<String, byte[]>> tasks = jobs.remove(jobId);
+        if (tasks != null) {
+            size -= tasks.size();
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void evict() {
+        Iterator<LinkedHashMap<TaskId, Map<String, byte[]>>> jobIterator = jobs.values().iterator();
+        while (size > capacity && jobIterator.hasNext()) {
+            LinkedHashMap<TaskId, Map<String, byte[]>> tasks = jobIterator.next();
+            Iterator<TaskId> taskIterator = tasks.keySet().iterator();
+            while (size > capacity && taskIterator.hasNext()) {
+                taskIterator.next();
+                taskIterator.remove();
+                size--;
+            }
+            if (tasks.isEmpty()) {
+                jobIterator.remove();
+            }
+        }
+    }
+}
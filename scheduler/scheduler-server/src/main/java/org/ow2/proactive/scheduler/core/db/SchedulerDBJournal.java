@@ -0,0 +1,437 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+/**
+ * Write-behind journal of the job and task updates done when tasks are scheduled, started and
+ * finished, enabled with {@code pa.scheduler.db.journal.enabled}.
+ * <p>
+ * The updates are appended in memory and merged by job and by task: a column written several
+ * times keeps its last value, as if the updates had been executed one after the other. They are
+ * written in a single transaction every flush period, or as soon as enough operations are pending.
+ * When the number of pending operations reaches the capacity of the journal, the thread appending
+ * an update flushes the journal itself, which slows the scheduler down to the database pace.
+ * <p>
+ * As a flush is a single transaction and the flushes are written in order, the database always
+ * holds a state the scheduler went through. The updates not flushed yet are lost if the scheduler
+ * crashes, at most one flush period of task starts and terminations: the recovery then finds
+ * these tasks in their previous state and runs them again, as if the scheduler had stopped
+ * before starting or terminating them.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+class SchedulerDBJournal {
+
+    private static final Logger logger = Logger.getLogger(SchedulerDBJournal.class);
+
+    private final SchedulerDBManager dbManager;
+
+    private final TransactionHelper transactionHelper;
+
+    private final int flushOperations;
+
+    private final int capacity;
+
+    private final ScheduledExecutorService flusher;
+
+    /** Serializes the flushes so that they reach the database in order */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                flush();
+            } catch (Throwable e) {
+                // the updates are kept and written by the next flush
+                logger.error("Failed to flush the database journal", e);
+            }
+        }
+    };
+
+    /** Pending updates by job id, in the order of the first update of each job */
+    private LinkedHashMap<Long, JobUpdate> pending = new LinkedHashMap<>();
+
+    private int pendingOperations;
+
+    private boolean flushRequested;
+
+    SchedulerDBJournal(SchedulerDBManager dbManager, TransactionHelper transactionHelper, long flushPeriod,
+            int flushOperations, int capacity) {
+        this.dbManager = dbManager;
+        this.transactionHelper = transactionHelper;
+        this.flushOperations = flushOperations;
+        this.capacity = capacity;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("DB_Journal_Flusher"));
+        flusher.scheduleWithFixedDelay(flushTask, flushPeriod, flushPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    void taskStarted(InternalJob job, InternalTask task, boolean taskStatusToPending) {
+        JobUpdate update = new JobUpdate(job.getId().longValue(), job.getOwner());
+
+        JobInfo jobInfo = job.getJobInfo();
+        update.jobColumns.put("status", jobInfo.getStatus());
+        update.jobColumns.put("startTime", jobInfo.getStartTime());
+        update.jobColumns.put("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks());
+        update.jobColumns.put("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks());
+        update.jobColumns.put("lastUpdatedTime", new Date().getTime());
+
+        update.taskStatusToPending = taskStatusToPending;
+
+        TaskInfo taskInfo = task.getTaskInfo();
+        Map<String, Object> taskColumns = update.taskColumns(task.getId().longValue());
+        taskColumns.put("taskStatus", taskInfo.getStatus());
+        taskColumns.put("startTime", taskInfo.getStartTime());
+        taskColumns.put("finishedTime", taskInfo.getFinishedTime());
+        taskColumns.put("executionHostName", taskInfo.getExecutionHostName());
+        taskColumns.put("executerInformationData",
+                        new ExecuterInformationData(task.getId().longValue(), task.getExecuterInformation()));
+
+        append(update);
+    }
+
+    void taskFinished(InternalJob job, InternalTask finishedTask, TaskResultImpl result, Set<TaskId> tasksToUpdate,
+            boolean jobFinished) {
+        JobUpdate update = new JobUpdate(job.getId().longValue(), job.getOwner());
+
+        JobInfo jobInfo = job.getJobInfo();
+        update.jobColumns.put("status", jobInfo.getStatus());
+        update.jobColumns.put("finishedTime", jobInfo.getFinishedTime());
+        update.jobColumns.put("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks());
+        update.jobColumns.put("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks());
+        update.jobColumns.put("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks());
+        update.jobColumns.put("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks());
+        update.jobColumns.put("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks());
+        update.jobColumns.put("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks());
+        update.jobColumns.put("lastUpdatedTime", new Date().getTime());
+
+        if (finishedTask != null) {
+            tasksToUpdate.add(finishedTask.getId());
+        }
+        for (TaskId id : tasksToUpdate) {
+            TaskInfo taskInfo = job.getIHMTasks().get(id).getTaskInfo();
+            Map<String, Object> taskColumns = update.taskColumns(id.longValue());
+            taskColumns.put("taskStatus", taskInfo.getStatus());
+            taskColumns.put("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft());
+            taskColumns.put("numberOfExecutionOnFailureLeft", taskInfo.getNumberOfExecutionOnFailureLeft());
+            taskColumns.put("finishedTime", taskInfo.getFinishedTime());
+            taskColumns.put("executionDuration", taskInfo.getExecutionDuration());
+        }
+
+        if (result != null) {
+            update.results.add(new TaskResultUpdate(finishedTask.getId().longValue(), result));
+        }
+        update.removeRuntimeData = jobFinished;
+
+        append(update);
+    }
+
+    /**
+     * @param jobOwner the owner of the job, null if it is unknown
+     */
+    void taskTimeUpdated(long jobId, String jobOwner, long taskId, String fieldName, long time) {
+        JobUpdate update = new JobUpdate(jobId, jobOwner);
+        update.taskColumns(taskId).put(fieldName, time);
+        append(update);
+    }
+
+    /**
+     * Writes the pending updates, after the ones of any flush in progress.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            LinkedHashMap<Long, JobUpdate> updates;
+            synchronized (this) {
+                flushRequested = false;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                updates = pending;
+                pending = new LinkedHashMap<>();
+                pendingOperations = 0;
+            }
+            try {
+                write(updates);
+            } catch (RuntimeException e) {
+                requeue(updates);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        synchronized (this) {
+            return pending.isEmpty();
+        }
+    }
+
+    /**
+     * Stops the periodic flushes and writes the pending updates.
+     */
+    void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void append(JobUpdate update) {
+        boolean flushNow;
+        synchronized (this) {
+            JobUpdate jobUpdate = pending.get(update.jobId);
+            if (jobUpdate == null) {
+                pending.put(update.jobId, update);
+            } else {
+                jobUpdate.merge(update);
+            }
+            pendingOperations++;
+
+            flushNow = pendingOperations >= capacity;
+            if (!flushNow && pendingOperations >= flushOperations && !flushRequested) {
+                flushRequested = true;
+                try {
+                    flusher.execute(flushTask);
+                } catch (RejectedExecutionException e) {
+                    // closing, the pending updates are written by the final flush
+                    flushRequested = false;
+                }
+            }
+        }
+        if (flushNow) {
+            logger.debug("Database journal is full, flushing it from the appending thread");
+            flush();
+        }
+    }
+
+    private void requeue(LinkedHashMap<Long, JobUpdate> updates) {
+        synchronized (this) {
+            // the updates appended meanwhile are more recent than the failed ones
+            for (JobUpdate update : pending.values()) {
+                JobUpdate failedUpdate = updates.get(update.jobId);
+                if (failedUpdate == null) {
+                    updates.put(update.jobId, update);
+                } else {
+                    failedUpdate.merge(update);
+                }
+            }
+            pending = updates;
+            pendingOperations = 0;
+            for (JobUpdate update : updates.values()) {
+                pendingOperations += update.operations;
+            }
+        }
+    }
+
+    private void write(final Map<Long, JobUpdate> updates) {
+        try {
+            transactionHelper.executeReadWriteTransaction(new SessionWork<Void>() {
+                @Override
+                public Void doInTransaction(Session session) {
+                    for (JobUpdate update : updates.values()) {
+                        write(update, session);
+                    }
+                    return null;
+                }
+            });
+        } finally {
+            // the journaled updates change the statuses of jobs and tasks
+            for (JobUpdate update : updates.values()) {
+                dbManager.invalidateCounts(update.jobOwner);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Flushed database journal updates of " + updates.size() + " jobs");
+        }
+    }
+
+    private void write(JobUpdate update, Session session) {
+        if (!update.jobColumns.isEmpty()) {
+            Query jobUpdateQuery = session.createQuery(updateQuery("JobData", "job", update.jobColumns, "id = :jobId"));
+            setParameters(jobUpdateQuery, update.jobColumns).setParameter("jobId", update.jobId).executeUpdate();
+        }
+
+        if (update.taskStatusToPending) {
+            session.getNamedQuery("updateTaskDataStatusToPending")
+                   .setParameter("taskStatus", TaskStatus.PENDING)
+                   .setParameter("job", session.load(JobData.class, update.jobId))
+                   .executeUpdate();
+        }
+
+        for (Map.Entry<Long, Map<String, Object>> taskColumns : update.taskColumns.entrySet()) {
+            Query taskUpdateQuery = session.createQuery(updateQuery("TaskData",
+                                                                    "task",
+                                                                    taskColumns.getValue(),
+                                                                    "task.id = :taskId"));
+            setParameters(taskUpdateQuery, taskColumns.getValue()).setParameter("taskId",
+                                                                                taskId(update.jobId,
+                                                                                       taskColumns.getKey()))
+                                                                  .executeUpdate();
+        }
+
+        for (TaskResultUpdate result : update.results) {
+            dbManager.saveTaskResult(taskId(update.jobId, result.taskId), result.result, session);
+        }
+
+        if (update.removeRuntimeData) {
+            session.flush();
+            session.clear();
+
+            dbManager.removeJobRuntimeData(session, update.jobId);
+        }
+    }
+
+    private static String updateQuery(String entity, String alias, Map<String, Object> columns, String condition) {
+        StringBuilder query = new StringBuilder("update ").append(entity).append(' ').append(alias).append(" set ");
+        boolean first = true;
+        for (String column : columns.keySet()) {
+            if (!first) {
+                query.append(", ");
+            }
+            query.append(alias).append('.').append(column).append(" = :").append(column);
+            first = false;
+        }
+        return query.append(" where ").append(condition).toString();
+    }
+
+    private static Query setParameters(Query query, Map<String, Object> columns) {
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            query.setParameter(column.getKey(), column.getValue());
+        }
+        return query;
+    }
+
+    private static TaskData.DBTaskId taskId(long jobId, long taskId) {
+        TaskData.DBTaskId id = new TaskData.DBTaskId();
+        id.setJobId(jobId);
+        id.setTaskId(taskId);
+        return id;
+    }
+
+    /**
+     * Updates of a job and of its tasks, merged in the order they were appended.
+     */
+    private static class JobUpdate {
+
+        private final long jobId;
+
+        /** Null if none of the merged updates knew it */
+        private String jobOwner;
+
+        private final Map<String, Object> jobColumns = new LinkedHashMap<>();
+
+        /** Columns of each task by task id */
+        private final Map<Long, Map<String, Object>> taskColumns = new LinkedHashMap<>();
+
+        /** Set the status of all the tasks to pending, before the updates of the tasks */
+        private boolean taskStatusToPending;
+
+        private final List<TaskResultUpdate> results = new ArrayList<>(1);
+
+        private boolean removeRuntimeData;
+
+        private int operations = 1;
+
+        private JobUpdate(long jobId, String jobOwner) {
+            this.jobId = jobId;
+            this.jobOwner = jobOwner;
+        }
+
+        private Map<String, Object> taskColumns(long taskId) {
+            Map<String, Object> columns = taskColumns.get(taskId);
+            if (columns == null) {
+                columns = new LinkedHashMap<>();
+                taskColumns.put(taskId, columns);
+            }
+            return columns;
+        }
+
+        private void merge(JobUpdate later) {
+            if (jobOwner == null) {
+                jobOwner = later.jobOwner;
+            }
+            jobColumns.putAll(later.jobColumns);
+            if (later.taskStatusToPending) {
+                // overrides the status of the tasks updated before
+                for (Map<String, Object> columns : taskColumns.values()) {
+                    columns.remove("taskStatus");
+                }
+                taskStatusToPending = true;
+            }
+            for (Map.Entry<Long, Map<String, Object>> columns : later.taskColumns.entrySet()) {
+                taskColumns(columns.getKey()).putAll(columns.getValue());
+            }
+            results.addAll(later.results);
+            removeRuntimeData |= later.removeRuntimeData;
+            operations += later.operations;
+        }
+    }
+
+    private static class TaskResultUpdate {
+
+        private final long taskId;
+
+        private final TaskResultImpl result;
+
+        private TaskResultUpdate(long taskId, TaskResultImpl result) {
+            this.taskId = taskId;
+            this.result = result;
+        }
+    }
+}
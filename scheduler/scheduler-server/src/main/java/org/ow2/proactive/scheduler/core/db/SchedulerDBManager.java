@@ -41,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.hibernate.Criteria;
@@ -51,6 +52,9 @@ import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.criterion.Conjunction;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Disjunction;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Property;
 import org.hibernate.criterion.Restrictions;
@@ -60,6 +64,7 @@ import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.ow2.proactive.authentication.crypto.HybridEncryptionUtil.HybridEncryptedData;
 import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.db.SortOrder;
 import org.ow2.proactive.db.SortParameter;
 import org.ow2.proactive.db.TransactionHelper;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
@@ -100,6 +105,7 @@ import org.ow2.proactive.utils.FileToBytesConverter;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 
 
 @SuppressWarnings("JpaQueryApiInspection")
@@ -111,6 +117,11 @@ public class SchedulerDBManager {
 
     private static final Logger logger = Logger.getLogger(SchedulerDBManager.class);
 
+    /** Time during which a result content stored again is kept, even if no saved result references it yet */
+    private static final long RESULT_STORE_GRACE_PERIOD = TimeUnit.HOURS.toMillis(1);
+
+    private static final int RESULT_REFERENCES_BATCH_SIZE = 100;
+
     public static final Set<JobStatus> FINISHED_JOB_STATUSES = ImmutableSet.of(JobStatus.CANCELED,
                                                                                JobStatus.FAILED,
                                                                                JobStatus.KILLED,
@@ -149,6 +160,18 @@ public class SchedulerDBManager {
 
     private final TransactionHelper transactionHelper;
 
+    /** Write-behind journal of the task lifecycle updates, null when they are written synchronously */
+    private final SchedulerDBJournal journal;
+
+    /** Storage of the large task result contents outside of the database */
+    private final TaskResultStorage resultStorage;
+
+    /** Total numbers of jobs and tasks returned with the pages of jobs and tasks */
+    private final CountCache countCache;
+
+    /** Propagated variables of the last finished tasks, read by their children */
+    private final PropagatedVariablesCache propagatedVariablesCache;
+
     public static SchedulerDBManager createUsingProperties() {
         if (System.getProperty(JAVA_PROPERTYNAME_NODB) != null) {
             return createInMemorySchedulerDBManager();
@@ -202,11 +225,38 @@ public class SchedulerDBManager {
             configuration.setProperty("hibernate.jdbc.use_streams_for_binary", "true");
             configuration.setProperty("hibernate.connection.isolation", "2");
 
+            // job submission relies on JDBC batching to insert its tasks
+            if (configuration.getProperty("hibernate.jdbc.batch_size") == null) {
+                configuration.setProperty("hibernate.jdbc.batch_size", String.valueOf(getSubmissionBatchSize()));
+            }
+            configuration.setProperty("hibernate.order_inserts", "true");
+
             ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(configuration.getProperties())
                                                                                   .build();
             sessionFactory = configuration.buildSessionFactory(serviceRegistry);
             transactionHelper = new TransactionHelper(sessionFactory);
 
+            if (PASchedulerProperties.SCHEDULER_DB_JOURNAL_ENABLED.getValueAsBoolean()) {
+                journal = new SchedulerDBJournal(this,
+                                                 transactionHelper,
+                                                 PASchedulerProperties.SCHEDULER_DB_JOURNAL_FLUSH_PERIOD.getValueAsInt(),
+                                                 PASchedulerProperties.SCHEDULER_DB_JOURNAL_FLUSH_OPERATIONS.getValueAsInt(),
+                                                 PASchedulerProperties.SCHEDULER_DB_JOURNAL_CAPACITY.getValueAsInt());
+            } else {
+                journal = null;
+            }
+            int resultStoreThreshold = PASchedulerProperties.SCHEDULER_DB_RESULT_STORE_THRESHOLD.getValueAsInt();
+            if (resultStoreThreshold >= 0) {
+                String resultStorePath = PASchedulerProperties.SCHEDULER_DB_RESULT_STORE_DIR.getValueAsString();
+                File resultStoreDir = new File(PASchedulerProperties.getAbsolutePath(resultStorePath));
+                TaskResultStore resultStore = new FileTaskResultStore(resultStoreDir, RESULT_STORE_GRACE_PERIOD);
+                resultStorage = new TaskResultStorage(resultStore, resultStoreThreshold);
+            } else {
+                resultStorage = TaskResultStorage.DATABASE_ONLY;
+            }
+            int cacheSize = PASchedulerProperties.SCHEDULER_DB_PROPAGATED_VARIABLES_CACHE_SIZE.getValueAsInt();
+            propagatedVariablesCache = new PropagatedVariablesCache(cacheSize);
+            countCache = new CountCache(PASchedulerProperties.SCHEDULER_DB_COUNT_CACHE_TTL.getValueAsInt());
         } catch (Throwable ex) {
             logger.error("Initial SessionFactory creation failed", ex);
             throw new DatabaseManagerException("Initial SessionFactory creation failed", ex);
@@ -228,68 +278,204 @@ public class SchedulerDBManager {
                                                              finished,
                                                              sortParameters);
         int totalNbJobs = getTotalNumberOfJobs(params);
-        final Set<JobStatus> jobStatuses = params.getStatuses();
         List<JobInfo> lJobs = executeReadOnlyTransaction(new SessionWork<List<JobInfo>>() {
             @Override
             @SuppressWarnings("unchecked")
             public List<JobInfo> doInTransaction(Session session) {
-                Criteria criteria = session.createCriteria(JobData.class);
+                Criteria criteria = createJobsCriteria(session, params);
                 if (limit > 0) {
                     criteria.setMaxResults(limit);
                 }
                 if (offset >= 0) {
                     criteria.setFirstResult(offset);
                 }
-                if (user != null) {
-                    criteria.add(Restrictions.eq("owner", user));
-                }
-                boolean allJobs = pending && running && finished;
-                if (!allJobs) {
-                    criteria.add(Restrictions.in("status", jobStatuses));
-                }
-
-                criteria.add(Restrictions.eq("removedTime", -1L));
 
                 if (sortParameters != null) {
-                    Order sortOrder;
                     for (SortParameter<JobSortParameter> param : sortParameters) {
-                        switch (param.getParameter()) {
-                            case ID:
-                                sortOrder = configureSortOrder(param, Property.forName("id"));
-                                break;
-                            case NAME:
-                                sortOrder = configureSortOrder(param, Property.forName("jobName"));
-                                break;
-                            case OWNER:
-                                sortOrder = configureSortOrder(param, Property.forName("owner"));
-                                break;
-                            case PRIORITY:
-                                sortOrder = configureSortOrder(param, Property.forName("priority"));
-                                break;
-                            case STATE:
-                                sortOrder = new GroupByStatusSortOrder(param.getSortOrder(), "status");
-                                break;
-                            default:
-                                throw new IllegalArgumentException("Unsupported sort parameter: " +
-                                                                   param.getParameter());
-                        }
-                        criteria.addOrder(sortOrder);
+                        criteria.addOrder(toOrder(param));
                     }
                 }
 
-                List<JobData> jobsList = criteria.list();
-                List<JobInfo> result = new ArrayList<>(jobsList.size());
-                for (JobData jobData : jobsList) {
-                    JobInfo jobInfo = jobData.toJobInfo();
-                    result.add(jobInfo);
+                return toJobInfos(criteria.list());
+            }
+
+        });
+
+        return new Page<JobInfo>(lJobs, totalNbJobs);
+    }
+
+    /**
+     * Returns the jobs following a given job in the requested order. The position of the page is
+     * found by comparing the sorted columns with the ones of the given job instead of skipping an
+     * offset, so the last pages of a long history are as fast to read as the first one.
+     * <p>
+     * The jobs are sorted by id after the given sort parameters, if the id is not already one of
+     * them, so that each job has a unique position.
+     *
+     * @param afterJobId the last job of the previous page, null to get the first page
+     * @return the page of jobs, or null if the given job does not exist
+     */
+    public Page<JobInfo> getJobsAfter(final JobId afterJobId, final int limit, final String user,
+            final boolean pending, final boolean running, final boolean finished,
+            final List<SortParameter<JobSortParameter>> sortParameters) {
+
+        if (!pending && !running && !finished) {
+            return new Page<>(new ArrayList<JobInfo>(0), 0);
+        }
+
+        final DBJobDataParameters params = new DBJobDataParameters(-1,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished,
+                                                                   sortParameters);
+        final List<SortParameter<JobSortParameter>> keysetParameters = withIdSortParameter(sortParameters);
+        int totalNbJobs = getTotalNumberOfJobs(params);
+        List<JobInfo> lJobs = executeReadOnlyTransaction(new SessionWork<List<JobInfo>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<JobInfo> doInTransaction(Session session) {
+                Criteria criteria = createJobsCriteria(session, params);
+                if (limit > 0) {
+                    criteria.setMaxResults(limit);
                 }
 
-                return result;
+                if (afterJobId != null) {
+                    JobData afterJob = session.get(JobData.class, jobId(afterJobId));
+                    if (afterJob == null) {
+                        return null;
+                    }
+                    criteria.add(sortedAfter(afterJob, keysetParameters));
+                }
+
+                for (SortParameter<JobSortParameter> param : keysetParameters) {
+                    criteria.addOrder(toOrder(param));
+                }
+
+                return toJobInfos(criteria.list());
             }
 
         });
 
-        return new Page<JobInfo>(lJobs, totalNbJobs);
+        if (lJobs == null) {
+            return null;
+        }
+        return new Page<>(lJobs, totalNbJobs);
+    }
+
+    private static Criteria createJobsCriteria(Session session, DBJobDataParameters params) {
+        Criteria criteria = session.createCriteria(JobData.class);
+        if (params.getUser() != null) {
+            criteria.add(Restrictions.eq("owner", params.getUser()));
+        }
+        if (!params.isAllJobs()) {
+            criteria.add(Restrictions.in("status", params.getStatuses()));
+        }
+
+        criteria.add(Restrictions.eq("removedTime", -1L));
+        return criteria;
+    }
+
+    private static List<JobInfo> toJobInfos(List<JobData> jobsList) {
+        List<JobInfo> result = new ArrayList<>(jobsList.size());
+        for (JobData jobData : jobsList) {
+            JobInfo jobInfo = jobData.toJobInfo();
+            result.add(jobInfo);
+        }
+        return result;
+    }
+
+    private Order toOrder(SortParameter<JobSortParameter> param) {
+        switch (param.getParameter()) {
+            case ID:
+                return configureSortOrder(param, Property.forName("id"));
+            case NAME:
+                return configureSortOrder(param, Property.forName("jobName"));
+            case OWNER:
+                return configureSortOrder(param, Property.forName("owner"));
+            case PRIORITY:
+                return configureSortOrder(param, Property.forName("priority"));
+            case STATE:
+                return new GroupByStatusSortOrder(param.getSortOrder(), "status");
+            default:
+                throw new IllegalArgumentException("Unsupported sort parameter: " + param.getParameter());
+        }
+    }
+
+    private static List<SortParameter<JobSortParameter>> withIdSortParameter(
+            List<SortParameter<JobSortParameter>> sortParameters) {
+        List<SortParameter<JobSortParameter>> keysetParameters = new ArrayList<>();
+        if (sortParameters != null) {
+            for (SortParameter<JobSortParameter> param : sortParameters) {
+                keysetParameters.add(param);
+                if (param.getParameter() == JobSortParameter.ID) {
+                    return keysetParameters;
+                }
+            }
+        }
+        keysetParameters.add(new SortParameter<>(JobSortParameter.ID, SortOrder.ASC));
+        return keysetParameters;
+    }
+
+    /**
+     * Restricts the jobs to the ones sorted after the given job: a job is after it if its first
+     * sorted column is after, or if it is equal and its second sorted column is after, and so on.
+     */
+    private static Criterion sortedAfter(JobData afterJob, List<SortParameter<JobSortParameter>> sortParameters) {
+        Disjunction sortedAfter = Restrictions.disjunction();
+        List<Criterion> previousColumnsEqual = new ArrayList<>(sortParameters.size());
+        for (SortParameter<JobSortParameter> param : sortParameters) {
+            boolean ascending = param.getSortOrder().isAscending();
+            Criterion columnAfter;
+            Criterion columnEqual;
+            switch (param.getParameter()) {
+                case ID:
+                    columnAfter = propertyAfter("id", afterJob.getId(), ascending);
+                    columnEqual = Restrictions.eq("id", afterJob.getId());
+                    break;
+                case NAME:
+                    columnAfter = propertyAfter("jobName", afterJob.getJobName(), ascending);
+                    columnEqual = Restrictions.eq("jobName", afterJob.getJobName());
+                    break;
+                case OWNER:
+                    columnAfter = propertyAfter("owner", afterJob.getOwner(), ascending);
+                    columnEqual = Restrictions.eq("owner", afterJob.getOwner());
+                    break;
+                case PRIORITY:
+                    columnAfter = propertyAfter("priority", afterJob.getPriority(), ascending);
+                    columnEqual = Restrictions.eq("priority", afterJob.getPriority());
+                    break;
+                case STATE:
+                    Set<JobStatus> statusesAfter = GroupByStatusSortOrder.statusesAfter(afterJob.getStatus(),
+                                                                                        ascending);
+                    columnAfter = statusesAfter.isEmpty() ? null : Restrictions.in("status", statusesAfter);
+                    columnEqual = Restrictions.in("status",
+                                                  GroupByStatusSortOrder.statusesInGroupOf(afterJob.getStatus()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported sort parameter: " + param.getParameter());
+            }
+
+            if (columnAfter != null) {
+                Conjunction jobAfter = Restrictions.conjunction();
+                for (Criterion previousColumnEqual : previousColumnsEqual) {
+                    jobAfter.add(previousColumnEqual);
+                }
+                jobAfter.add(columnAfter);
+                sortedAfter.add(jobAfter);
+            }
+            previousColumnsEqual.add(columnEqual);
+        }
+        return sortedAfter;
+    }
+
+    private static Criterion propertyAfter(String propertyName, Object value, boolean ascending) {
+        if (ascending) {
+            return Restrictions.gt(propertyName, value);
+        } else {
+            return Restrictions.lt(propertyName, value);
+        }
     }
 
     public Page<TaskState> getTaskStates(final long from, final long to, final String tag, final int offset,
@@ -331,13 +517,102 @@ public class SchedulerDBManager {
         return new Page<>(lTaskInfo, totalNbTasks);
     }
 
-    private int getTotalNumberOfTasks(final DBTaskDataParameters params) {
+    /**
+     * Returns the tasks following a given task in the requested order. The position of the page is
+     * found by comparing the sorted columns with the ones of the given task instead of skipping an
+     * offset, so the last pages are as fast to read as the first one.
+     * <p>
+     * The tasks are sorted by job id and task id after the given sort parameters, if they are not
+     * already part of them, so that each task has a unique position.
+     *
+     * @param afterTaskId the last task of the previous page, null to get the first page
+     * @return the page of tasks, or null if the given task does not exist
+     */
+    public Page<TaskState> getTaskStatesAfter(final TaskId afterTaskId, final long from, final long to,
+            final String tag, final int limit, final String user, final boolean pending, final boolean running,
+            final boolean finished, SortSpecifierContainer sortParams) {
+
+        DBTaskDataParameters parameters = new DBTaskDataParameters(tag,
+                                                                   from,
+                                                                   to,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished,
+                                                                   sortParams,
+                                                                   afterTaskId == null ? null : taskId(afterTaskId));
+        int totalNbTasks = getTotalNumberOfTasks(parameters);
+        List<TaskState> lTasks = executeReadOnlyTransaction(TaskDBUtils.taskStateSessionWork(parameters));
+
+        if (lTasks == null) {
+            return null;
+        }
+        return new Page<>(lTasks, totalNbTasks);
+    }
 
-        return executeReadOnlyTransaction(TaskDBUtils.getTotalNumberOfTasks(params));
+    /**
+     * Returns the tasks following a given task, sorted by job id and task id.
+     *
+     * @param afterTaskId the last task of the previous page, null to get the first page
+     * @return the page of tasks, or null if the given task does not exist
+     * @see #getTaskStatesAfter
+     */
+    public Page<TaskInfo> getTasksAfter(final TaskId afterTaskId, final long from, final long to, final String tag,
+            final int limit, final String user, final boolean pending, final boolean running,
+            final boolean finished) {
+
+        DBTaskDataParameters parameters = new DBTaskDataParameters(tag,
+                                                                   from,
+                                                                   to,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished,
+                                                                   SortSpecifierContainer.EMPTY_CONTAINER,
+                                                                   afterTaskId == null ? null : taskId(afterTaskId));
+        int totalNbTasks = getTotalNumberOfTasks(parameters);
+        List<TaskInfo> lTaskInfo = executeReadOnlyTransaction(TaskDBUtils.taskInfoSessionWork(parameters));
+
+        if (lTaskInfo == null) {
+            return null;
+        }
+        return new Page<>(lTaskInfo, totalNbTasks);
+    }
+
+    private int getTotalNumberOfTasks(final DBTaskDataParameters params) {
+        List<?> countKey = Arrays.asList("tasks",
+                                         params.getUser(),
+                                         params.getTag(),
+                                         params.getFrom(),
+                                         params.getTo(),
+                                         params.getStatuses());
+        Integer cachedCount = countCache.get(params.getUser(), countKey);
+        if (cachedCount != null) {
+            return cachedCount;
+        }
 
+        long version = countCache.getVersion(params.getUser());
+        int count = executeReadOnlyTransaction(TaskDBUtils.getTotalNumberOfTasks(params));
+        countCache.put(params.getUser(), countKey, count, version);
+        return count;
     }
 
     private int getTotalNumberOfJobs(final DBJobDataParameters params) {
+        List<?> countKey = Arrays.asList("jobs", params.getUser(), params.getStatuses());
+        Integer cachedCount = countCache.get(params.getUser(), countKey);
+        if (cachedCount != null) {
+            return cachedCount;
+        }
+
+        long version = countCache.getVersion(params.getUser());
+        int count = countJobs(params);
+        countCache.put(params.getUser(), countKey, count, version);
+        return count;
+    }
+
+    private int countJobs(final DBJobDataParameters params) {
 
         return executeReadOnlyTransaction(new SessionWork<Integer>() {
 
@@ -417,6 +692,13 @@ public class SchedulerDBManager {
     }
 
     public void close() {
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (Exception e) {
+            logger.error("Error while flushing database journal", e);
+        }
         try {
             if (sessionFactory != null) {
                 logger.info("Closing session factory");
@@ -725,7 +1007,7 @@ public class SchedulerDBManager {
         session.getNamedQuery("deleteSelectionScriptData").setParameter("jobId", jobId).executeUpdate();
     }
 
-    private void removeJobRuntimeData(Session session, long jobId) {
+    void removeJobRuntimeData(Session session, long jobId) {
         removeJobScripts(session, jobId);
 
         session.getNamedQuery("deleteEnvironmentModifierData").setParameter("jobId", jobId).executeUpdate();
@@ -772,10 +1054,20 @@ public class SchedulerDBManager {
     }
 
     public void executeHousekeepingInDB(final List<Long> jobIdList, final boolean shouldRemoveFromDb) {
+        Set<String> resultReferences = Collections.emptySet();
+        if (shouldRemoveFromDb) {
+            resultReferences = loadResultReferences(jobIdList);
+        }
         executeReadWriteTransaction(new HousekeepingSessionWork(jobIdList, shouldRemoveFromDb));
+        removeUnreferencedResultContents(resultReferences);
     }
 
     public void removeJob(final JobId jobId, final long removedTime, final boolean removeData) {
+        propagatedVariablesCache.removeJob(jobId.longValue());
+        Set<String> resultReferences = Collections.emptySet();
+        if (removeData) {
+            resultReferences = loadResultReferences(Collections.singletonList(jobId.longValue()));
+        }
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
@@ -806,6 +1098,78 @@ public class SchedulerDBManager {
             }
 
         });
+        removeUnreferencedResultContents(resultReferences);
+    }
+
+    /**
+     * Returns the references of the result contents of the given jobs which are in the result store.
+     */
+    private Set<String> loadResultReferences(final List<Long> jobIds) {
+        if (!resultStorage.isEnabled() || jobIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return executeReadOnlyTransaction(new SessionWork<Set<String>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Set<String> doInTransaction(Session session) {
+                Set<String> references = new HashSet<>();
+                for (List<Long> jobIdsSubList : Lists.partition(jobIds, RESULT_REFERENCES_BATCH_SIZE)) {
+                    List<Object[]> rows = session.getNamedQuery("loadTaskResultReferencesInBulk")
+                                                 .setParameterList("jobIdList", jobIdsSubList)
+                                                 .list();
+                    addResultReferences(rows, references);
+                }
+                return references;
+            }
+        });
+    }
+
+    /**
+     * Removes from the result store every content which is not referenced by a task result anymore,
+     * including the contents kept when their jobs were removed because they were stored again
+     * recently, or which were stored by results that were never saved.
+     */
+    public void removeOrphanedResultContents() {
+        if (resultStorage.isEnabled()) {
+            removeUnreferencedResultContents(new HashSet<>(resultStorage.listRemovable()));
+        }
+    }
+
+    /**
+     * Removes from the result store the given contents which are not referenced by a task result anymore.
+     */
+    private void removeUnreferencedResultContents(final Set<String> references) {
+        if (references.isEmpty()) {
+            return;
+        }
+        Set<String> referenced = executeReadOnlyTransaction(new SessionWork<Set<String>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Set<String> doInTransaction(Session session) {
+                Set<String> referenced = new HashSet<>();
+                for (List<String> referencesSubList : Lists.partition(new ArrayList<>(references),
+                                                                      RESULT_REFERENCES_BATCH_SIZE)) {
+                    List<Object[]> rows = session.getNamedQuery("loadReferencedTaskResultContents")
+                                                 .setParameterList("references", referencesSubList)
+                                                 .list();
+                    addResultReferences(rows, referenced);
+                }
+                return referenced;
+            }
+        });
+        Set<String> unreferenced = new HashSet<>(references);
+        unreferenced.removeAll(referenced);
+        resultStorage.remove(unreferenced);
+    }
+
+    private static void addResultReferences(List<Object[]> rows, Set<String> references) {
+        for (Object[] row : rows) {
+            for (Object reference : row) {
+                if (reference != null) {
+                    references.add((String) reference);
+                }
+            }
+        }
     }
 
     public List<InternalJob> loadNotFinishedJobs(boolean fullState) {
@@ -1009,7 +1373,7 @@ public class SchedulerDBManager {
     }
 
     public void changeJobPriority(final JobId jobId, final JobPriority priority) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeReadWriteTransactionKeepingCounts(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long id = jobId(jobId);
@@ -1024,7 +1388,11 @@ public class SchedulerDBManager {
     }
 
     public void jobTaskStarted(final InternalJob job, final InternalTask task, final boolean taskStatusToPending) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        if (journal != null) {
+            journal.taskStarted(job, task, taskStatusToPending);
+            return;
+        }
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1070,7 +1438,7 @@ public class SchedulerDBManager {
     }
 
     public void taskRestarted(final InternalJob job, final InternalTask task, final TaskResultImpl result) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1112,7 +1480,7 @@ public class SchedulerDBManager {
     @SuppressWarnings("unchecked")
     public void updateAfterWorkflowTaskFinished(final InternalJob job, final ChangedTasksInfo changesInfo,
             final TaskResultImpl result) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1197,7 +1565,7 @@ public class SchedulerDBManager {
     }
 
     public void updateJobAndTasksState(final InternalJob job) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
 
@@ -1224,12 +1592,26 @@ public class SchedulerDBManager {
     }
 
     public void updateTaskSchedulingTime(final InternalJob job, final long scheduledTime) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        if (journal != null) {
+            for (TaskState task : job.getTasks()) {
+                journal.taskTimeUpdated(job.getId().longValue(),
+                                        job.getOwner(),
+                                        task.getId().longValue(),
+                                        "scheduledTime",
+                                        scheduledTime);
+            }
+            return;
+        }
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
 
                 for (TaskState task : job.getTasks()) {
-                    updateScheduledTime(job.getId().longValue(), task.getId().longValue(), scheduledTime);
+                    updateTaskTime(session,
+                                   job.getId().longValue(),
+                                   task.getId().longValue(),
+                                   "scheduledTime",
+                                   scheduledTime);
                 }
 
                 return null;
@@ -1279,23 +1661,29 @@ public class SchedulerDBManager {
 
     private void updateStartOrEndOrScheduledTime(final long jobId, final long taskId, final String fieldName,
             final long time) {
+        if (journal != null) {
+            journal.taskTimeUpdated(jobId, null, taskId, fieldName, time);
+            return;
+        }
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
-
-                Query query = session.createQuery("update TaskData task set task." + fieldName + " = :newTime " + // NOSONAR
-                                                  "where task.id.jobId = :jobId and task.id.taskId= :taskId")
-                                     .setParameter("newTime", time)
-                                     .setParameter("jobId", jobId)
-                                     .setParameter("taskId", taskId);
-
-                query.executeUpdate();
-
+                updateTaskTime(session, jobId, taskId, fieldName, time);
                 return null;
             }
         });
     }
 
+    private static void updateTaskTime(Session session, long jobId, long taskId, String fieldName, long time) {
+        Query query = session.createQuery("update TaskData task set task." + fieldName + " = :newTime " + // NOSONAR
+                                          "where task.id.jobId = :jobId and task.id.taskId= :taskId")
+                             .setParameter("newTime", time)
+                             .setParameter("jobId", jobId)
+                             .setParameter("taskId", taskId);
+
+        query.executeUpdate();
+    }
+
     public void updateAfterTaskFinished(final InternalJob job, final InternalTask finishedTask,
             final TaskResultImpl result) {
         updateAfterTaskFinished(job, finishedTask, result, new HashSet<TaskId>(1));
@@ -1303,25 +1691,25 @@ public class SchedulerDBManager {
 
     private void updateAfterTaskFinished(final InternalJob job, final InternalTask finishedTask,
             final TaskResultImpl result, final Set<TaskId> tasksToUpdate) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
+            propagatedVariablesCache.removeJob(job.getId().longValue());
+        } else if (result != null) {
+            propagatedVariablesCache.put(finishedTask.getId(), result.getPropagatedVariables());
+        }
+        if (journal != null) {
+            journal.taskFinished(job,
+                                 finishedTask,
+                                 result,
+                                 tasksToUpdate,
+                                 FINISHED_JOB_STATUSES.contains(job.getStatus()));
+            return;
+        }
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
 
-                JobInfo jobInfo = job.getJobInfo();
-
-                session.getNamedQuery("updateJobDataAfterTaskFinished")
-                       .setParameter("status", jobInfo.getStatus())
-                       .setParameter("finishedTime", jobInfo.getFinishedTime())
-                       .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
-                       .setParameter("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks())
-                       .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
-                       .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
-                       .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
-                       .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
-                       .setParameter("lastUpdatedTime", new Date().getTime())
-                       .setParameter("jobId", jobId)
-                       .executeUpdate();
+                updateJobDataAfterTaskFinished(session, job);
 
                 Query taskUpdateQuery = session.getNamedQuery("updateTaskDataAfterJobFinished");
 
@@ -1330,19 +1718,7 @@ public class SchedulerDBManager {
                 }
 
                 for (TaskId id : tasksToUpdate) {
-                    InternalTask task = job.getIHMTasks().get(id);
-                    TaskData.DBTaskId taskId = taskId(task.getId());
-
-                    TaskInfo taskInfo = task.getTaskInfo();
-
-                    taskUpdateQuery.setParameter("taskStatus", taskInfo.getStatus())
-                                   .setParameter("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft())
-                                   .setParameter("numberOfExecutionOnFailureLeft",
-                                                 taskInfo.getNumberOfExecutionOnFailureLeft())
-                                   .setParameter("finishedTime", taskInfo.getFinishedTime())
-                                   .setParameter("executionDuration", taskInfo.getExecutionDuration())
-                                   .setParameter("taskId", taskId)
-                                   .executeUpdate();
+                    updateTaskDataAfterTaskFinished(taskUpdateQuery, job.getIHMTasks().get(id));
                 }
 
                 if (result != null) {
@@ -1363,10 +1739,105 @@ public class SchedulerDBManager {
         });
     }
 
-    private TaskResultData saveTaskResult(TaskData.DBTaskId taskId, TaskResultImpl result, Session session) {
+    /**
+     * Saves several tasks of a job which finished normally, and their results, in one transaction.
+     * The job is written once, with its state after the last of these tasks.
+     *
+     * @param job the job of the finished tasks
+     * @param finishedTasks the finished tasks and their results, in termination order
+     */
+    public void updateAfterTasksFinished(final InternalJob job, final Map<InternalTask, TaskResultImpl> finishedTasks) {
+        if (finishedTasks.size() == 1) {
+            Map.Entry<InternalTask, TaskResultImpl> finishedTask = finishedTasks.entrySet().iterator().next();
+            updateAfterTaskFinished(job, finishedTask.getKey(), finishedTask.getValue());
+            return;
+        }
+        final boolean jobFinished = FINISHED_JOB_STATUSES.contains(job.getStatus());
+        if (jobFinished) {
+            propagatedVariablesCache.removeJob(job.getId().longValue());
+        } else {
+            for (Map.Entry<InternalTask, TaskResultImpl> finishedTask : finishedTasks.entrySet()) {
+                propagatedVariablesCache.put(finishedTask.getKey().getId(),
+                                             finishedTask.getValue().getPropagatedVariables());
+            }
+        }
+        if (journal != null) {
+            int remaining = finishedTasks.size();
+            for (Map.Entry<InternalTask, TaskResultImpl> finishedTask : finishedTasks.entrySet()) {
+                journal.taskFinished(job,
+                                     finishedTask.getKey(),
+                                     finishedTask.getValue(),
+                                     new HashSet<TaskId>(1),
+                                     jobFinished && --remaining == 0);
+            }
+            return;
+        }
+        executeReadWriteTransaction(job, new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                long jobId = jobId(job);
+
+                updateJobDataAfterTaskFinished(session, job);
+
+                Query taskUpdateQuery = session.getNamedQuery("updateTaskDataAfterJobFinished");
+
+                int counter = 0;
+                for (Map.Entry<InternalTask, TaskResultImpl> finishedTask : finishedTasks.entrySet()) {
+                    updateTaskDataAfterTaskFinished(taskUpdateQuery, finishedTask.getKey());
+                    saveTaskResult(taskId(finishedTask.getKey()), finishedTask.getValue(), session);
+                    if (++counter % 50 == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+
+                if (jobFinished) {
+                    session.flush();
+                    session.clear();
+
+                    removeJobRuntimeData(session, jobId);
+                }
+
+                return null;
+            }
+
+        });
+    }
+
+    private static void updateJobDataAfterTaskFinished(Session session, InternalJob job) {
+        JobInfo jobInfo = job.getJobInfo();
+
+        session.getNamedQuery("updateJobDataAfterTaskFinished")
+               .setParameter("status", jobInfo.getStatus())
+               .setParameter("finishedTime", jobInfo.getFinishedTime())
+               .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
+               .setParameter("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks())
+               .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
+               .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
+               .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
+               .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
+               .setParameter("lastUpdatedTime", new Date().getTime())
+               .setParameter("jobId", jobId(job))
+               .executeUpdate();
+    }
+
+    private static void updateTaskDataAfterTaskFinished(Query taskUpdateQuery, InternalTask task) {
+        TaskInfo taskInfo = task.getTaskInfo();
+
+        taskUpdateQuery.setParameter("taskStatus", taskInfo.getStatus())
+                       .setParameter("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft())
+                       .setParameter("numberOfExecutionOnFailureLeft", taskInfo.getNumberOfExecutionOnFailureLeft())
+                       .setParameter("finishedTime", taskInfo.getFinishedTime())
+                       .setParameter("executionDuration", taskInfo.getExecutionDuration())
+                       .setParameter("taskId", taskId(task))
+                       .executeUpdate();
+    }
+
+    TaskResultData saveTaskResult(TaskData.DBTaskId taskId, TaskResultImpl result, Session session) {
         TaskData taskRuntimeData = session.load(TaskData.class, taskId);
 
         TaskResultData resultData = TaskResultData.createTaskResultData(taskRuntimeData, result);
+        resultStorage.externalize(resultData);
         session.save(resultData);
 
         return resultData;
@@ -1389,10 +1860,68 @@ public class SchedulerDBManager {
         });
     }
 
+    /**
+     * Loads the propagated variables of the last result of the given tasks, without the result
+     * values and logs. The variables of recently finished tasks are served from memory.
+     *
+     * @return the serialized propagated variables by task, null for a task which propagated none
+     */
+    public Map<TaskId, Map<String, byte[]>> loadTasksPropagatedVariables(final JobId jobId,
+            final List<TaskId> taskIds) {
+        if (taskIds.isEmpty()) {
+            throw new IllegalArgumentException("TaskIds list is empty");
+        }
+
+        final Map<TaskId, Map<String, byte[]>> propagatedVariables = propagatedVariablesCache.get(jobId, taskIds);
+        if (propagatedVariables.size() == taskIds.size()) {
+            return propagatedVariables;
+        }
+
+        final Map<Long, TaskId> missingTaskIds = new HashMap<>(taskIds.size());
+        for (TaskId taskId : taskIds) {
+            if (!propagatedVariables.containsKey(taskId)) {
+                missingTaskIds.put(taskId.longValue(), taskId);
+            }
+        }
+        flushJournal();
+
+        return executeReadOnlyTransaction(new SessionWork<Map<TaskId, Map<String, byte[]>>>() {
+
+            @Override
+            public Map<TaskId, Map<String, byte[]>> doInTransaction(Session session) {
+                List<TaskData.DBTaskId> dbTaskIds = new ArrayList<>(missingTaskIds.size());
+                for (TaskId taskId : missingTaskIds.values()) {
+                    dbTaskIds.add(taskId(taskId));
+                }
+
+                List<Object[]> rows = session.getNamedQuery("loadTasksPropagatedVariables")
+                                             .setParameterList("tasksIds", dbTaskIds)
+                                             .list();
+
+                // the rows are ordered by task then by descending result time, the first one is the last result
+                for (Object[] row : rows) {
+                    TaskId taskId = missingTaskIds.remove(((TaskData.DBTaskId) row[0]).getTaskId());
+                    if (taskId != null) {
+                        propagatedVariables.put(taskId, (Map<String, byte[]>) row[1]);
+                    }
+                }
+
+                if (!missingTaskIds.isEmpty()) {
+                    throw new DatabaseManagerException("Failed to load result for tasks " + missingTaskIds.values() +
+                                                       " (job: " + jobId + ")");
+                }
+
+                return propagatedVariables;
+            }
+
+        });
+    }
+
     public Map<TaskId, TaskResult> loadTasksResults(final JobId jobId, final List<TaskId> taskIds) {
         if (taskIds.isEmpty()) {
             throw new IllegalArgumentException("TaskIds list is empty");
         }
+        flushJournal();
 
         return executeReadOnlyTransaction(new SessionWork<Map<TaskId, TaskResult>>() {
 
@@ -1447,6 +1976,7 @@ public class SchedulerDBManager {
     }
 
     public JobResult loadJobResult(final JobId jobId) {
+        flushJournal();
         return executeReadOnlyTransaction(new SessionWork<JobResult>() {
 
             @Override
@@ -1490,7 +2020,7 @@ public class SchedulerDBManager {
             boolean nextTask = !dbTaskId.equals(currentTaskId);
             if (nextTask) {
                 TaskId taskId = TaskIdImpl.createTaskId(jobId, taskName, dbTaskId.getTaskId());
-                jobResult.addTaskResult(taskName, resultData.toTaskResult(taskId), preciousResult);
+                jobResult.addTaskResult(taskName, resultData.toTaskResult(taskId, resultStorage), preciousResult);
                 currentTaskId = dbTaskId;
             }
 
@@ -1507,6 +2037,7 @@ public class SchedulerDBManager {
     }
 
     public TaskResult loadTaskResult(final JobId jobId, final String taskName, final int index) {
+        flushJournal();
         return executeReadOnlyTransaction(new SessionWork<TaskResult>() {
 
             @Override
@@ -1534,6 +2065,7 @@ public class SchedulerDBManager {
     }
 
     public TaskResult loadTaskResult(final TaskId taskId, final int index) {
+        flushJournal();
         return executeReadOnlyTransaction(new SessionWork<TaskResult>() {
             @Override
             public TaskResult doInTransaction(Session session) {
@@ -1556,12 +2088,13 @@ public class SchedulerDBManager {
         if (results.isEmpty()) {
             return null;
         } else {
-            return results.get(0).toTaskResult(taskId);
+            return results.get(0).toTaskResult(taskId, resultStorage);
         }
     }
 
     public void newJobSubmitted(final InternalJob job) {
-        executeReadWriteTransaction(new SessionWork<JobData>() {
+        long start = System.currentTimeMillis();
+        executeReadWriteTransaction(job, new SessionWork<JobData>() {
 
             @Override
             public JobData doInTransaction(Session session) {
@@ -1588,32 +2121,59 @@ public class SchedulerDBManager {
                     job.getIHMTasks().put(task.getId(), task);
                 }
 
+                // tasks are inserted by JDBC batches and evicted from the session once written, their
+                // dependencies only reference preallocated ids and can be saved along with them
                 List<InternalTask> tasks = job.getITasks();
-                List<TaskData> taskRuntimeDataList = new ArrayList<>(tasks.size());
+                List<InternalTask> tasksWithIfBranch = new ArrayList<>();
+                int batchSize = getSubmissionBatchSize();
+                int counter = 0;
                 for (InternalTask task : tasks) {
-                    taskRuntimeDataList.add(saveNewTask(session, jobRuntimeData, task));
+                    TaskData taskRuntimeData = createTaskData(jobRuntimeData, task);
+                    setTaskDependencies(task, taskRuntimeData);
+                    session.save(taskRuntimeData);
+                    if (task.getIfBranch() != null) {
+                        tasksWithIfBranch.add(task);
+                    }
+                    if (++counter % batchSize == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+
+                // an if branch is a foreign key to a task which may come later in the job
+                if (!tasksWithIfBranch.isEmpty()) {
+                    session.flush();
+                    for (InternalTask task : tasksWithIfBranch) {
+                        TaskData taskRuntimeData = getTaskReference(session, task);
+                        taskRuntimeData.setIfBranch(getTaskReference(session, task.getIfBranch()));
+                    }
                 }
-                saveTaskDependencies(session, tasks, taskRuntimeDataList);
 
                 return jobRuntimeData;
             }
 
         });
+        if (logger.isDebugEnabled()) {
+            logger.debug("Job " + job.getId() + " with " + job.getITasks().size() + " tasks saved in " +
+                         (System.currentTimeMillis() - start) + " ms");
+        }
     }
 
     private TaskData getTaskReference(Session session, InternalTask task) {
         return session.get(TaskData.class, taskId(task));
     }
 
-    private void saveTaskDependencies(Session session, List<InternalTask> tasks, List<TaskData> taskRuntimeDataList) {
-        for (int i = 0; i < tasks.size(); i++) {
-            InternalTask task = tasks.get(i);
-            TaskData taskRuntimeData = taskRuntimeDataList.get(i);
-            saveSingleTaskDependencies(session, task, taskRuntimeData);
+    private void saveSingleTaskDependencies(Session session, InternalTask task, TaskData taskRuntimeData) {
+        setTaskDependencies(task, taskRuntimeData);
+        if (task.getIfBranch() != null) {
+            InternalTask ifBranch = task.getIfBranch();
+            taskRuntimeData.setIfBranch(getTaskReference(session, ifBranch));
+        } else {
+            taskRuntimeData.setIfBranch(null);
         }
     }
 
-    private void saveSingleTaskDependencies(Session session, InternalTask task, TaskData taskRuntimeData) {
+    private void setTaskDependencies(InternalTask task, TaskData taskRuntimeData) {
         if (task.hasDependences()) {
             List<DBTaskId> dependencies = new ArrayList<>(task.getDependences().size());
             for (Task dependency : task.getDependences()) {
@@ -1623,12 +2183,6 @@ public class SchedulerDBManager {
         } else {
             taskRuntimeData.setDependentTasks(Collections.<DBTaskId> emptyList());
         }
-        if (task.getIfBranch() != null) {
-            InternalTask ifBranch = task.getIfBranch();
-            taskRuntimeData.setIfBranch(getTaskReference(session, ifBranch));
-        } else {
-            taskRuntimeData.setIfBranch(null);
-        }
         if (task.getJoinedBranches() != null && !task.getJoinedBranches().isEmpty()) {
             List<DBTaskId> joinedBranches = new ArrayList<>(task.getJoinedBranches().size());
             for (InternalTask joinedBranch : task.getJoinedBranches()) {
@@ -1641,11 +2195,15 @@ public class SchedulerDBManager {
     }
 
     private TaskData saveNewTask(Session session, JobData jobRuntimeData, InternalTask task) {
+        TaskData taskRuntimeData = createTaskData(jobRuntimeData, task);
+        session.save(taskRuntimeData);
+        return taskRuntimeData;
+    }
+
+    private TaskData createTaskData(JobData jobRuntimeData, InternalTask task) {
         // TODO: use double dispatch to prevent branching
         if (isScriptTask(task)) {
-            TaskData taskRuntimeData = TaskData.createTaskData(jobRuntimeData, (InternalScriptTask) task);
-            session.save(taskRuntimeData);
-            return taskRuntimeData;
+            return TaskData.createTaskData(jobRuntimeData, (InternalScriptTask) task);
         } else {
             throw new IllegalArgumentException("Unexpected task class: " + task.getClass());
         }
@@ -1715,11 +2273,76 @@ public class SchedulerDBManager {
     }
 
     public <T> T executeReadWriteTransaction(SessionWork<T> sessionWork) {
-        return transactionHelper.executeReadWriteTransaction(sessionWork);
+        flushJournal();
+        try {
+            return transactionHelper.executeReadWriteTransaction(sessionWork);
+        } finally {
+            invalidateCounts();
+        }
     }
 
     public <T> T executeReadWriteTransaction(SessionWork<T> sessionWork, boolean readOnlyEntities) {
-        return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        flushJournal();
+        try {
+            return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        } finally {
+            invalidateCounts();
+        }
+    }
+
+    /**
+     * Executes a write to the jobs and tasks of the given job owner only, keeping the cached numbers
+     * of jobs and tasks of the other owners.
+     */
+    private <T> T executeReadWriteTransaction(InternalJob job, SessionWork<T> sessionWork) {
+        return executeReadWriteTransaction(job, sessionWork, true);
+    }
+
+    private <T> T executeReadWriteTransaction(InternalJob job, SessionWork<T> sessionWork,
+            boolean readOnlyEntities) {
+        flushJournal();
+        try {
+            return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        } finally {
+            invalidateCounts(job.getOwner());
+        }
+    }
+
+    /**
+     * Executes a write which cannot change the numbers of jobs and tasks, e.g. of job priorities or
+     * of credentials.
+     */
+    private <T> T executeReadWriteTransactionKeepingCounts(SessionWork<T> sessionWork) {
+        flushJournal();
+        return transactionHelper.executeReadWriteTransaction(sessionWork);
+    }
+
+    /**
+     * Invalidates the cached numbers of jobs and tasks after a write which may have submitted,
+     * removed or changed the status of any job and task.
+     */
+    void invalidateCounts() {
+        countCache.invalidate();
+    }
+
+    /**
+     * Invalidates the cached numbers of jobs and tasks which may include the jobs and tasks of the
+     * given owner, after a write to them.
+     *
+     * @param jobOwner the owner of the written jobs and tasks, null if it is unknown
+     */
+    void invalidateCounts(String jobOwner) {
+        countCache.invalidate(jobOwner);
+    }
+
+    /**
+     * Writes the journaled updates before a transaction which could modify the same rows
+     * or read the task results.
+     */
+    private void flushJournal() {
+        if (journal != null && !journal.isEmpty()) {
+            journal.flush();
+        }
     }
 
     public <T> T executeReadOnlyTransaction(SessionWork<T> sessionWork) {
@@ -1745,6 +2368,13 @@ public class SchedulerDBManager {
         return jobId.longValue();
     }
 
+    /**
+     * Reads the number of tasks inserted per JDBC batch at job submission, at least 1.
+     */
+    private static int getSubmissionBatchSize() {
+        return Math.max(1, PASchedulerProperties.SCHEDULER_DB_SUBMISSION_BATCH_SIZE.getValueAsInt());
+    }
+
     private static Configuration createConfiguration(File configFile, Map<String, String> propertiesToReplace) {
         try {
             String configContent = new String(FileToBytesConverter.convertFileToByteArray(configFile));
@@ -1782,7 +2412,7 @@ public class SchedulerDBManager {
 
     public void putThirdPartyCredential(final String username, final String key,
             final HybridEncryptedData encryptedCredential) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeReadWriteTransactionKeepingCounts(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 session.saveOrUpdate(new ThirdPartyCredentialData(username,
@@ -1809,7 +2439,7 @@ public class SchedulerDBManager {
     }
 
     public void removeThirdPartyCredential(final String username, final String key) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeReadWriteTransactionKeepingCounts(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 Query query = session.getNamedQuery("deleteThirdPartyCredentialsKeySetByUsernameAndKey")
@@ -71,6 +71,7 @@ public class TaskDBUtils {
                                        hasDateFrom,
                                        hasDateTo,
                                        SortSpecifierContainer.EMPTY_CONTAINER,
+                                       null,
                                        queryPrefix);
 
                 Long count = (Long) query.uniqueResult();
@@ -90,6 +91,9 @@ public class TaskDBUtils {
                 }
 
                 List<TaskData> tasksList = fetchTaskData(session, params);
+                if (tasksList == null) {
+                    return null;
+                }
                 List<TaskState> result = new ArrayList<TaskState>(tasksList.size());
 
                 for (TaskData taskData : tasksList) {
@@ -111,6 +115,9 @@ public class TaskDBUtils {
                 }
 
                 List<TaskData> tasksList = fetchTaskData(session, params);
+                if (tasksList == null) {
+                    return null;
+                }
                 List<TaskInfo> result = new ArrayList<TaskInfo>(tasksList.size());
 
                 for (TaskData taskData : tasksList) {
@@ -122,6 +129,9 @@ public class TaskDBUtils {
         };
     }
 
+    /**
+     * @return the tasks, or null if the task after which they are requested does not exist
+     */
     private static List<TaskData> fetchTaskData(Session session, DBTaskDataParameters params) {
         Set<TaskStatus> taskStatuses = params.getStatuses();
 
@@ -130,6 +140,18 @@ public class TaskDBUtils {
         boolean hasDateFrom = params.hasDateFrom();
         boolean hasDateTo = params.hasDateTo();
 
+        SortSpecifierContainer sortParams = params.getSortParams();
+        Object[] afterValues = null;
+        if (params.isSortedAfterTask()) {
+            sortParams = withIdSortParameters(sortParams);
+            if (params.getAfterTaskId() != null) {
+                afterValues = getSortedValues(session, params.getAfterTaskId(), sortParams);
+                if (afterValues == null) {
+                    return null;
+                }
+            }
+        }
+
         String queryPrefix = "select T from TaskData T where ";
 
         Query query = getQuery(session,
@@ -139,7 +161,8 @@ public class TaskDBUtils {
                                hasTag,
                                hasDateFrom,
                                hasDateTo,
-                               params.getSortParams(),
+                               sortParams,
+                               afterValues,
                                queryPrefix);
         query.setMaxResults(params.getLimit());
         query.setFirstResult(params.getOffset());
@@ -147,20 +170,76 @@ public class TaskDBUtils {
         return query.list();
     }
 
+    /**
+     * Sorts the tasks by job id and task id after the given sort parameters, so that each task has
+     * a unique position.
+     */
+    private static SortSpecifierContainer withIdSortParameters(SortSpecifierContainer sortParams) {
+        SortSpecifierContainer keysetSortParams = new SortSpecifierContainer();
+        boolean hasJobId = false;
+        boolean hasTaskId = false;
+        for (SortSpecifierContainer.SortSpecifierItem item : sortParams.getSortParameters()) {
+            keysetSortParams.add(item.getField(), item.getOrder());
+            hasJobId |= "id.jobId".equals(item.getField());
+            hasTaskId |= "id.taskId".equals(item.getField());
+        }
+        if (!hasJobId) {
+            keysetSortParams.add("id.jobId", "ascending");
+        }
+        if (!hasTaskId) {
+            keysetSortParams.add("id.taskId", "ascending");
+        }
+        return keysetSortParams;
+    }
+
+    /**
+     * @return the values of the sorted columns of the given task, or null if it does not exist
+     */
+    private static Object[] getSortedValues(Session session, TaskData.DBTaskId taskId,
+            SortSpecifierContainer sortParams) {
+        StringBuilder queryString = new StringBuilder("select ");
+        List<SortSpecifierContainer.SortSpecifierItem> items = sortParams.getSortParameters();
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                queryString.append(", ");
+            }
+            queryString.append("T." + items.get(i).getField());
+        }
+        queryString.append(" from TaskData T where T.id.jobId = :jobId and T.id.taskId = :taskId");
+
+        return (Object[]) session.createQuery(queryString.toString())
+                                 .setParameter("jobId", taskId.getJobId())
+                                 .setParameter("taskId", taskId.getTaskId())
+                                 .uniqueResult();
+    }
+
     private static Query getQuery(Session session, DBTaskDataParameters params, Set<TaskStatus> taskStatuses,
             boolean hasUser, boolean hasTag, boolean hasDateFrom, boolean hasDateTo, SortSpecifierContainer sortParams,
-            String queryPrefix) {
+            Object[] afterValues, String queryPrefix) {
         StringBuilder queryString = new StringBuilder(queryPrefix);
-        queryString.append(getQueryFilteringExpression(hasUser, hasTag, hasDateFrom, hasDateTo, sortParams));
+        queryString.append(getQueryFilteringExpression(hasUser,
+                                                       hasTag,
+                                                       hasDateFrom,
+                                                       hasDateTo,
+                                                       sortParams,
+                                                       params.isSortedAfterTask(),
+                                                       afterValues));
         Query query = session.createQuery(queryString.toString());
 
         setQueryParameters(taskStatuses, hasUser, hasTag, hasDateFrom, hasDateTo, query, params);
+        if (afterValues != null) {
+            for (int i = 0; i < afterValues.length; i++) {
+                if (afterValues[i] != null) {
+                    query.setParameter("after" + i, afterValues[i]);
+                }
+            }
+        }
 
         return query;
     }
 
     private static StringBuilder getQueryFilteringExpression(boolean hasUser, boolean hasTag, boolean hasDateFrom,
-            boolean hasDateTo, SortSpecifierContainer sortParams) {
+            boolean hasDateTo, SortSpecifierContainer sortParams, boolean sortedAfterTask, Object[] afterValues) {
         StringBuilder result = new StringBuilder();
 
         result.append("T.jobData.removedTime = -1 ");
@@ -189,13 +268,23 @@ public class TaskDBUtils {
 
         result.append("and taskStatus in (:taskStatus) ");
 
+        if (afterValues != null) {
+            result.append("and ( ");
+            result.append(getSortedAfterExpression(sortParams.getSortParameters(), afterValues));
+            result.append(") ");
+        }
+
         if (!sortParams.getSortParameters().isEmpty()) {
             result.append("order by ");
             List<SortSpecifierContainer.SortSpecifierItem> items = sortParams.getSortParameters();
             for (int i = 0; i < items.size(); i++) {
                 SortSpecifierContainer.SortSpecifierItem item = items.get(i);
-                String order = "ascending".compareTo(item.getOrder().toString()) == 0 ? "ASC" : "DESC";
+                String order = isAscending(item) ? "ASC" : "DESC";
                 result.append("T." + item.getField() + " " + order);
+                if (sortedAfterTask) {
+                    // null values must be sorted as in the sorted after expression
+                    result.append(isAscending(item) ? " nulls first" : " nulls last");
+                }
                 if (i < items.size() - 1)
                     result.append(",");
             }
@@ -204,6 +293,47 @@ public class TaskDBUtils {
         return result;
     }
 
+    /**
+     * Restricts the tasks to the ones sorted after the task whose sorted values are given: a task
+     * is after it if its first sorted column is after, or if it is equal and its second sorted
+     * column is after, and so on. Null values are sorted first in ascending order and last in
+     * descending order.
+     */
+    private static String getSortedAfterExpression(List<SortSpecifierContainer.SortSpecifierItem> items,
+            Object[] afterValues) {
+        StringBuilder sortedAfter = new StringBuilder();
+        StringBuilder previousColumnsEqual = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            String column = "T." + items.get(i).getField();
+            String parameter = ":after" + i;
+            boolean ascending = isAscending(items.get(i));
+
+            String columnAfter;
+            if (afterValues[i] != null) {
+                columnAfter = ascending ? column + " > " + parameter
+                                        : "( " + column + " < " + parameter + " or " + column + " is null )";
+            } else {
+                // nothing is after null values in descending order
+                columnAfter = ascending ? column + " is not null" : null;
+            }
+
+            if (columnAfter != null) {
+                if (sortedAfter.length() > 0) {
+                    sortedAfter.append("or ");
+                }
+                sortedAfter.append("( ").append(previousColumnsEqual).append(columnAfter).append(" ) ");
+            }
+            previousColumnsEqual.append(column)
+                                .append(afterValues[i] != null ? " = " + parameter : " is null")
+                                .append(" and ");
+        }
+        return sortedAfter.toString();
+    }
+
+    private static boolean isAscending(SortSpecifierContainer.SortSpecifierItem item) {
+        return "ascending".compareTo(item.getOrder().toString()) == 0;
+    }
+
     private static void setQueryParameters(Set<TaskStatus> taskStatuses, boolean hasUser, boolean hasTag,
             boolean hasDateFrom, boolean hasDateTo, Query query, DBTaskDataParameters params) {
         query.setParameterList("taskStatus", taskStatuses);
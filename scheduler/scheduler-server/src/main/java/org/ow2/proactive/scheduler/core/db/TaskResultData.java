@@ -48,8 +48,17 @@ import org.ow2.proactive.scheduler.task.TaskResultImpl;
                 @NamedQuery(name = "loadTasksResultByTask", query = "from TaskResultData result where result.taskRuntimeData = :task order by result.resultTime desc"),
                 @NamedQuery(name = "loadTasksResults", query = "select taskResult, " + "task.id, " + "task.taskName, " +
                                                                "task.preciousResult from TaskResultData as taskResult join taskResult.taskRuntimeData as task " + "where task.id in (:tasksIds) order by task.id, taskResult.resultTime desc"),
+                @NamedQuery(name = "loadTasksPropagatedVariables", query = "select task.id, taskResult.propagatedVariables " +
+                                                                           "from TaskResultData as taskResult join taskResult.taskRuntimeData as task " + "where task.id in (:tasksIds) order by task.id, taskResult.resultTime desc"),
+                @NamedQuery(name = "loadTaskResultReferencesInBulk", query = "select valueReference, exceptionReference, logsReference from TaskResultData " +
+                                                                             "where taskRuntimeData.jobData.id in :jobIdList and (valueReference is not null or exceptionReference is not null or logsReference is not null)"),
+                @NamedQuery(name = "loadReferencedTaskResultContents", query = "select valueReference, exceptionReference, logsReference from TaskResultData " +
+                                                                               "where valueReference in :references or exceptionReference in :references or logsReference in :references"),
                 @NamedQuery(name = "countTaskResultData", query = "select count (*) from TaskResultData") })
-@Table(name = "TASK_RESULT_DATA", indexes = { @Index(name = "TASK_RESULT_DATA_RUNTIME_DATA", columnList = "JOB_ID,TASK_ID") })
+@Table(name = "TASK_RESULT_DATA", indexes = { @Index(name = "TASK_RESULT_DATA_RUNTIME_DATA", columnList = "JOB_ID,TASK_ID"),
+                                              @Index(name = "TASK_RESULT_DATA_VALUE_REF", columnList = "RESULT_VALUE_REF"),
+                                              @Index(name = "TASK_RESULT_DATA_EXCEPTION_REF", columnList = "RESULT_EXCEPTION_REF"),
+                                              @Index(name = "TASK_RESULT_DATA_LOGS_REF", columnList = "LOGS_REF") })
 public class TaskResultData {
 
     private long id;
@@ -74,12 +83,18 @@ public class TaskResultData {
 
     private Map<String, String> metadata;
 
-    TaskResultImpl toTaskResult(TaskId taskId) {
+    private String valueReference;
+
+    private String exceptionReference;
+
+    private String logsReference;
+
+    TaskResultImpl toTaskResult(TaskId taskId, TaskResultStorage storage) {
 
         TaskResultImpl result = new TaskResultImpl(taskId,
-                                                   getSerializedValue(),
-                                                   getSerializedException(),
-                                                   getLogs(),
+                                                   storage.read(getValueReference(), getSerializedValue()),
+                                                   storage.read(getExceptionReference(), getSerializedException()),
+                                                   storage.readLogs(getLogsReference(), getLogs()),
                                                    getMetadata(),
                                                    getPropagatedVariables(),
                                                    isRaw());
@@ -197,6 +212,33 @@ public class TaskResultData {
         this.serializedException = serializedException;
     }
 
+    @Column(name = "RESULT_VALUE_REF", length = 64)
+    public String getValueReference() {
+        return valueReference;
+    }
+
+    public void setValueReference(String valueReference) {
+        this.valueReference = valueReference;
+    }
+
+    @Column(name = "RESULT_EXCEPTION_REF", length = 64)
+    public String getExceptionReference() {
+        return exceptionReference;
+    }
+
+    public void setExceptionReference(String exceptionReference) {
+        this.exceptionReference = exceptionReference;
+    }
+
+    @Column(name = "LOGS_REF", length = 64)
+    public String getLogsReference() {
+        return logsReference;
+    }
+
+    public void setLogsReference(String logsReference) {
+        this.logsReference = logsReference;
+    }
+
     @Column(name = "PREVIEWER_CLASS", length = 1000)
     public String getPreviewerClassName() {
         return previewerClassName;
@@ -0,0 +1,181 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.util.converter.ObjectToByteConverter;
+import org.ow2.proactive.db.DatabaseManagerException;
+import org.ow2.proactive.scheduler.common.task.TaskLogs;
+
+
+/**
+ * Moves the values, exceptions and logs of the task results larger than a threshold to a
+ * {@link TaskResultStore}, and reads them back when the results are loaded.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+class TaskResultStorage {
+
+    private static final Logger logger = Logger.getLogger(TaskResultStorage.class);
+
+    /** Storage keeping all the contents in the database */
+    static final TaskResultStorage DATABASE_ONLY = new TaskResultStorage(null, -1);
+
+    private final TaskResultStore store;
+
+    private final int threshold;
+
+    /**
+     * @param store the store of the large contents, null to keep all of them in the database
+     * @param threshold the size in bytes above which a content is moved to the store
+     */
+    TaskResultStorage(TaskResultStore store, int threshold) {
+        this.store = store;
+        this.threshold = threshold;
+    }
+
+    boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * Moves the large contents of a result about to be saved to the store. A content which cannot
+     * be stored is kept in the database.
+     */
+    void externalize(TaskResultData resultData) {
+        if (store == null) {
+            return;
+        }
+        String valueReference = put(resultData.getSerializedValue());
+        if (valueReference != null) {
+            resultData.setSerializedValue(null);
+            resultData.setValueReference(valueReference);
+        }
+        String exceptionReference = put(resultData.getSerializedException());
+        if (exceptionReference != null) {
+            resultData.setSerializedException(null);
+            resultData.setExceptionReference(exceptionReference);
+        }
+        if (resultData.getLogs() != null) {
+            try {
+                String logsReference = put(ObjectToByteConverter.ObjectStream.convert(resultData.getLogs()));
+                if (logsReference != null) {
+                    resultData.setLogs(null);
+                    resultData.setLogsReference(logsReference);
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to serialize task logs, they are kept in the database", e);
+            }
+        }
+    }
+
+    byte[] read(String reference, byte[] content) {
+        if (reference == null) {
+            return content;
+        }
+        return get(reference);
+    }
+
+    TaskLogs readLogs(String reference, TaskLogs logs) {
+        if (reference == null) {
+            return logs;
+        }
+        checkEnabled(reference);
+        // deserialized from the stored content, without loading it in memory first
+        try (InputStream content = store.openStream(reference);
+                ObjectInputStream objectInputStream = new ObjectInputStream(new BufferedInputStream(content))) {
+            return (TaskLogs) objectInputStream.readObject();
+        } catch (Exception e) {
+            throw new DatabaseManagerException("Failed to read task logs " + reference, e);
+        }
+    }
+
+    /**
+     * Removes contents no longer referenced by any task result.
+     */
+    void remove(Collection<String> references) {
+        for (String reference : references) {
+            try {
+                store.remove(reference);
+            } catch (IOException e) {
+                logger.warn("Failed to remove task result content " + reference, e);
+            }
+        }
+    }
+
+    /**
+     * @return the contents which can be removed from the store if no task result references them
+     */
+    Collection<String> listRemovable() {
+        if (store == null) {
+            return Collections.emptySet();
+        }
+        try {
+            return store.listRemovable();
+        } catch (IOException e) {
+            logger.warn("Failed to list task result contents", e);
+            return Collections.emptySet();
+        }
+    }
+
+    private String put(byte[] content) {
+        if (content == null || content.length <= threshold) {
+            return null;
+        }
+        try {
+            return store.put(content);
+        } catch (IOException e) {
+            logger.warn("Failed to store a task result content of " + content.length +
+                        " bytes, it is kept in the database", e);
+            return null;
+        }
+    }
+
+    private byte[] get(String reference) {
+        checkEnabled(reference);
+        try {
+            return store.get(reference);
+        } catch (IOException e) {
+            throw new DatabaseManagerException("Failed to read task result content " + reference, e);
+        }
+    }
+
+    private void checkEnabled(String reference) {
+        if (store == null) {
+            throw new DatabaseManagerException("Task result content " + reference +
+                                               " is in the result store, which is disabled");
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+
+/**
+ * Storage of the large task result contents (values, exceptions and logs) outside of the
+ * scheduler database. The database only keeps the reference returned when a content is stored.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public interface TaskResultStore {
+
+    /**
+     * Stores a content.
+     *
+     * @param content the content to store
+     * @return the reference of the stored content
+     * @throws IOException if the content cannot be stored
+     */
+    String put(byte[] content) throws IOException;
+
+    /**
+     * Reads a content previously stored.
+     *
+     * @param reference the reference returned when the content was stored
+     * @return the stored content
+     * @throws IOException if the content cannot be read
+     */
+    byte[] get(String reference) throws IOException;
+
+    /**
+     * Opens a stream on a content previously stored, to read it without loading it in memory first.
+     *
+     * @param reference the reference returned when the content was stored
+     * @return a stream on the stored content, to be closed by the caller
+     * @throws IOException if the content cannot be read
+     */
+    InputStream openStream(String reference) throws IOException;
+
+    /**
+     * Removes a content which is not referenced by any task result anymore. The store may keep it
+     * if it was stored again recently, by a result which is not written in the database yet.
+     *
+     * @param reference the reference returned when the content was stored
+     * @throws IOException if the content cannot be removed
+     */
+    void remove(String reference) throws IOException;
+
+    /**
+     * Lists the contents which were not stored again recently, i.e. the contents which can be
+     * {@link #remove(String) removed} if no task result references them.
+     *
+     * @return the references of the removable contents
+     * @throws IOException if the contents cannot be listed
+     */
+    Collection<String> listRemovable() throws IOException;
+
+}
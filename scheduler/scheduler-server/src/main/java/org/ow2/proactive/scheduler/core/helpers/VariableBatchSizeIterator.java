@@ -25,25 +25,32 @@
  */
 package org.ow2.proactive.scheduler.core.helpers;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 
 public class VariableBatchSizeIterator<T> {
-    final private List<T> rawList;
-
-    private int offset;
+    final private Iterator<T> iterator;
 
     public VariableBatchSizeIterator(List<T> list) {
-        this.rawList = list;
-        this.offset = 0;
+        this(list.iterator());
+    }
+
+    /**
+     * Batches are pulled lazily from the given iterator, elements that are never requested are never computed
+     * @param iterator
+     */
+    public VariableBatchSizeIterator(Iterator<T> iterator) {
+        this.iterator = iterator;
     }
 
     public boolean hasMoreElements() {
-        return offset < rawList.size();
+        return iterator.hasNext();
     }
 
     /**
-     * Get a view with up to the 'limit' next elements in the list, since the last call to this method
+     * Get a list with up to the 'limit' next elements, since the last call to this method
      * @param limit
      * @return
      */
@@ -51,9 +58,10 @@ public class VariableBatchSizeIterator<T> {
         if (limit < 0) {
             throw new IllegalArgumentException("limit cannot be negative. Given: " + limit);
         }
-        int upperIndexExclusive = Math.min(rawList.size(), offset + limit);
-        List<T> subList = rawList.subList(offset, upperIndexExclusive);
-        offset = upperIndexExclusive;
-        return subList;
+        List<T> elements = new ArrayList<>(Math.min(limit, 64));
+        while (elements.size() < limit && iterator.hasNext()) {
+            elements.add(iterator.next());
+        }
+        return elements;
     }
 }
@@ -28,6 +28,7 @@ package org.ow2.proactive.scheduler.core.jmx;
 import java.io.File;
 
 import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.StandardMBean;
 
@@ -35,12 +36,16 @@ import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.ow2.proactive.jmx.AbstractJMXHelper;
 import org.ow2.proactive.jmx.RRDDataStore;
+import org.ow2.proactive.scheduler.core.ClientRequestHandler;
+import org.ow2.proactive.scheduler.core.SchedulingLoopStatistics;
 import org.ow2.proactive.scheduler.core.account.SchedulerAccountsManager;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.jmx.mbean.AllAccountsMBeanImpl;
+import org.ow2.proactive.scheduler.core.jmx.mbean.ListenerQueueMBeanImpl;
 import org.ow2.proactive.scheduler.core.jmx.mbean.ManagementMBeanImpl;
 import org.ow2.proactive.scheduler.core.jmx.mbean.MyAccountMBeanImpl;
 import org.ow2.proactive.scheduler.core.jmx.mbean.RuntimeDataMBeanImpl;
+import org.ow2.proactive.scheduler.core.jmx.mbean.SchedulingLoopMBeanImpl;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
 
@@ -62,6 +67,10 @@ public class SchedulerJMXHelper extends AbstractJMXHelper {
 
     public static final String MANAGEMENT_MBEAN_NAME = "ProActiveScheduler:name=Management";
 
+    public static final String SCHEDULING_LOOP_MBEAN_NAME = "ProActiveScheduler:name=SchedulingLoop";
+
+    public static final String LISTENER_MBEAN_NAME_PREFIX = "ProActiveScheduler:name=Listener,id=";
+
     /** The single instance of this class */
     private static SchedulerJMXHelper instance;
 
@@ -73,6 +82,9 @@ public class SchedulerJMXHelper extends AbstractJMXHelper {
 
     private final SchedulerDBManager dbManager;
 
+    /** The MBean server where the MBeans are registered, null until they are */
+    private volatile MBeanServer mbeanServer;
+
     /**
      * Creates a new instance of this class.
      * @param accountsManager the accounts manager
@@ -101,6 +113,7 @@ public class SchedulerJMXHelper extends AbstractJMXHelper {
      */
     @Override
     public void registerMBeans(final MBeanServer mbs) {
+        this.mbeanServer = mbs;
         // Register the Scheduler runtime MBean into the MBean server
         try {
             this.schedulerRuntimeMBean = new RuntimeDataMBeanImpl(dbManager);
@@ -176,4 +189,62 @@ public class SchedulerJMXHelper extends AbstractJMXHelper {
     public RuntimeDataMBeanImpl getSchedulerRuntimeMBean() {
         return this.schedulerRuntimeMBean;
     }
+
+    /**
+     * Registers the MBean exposing the outcome of the scheduling loops.
+     *
+     * @param statistics the scheduling loops counters
+     */
+    public void registerSchedulingLoopMBean(SchedulingLoopStatistics statistics) {
+        MBeanServer mbs = this.mbeanServer;
+        if (mbs == null) {
+            return;
+        }
+        try {
+            mbs.registerMBean(new SchedulingLoopMBeanImpl(statistics), new ObjectName(SCHEDULING_LOOP_MBEAN_NAME));
+        } catch (Exception e) {
+            LOGGER.warn("Unable to register the SchedulingLoopMBean", e);
+        }
+    }
+
+    /**
+     * Registers the MBean exposing the events queue of a client listener.
+     *
+     * @param listener the client listener
+     */
+    public void registerListenerMBean(ClientRequestHandler listener) {
+        MBeanServer mbs = this.mbeanServer;
+        if (mbs == null) {
+            return;
+        }
+        try {
+            mbs.registerMBean(new ListenerQueueMBeanImpl(listener), getListenerMBeanName(listener));
+        } catch (Exception e) {
+            LOGGER.warn("Unable to register the ListenerQueueMBean of client " + listener.getClientId(), e);
+        }
+    }
+
+    /**
+     * Unregisters the MBean exposing the events queue of a client listener.
+     *
+     * @param listener the client listener
+     */
+    public void unregisterListenerMBean(ClientRequestHandler listener) {
+        MBeanServer mbs = this.mbeanServer;
+        if (mbs == null) {
+            return;
+        }
+        try {
+            ObjectName name = getListenerMBeanName(listener);
+            if (mbs.isRegistered(name)) {
+                mbs.unregisterMBean(name);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to unregister the ListenerQueueMBean of client " + listener.getClientId(), e);
+        }
+    }
+
+    private ObjectName getListenerMBeanName(ClientRequestHandler listener) throws MalformedObjectNameException {
+        return new ObjectName(LISTENER_MBEAN_NAME_PREFIX + ObjectName.quote(listener.getClientId().toString()));
+    }
 }
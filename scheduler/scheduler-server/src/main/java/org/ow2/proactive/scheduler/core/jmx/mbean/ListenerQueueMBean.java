@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.jmx.mbean;
+
+/**
+ * MBean interface representing the events queue of a client listening to the Scheduler.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public interface ListenerQueueMBean {
+
+    /**
+     * Returns the number of events waiting to be sent to the client.
+     *
+     * @return the number of events waiting to be sent to the client.
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of events dropped because the queue of the client was full.
+     *
+     * @return the number of dropped events.
+     */
+    long getDroppedEventsCount();
+
+    /**
+     * Returns the number of events merged into a pending update of the same job or task.
+     *
+     * @return the number of coalesced events.
+     */
+    long getCoalescedEventsCount();
+
+    /**
+     * Returns the number of events sent to the client.
+     *
+     * @return the number of sent events.
+     */
+    long getSentEventsCount();
+
+    /**
+     * Returns true if events have been dropped for the client, which is then about to be disconnected.
+     *
+     * @return true if the client missed events.
+     */
+    boolean isStale();
+}
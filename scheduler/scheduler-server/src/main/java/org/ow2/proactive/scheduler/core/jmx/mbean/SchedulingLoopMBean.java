@@ -0,0 +1,98 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.jmx.mbean;
+
+/**
+ * MBean interface representing the outcome of the scheduling loops of the Scheduler.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public interface SchedulingLoopMBean {
+
+    /**
+     * Returns the number of scheduling loops performed.
+     *
+     * @return the number of scheduling loops.
+     */
+    long getLoopsCount();
+
+    /**
+     * Returns the number of scheduling loops which did not start any task.
+     *
+     * @return the number of empty scheduling loops.
+     */
+    long getEmptyLoopsCount();
+
+    /**
+     * Returns the number of scheduling loops aborted because every job was busy.
+     *
+     * @return the number of aborted scheduling loops.
+     */
+    long getAbortedLoopsCount();
+
+    /**
+     * Returns the number of times a busy job was skipped by a scheduling loop.
+     *
+     * @return the number of skipped busy jobs.
+     */
+    long getSkippedBusyJobsCount();
+
+    /**
+     * Returns the number of tasks started by the scheduling loops.
+     *
+     * @return the number of started tasks.
+     */
+    long getStartedTasksCount();
+
+    /**
+     * Returns the number of nodes kept by the scheduler after the end of a task.
+     *
+     * @return the number of leased nodes.
+     */
+    long getLeasedNodesCount();
+
+    /**
+     * Returns the number of leased nodes on which another task was started.
+     *
+     * @return the number of reused leases.
+     */
+    long getReusedLeasesCount();
+
+    /**
+     * Returns the number of leased nodes returned to the resource manager without being reused.
+     *
+     * @return the number of returned leases.
+     */
+    long getReturnedLeasesCount();
+
+    /**
+     * Returns the ratio of the leased nodes on which another task was started.
+     *
+     * @return the lease hit rate, between 0 and 1.
+     */
+    double getLeaseHitRate();
+}
@@ -0,0 +1,88 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.jmx.mbean;
+
+import javax.management.NotCompliantMBeanException;
+import javax.management.StandardMBean;
+
+import org.ow2.proactive.scheduler.core.SchedulingLoopStatistics;
+
+
+/**
+ * Implementation of the SchedulingLoopMBean interface.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public final class SchedulingLoopMBeanImpl extends StandardMBean implements SchedulingLoopMBean {
+
+    private final SchedulingLoopStatistics statistics;
+
+    public SchedulingLoopMBeanImpl(final SchedulingLoopStatistics statistics) throws NotCompliantMBeanException {
+        super(SchedulingLoopMBean.class);
+        this.statistics = statistics;
+    }
+
+    public long getLoopsCount() {
+        return this.statistics.getLoopsCount();
+    }
+
+    public long getEmptyLoopsCount() {
+        return this.statistics.getEmptyLoopsCount();
+    }
+
+    public long getAbortedLoopsCount() {
+        return this.statistics.getAbortedLoopsCount();
+    }
+
+    public long getSkippedBusyJobsCount() {
+        return this.statistics.getSkippedBusyJobsCount();
+    }
+
+    public long getStartedTasksCount() {
+        return this.statistics.getStartedTasksCount();
+    }
+
+    public long getLeasedNodesCount() {
+        return this.statistics.getLeasedNodesCount();
+    }
+
+    public long getReusedLeasesCount() {
+        return this.statistics.getReusedLeasesCount();
+    }
+
+    public long getReturnedLeasesCount() {
+        return this.statistics.getReturnedLeasesCount();
+    }
+
+    public double getLeaseHitRate() {
+        long leasedNodesCount = this.statistics.getLeasedNodesCount();
+        if (leasedNodesCount == 0) {
+            return 0;
+        }
+        return (double) this.statistics.getReusedLeasesCount() / leasedNodesCount;
+    }
+}
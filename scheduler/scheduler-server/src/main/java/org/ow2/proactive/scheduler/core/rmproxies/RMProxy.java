@@ -26,13 +26,18 @@
 package org.ow2.proactive.scheduler.core.rmproxies;
 
 import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
 import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.resourcemanager.authentication.RMAuthentication;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.exception.RMException;
 import org.ow2.proactive.resourcemanager.frontend.RMConnection;
@@ -61,6 +66,14 @@ public class RMProxy {
 
     private Credentials creds;
 
+    /** local copy of the free nodes urls of the resource manager */
+    private final Set<String> freeNodes = new HashSet<>();
+
+    /** journal and revision of the last free nodes delta applied to {@link #freeNodes} */
+    private String freeNodesJournalId;
+
+    private long freeNodesRevision;
+
     RMProxy(URI rmURL, Credentials creds) throws RMException, RMProxyCreationException {
         this.rmURL = rmURL;
         this.creds = creds;
@@ -71,6 +84,9 @@ public class RMProxy {
         RMAuthentication auth = RMConnection.join(rmURL.toString());
         proxyActiveObject = RMProxyActiveObject.createAOProxy(auth, creds);
         currentRMConnection = new RMProxiesManager.Connection(rmURL, auth);
+        freeNodes.clear();
+        freeNodesJournalId = null;
+        freeNodesRevision = 0;
     }
 
     public synchronized void terminate() {
@@ -99,6 +115,41 @@ public class RMProxy {
         return proxyActiveObject.getState();
     }
 
+    /**
+     * Returns the last resources reported by the nodes of the resource manager.
+     *
+     * @return the resources of the nodes hosts, by node url
+     */
+    public Map<String, NodeResources> getNodesResources() {
+        if (proxyActiveObject == null) {
+            throw new RuntimeException("Proxy is not initialized");
+        }
+        return proxyActiveObject.getNodesResources();
+    }
+
+    /**
+     * Returns the free nodes urls of the resource manager.
+     * <p>
+     * Only the changes which occurred since the previous call are transferred from the
+     * resource manager and applied to a local copy, which must stay in line with the resource manager:
+     * the returned set is a read-only view of it, callers copy it before changing it.
+     *
+     * @return a read-only view of the local copy of the free nodes urls
+     */
+    public synchronized Set<String> getFreeNodes() {
+        if (proxyActiveObject == null) {
+            throw new RuntimeException("Proxy is not initialized");
+        }
+        RMFreeNodesDelta delta = proxyActiveObject.getFreeNodesDelta(freeNodesJournalId, freeNodesRevision);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Applying " + delta);
+        }
+        delta.applyTo(freeNodes);
+        freeNodesJournalId = delta.getJournalId();
+        freeNodesRevision = delta.getRevision();
+        return Collections.unmodifiableSet(freeNodes);
+    }
+
     public void rebind(URI rmURI) throws RMException, RMProxyCreationException {
 
         if (rmURI.equals(this.rmURL) && proxyActiveObject != null && proxyActiveObject.isActive().getBooleanValue()) {
@@ -44,6 +44,8 @@ import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.resourcemanager.authentication.RMAuthentication;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.frontend.ResourceManager;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
@@ -119,6 +121,16 @@ public class RMProxyActiveObject {
         return rm.getState();
     }
 
+    @ImmediateService
+    public RMFreeNodesDelta getFreeNodesDelta(String journalId, long revision) {
+        return rm.getFreeNodesDelta(journalId, revision);
+    }
+
+    @ImmediateService
+    public Map<String, NodeResources> getNodesResources() {
+        return rm.getNodesResources();
+    }
+
     @ImmediateService
     public NodeSet getNodes(Criteria criteria) {
         return rm.getNodes(criteria);
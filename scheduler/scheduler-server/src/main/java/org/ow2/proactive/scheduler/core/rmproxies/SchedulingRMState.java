@@ -0,0 +1,103 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.rmproxies;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.resourcemanager.common.NodeResources;
+import org.ow2.proactive.resourcemanager.common.RMState;
+import org.ow2.proactive.resourcemanager.common.RMStateNodeUrls;
+
+
+/**
+ * RMState given to the scheduling policy on each scheduling loop.
+ * <p>
+ * The free nodes come from the local copy maintained by {@link RMProxy#getFreeNodes()}.
+ * The alive and all nodes urls, which the default policies do not use, are only
+ * retrieved from the resource manager if the policy asks for them, as are the resources of the nodes.
+ */
+public class SchedulingRMState extends RMState {
+
+    private final transient RMProxy rmProxy;
+
+    private final Set<String> freeNodes;
+
+    private RMState fullState;
+
+    private Map<String, NodeResources> nodesResources;
+
+    public SchedulingRMState(RMProxy rmProxy, Set<String> freeNodes) {
+        super(null, null);
+        this.rmProxy = rmProxy;
+        this.freeNodes = freeNodes;
+    }
+
+    private synchronized RMState getFullState() {
+        if (fullState == null) {
+            fullState = rmProxy.getState();
+        }
+        return fullState;
+    }
+
+    /**
+     * Returns the last resources reported by the nodes of the resource manager, retrieved
+     * at most once per scheduling loop.
+     *
+     * @return the resources of the nodes hosts, by node url
+     */
+    public synchronized Map<String, NodeResources> getNodesResources() {
+        if (nodesResources == null) {
+            nodesResources = rmProxy.getNodesResources();
+        }
+        return nodesResources;
+    }
+
+    @Override
+    protected RMStateNodeUrls getRmNodeUrls() {
+        return new RMStateNodeUrls(freeNodes, getAliveNodes(), getAllNodes());
+    }
+
+    @Override
+    public Long getMaxNumberOfNodes() {
+        return getFullState().getMaxNumberOfNodes();
+    }
+
+    @Override
+    public Set<String> getFreeNodes() {
+        return freeNodes;
+    }
+
+    @Override
+    public Set<String> getAliveNodes() {
+        return getFullState().getAliveNodes();
+    }
+
+    @Override
+    public Set<String> getAllNodes() {
+        return getFullState().getAllNodes();
+    }
+}
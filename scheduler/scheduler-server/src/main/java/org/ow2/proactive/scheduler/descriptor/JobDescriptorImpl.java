@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.descriptor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -37,6 +38,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -82,9 +84,12 @@ public class JobDescriptorImpl implements JobDescriptor {
     /** List that knows which task has children and which have not */
     private Set<TaskId> hasChildren = new HashSet<>();
 
-    /** Job tasks to be able to be schedule */
+    /**
+     * Job tasks to be able to be schedule, kept sorted by task id (i.e. submission order) so that
+     * eligibility changes cost O(log n) and the tasks can be read in order without copying them
+     */
     @XmlTransient
-    private Map<TaskId, EligibleTaskDescriptor> eligibleTasks = new ConcurrentHashMap<>();
+    private Map<TaskId, EligibleTaskDescriptor> eligibleTasks = new ConcurrentSkipListMap<>();
 
     /** Those are not directly eligible, and will be triggered by an IF control flow action */
     @XmlTransient
@@ -726,6 +731,18 @@ public class JobDescriptorImpl implements JobDescriptor {
         return new Vector<TaskDescriptor>(eligibleTasks.values());
     }
 
+    /**
+     * Return a read-only live view of the eligible tasks, in task id order.
+     * Unlike {@link #getEligibleTasks()}, no copy is made: iterating over the view is weakly consistent
+     * and reflects the eligibility changes made while iterating.
+     *
+     * @return a live view of the eligible tasks.
+     */
+    @XmlTransient
+    public Collection<EligibleTaskDescriptor> getEligibleTasksView() {
+        return Collections.unmodifiableCollection(eligibleTasks.values());
+    }
+
     /**
      * {@inheritDoc}
      */
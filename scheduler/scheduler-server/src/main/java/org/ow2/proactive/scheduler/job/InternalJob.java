@@ -268,7 +268,8 @@ public abstract class InternalJob extends JobState {
      */
     public void startDataSpaceApplication(NamingService namingService, List<InternalTask> tasks) {
         if (taskDataSpaceApplications == null) {
-            taskDataSpaceApplications = new HashMap<>();
+            // read by the task launches without the job lock
+            taskDataSpaceApplications = new ConcurrentHashMap<>();
         }
 
         for (InternalTask internalTask : tasks) {
@@ -28,6 +28,7 @@ package org.ow2.proactive.scheduler.policy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -37,6 +38,9 @@ import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
+
 
 /**
  * Implementation of the policy according that :
@@ -82,6 +86,44 @@ public class DefaultPolicy extends Policy {
         return toReturn;
     }
 
+    /** Whether a sub class redefines {@link #getOrderedTasks(List)}, which cannot change for an instance */
+    private final boolean getOrderedTasksOverridden = isGetOrderedTasksOverridden();
+
+    /**
+     * This method return the tasks using FIFO policy according to the jobs priorities, without sorting them:
+     * the eligible tasks of each job are read lazily, job after job, from the job descriptors, so the
+     * iterator must be consumed while the jobs are locked.
+     * If a sub class redefines {@link #getOrderedTasks(List)}, its list is used instead.
+     *
+     * @see org.ow2.proactive.scheduler.policy.Policy#getOrderedTasksIterator(java.util.List)
+     */
+    @Override
+    public Iterator<EligibleTaskDescriptor> getOrderedTasksIterator(List<JobDescriptor> jobs) {
+        if (getOrderedTasksOverridden) {
+            return super.getOrderedTasksIterator(jobs);
+        }
+
+        // jobs are usually given already ordered, sorting is then linear
+        Collections.sort(jobs, FIFO_BY_PRIORITY_COMPARATOR);
+
+        return Iterators.concat(Iterators.transform(jobs.iterator(), ELIGIBLE_TASKS_OF_JOB));
+    }
+
+    private boolean isGetOrderedTasksOverridden() {
+        try {
+            return getClass().getMethod("getOrderedTasks", List.class).getDeclaringClass() != DefaultPolicy.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private static final Function<JobDescriptor, Iterator<EligibleTaskDescriptor>> ELIGIBLE_TASKS_OF_JOB = new Function<JobDescriptor, Iterator<EligibleTaskDescriptor>>() {
+        @Override
+        public Iterator<EligibleTaskDescriptor> apply(JobDescriptor job) {
+            return ((JobDescriptorImpl) job).getEligibleTasksView().iterator();
+        }
+    };
+
     public static final Comparator<JobDescriptor> FIFO_BY_PRIORITY_COMPARATOR = new Comparator<JobDescriptor>() {
         @Override
         public int compare(JobDescriptor job1, JobDescriptor job2) {
@@ -28,8 +28,11 @@ package org.ow2.proactive.scheduler.policy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.ow2.proactive.scheduler.common.JobDescriptor;
@@ -37,6 +40,7 @@ import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.proactive.scheduler.util.policy.ISO8601DateUtil;
 
 
@@ -59,13 +63,34 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
 
     public static final String GENERIC_INFORMATION_KEY_START_AT = "START_AT";
 
+    // start time of a task which has no START_AT, or a malformed one, it is scheduled immediately
+    private static final long NO_START_AT = Long.MIN_VALUE;
+
+    /*
+     * Parsed START_AT of the eligible tasks, computing the runtime generic information and parsing
+     * the date of every delayed task on each execution cycle is costly. The map is kept across the
+     * execution cycles and keyed by the internal tasks themselves, so that a delayed task is skipped
+     * without any allocation. The entries of the tasks which are not eligible anymore are dropped
+     * at the end of the cycle.
+     */
+    private final Map<InternalTask, StartAt> startAts = new IdentityHashMap<>();
+
+    // number of the current execution cycle, marks the entries of the tasks which are still eligible
+    private long cycle = 0;
+
+    // earliest start time of the tasks delayed by the last execution cycle
+    private volatile long nextStartAt = Long.MAX_VALUE;
+
     /*
      * Utilize 'startAt' generic info and filter any tasks that should not be scheduled for current
      * execution cycle.
      */
     @Override
     public LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobDescList) {
-        Date now = new Date();
+        long now = System.currentTimeMillis();
+        long nextStart = Long.MAX_VALUE;
+        int eligibleTasksCount = 0;
+        cycle++;
         LinkedList<EligibleTaskDescriptor> executionCycleTasks = new LinkedList<>();
         Collections.sort(jobDescList, FIFO_BY_PRIORITY_COMPARATOR);
 
@@ -73,39 +98,80 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
             Collection<TaskDescriptor> tasks = jobDesc.getEligibleTasks();
             Collection<EligibleTaskDescriptor> eligibleTasks = (Collection) tasks;
             for (EligibleTaskDescriptor candidate : eligibleTasks) {
-                String startAt = getStartAtValue(jobDesc, candidate);
-                if (startAt == null) {
+                StartAt startAt = getStartAt(jobDesc, candidate);
+                startAt.cycle = cycle;
+                eligibleTasksCount++;
+                if (startAt.time < now) {
                     executionCycleTasks.add(candidate);
                 } else {
-                    try {
-                        if (now.after(ISO8601DateUtil.toDate(startAt))) {
-                            executionCycleTasks.add(candidate);
-
-                        } else {
-                            if (logger.isTraceEnabled()) {
-                                logger.trace(String.format("Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s." +
-                                                           " It will not be scheduled for this execution cycle at %s.",
-                                                           jobDesc.getJobId(),
-                                                           candidate.getTaskId(),
-                                                           startAt,
-                                                           ISO8601DateUtil.parse(now)));
-                            }
-                        }
-                    } catch (IllegalArgumentException e) {
-                        logger.error(String.format("An error occurred while processing 'startAt' generic info.%n" +
-                                                   "Task ([job-id:\"%s\", task-id:\"%s\"]) will be scheduled immediately for execution.",
-                                                   jobDesc.getJobId().toString(),
-                                                   candidate.getTaskId().toString()),
-                                     e);
-                        executionCycleTasks.add(candidate);
+                    nextStart = Math.min(nextStart, startAt.time);
+                    if (logger.isTraceEnabled()) {
+                        logger.trace(String.format("Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s." +
+                                                   " It will not be scheduled for this execution cycle at %s.",
+                                                   jobDesc.getJobId(),
+                                                   candidate.getTaskId(),
+                                                   startAt.value,
+                                                   ISO8601DateUtil.parse(new Date(now))));
                     }
-
                 }
             }
         }
+        if (startAts.size() > eligibleTasksCount) {
+            removeStartAtsOfPastCycles();
+        }
+        nextStartAt = nextStart;
         return executionCycleTasks;
     }
 
+    /**
+     * Returns the earliest START_AT of the tasks which were not scheduled by the last execution cycle.
+     */
+    @Override
+    public long getNextEligibleTasksTime() {
+        return nextStartAt;
+    }
+
+    private void removeStartAtsOfPastCycles() {
+        Iterator<StartAt> iterator = startAts.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().cycle != cycle) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /*
+     * The START_AT of a task is parsed again only when its scheduled time changed, as it is
+     * updated along with the START_AT generic info when a job start time is changed.
+     */
+    private StartAt getStartAt(JobDescriptor jobDesc, EligibleTaskDescriptor taskDesc) {
+        InternalTask task = ((EligibleTaskDescriptorImpl) taskDesc).getInternal();
+        long scheduledTime = task.getScheduledTime();
+        StartAt startAt = startAts.get(task);
+        if (startAt == null || startAt.scheduledTime != scheduledTime) {
+            startAt = parseStartAt(jobDesc, taskDesc, scheduledTime);
+            startAts.put(task, startAt);
+        }
+        return startAt;
+    }
+
+    private StartAt parseStartAt(JobDescriptor jobDesc, EligibleTaskDescriptor taskDesc, long scheduledTime) {
+        String value = getStartAtValue(jobDesc, taskDesc);
+        if (value == null) {
+            return new StartAt(scheduledTime, NO_START_AT, null);
+        }
+        try {
+            return new StartAt(scheduledTime, ISO8601DateUtil.toDate(value).getTime(), value);
+        } catch (IllegalArgumentException e) {
+            logger.error(String.format("An error occurred while processing 'startAt' generic info.%n" +
+                                       "Task ([job-id:\"%s\", task-id:\"%s\"]) will be scheduled immediately for execution.",
+                                       jobDesc.getJobId().toString(),
+                                       taskDesc.getTaskId().toString()),
+                         e);
+            return new StartAt(scheduledTime, NO_START_AT, value);
+        }
+    }
+
     /*
      * START_AT property defined at task level always has the precedence over the same property
      * defined job level.
@@ -121,4 +187,23 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
         }
         return startAt;
     }
+
+    private static final class StartAt {
+
+        // scheduled time of the task when its START_AT was parsed
+        private final long scheduledTime;
+
+        private final long time;
+
+        private final String value;
+
+        // last execution cycle in which the task was eligible
+        private long cycle;
+
+        private StartAt(long scheduledTime, long time, String value) {
+            this.scheduledTime = scheduledTime;
+            this.time = time;
+            this.value = value;
+        }
+    }
 }
@@ -29,16 +29,21 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.scheduler.common.JobDescriptor;
 import org.ow2.proactive.scheduler.common.Scheduler;
+import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.core.rmproxies.SchedulingRMState;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.utils.NodeSet;
 
@@ -90,6 +95,35 @@ public abstract class Policy implements Serializable {
      */
     public abstract LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobs);
 
+    /**
+     * Return the tasks that have to be scheduled, in the desired scheduling order, as an iterator.
+     * A policy able to read its tasks in order from the job descriptors can override this method to avoid
+     * building and sorting an intermediate list on each loop. The iterator is consumed while the jobs are
+     * locked, and only as far as the free nodes can absorb, so a lazy iterator only computes the first tasks.
+     * <p>
+     * The default implementation iterates over the list returned by {@link #getOrderedTasks(List)}.
+     *
+     * @param jobs the list of pending or running job descriptors.
+     * @return an iterator over every tasks that are ready to be scheduled.
+     */
+    public Iterator<EligibleTaskDescriptor> getOrderedTasksIterator(List<JobDescriptor> jobs) {
+        LinkedList<EligibleTaskDescriptor> orderedTasks = getOrderedTasks(jobs);
+        if (orderedTasks == null) {
+            return Collections.emptyIterator();
+        }
+        return orderedTasks.iterator();
+    }
+
+    /**
+     * Returns the time at which tasks held back by this policy become ready to be scheduled, such as tasks
+     * delayed until a given date. When no task could be started, the scheduling loop does not wait past this time.
+     *
+     * @return the time in milliseconds at which held back tasks become ready, or {@link Long#MAX_VALUE} if none
+     */
+    public long getNextEligibleTasksTime() {
+        return Long.MAX_VALUE;
+    }
+
     /**
      * After the selection process, overriding this method allows to do some filtering on the task scheduled
      * This is useful, for example, when stateless selection scripts cannot completely determine if a node is eligible for execution.
@@ -102,6 +136,45 @@ public abstract class Policy implements Serializable {
         return true;
     }
 
+    /**
+     * Before the nodes of a task are asked to the resource manager, overriding this method allows to reserve
+     * the other resources the task needs, such as software licenses or a share of the running tasks of its user.
+     * When this method returns false, the task stays pending for this scheduling loop without any node being selected.
+     * <p>
+     * The reserved resources must be given back by {@link #releaseResourceTokens(TaskId)}, which is called
+     * when the task stops running or when it could not be started.
+     *
+     * @param task the task to be scheduled
+     * @return true if the resources needed by the task are reserved, false to keep the task pending
+     */
+    public boolean acquireResourceTokens(EligibleTaskDescriptor task) {
+        return true;
+    }
+
+    /**
+     * Give back the resources reserved by {@link #acquireResourceTokens(EligibleTaskDescriptor)} for the given task.
+     * This method is called by the termination threads, concurrently with the scheduling loop, and may be called
+     * for a task that does not hold any resource.
+     *
+     * @param taskId the task which stopped running or could not be started
+     */
+    public void releaseResourceTokens(TaskId taskId) {
+    }
+
+    /**
+     * Returns the last resources reported by a node, which allows a policy to check the resources
+     * of the selected nodes without running any code on them.
+     *
+     * @param nodeUrl the url of the node
+     * @return the resources of the node host, or null if the node does not report them
+     */
+    protected final NodeResources getNodeResources(String nodeUrl) {
+        if (RMState instanceof SchedulingRMState) {
+            return ((SchedulingRMState) RMState).getNodesResources().get(nodeUrl);
+        }
+        return null;
+    }
+
     /**
      * Set the RM state
      *
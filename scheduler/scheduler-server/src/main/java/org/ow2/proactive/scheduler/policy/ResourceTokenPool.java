@@ -0,0 +1,153 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.policy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.utils.TaskIdWrapper;
+
+
+/**
+ * Counted resource tokens held by tasks, such as software licenses or concurrency slots.
+ * <p>
+ * A task acquires all the tokens it needs at once or none of them, and gives every held token
+ * back when it is released. The capacities can be changed while tokens are held, the tokens
+ * over capacity are then only taken back by the releases.
+ * <p>
+ * This class is thread safe, as the tokens of the tasks are released by the termination threads.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class ResourceTokenPool {
+
+    private final Map<String, Integer> capacities = new HashMap<>();
+
+    private final Map<String, Integer> usedTokens = new HashMap<>();
+
+    // task ids are compared along with their job id
+    private final Map<TaskIdWrapper, Map<String, Integer>> heldTokens = new HashMap<>();
+
+    /**
+     * Replace the capacities of the tokens, the tokens held by the tasks are kept.
+     *
+     * @param capacities the number of tokens available per token name
+     */
+    public synchronized void setCapacities(Map<String, Integer> capacities) {
+        this.capacities.clear();
+        this.capacities.putAll(capacities);
+    }
+
+    /**
+     * Set the capacity of a single token.
+     *
+     * @param token the token name
+     * @param capacity the number of tokens available
+     */
+    public synchronized void setCapacity(String token, int capacity) {
+        capacities.put(token, capacity);
+    }
+
+    /**
+     * @param token the token name
+     * @return true if the pool has a capacity for the given token
+     */
+    public synchronized boolean isDefined(String token) {
+        return capacities.containsKey(token);
+    }
+
+    /**
+     * @param token the token name
+     * @return the number of tokens that can still be acquired, 0 if the token is not defined
+     */
+    public synchronized int getAvailable(String token) {
+        Integer capacity = capacities.get(token);
+        if (capacity == null) {
+            return 0;
+        }
+        return Math.max(0, capacity - getUsed(token));
+    }
+
+    /**
+     * Acquire every given token for the task, or none of them if one is not available or not defined.
+     * A task already holding tokens keeps them and acquires nothing more.
+     *
+     * @param taskId the task which holds the tokens
+     * @param tokens the number of tokens needed per token name
+     * @return true if the task holds its tokens
+     */
+    public synchronized boolean tryAcquire(TaskId taskId, Map<String, Integer> tokens) {
+        if (heldTokens.containsKey(TaskIdWrapper.wrap(taskId))) {
+            return true;
+        }
+        for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+            if (getAvailable(token.getKey()) < token.getValue()) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+            usedTokens.put(token.getKey(), getUsed(token.getKey()) + token.getValue());
+        }
+        heldTokens.put(TaskIdWrapper.wrap(taskId), new HashMap<>(tokens));
+        return true;
+    }
+
+    /**
+     * Give back every token held by the task, does nothing if the task holds no token.
+     *
+     * @param taskId the task which holds the tokens
+     */
+    public synchronized void release(TaskId taskId) {
+        Map<String, Integer> tokens = heldTokens.remove(TaskIdWrapper.wrap(taskId));
+        if (tokens == null) {
+            return;
+        }
+        for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+            int used = getUsed(token.getKey()) - token.getValue();
+            if (used > 0) {
+                usedTokens.put(token.getKey(), used);
+            } else {
+                usedTokens.remove(token.getKey());
+            }
+        }
+    }
+
+    /**
+     * @param taskId the task which holds the tokens
+     * @return true if the task holds tokens of this pool
+     */
+    public synchronized boolean isHolding(TaskId taskId) {
+        return heldTokens.containsKey(TaskIdWrapper.wrap(taskId));
+    }
+
+    private int getUsed(String token) {
+        Integer used = usedTokens.get(token);
+        return used == null ? 0 : used;
+    }
+
+}
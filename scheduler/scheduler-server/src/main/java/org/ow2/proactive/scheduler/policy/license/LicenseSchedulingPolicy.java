@@ -25,15 +25,17 @@
  */
 package org.ow2.proactive.scheduler.policy.license;
 
-import java.util.*;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
 
 import org.apache.log4j.Logger;
-import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.policy.ExtendedSchedulerPolicy;
-import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.scheduler.policy.ResourceTokenPool;
 
 
 /**
@@ -41,7 +43,8 @@ import org.ow2.proactive.utils.NodeSet;
  * This Policy is designed to manage software licenses.
  * When a task contains the generic information REQUIRE_LICENSES,
  * this policy will check if there is an available license per
- * software to return true
+ * software before the nodes of the task are selected, the task
+ * keeps its licenses until it stops running
  *
  */
 public class LicenseSchedulingPolicy extends ExtendedSchedulerPolicy {
@@ -50,33 +53,31 @@ public class LicenseSchedulingPolicy extends ExtendedSchedulerPolicy {
 
     private static final String REQUIRED_LICENSES = "REQUIRED_LICENSES";
 
-    // A map of fixed size lists. A map entry per software license and a list per map entry to handle tasks using this software license.
-    private static Map<String, LinkedBlockingQueue<EligibleTaskDescriptor>> eligibleTasksDescriptorsLicenses = null;
+    // A token per software license, the number of tokens of a software is its maximum licenses number
+    private static volatile ResourceTokenPool licenses = null;
 
     // Will be initialize with the license properties file which includes the maximum licenses numbers per software
     private static Properties properties = null;
 
-    private static void initialize() {
-        if (eligibleTasksDescriptorsLicenses == null) {
-            // Map initialization
-            eligibleTasksDescriptorsLicenses = new HashMap<String, LinkedBlockingQueue<EligibleTaskDescriptor>>();
+    private static synchronized ResourceTokenPool initialize() {
+        if (licenses == null) {
             // Retrieve properties from the license properties file ...
             properties = LicenseConfiguration.getConfiguration().getProperties();
-            // ... and per software license, create a list handling all tasks using a this software license
+            // ... and per software license, set the number of tokens
+            Map<String, Integer> numbersOfLicenses = new HashMap<>();
             Enumeration e = properties.propertyNames();
             while (e.hasMoreElements()) {
                 String software = (String) e.nextElement();
-                int numberOfLicenses = Integer.parseInt(properties.getProperty(software));
-                eligibleTasksDescriptorsLicenses.put(software,
-                                                     new LinkedBlockingQueue<EligibleTaskDescriptor>(numberOfLicenses));
+                numbersOfLicenses.put(software, Integer.parseInt(properties.getProperty(software)));
             }
+            licenses = new ResourceTokenPool();
+            licenses.setCapacities(numbersOfLicenses);
         }
+        return licenses;
     }
 
     @Override
-    public boolean isTaskExecutable(NodeSet selectedNodes, EligibleTaskDescriptor task) {
-
-        logger.debug("Selected Nodes: " + selectedNodes);
+    public boolean acquireResourceTokens(EligibleTaskDescriptor task) {
 
         logger.debug("Analysing task: " + ((EligibleTaskDescriptorImpl) task).getInternal().getName());
 
@@ -88,65 +89,29 @@ public class LicenseSchedulingPolicy extends ExtendedSchedulerPolicy {
         // If it requires software licenses
         if (requiredLicenses != null) {
 
-            initialize();
+            ResourceTokenPool pool = initialize();
             logger.debug("Need to check licenses with " + properties.toString());
 
-            // Iterate over required software licenses
-            final String[] requiredLicensesArray = requiredLicenses.split(",");
-            for (int i = 0; i < requiredLicensesArray.length; i++) {
-                // Retrieve the current software license name and its available number
-                final String currentRequiredLicense = requiredLicensesArray[i];
-
-                // To be executed (ie return true), a task must get a license per requiring software license
-                if (!canGetLicense(currentRequiredLicense)) {
-                    logger.debug("License for " + currentRequiredLicense + " not available, keep task pending");
-                    return false;
-                }
+            // To be executed, a task must get a license per requiring software license
+            Map<String, Integer> neededLicenses = new HashMap<>();
+            for (String requiredLicense : requiredLicenses.split(",")) {
+                Integer count = neededLicenses.get(requiredLicense);
+                neededLicenses.put(requiredLicense, count == null ? 1 : count + 1);
             }
-            // Here we manage to give a license for all required software licenses
-            for (int i = 0; i < requiredLicensesArray.length; i++) {
-                eligibleTasksDescriptorsLicenses.get(requiredLicensesArray[i]).add(task);
+            if (!pool.tryAcquire(task.getTaskId(), neededLicenses)) {
+                logger.debug("Licenses " + neededLicenses.keySet() + " not available, keep task pending");
+                return false;
             }
             logger.debug("All licenses are available, executing task");
-            return true;
-
-        } else {
-            return true;
-        }
-
-    }
-
-    private void removeFinishedTasks(LinkedBlockingQueue<EligibleTaskDescriptor> eligibleTasksDescriptorsLicense) {
-        Iterator<EligibleTaskDescriptor> iter = eligibleTasksDescriptorsLicense.iterator();
-        EligibleTaskDescriptorImpl current_task;
-        while (iter.hasNext()) {
-            current_task = (EligibleTaskDescriptorImpl) iter.next();
-
-            if (current_task.getInternal().getStatus().equals(TaskStatus.FINISHED)) {
-                iter.remove();
-            }
         }
+        return true;
     }
 
-    private boolean canGetLicense(String currentRequiredLicense) {
-
-        // If the required software is not specified in the license properties file
-        if (!eligibleTasksDescriptorsLicenses.containsKey(currentRequiredLicense))
-            return false;
-
-        LinkedBlockingQueue<EligibleTaskDescriptor> eligibleTasksDescriptorsLicense = eligibleTasksDescriptorsLicenses.get(currentRequiredLicense);
-        // if there are still remaining licenses return true
-        if (eligibleTasksDescriptorsLicense.remainingCapacity() > 0) {
-            return true;
-        }
-        // otherwise remove all terminated tasks and check again if there are remaining licenses
-        else {
-            removeFinishedTasks(eligibleTasksDescriptorsLicense);
-
-            if (eligibleTasksDescriptorsLicense.remainingCapacity() > 0) {
-                return true;
-            }
-            return false;
+    @Override
+    public void releaseResourceTokens(TaskId taskId) {
+        ResourceTokenPool pool = licenses;
+        if (pool != null) {
+            pool.release(taskId);
         }
     }
 
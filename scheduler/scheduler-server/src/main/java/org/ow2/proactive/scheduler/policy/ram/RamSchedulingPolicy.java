@@ -25,11 +25,16 @@
  */
 package org.ow2.proactive.scheduler.policy.ram;
 
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.ActiveObjectCreationException;
 import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
+import org.ow2.proactive.resourcemanager.common.NodeResources;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.policy.ExtendedSchedulerPolicy;
@@ -43,6 +48,9 @@ import org.ow2.proactive.utils.NodeSet;
  * this policy will return false if there is not enough RAM available 
  * or true if there is RAM available (in this last case it will set the ALLOC_RAM_GIGABYTES property at node level to book the RAM in the node machine)
  * 
+ * The free RAM is read from the resources reported by the nodes to the resource manager. For the nodes
+ * which do not report them, it is computed on the node by a {@link RamCompute} active object.
+ *
  * It's important to set the ALLOC_RAM_GIGABYTES task property to 0 in the clean script to release the preallocation. For example for a groovy clean script :
  * org.objectweb.proactive.api.PAActiveObject.getNode().setProperty("ALLOC_RAM_GIGABYTES","0");
  *
@@ -51,7 +59,12 @@ public class RamSchedulingPolicy extends ExtendedSchedulerPolicy {
 
     private static final Logger logger = Logger.getLogger(RamSchedulingPolicy.class);
 
-    public static final String RAM_VARIABLE_NAME = "ALLOC_RAM_GIGABYTES";
+    public static final String RAM_VARIABLE_NAME = NodeResources.RESERVED_MEMORY_PROPERTY;
+
+    private static final long GIGABYTE = (1024L * 1024L * 1024L);
+
+    /** RAM booked by this policy, by ProActive runtime of the nodes */
+    private final Map<String, Booking> bookings = new HashMap<>();
 
     @Override
     public boolean isTaskExecutable(NodeSet selectedNodes, EligibleTaskDescriptor task) {
@@ -79,14 +92,24 @@ public class RamSchedulingPolicy extends ExtendedSchedulerPolicy {
     private boolean canRunTaskOnNode(NodeSet selectedNodes, EligibleTaskDescriptor task, double neededRam) {
         Node n = selectedNodes.get(0);
         try {
-            double freeRam = getFreeRamFromNode(n);
-            logger.debug("Free Ram for node (" + n.getNodeInformation().getName() + ") : " + freeRam +
-                         " , neededRam : " + neededRam);
-            if (freeRam >= neededRam) {
-                logger.debug("Task " + ((EligibleTaskDescriptorImpl) task).getInternal().getName() +
-                             " can execute on " + n);
-                n.setProperty(RAM_VARIABLE_NAME, "" + neededRam);
-                return true;
+            synchronized (bookings) {
+                String runtime = n.getVMInformation().getVMID().toString();
+                NodeResources resources = getNodeResources(n.getNodeInformation().getURL());
+                double freeRam;
+                if (resources != null) {
+                    freeRam = getFreeRam(runtime, resources);
+                } else {
+                    freeRam = getFreeRamFromNode(n);
+                }
+                logger.debug("Free Ram for node (" + n.getNodeInformation().getName() + ") : " + freeRam +
+                             " , neededRam : " + neededRam);
+                if (freeRam >= neededRam) {
+                    logger.debug("Task " + ((EligibleTaskDescriptorImpl) task).getInternal().getName() +
+                                 " can execute on " + n);
+                    n.setProperty(RAM_VARIABLE_NAME, "" + neededRam);
+                    book(runtime, neededRam);
+                    return true;
+                }
             }
         } catch (Exception e) {
             logger.error("Error while setting the property " + RAM_VARIABLE_NAME);
@@ -95,6 +118,35 @@ public class RamSchedulingPolicy extends ExtendedSchedulerPolicy {
         return false;
     }
 
+    /**
+     * Computes the free RAM of a node runtime from the resources it reported, minus the RAM booked by this policy
+     * since these resources were received by the resource manager, which the node will only report with its next
+     * resources. The booking time and the reception time both come from the clock of the scheduler and resource
+     * manager host, never from the clock of the node host.
+     */
+    private double getFreeRam(String runtime, NodeResources resources) {
+        double freeRam = ((double) resources.getUnreservedMemory()) / GIGABYTE;
+        Booking booking = bookings.get(runtime);
+        if (booking != null) {
+            if (booking.time <= resources.getReceivedTime()) {
+                bookings.remove(runtime);
+            } else {
+                freeRam -= booking.ram;
+            }
+        }
+        return freeRam;
+    }
+
+    private void book(String runtime, double ram) {
+        Booking booking = bookings.get(runtime);
+        if (booking == null) {
+            booking = new Booking();
+            bookings.put(runtime, booking);
+        }
+        booking.ram += ram;
+        booking.time = System.currentTimeMillis();
+    }
+
     private double getFreeRamFromNode(Node n) throws ActiveObjectCreationException, NodeException {
         RamCompute ramCompute = PAActiveObject.newActive(RamCompute.class, new Object[] {}, n);
         double freeRam = ramCompute.getAvailableRAMInGB();
@@ -106,4 +158,14 @@ public class RamSchedulingPolicy extends ExtendedSchedulerPolicy {
         return freeRam;
     }
 
+    /**
+     * RAM booked on a node runtime by this policy, and the time of the last booking.
+     */
+    private static class Booking implements Serializable {
+
+        private double ram;
+
+        private long time;
+    }
+
 }
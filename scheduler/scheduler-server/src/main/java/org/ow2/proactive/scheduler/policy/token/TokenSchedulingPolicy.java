@@ -0,0 +1,182 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.policy.token;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
+import org.ow2.proactive.scheduler.policy.ExtendedSchedulerPolicy;
+import org.ow2.proactive.scheduler.policy.ResourceTokenPool;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+/**
+ * This Policy limits the running tasks with counted resource tokens, reserved before the nodes of a task are selected.
+ * <ul>
+ *     <li>A task requires named tokens with the generic information REQUIRED_TOKENS, such as
+ *     <code>database_connections:2,shared_storage</code>. Each token name is counted once when no count is given.</li>
+ *     <li>A task takes a running slot of its user when the user has a maximum number of running tasks.</li>
+ * </ul>
+ * The numbers of tokens are read in the file given by the pa.scheduler.token.policy.configuration property,
+ * with <code>token.NAME = NUMBER</code>, <code>user.NAME = NUMBER</code> and <code>user.* = NUMBER</code> entries.
+ * A task requiring an unknown token stays pending.
+ *
+ * @author The ProActive Team
+ * @since ProActive Scheduling 7.35
+ */
+public class TokenSchedulingPolicy extends ExtendedSchedulerPolicy {
+
+    private static final Logger logger = Logger.getLogger(TokenSchedulingPolicy.class);
+
+    public static final String REQUIRED_TOKENS = "REQUIRED_TOKENS";
+
+    static final String TOKEN_PREFIX = "token.";
+
+    static final String USER_PREFIX = "user.";
+
+    static final String DEFAULT_USER_LIMIT = USER_PREFIX + "*";
+
+    // shared by the policy instances, so that the tokens held by the running tasks survive a policy change
+    private static final ResourceTokenPool tokens = new ResourceTokenPool();
+
+    // maximum number of running tasks of the users without their own limit, negative when unlimited
+    private static volatile int defaultUserLimit = -1;
+
+    /**
+     * Reload the numbers of tokens, the tokens held by the running tasks are kept.
+     */
+    @Override
+    public boolean reloadConfig() {
+        String path = PASchedulerProperties.TOKEN_SCHEDULING_POLICY_CONFIGURATION.getValueAsStringOrNull();
+        Properties properties = new Properties();
+        if (path != null && !path.isEmpty()) {
+            try (InputStream fis = new FileInputStream(PASchedulerProperties.getAbsolutePath(path))) {
+                properties.load(fis);
+            } catch (IOException e) {
+                logger.warn("Cannot read resource tokens configuration file " + path, e);
+                return false;
+            }
+        }
+
+        Map<String, Integer> capacities = new HashMap<>();
+        int userLimit = -1;
+        for (String name : properties.stringPropertyNames()) {
+            int capacity;
+            try {
+                capacity = Integer.parseInt(properties.getProperty(name).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid number of tokens for " + name + " : " + properties.getProperty(name));
+                continue;
+            }
+            if (DEFAULT_USER_LIMIT.equals(name)) {
+                userLimit = capacity;
+            } else if (name.startsWith(TOKEN_PREFIX) || name.startsWith(USER_PREFIX)) {
+                capacities.put(name, capacity);
+            }
+        }
+        tokens.setCapacities(capacities);
+        defaultUserLimit = userLimit;
+        logger.debug("Resource tokens : " + capacities + ", default user limit : " + userLimit);
+        return true;
+    }
+
+    @Override
+    public boolean acquireResourceTokens(EligibleTaskDescriptor task) {
+        InternalTask internalTask = ((EligibleTaskDescriptorImpl) task).getInternal();
+
+        Map<String, Integer> neededTokens;
+        try {
+            neededTokens = getRequiredTokens(internalTask.getRuntimeGenericInformation().get(REQUIRED_TOKENS));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid " + REQUIRED_TOKENS + " generic information of task " + task.getTaskId() + " : " +
+                        e.getMessage());
+            return false;
+        }
+
+        String userToken = USER_PREFIX + internalTask.getTaskInfo().getJobInfo().getJobOwner();
+        int userLimit = defaultUserLimit;
+        if (!tokens.isDefined(userToken) && userLimit >= 0) {
+            tokens.setCapacity(userToken, userLimit);
+        }
+        if (tokens.isDefined(userToken)) {
+            neededTokens.put(userToken, 1);
+        }
+
+        if (neededTokens.isEmpty()) {
+            return true;
+        }
+        if (!tokens.tryAcquire(task.getTaskId(), neededTokens)) {
+            logger.debug("Tokens " + neededTokens + " not available for task " + task.getTaskId() +
+                         ", keep task pending");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void releaseResourceTokens(TaskId taskId) {
+        tokens.release(taskId);
+    }
+
+    /**
+     * Parse the value of the REQUIRED_TOKENS generic information.
+     *
+     * @param requiredTokens the comma separated token names, each followed by an optional count
+     * @return the number of tokens needed per token name, prefixed with {@link #TOKEN_PREFIX}
+     */
+    static Map<String, Integer> getRequiredTokens(String requiredTokens) {
+        Map<String, Integer> neededTokens = new HashMap<>();
+        if (requiredTokens == null) {
+            return neededTokens;
+        }
+        for (String requiredToken : requiredTokens.split(",")) {
+            requiredToken = requiredToken.trim();
+            if (requiredToken.isEmpty()) {
+                continue;
+            }
+            int count = 1;
+            int separator = requiredToken.lastIndexOf(':');
+            if (separator > 0) {
+                count = Integer.parseInt(requiredToken.substring(separator + 1).trim());
+                requiredToken = requiredToken.substring(0, separator).trim();
+            }
+            String name = TOKEN_PREFIX + requiredToken;
+            Integer previous = neededTokens.get(name);
+            neededTokens.put(name, previous == null ? count : previous + count);
+        }
+        return neededTokens;
+    }
+
+}
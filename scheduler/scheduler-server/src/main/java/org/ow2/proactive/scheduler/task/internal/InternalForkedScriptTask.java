@@ -35,6 +35,7 @@ import org.objectweb.proactive.core.node.NodeException;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.ProActiveForkedTaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 
 
@@ -62,15 +63,15 @@ public class InternalForkedScriptTask extends InternalScriptTask {
      * {@inheritDoc}
      */
     @Override
-    public TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException {
-        logger.info(getTaskInfo().getTaskId(), "creating forked task launcher");
+    public TaskLauncher createLauncher(TaskLauncherInitializer initializer, Node node)
+            throws ActiveObjectCreationException, NodeException {
+        logger.info(initializer.getTaskId(), "creating forked task launcher");
         TaskLauncher launcher = (TaskLauncher) PAActiveObject.newActive(TaskLauncher.class.getName(),
-                                                                        new Object[] { getDefaultTaskLauncherInitializer(),
+                                                                        new Object[] { initializer,
                                                                                        new ProActiveForkedTaskLauncherFactory() },
                                                                         node);
         // wait until the task launcher is active
         launcher.isActivated();
-        setExecuterInformation(new ExecuterInformation(launcher, node));
 
         return launcher;
     }
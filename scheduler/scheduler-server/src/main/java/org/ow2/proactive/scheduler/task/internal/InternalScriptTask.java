@@ -35,6 +35,7 @@ import org.objectweb.proactive.core.node.NodeException;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.ProActiveNonForkedTaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
 import org.ow2.proactive.scripting.Script;
@@ -65,15 +66,15 @@ public class InternalScriptTask extends InternalTask {
      * {@inheritDoc}
      */
     @Override
-    public TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException {
-        logger.info(getTaskInfo().getTaskId(), "creating non forked task launcher");
+    public TaskLauncher createLauncher(TaskLauncherInitializer initializer, Node node)
+            throws ActiveObjectCreationException, NodeException {
+        logger.info(initializer.getTaskId(), "creating non forked task launcher");
         TaskLauncher launcher = (TaskLauncher) PAActiveObject.newActive(TaskLauncher.class.getName(),
-                                                                        new Object[] { getDefaultTaskLauncherInitializer(),
+                                                                        new Object[] { initializer,
                                                                                        new ProActiveNonForkedTaskLauncherFactory() },
                                                                         node);
         // wait until the task launcher is active
         launcher.isActivated();
-        setExecuterInformation(new ExecuterInformation(launcher, node));
 
         return launcher;
     }
@@ -53,7 +53,6 @@ import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
-import org.ow2.proactive.scheduler.common.task.TaskResult;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.task.flow.FlowAction;
@@ -61,6 +60,7 @@ import org.ow2.proactive.scheduler.common.task.flow.FlowActionType;
 import org.ow2.proactive.scheduler.common.task.flow.FlowBlock;
 import org.ow2.proactive.scheduler.common.task.util.SerializationUtil;
 import org.ow2.proactive.scheduler.core.SchedulingService;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
@@ -490,7 +490,32 @@ public abstract class InternalTask extends TaskState {
      * @param node the node on which to create the launcher.
      * @return the created launcher as an activeObject.
      */
-    public abstract TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException;
+    public TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException {
+        TaskLauncher launcher = createLauncher(createLauncherInitializer(), node);
+        setExecuterInformation(new ExecuterInformation(launcher, node));
+        return launcher;
+    }
+
+    /**
+     * Create the launcher for this taskDescriptor from an initializer prepared beforehand.
+     * The task is neither read nor modified, so the launcher can be created without holding the job lock;
+     * the caller sets the executer information of the task once the launcher is created.
+     *
+     * @param initializer the initializer of the launcher, see {@link #createLauncherInitializer()}.
+     * @param node the node on which to create the launcher.
+     * @return the created launcher as an activeObject.
+     */
+    public abstract TaskLauncher createLauncher(TaskLauncherInitializer initializer, Node node)
+            throws ActiveObjectCreationException, NodeException;
+
+    /**
+     * Prepare the initializer of the launcher of this task, from the state of the task and of its job.
+     *
+     * @return the initializer given to {@link #createLauncher(TaskLauncherInitializer, Node)}.
+     */
+    public TaskLauncherInitializer createLauncherInitializer() {
+        return getDefaultTaskLauncherInitializer();
+    }
 
     /**
      * Return true if this task can handle parent results arguments in its executable
@@ -1182,18 +1207,18 @@ public abstract class InternalTask extends TaskState {
                                                              .getFirstNotSkippedParentTaskIds(parentTask));
                 }
 
-                // Batch fetching of parent tasks results
-                Map<TaskId, TaskResult> taskResults = new HashMap<>();
+                // Batch fetching of parent tasks propagated variables
+                SchedulerDBManager dbManager = schedulingService.getInfrastructure().getDBManager();
+                Map<TaskId, Map<String, byte[]>> parentsPropagatedVariables = new HashMap<>();
                 for (List<TaskId> parentsSubList : ListUtils.partition(new ArrayList<>(parentIds),
                                                                        PASchedulerProperties.SCHEDULER_DB_FETCH_TASK_RESULTS_BATCH_SIZE.getValueAsInt())) {
 
-                    taskResults.putAll(schedulingService.getInfrastructure()
-                                                        .getDBManager()
-                                                        .loadTasksResults(internalJob.getId(), parentsSubList));
+                    parentsPropagatedVariables.putAll(dbManager.loadTasksPropagatedVariables(internalJob.getId(),
+                                                                                             parentsSubList));
 
                 }
                 if (!parentIds.isEmpty()) {
-                    updateVariablesWithTaskResults(taskResults);
+                    updateVariablesWithPropagatedVariables(parentsPropagatedVariables);
                 }
             }
 
@@ -1201,12 +1226,12 @@ public abstract class InternalTask extends TaskState {
         }
     }
 
-    private void updateVariablesWithTaskResults(Map<TaskId, TaskResult> taskResults) {
-        for (TaskResult taskResult : taskResults.values()) {
-            Map<String, Serializable> propagatedVariables = new HashMap<>();
-            if (taskResult.getPropagatedVariables() != null) {
+    private void updateVariablesWithPropagatedVariables(Map<TaskId, Map<String, byte[]>> parentsPropagatedVariables) {
+        for (Map<String, byte[]> serializedVariables : parentsPropagatedVariables.values()) {
+            if (serializedVariables != null) {
                 try {
-                    propagatedVariables = SerializationUtil.deserializeVariableMap(taskResult.getPropagatedVariables());
+                    Map<String, Serializable> propagatedVariables;
+                    propagatedVariables = SerializationUtil.deserializeVariableMap(serializedVariables);
                     if (propagatedVariables != null) {
                         updateInheritedPropagatedVariables(propagatedVariables);
                     }
@@ -35,13 +35,19 @@ import org.junit.Test;
 import org.ow2.proactive.db.SortOrder;
 import org.ow2.proactive.db.SortParameter;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
+import org.ow2.proactive.scheduler.common.Page;
+import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
+import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 
@@ -317,6 +323,197 @@ public class TestLoadJobsPagination extends BaseSchedulerDBTest {
         checkJobs(jobs);
     }
 
+    @Test
+    public void testPagingAfterJob() throws Exception {
+        InternalJob job1 = defaultSubmitJob(createJob("A", JobPriority.IDLE), "user_a"); // 1
+        defaultSubmitJob(createJob("B", JobPriority.LOWEST), "user_b"); // 2
+        InternalJob job3 = defaultSubmitJob(createJob("C", JobPriority.LOW), "user_c"); // 3
+        defaultSubmitJob(createJob("A", JobPriority.NORMAL), "user_d"); // 4
+        InternalJob job5 = defaultSubmitJob(createJob("B", JobPriority.HIGH), "user_e"); // 5
+        defaultSubmitJob(createJob("C", JobPriority.HIGHEST), "user_f"); // 6
+        defaultSubmitJob(createJob("A", JobPriority.NORMAL), "user_a"); // 7
+
+        job1.failed(null, JobStatus.KILLED);
+        dbManager.updateAfterJobKilled(job1, Collections.<TaskId> emptySet());
+
+        job3.setPaused();
+        dbManager.updateJobAndTasksState(job3);
+
+        job5.start();
+        InternalTask taskJob5 = startTask(job5, job5.getITasks().get(0));
+        dbManager.jobTaskStarted(job5, taskJob5, true);
+
+        checkPagesAfterJob(sortParameters(new SortParameter<>(JobSortParameter.STATE, SortOrder.ASC),
+                                          new SortParameter<>(JobSortParameter.ID, SortOrder.DESC)),
+                           7, 6, 4, 2, 5, 3, 1);
+        checkPagesAfterJob(sortParameters(new SortParameter<>(JobSortParameter.NAME, SortOrder.ASC)),
+                           1, 4, 7, 2, 5, 3, 6);
+        checkPagesAfterJob(sortParameters(new SortParameter<>(JobSortParameter.PRIORITY, SortOrder.DESC),
+                                          new SortParameter<>(JobSortParameter.OWNER, SortOrder.DESC)),
+                           6, 5, 4, 7, 3, 2, 1);
+        checkPagesAfterJob(sortParameters(new SortParameter<>(JobSortParameter.STATE, SortOrder.DESC),
+                                          new SortParameter<>(JobSortParameter.NAME, SortOrder.DESC),
+                                          new SortParameter<>(JobSortParameter.ID, SortOrder.ASC)),
+                           1, 3, 5, 6, 2, 4, 7);
+
+        List<JobInfo> jobs = dbManager.getJobsAfter(JobIdImpl.makeJobId("7"),
+                                                    10,
+                                                    "user_a",
+                                                    true,
+                                                    true,
+                                                    true,
+                                                    sortParameters(new SortParameter<>(JobSortParameter.ID,
+                                                                                       SortOrder.DESC)))
+                                      .getList();
+        checkJobs(jobs, 1);
+
+        Page<JobInfo> page = dbManager.getJobsAfter(JobIdImpl.makeJobId("4"),
+                                                    10,
+                                                    null,
+                                                    true,
+                                                    false,
+                                                    false,
+                                                    sortParameters(new SortParameter<>(JobSortParameter.ID,
+                                                                                       SortOrder.ASC)));
+        checkJobs(page.getList(), 6, 7);
+        Assert.assertEquals(4, page.getSize());
+
+        Assert.assertNull(dbManager.getJobsAfter(JobIdImpl.makeJobId("100"),
+                                                 10,
+                                                 null,
+                                                 true,
+                                                 true,
+                                                 true,
+                                                 sortParameters(new SortParameter<>(JobSortParameter.ID,
+                                                                                    SortOrder.ASC))));
+    }
+
+    @Test
+    public void testTotalNumberOfJobsFollowsStatusChanges() throws Exception {
+        InternalJob job = defaultSubmitJob(createJob(), "user");
+        defaultSubmitJob(createJob(), "user");
+
+        Assert.assertEquals(2, dbManager.getJobs(0, 10, null, true, false, false, null).getSize());
+        Assert.assertEquals(0, dbManager.getJobs(0, 10, null, false, true, false, null).getSize());
+
+        job.start();
+        InternalTask task = startTask(job, job.getITasks().get(0));
+        dbManager.jobTaskStarted(job, task, true);
+
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, null, true, false, false, null).getSize());
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, null, false, true, false, null).getSize());
+    }
+
+    @Test
+    public void testTotalNumberOfJobsOfOwnerFollowsStatusChanges() throws Exception {
+        InternalJob job = defaultSubmitJob(createJob(), "user");
+        defaultSubmitJob(createJob(), "other");
+
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, "user", true, false, false, null).getSize());
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, "other", true, false, false, null).getSize());
+
+        job.start();
+        InternalTask task = startTask(job, job.getITasks().get(0));
+        dbManager.jobTaskStarted(job, task, true);
+
+        Assert.assertEquals(0, dbManager.getJobs(0, 10, "user", true, false, false, null).getSize());
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, "user", false, true, false, null).getSize());
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, "other", true, false, false, null).getSize());
+        Assert.assertEquals(1, dbManager.getJobs(0, 10, null, true, false, false, null).getSize());
+    }
+
+    @Test
+    public void testTaskPagesAfterTask() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            TaskFlowJob job = new TaskFlowJob();
+            job.setName("job" + i);
+            for (int j = 0; j < 3; j++) {
+                JavaTask task = new JavaTask();
+                task.setName("task" + j);
+                if (j != 1) {
+                    task.setTag("tag" + (i + j) % 2);
+                }
+                task.setExecutableClassName("className");
+                job.addTask(task);
+            }
+            defaultSubmitJob(job, "user");
+        }
+
+        checkTaskPagesAfterTask(new SortSpecifierContainer());
+        checkTaskPagesAfterTask(new SortSpecifierContainer("taskName,descending"));
+        checkTaskPagesAfterTask(new SortSpecifierContainer("tag,ascending;taskName,descending"));
+        checkTaskPagesAfterTask(new SortSpecifierContainer("tag,descending;id.taskId,descending"));
+
+        TaskState firstTask = dbManager.getTaskStates(0,
+                                                      0,
+                                                      null,
+                                                      0,
+                                                      1,
+                                                      null,
+                                                      true,
+                                                      true,
+                                                      true,
+                                                      new SortSpecifierContainer())
+                                       .getList()
+                                       .get(0);
+        TaskId unknownTask = TaskIdImpl.createTaskId(firstTask.getJobId(), "unknown", 100);
+        Assert.assertNull(dbManager.getTaskStatesAfter(unknownTask,
+                                                       0,
+                                                       0,
+                                                       null,
+                                                       10,
+                                                       null,
+                                                       true,
+                                                       true,
+                                                       true,
+                                                       new SortSpecifierContainer()));
+    }
+
+    /**
+     * Checks that the pages of tasks located after the last task of the previous page contain the
+     * same tasks, in the same order, as a single page sorted with the same parameters
+     */
+    private void checkTaskPagesAfterTask(SortSpecifierContainer sortParams) {
+        List<String> tasks = new ArrayList<>();
+        Page<TaskState> page = dbManager.getTaskStatesAfter(null, 0, 0, null, 2, null, true, true, true, sortParams);
+        Assert.assertEquals(9, page.getSize());
+        while (!page.getList().isEmpty()) {
+            for (TaskState task : page.getList()) {
+                tasks.add(task.getJobId() + "/" + task.getName());
+            }
+            TaskId lastTaskId = page.getList().get(page.getList().size() - 1).getId();
+            page = dbManager.getTaskStatesAfter(lastTaskId, 0, 0, null, 2, null, true, true, true, sortParams);
+        }
+
+        List<String> expectedTasks = new ArrayList<>();
+        Page<TaskState> allTasks = dbManager.getTaskStatesAfter(null,
+                                                                0,
+                                                                0,
+                                                                null,
+                                                                100,
+                                                                null,
+                                                                true,
+                                                                true,
+                                                                true,
+                                                                sortParams);
+        for (TaskState task : allTasks.getList()) {
+            expectedTasks.add(task.getJobId() + "/" + task.getName());
+        }
+        Assert.assertEquals(9, expectedTasks.size());
+        Assert.assertEquals(expectedTasks, tasks);
+    }
+
+    private void checkPagesAfterJob(List<SortParameter<JobSortParameter>> sortParameters, Integer... expectedIds) {
+        List<JobInfo> jobs = new ArrayList<>();
+        List<JobInfo> page = dbManager.getJobsAfter(null, 2, null, true, true, true, sortParameters).getList();
+        while (!page.isEmpty()) {
+            jobs.addAll(page);
+            JobId lastJobId = page.get(page.size() - 1).getJobId();
+            page = dbManager.getJobsAfter(lastJobId, 2, null, true, true, true, sortParameters).getList();
+        }
+        checkJobs(jobs, expectedIds);
+    }
+
     private List<SortParameter<JobSortParameter>> sortParameters(SortParameter<JobSortParameter>... params) {
         return Arrays.asList(params);
     }
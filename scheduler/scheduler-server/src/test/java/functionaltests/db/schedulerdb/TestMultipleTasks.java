@@ -29,6 +29,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 
@@ -49,6 +50,33 @@ public class TestMultipleTasks extends BaseSchedulerDBTest {
         Assert.assertEquals(TASKS_NUMBER, jobData.getTasks().size());
     }
 
+    @Test
+    public void testDependenciesAcrossSubmissionBatches() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+
+        final int TASKS_NUMBER = PASchedulerProperties.SCHEDULER_DB_SUBMISSION_BATCH_SIZE.getValueAsInt() * 3 + 1;
+
+        JavaTask previous = null;
+        for (int i = 0; i < TASKS_NUMBER; i++) {
+            JavaTask task = createDefaultTask("task-" + i);
+            if (previous != null) {
+                task.addDependence(previous);
+            }
+            job.addTask(task);
+            previous = task;
+        }
+
+        InternalJob jobData = defaultSubmitJobAndLoadInternal(true, job);
+        Assert.assertEquals(TASKS_NUMBER, jobData.getITasks().size());
+
+        Assert.assertNull(jobData.getTask("task-0").getDependences());
+        for (int i = 1; i < TASKS_NUMBER; i++) {
+            InternalTask task = jobData.getTask("task-" + i);
+            Assert.assertEquals(1, task.getDependences().size());
+            Assert.assertEquals(jobData.getTask("task-" + (i - 1)).getId(), task.getDependences().get(0).getId());
+        }
+    }
+
     @Test
     public void testDependencies() throws Exception {
         TaskFlowJob job = new TaskFlowJob();
@@ -0,0 +1,133 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests.db.schedulerdb;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestSchedulerDBJournal extends BaseSchedulerDBTest {
+
+    @Before
+    @Override
+    public void initTest() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_JOURNAL_ENABLED.updateProperty("true");
+        // no periodic flush during the test
+        PASchedulerProperties.SCHEDULER_DB_JOURNAL_FLUSH_PERIOD.updateProperty("3600000");
+        PASchedulerProperties.SCHEDULER_DB_JOURNAL_CAPACITY.updateProperty("3");
+        super.initTest();
+    }
+
+    @After
+    @Override
+    public void cleanup() {
+        super.cleanup();
+        PASchedulerProperties.SCHEDULER_DB_JOURNAL_ENABLED.updateProperty("false");
+        PASchedulerProperties.SCHEDULER_DB_JOURNAL_FLUSH_PERIOD.updateProperty("200");
+        PASchedulerProperties.SCHEDULER_DB_JOURNAL_CAPACITY.updateProperty("10000");
+    }
+
+    @Test
+    public void testTaskUpdatesAreWrittenBehind() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        job.start();
+        InternalTask task1 = startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, task1, true);
+
+        InternalJob loadedJob = loadInternalJob(true, job.getId());
+        Assert.assertEquals(JobStatus.PENDING, loadedJob.getStatus());
+        Assert.assertNotEquals(TaskStatus.RUNNING, loadedJob.getTask("task1").getStatus());
+
+        // any other modification writes the journal first
+        dbManager.changeJobPriority(job.getId(), JobPriority.HIGH);
+
+        loadedJob = loadInternalJob(true, job.getId());
+        Assert.assertEquals(JobStatus.RUNNING, loadedJob.getStatus());
+        Assert.assertEquals(1, loadedJob.getNumberOfRunningTasks());
+        Assert.assertEquals(TaskStatus.RUNNING, loadedJob.getTask("task1").getStatus());
+        Assert.assertEquals(TaskStatus.PENDING, loadedJob.getTask("task2").getStatus());
+    }
+
+    @Test
+    public void testMergedUpdatesKeepTheLastState() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        job.start();
+        InternalTask task = startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, task, true);
+
+        TaskResultImpl result = new TaskResultImpl(null, new TestResult(0, "result"), null, 0);
+        job.terminateTask(false, task.getId(), null, null, result);
+        job.terminate();
+        dbManager.updateAfterTaskFinished(job, task, result);
+
+        // reading the results writes the journal first
+        TaskResult loadedResult = dbManager.loadLastTaskResult(task.getId());
+        Assert.assertEquals("result", ((TestResult) loadedResult.value()).getB());
+
+        InternalJob loadedJob = loadInternalJob(true, job.getId());
+        Assert.assertEquals(JobStatus.FINISHED, loadedJob.getStatus());
+        Assert.assertEquals(1, loadedJob.getNumberOfFinishedTasks());
+        Assert.assertEquals(0, loadedJob.getNumberOfRunningTasks());
+        Assert.assertEquals(TaskStatus.FINISHED, loadedJob.getTask("task1").getStatus());
+        Assert.assertTrue(loadedJob.getTask("task1").getStartTime() > 0);
+        Assert.assertTrue(loadedJob.getTask("task1").getFinishedTime() > 0);
+    }
+
+    @Test
+    public void testFullJournalIsFlushedByTheAppendingThread() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        jobDef.addTask(createDefaultTask("task3"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        // one update per task, reaching the capacity of the journal
+        dbManager.updateTaskSchedulingTime(job, 42);
+
+        InternalJob loadedJob = loadInternalJob(true, job.getId());
+        for (InternalTask task : loadedJob.getITasks()) {
+            Assert.assertEquals(42, task.getScheduledTime());
+        }
+    }
+}
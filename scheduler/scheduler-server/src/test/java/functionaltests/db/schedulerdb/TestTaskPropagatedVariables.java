@@ -0,0 +1,115 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests.db.schedulerdb;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.db.DatabaseManagerException;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.util.SerializationUtil;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestTaskPropagatedVariables extends BaseSchedulerDBTest {
+
+    @Before
+    @Override
+    public void initTest() throws Exception {
+        // only the last finished task stays in memory, the other ones are read from the database
+        PASchedulerProperties.SCHEDULER_DB_PROPAGATED_VARIABLES_CACHE_SIZE.updateProperty("1");
+        super.initTest();
+    }
+
+    @After
+    @Override
+    public void cleanup() {
+        super.cleanup();
+        PASchedulerProperties.SCHEDULER_DB_PROPAGATED_VARIABLES_CACHE_SIZE.updateProperty("10000");
+    }
+
+    @Test
+    public void testLoadLastPropagatedVariables() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        jobDef.addTask(createDefaultTask("task3"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        InternalTask task1 = job.getTask("task1");
+        InternalTask task2 = job.getTask("task2");
+        InternalTask task3 = job.getTask("task3");
+
+        dbManager.updateAfterTaskFinished(job, task1, createResult("var", "1_1"));
+        dbManager.updateAfterTaskFinished(job, task1, createResult("var", "1_2"));
+        dbManager.updateAfterTaskFinished(job, task2, createResult("var", "2_1"));
+        dbManager.updateAfterTaskFinished(job, task3, new TaskResultImpl(null, new TestResult(0, "3_1"), null, 0));
+
+        Map<TaskId, Map<String, byte[]>> propagatedVariables;
+        propagatedVariables = dbManager.loadTasksPropagatedVariables(job.getId(),
+                                                                     Arrays.asList(task1.getId(),
+                                                                                   task2.getId(),
+                                                                                   task3.getId()));
+
+        Assert.assertEquals(3, propagatedVariables.size());
+        Assert.assertEquals("1_2", deserialize(propagatedVariables.get(task1.getId())).get("var"));
+        Assert.assertEquals("2_1", deserialize(propagatedVariables.get(task2.getId())).get("var"));
+        Assert.assertTrue(propagatedVariables.containsKey(task3.getId()));
+        Assert.assertNull(propagatedVariables.get(task3.getId()));
+    }
+
+    @Test(expected = DatabaseManagerException.class)
+    public void testLoadPropagatedVariablesWithoutResult() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        dbManager.loadTasksPropagatedVariables(job.getId(), Collections.singletonList(job.getTask("task1").getId()));
+    }
+
+    private TaskResultImpl createResult(String name, String value) {
+        TaskResultImpl result = new TaskResultImpl(null, new TestResult(0, value), null, 0);
+        Map<String, Serializable> variables = new HashMap<>();
+        variables.put(name, value);
+        result.setPropagatedVariables(SerializationUtil.serializeVariableMap(variables));
+        return result;
+    }
+
+    private Map<String, Serializable> deserialize(Map<String, byte[]> propagatedVariables) throws Exception {
+        return SerializationUtil.deserializeVariableMap(propagatedVariables);
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests.db.schedulerdb;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.SimpleTaskLogs;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.core.db.TaskResultData;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestTaskResultStore extends BaseSchedulerDBTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    @Override
+    public void initTest() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_RESULT_STORE_THRESHOLD.updateProperty("100");
+        PASchedulerProperties.SCHEDULER_DB_RESULT_STORE_DIR.updateProperty(folder.newFolder("results")
+                                                                                 .getAbsolutePath());
+        super.initTest();
+    }
+
+    @After
+    @Override
+    public void cleanup() {
+        super.cleanup();
+        PASchedulerProperties.SCHEDULER_DB_RESULT_STORE_THRESHOLD.updateProperty("-1");
+        PASchedulerProperties.SCHEDULER_DB_RESULT_STORE_DIR.updateProperty("data/results");
+    }
+
+    @Test
+    public void testLargeContentsAreStoredOutsideOfTheDatabase() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("small"));
+        jobDef.addTask(createDefaultTask("large"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        InternalTask small = job.getTask("small");
+        InternalTask large = job.getTask("large");
+
+        StringBuilder largeOutput = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            largeOutput.append("line ").append(i).append('\n');
+        }
+
+        dbManager.updateAfterTaskFinished(job, small, new TaskResultImpl(null, "value", null, 0));
+        dbManager.updateAfterTaskFinished(job,
+                                          large,
+                                          new TaskResultImpl(null,
+                                                             largeOutput.toString(),
+                                                             new SimpleTaskLogs(largeOutput.toString(), ""),
+                                                             0));
+
+        Session session = dbManager.getSessionFactory().openSession();
+        try {
+            List<TaskResultData> results = session.createCriteria(TaskResultData.class).list();
+            Assert.assertEquals(2, results.size());
+            for (TaskResultData resultData : results) {
+                if (resultData.getSerializedValue() == null) {
+                    Assert.assertNotNull(resultData.getValueReference());
+                    Assert.assertNotNull(resultData.getLogsReference());
+                    Assert.assertNull(resultData.getLogs());
+                } else {
+                    Assert.assertNull(resultData.getValueReference());
+                    Assert.assertNull(resultData.getLogsReference());
+                }
+            }
+        } finally {
+            session.close();
+        }
+
+        Assert.assertEquals("value", dbManager.loadLastTaskResult(small.getId()).value());
+
+        TaskResult largeResult = dbManager.loadLastTaskResult(large.getId());
+        Assert.assertEquals(largeOutput.toString(), largeResult.value());
+        Assert.assertEquals(largeOutput.toString(), largeResult.getOutput().getStdoutLogs());
+
+        Assert.assertEquals(largeOutput.toString(),
+                            dbManager.loadJobResult(job.getId()).getResult("large").value());
+    }
+
+}
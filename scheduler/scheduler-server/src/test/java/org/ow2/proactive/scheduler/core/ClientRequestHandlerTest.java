@@ -0,0 +1,256 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.UniqueID;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
+import org.ow2.proactive.scheduler.common.SchedulerEventCall;
+import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobState;
+import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+
+
+public class ClientRequestHandlerTest {
+
+    private static final Method TASK_STATE_UPDATED;
+
+    static {
+        try {
+            TASK_STATE_UPDATED = SchedulerEventListener.class.getMethod("taskStateUpdatedEvent",
+                                                                        NotificationData.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SchedulerFrontendState frontend;
+
+    private UniqueID clientId;
+
+    @Before
+    public void setUp() {
+        frontend = mock(SchedulerFrontendState.class);
+        clientId = new UniqueID();
+    }
+
+    @Test
+    public void testStateUpdatesAreCoalescedWhenQueueIsFull() throws Exception {
+        BlockingListener client = new BlockingListener();
+        ClientRequestHandler handler = new ClientRequestHandler(frontend,
+                                                                clientId,
+                                                                client,
+                                                                2,
+                                                                ClientRequestHandler.OverflowPolicy.COALESCE);
+        TaskId task1 = mock(TaskId.class);
+        TaskId task2 = mock(TaskId.class);
+
+        // the first event is being sent, the client blocks
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+        assertTrue(client.firstCallStarted.await(10, TimeUnit.SECONDS));
+
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+        NotificationData<TaskInfo> task2Update = taskEvent(task2, SchedulerEvent.TASK_PROGRESS);
+        handler.addEvent(TASK_STATE_UPDATED, task2Update);
+        assertEquals(2, handler.getQueueDepth());
+
+        NotificationData<TaskInfo> latestTask1Update = taskEvent(task1, SchedulerEvent.TASK_PROGRESS);
+        handler.addEvent(TASK_STATE_UPDATED, latestTask1Update);
+
+        assertEquals(2, handler.getQueueDepth());
+        assertEquals(1, handler.getCoalescedEventsCount());
+        assertEquals(0, handler.getDroppedEventsCount());
+        assertFalse(handler.isStale());
+
+        client.release.countDown();
+        client.awaitEvents(3);
+        // the coalesced update is sent after the events queued before the latest update
+        assertSame(task2Update, client.events.get(1));
+        assertSame(latestTask1Update, client.events.get(2));
+        verify(frontend, never()).markAsDirty(clientId);
+    }
+
+    @Test
+    public void testClientIsMarkedAsDirtyWhenEventsAreDropped() throws Exception {
+        BlockingListener client = new BlockingListener();
+        ClientRequestHandler handler = new ClientRequestHandler(frontend,
+                                                                clientId,
+                                                                client,
+                                                                1,
+                                                                ClientRequestHandler.OverflowPolicy.DROP);
+        TaskId task1 = mock(TaskId.class);
+
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+        assertTrue(client.firstCallStarted.await(10, TimeUnit.SECONDS));
+
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+
+        assertEquals(1, handler.getQueueDepth());
+        assertEquals(0, handler.getCoalescedEventsCount());
+        assertEquals(1, handler.getDroppedEventsCount());
+        assertTrue(handler.isStale());
+        verify(frontend).markAsDirty(clientId);
+
+        client.release.countDown();
+    }
+
+    @Test
+    public void testDifferentEventTypesAreNotCoalesced() throws Exception {
+        BlockingListener client = new BlockingListener();
+        ClientRequestHandler handler = new ClientRequestHandler(frontend,
+                                                                clientId,
+                                                                client,
+                                                                1,
+                                                                ClientRequestHandler.OverflowPolicy.COALESCE);
+        TaskId task1 = mock(TaskId.class);
+
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+        assertTrue(client.firstCallStarted.await(10, TimeUnit.SECONDS));
+
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_PROGRESS));
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(task1, SchedulerEvent.TASK_RUNNING_TO_FINISHED));
+
+        assertEquals(1, handler.getDroppedEventsCount());
+        assertTrue(handler.isStale());
+
+        client.release.countDown();
+    }
+
+    @Test
+    public void testEventsAreSentInBatches() throws Exception {
+        BatchListener client = new BatchListener();
+        ClientRequestHandler handler = new ClientRequestHandler(frontend,
+                                                                clientId,
+                                                                client,
+                                                                10,
+                                                                ClientRequestHandler.OverflowPolicy.COALESCE);
+
+        handler.addEvent(TASK_STATE_UPDATED, taskEvent(mock(TaskId.class), SchedulerEvent.TASK_PROGRESS));
+        assertTrue(client.firstCallStarted.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            handler.addEvent(TASK_STATE_UPDATED, taskEvent(mock(TaskId.class), SchedulerEvent.TASK_PROGRESS));
+        }
+        client.release.countDown();
+
+        client.awaitEvents(6);
+        assertEquals(Collections.singletonList(5), client.batchSizes);
+        assertEquals(6, handler.getSentEventsCount());
+        verify(frontend, never()).markAsDirty(clientId);
+    }
+
+    private static NotificationData<TaskInfo> taskEvent(TaskId taskId, SchedulerEvent eventType) {
+        TaskInfo taskInfo = mock(TaskInfo.class);
+        when(taskInfo.getTaskId()).thenReturn(taskId);
+        return new NotificationData<>(eventType, taskInfo);
+    }
+
+    /**
+     * Records task events, the first call blocks until released.
+     */
+    public static class BlockingListener implements SchedulerEventListener {
+
+        final CountDownLatch firstCallStarted = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void taskStateUpdatedEvent(NotificationData<TaskInfo> notification) {
+            if (firstCallStarted.getCount() > 0) {
+                firstCallStarted.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(notification);
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, events.size());
+        }
+
+        @Override
+        public void schedulerStateUpdatedEvent(SchedulerEvent eventType) {
+        }
+
+        @Override
+        public void jobSubmittedEvent(JobState job) {
+        }
+
+        @Override
+        public void jobStateUpdatedEvent(NotificationData<JobInfo> notification) {
+        }
+
+        @Override
+        public void jobUpdatedFullDataEvent(JobState job) {
+        }
+
+        @Override
+        public void usersUpdatedEvent(NotificationData<UserIdentification> notification) {
+        }
+    }
+
+    public static class BatchListener extends BlockingListener implements SchedulerEventBatchListener {
+
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+        @Override
+        public void schedulerEventsBatch(List<SchedulerEventCall> events) {
+            batchSizes.add(events.size());
+            SchedulerEventCall.deliverAll(this, events);
+        }
+    }
+}
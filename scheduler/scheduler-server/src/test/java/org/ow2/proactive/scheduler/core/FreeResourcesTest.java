@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class FreeResourcesTest {
+
+    private final Set<String> freeNodes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("a", "b", "c")));
+
+    @Test
+    public void testAcquiredNodesAreRemovedWithoutChangingTheFreeNodes() {
+        Set<String> freeResources = new FreeResources(freeNodes);
+
+        freeResources.removeAll(Arrays.asList("a", "b", "unknown"));
+
+        assertThat(freeResources, is((Set<String>) new HashSet<>(Arrays.asList("c"))));
+        assertThat(freeResources.size(), is(1));
+        assertThat(freeResources.contains("a"), is(false));
+        assertThat(freeNodes.size(), is(3));
+    }
+
+    @Test
+    public void testGivenBackAndLeasedNodesAreAdded() {
+        Set<String> freeResources = new FreeResources(freeNodes);
+        freeResources.removeAll(Arrays.asList("a", "b"));
+
+        freeResources.addAll(Arrays.asList("a", "leased"));
+
+        assertThat(freeResources, is((Set<String>) new HashSet<>(Arrays.asList("a", "c", "leased"))));
+        assertThat(freeResources.size(), is(3));
+
+        freeResources.removeAll(Arrays.asList("leased", "c", "a"));
+
+        assertThat(freeResources.isEmpty(), is(true));
+        assertThat(freeResources.iterator().hasNext(), is(false));
+    }
+}
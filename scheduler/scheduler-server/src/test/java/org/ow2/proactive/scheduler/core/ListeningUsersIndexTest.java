@@ -0,0 +1,111 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.job.UserIdentificationImpl;
+
+
+public class ListeningUsersIndexTest {
+
+    private ListeningUsersIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ListeningUsersIndex();
+    }
+
+    @Test
+    public void listenerOfEveryEventIsIndexedForAllEventTypes() {
+        ListeningUser admin = listeningUser("admin", false);
+        index.add(admin);
+
+        for (SchedulerEvent event : SchedulerEvent.values()) {
+            assertThat(index.getListeners(event, "user")).containsExactly(admin);
+            assertThat(index.getListeners(event, null)).containsExactly(admin);
+        }
+    }
+
+    @Test
+    public void listenerIsOnlyVisitedForItsSubscribedEvents() {
+        ListeningUser admin = listeningUser("admin", false, SchedulerEvent.JOB_SUBMITTED);
+        index.add(admin);
+
+        assertThat(index.getListeners(SchedulerEvent.JOB_SUBMITTED, "user")).containsExactly(admin);
+        assertThat(index.getListeners(SchedulerEvent.TASK_PENDING_TO_RUNNING, "user")).isEmpty();
+    }
+
+    @Test
+    public void myEventsOnlyListenerIsOnlyVisitedForItsOwnEvents() {
+        ListeningUser admin = listeningUser("admin", false);
+        ListeningUser user = listeningUser("user", true);
+        index.add(admin);
+        index.add(user);
+
+        assertThat(index.getListeners(SchedulerEvent.JOB_SUBMITTED, "user")).containsExactly(admin, user);
+        assertThat(index.getListeners(SchedulerEvent.JOB_SUBMITTED, "other")).containsExactly(admin);
+        // events without owner are sent to every listener
+        assertThat(index.getListeners(SchedulerEvent.PAUSED, null)).containsExactly(admin, user);
+    }
+
+    @Test
+    public void removedListenerIsNotVisitedEvenIfItsSubscriptionChanged() {
+        ListeningUser user = listeningUser("user", true, SchedulerEvent.JOB_SUBMITTED);
+        index.add(user);
+
+        user.getUser().setUserEvents(new SchedulerEvent[] { SchedulerEvent.JOB_UPDATED });
+        user.getUser().setMyEventsOnly(false);
+        index.remove(user);
+
+        assertThat(index.getListeners(SchedulerEvent.JOB_SUBMITTED, "user")).isEmpty();
+        assertThat(index.getListeners(SchedulerEvent.JOB_SUBMITTED, null)).isEmpty();
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void addingAgainReplacesThePreviousSubscription() {
+        ListeningUser user = listeningUser("user", false, SchedulerEvent.JOB_SUBMITTED);
+        index.add(user);
+
+        user.getUser().setUserEvents(new SchedulerEvent[] { SchedulerEvent.JOB_UPDATED });
+        index.add(user);
+
+        assertThat(index.getListeners(SchedulerEvent.JOB_SUBMITTED, "user")).isEmpty();
+        assertThat(index.getListeners(SchedulerEvent.JOB_UPDATED, "user")).containsExactly(user);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static ListeningUser listeningUser(String username, boolean myEventsOnly, SchedulerEvent... events) {
+        UserIdentificationImpl identification = new UserIdentificationImpl(username);
+        identification.setUserEvents(events);
+        identification.setMyEventsOnly(myEventsOnly);
+        return new ListeningUser(identification);
+    }
+}
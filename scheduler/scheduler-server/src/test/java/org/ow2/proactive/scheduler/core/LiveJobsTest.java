@@ -29,12 +29,16 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
-import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -44,13 +48,17 @@ import org.mockito.stubbing.Answer;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeInformation;
 import org.objectweb.proactive.core.runtime.VMInformation;
+import org.ow2.proactive.scheduler.common.JobDescriptor;
+import org.ow2.proactive.scheduler.common.NotificationData;
 import org.ow2.proactive.scheduler.common.exception.UnknownJobException;
 import org.ow2.proactive.scheduler.common.exception.UnknownTaskException;
 import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.task.OnTaskError;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
@@ -66,7 +74,6 @@ import org.ow2.proactive.scheduler.task.internal.ExecuterInformation;
 import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.tests.ProActiveTestClean;
-import org.python.google.common.collect.ImmutableSet;
 
 
 public class LiveJobsTest extends ProActiveTestClean {
@@ -79,6 +86,9 @@ public class LiveJobsTest extends ProActiveTestClean {
     @Mock
     private SchedulerStateUpdate listener;
 
+    @Captor
+    private ArgumentCaptor<Map<InternalTask, TaskResultImpl>> savedTasks;
+
     @Before
     public void init() {
         MockitoAnnotations.initMocks(this);
@@ -86,60 +96,43 @@ public class LiveJobsTest extends ProActiveTestClean {
     }
 
     @Test(timeout = 60000)
-    public void testPriorityConflict() throws Exception {
-        TreeSet<JobPriority> scheduled = createTreeSet(JobPriority.LOW);
-        TreeSet<JobPriority> notScheduled = createTreeSet(JobPriority.HIGHEST);
-
-        Assert.assertTrue(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.LOW);
-        notScheduled = createTreeSet(JobPriority.LOW);
-
-        Assert.assertFalse(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.HIGHEST);
-        notScheduled = createTreeSet(JobPriority.LOW);
-
-        Assert.assertFalse(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.LOW, JobPriority.HIGHEST);
-        notScheduled = createTreeSet(JobPriority.NORMAL);
-
-        Assert.assertTrue(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.HIGHEST, JobPriority.LOW);
-        notScheduled = createTreeSet(JobPriority.NORMAL);
-
-        Assert.assertTrue(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.LOW, JobPriority.NORMAL);
-        notScheduled = createTreeSet(JobPriority.NORMAL);
-
-        Assert.assertTrue(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.NORMAL, JobPriority.HIGHEST);
-        notScheduled = createTreeSet(JobPriority.NORMAL);
-
-        Assert.assertFalse(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.NORMAL);
-        notScheduled = createTreeSet(JobPriority.LOW, JobPriority.HIGHEST);
-
-        Assert.assertTrue(liveJobs.priorityConflict(scheduled, notScheduled));
-
-        scheduled = createTreeSet(JobPriority.NORMAL);
-        notScheduled = createTreeSet(JobPriority.LOW, JobPriority.NORMAL);
-
-        Assert.assertFalse(liveJobs.priorityConflict(scheduled, notScheduled));
+    public void testLockJobsToScheduleSkipsBusyJobs() throws Exception {
+        SchedulingLoopStatistics loopStatistics = new SchedulingLoopStatistics();
+        liveJobs = new LiveJobs(dbManager, listener, loopStatistics);
+        InternalJob busy = submitSingleTaskJob(1L, JobPriority.HIGHEST);
+        InternalJob idle = submitSingleTaskJob(2L, JobPriority.LOW);
+
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final JobId busyId = busy.getId();
+        Thread owner = new Thread() {
+            @Override
+            public void run() {
+                LiveJobs.JobData jobData = liveJobs.lockJob(busyId);
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    jobData.unlock();
+                }
+            }
+        };
+        owner.start();
+        locked.await();
 
-        scheduled = createTreeSet(JobPriority.NORMAL);
-        notScheduled = createTreeSet(JobPriority.NORMAL, JobPriority.HIGHEST);
+        Map<JobId, JobDescriptor> lockedJobs = liveJobs.lockJobsToSchedule();
+        assertThat(new ArrayList<>(lockedJobs.keySet()), is(Arrays.asList(idle.getId())));
+        assertThat(loopStatistics.getSkippedBusyJobsCount(), is(1L));
+        liveJobs.unlockJobsToSchedule(lockedJobs.values());
 
-        Assert.assertTrue(liveJobs.priorityConflict(scheduled, notScheduled));
-    }
+        release.countDown();
+        owner.join();
 
-    private TreeSet<JobPriority> createTreeSet(JobPriority... priorities) {
-        return new TreeSet<>(ImmutableSet.copyOf(priorities));
+        lockedJobs = liveJobs.lockJobsToSchedule();
+        assertThat(new ArrayList<>(lockedJobs.keySet()), is(Arrays.asList(busy.getId(), idle.getId())));
+        liveJobs.unlockJobsToSchedule(lockedJobs.values());
     }
 
     @Test(timeout = 60000)
@@ -352,6 +345,89 @@ public class LiveJobsTest extends ProActiveTestClean {
         assertThat(liveJobs.lockJobsToSchedule().size(), is(1));
     }
 
+    @Test(timeout = 60000)
+    public void testLockJobsToScheduleByPriority() throws UnknownJobException, UnknownTaskException {
+        InternalJob normal1 = submitSingleTaskJob(1L, JobPriority.NORMAL);
+        InternalJob low = submitSingleTaskJob(2L, JobPriority.LOW);
+        InternalJob high = submitSingleTaskJob(3L, JobPriority.HIGH);
+        InternalJob normal2 = submitSingleTaskJob(4L, JobPriority.NORMAL);
+
+        Map<JobId, JobDescriptor> locked = liveJobs.lockJobsToSchedule();
+        assertThat(new ArrayList<>(locked.keySet()),
+                   is(Arrays.asList(high.getId(), normal1.getId(), normal2.getId(), low.getId())));
+        liveJobs.unlockJobsToSchedule(locked.values());
+
+        liveJobs.changeJobPriority(low.getId(), JobPriority.HIGHEST);
+        liveJobs.changeJobPriority(normal1.getId(), JobPriority.LOW);
+
+        locked = liveJobs.lockJobsToSchedule();
+        assertThat(new ArrayList<>(locked.keySet()),
+                   is(Arrays.asList(low.getId(), high.getId(), normal2.getId(), normal1.getId())));
+        liveJobs.unlockJobsToSchedule(locked.values());
+
+        liveJobs.killJob(high.getId());
+
+        locked = liveJobs.lockJobsToSchedule();
+        assertThat(new ArrayList<>(locked.keySet()),
+                   is(Arrays.asList(low.getId(), normal2.getId(), normal1.getId())));
+        liveJobs.unlockJobsToSchedule(locked.values());
+    }
+
+    @Test(timeout = 60000)
+    public void testTasksTerminatedWithResultInOneBatch() throws UnknownTaskException {
+        InternalJob job = new InternalTaskFlowJob("test-name",
+                                                  JobPriority.NORMAL,
+                                                  OnTaskError.CANCEL_JOB,
+                                                  "description");
+        JobId id = new JobIdImpl(666L, "test-name");
+        job.setId(id);
+        List<InternalTask> tasksList = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            InternalTask internalTask = new InternalScriptTask(job);
+            internalTask.setId(TaskIdImpl.createTaskId(id, "task-name" + i, i));
+            internalTask.setName("task-name" + i);
+            internalTask.setExecuterInformation(Mockito.mock(ExecuterInformation.class));
+            tasksList.add(internalTask);
+        }
+        job.setTasks(tasksList);
+        liveJobs.jobSubmitted(job);
+        liveJobs.lockJobsToSchedule();
+        liveJobs.taskStarted(job, job.getTask("task-name0"), null);
+        liveJobs.taskStarted(job, job.getTask("task-name1"), null);
+        Mockito.reset(listener);
+
+        Map<TaskId, TaskResultImpl> results = new LinkedHashMap<>();
+        for (InternalTask task : tasksList) {
+            results.put(task.getId(), new TaskResultImpl(task.getId(), "result", null, 10));
+        }
+        TerminationData terminationData = liveJobs.tasksTerminatedWithResult(id, results);
+
+        assertThat(terminationData.jobTerminated(id), is(true));
+        assertThat(terminationData.taskTerminated(id, "task-name0"), is(true));
+        assertThat(terminationData.taskTerminated(id, "task-name1"), is(true));
+        assertThat(job.getStatus(), is(JobStatus.FINISHED));
+
+        Mockito.verify(dbManager, Mockito.times(1)).updateAfterTasksFinished(Matchers.eq(job),
+                                                                             savedTasks.capture());
+        assertThat(savedTasks.getValue().size(), is(2));
+        Mockito.verify(listener, Mockito.times(2)).taskStateUpdated(Matchers.anyString(),
+                                                                    Matchers.<NotificationData<TaskInfo>> any());
+        Mockito.verify(listener, Mockito.times(1)).jobStateUpdated(Matchers.anyString(),
+                                                                   Matchers.<NotificationData<JobInfo>> any());
+    }
+
+    private InternalJob submitSingleTaskJob(long id, JobPriority priority) {
+        InternalJob job = new InternalTaskFlowJob("test-name", priority, OnTaskError.CANCEL_JOB, "description");
+        job.setId(new JobIdImpl(id, "test-name"));
+        List<InternalTask> tasksList = new ArrayList<>();
+        InternalTask internalTask = new InternalScriptTask(job);
+        internalTask.setName("task-name");
+        tasksList.add(internalTask);
+        job.setTasks(tasksList);
+        liveJobs.jobSubmitted(job);
+        return job;
+    }
+
     @Test(expected = IllegalStateException.class, timeout = 60000)
     public void testRestartTaskOnNodeFailureRunningExceptionExpectedBecauseNotLockedTask()
             throws UnknownJobException, UnknownTaskException {
@@ -0,0 +1,135 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeInformation;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxiesManager;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxy;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.scripting.Script;
+import org.ow2.proactive.utils.NodeSet;
+
+
+public class NodeLeasesTest {
+
+    private SchedulingLoopStatistics statistics;
+
+    private NodeLeases nodeLeases;
+
+    private InternalJob job;
+
+    private InternalTask finishedTask;
+
+    private InternalTask nextTask;
+
+    private NodeSet nodes;
+
+    private RMProxiesManager proxiesManager;
+
+    private RMProxy rmProxy;
+
+    @Before
+    public void init() throws Exception {
+        statistics = new SchedulingLoopStatistics();
+        nodeLeases = new NodeLeases(60000, statistics);
+
+        job = Mockito.mock(InternalJob.class);
+        Mockito.when(job.getOwner()).thenReturn("user");
+        finishedTask = Mockito.mock(InternalTask.class);
+        nextTask = Mockito.mock(InternalTask.class);
+
+        Node node = Mockito.mock(Node.class);
+        NodeInformation nodeInformation = Mockito.mock(NodeInformation.class);
+        Mockito.when(nodeInformation.getURL()).thenReturn("pnp://host:1234/node");
+        Mockito.when(node.getNodeInformation()).thenReturn(nodeInformation);
+        nodes = new NodeSet();
+        nodes.add(node);
+
+        proxiesManager = Mockito.mock(RMProxiesManager.class);
+        rmProxy = Mockito.mock(RMProxy.class);
+        Mockito.when(proxiesManager.getUserRMProxy("user", null)).thenReturn(rmProxy);
+    }
+
+    @Test
+    public void testDisabledLeasesDoNotKeepNodes() {
+        nodeLeases = new NodeLeases(0, statistics);
+        assertThat(nodeLeases.offer(job, finishedTask, nodes, "user", null), is(false));
+        assertThat(nodeLeases.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testLeasedNodeIsReusedByCompatibleTask() {
+        assertThat(nodeLeases.offer(job, finishedTask, nodes, "user", null), is(true));
+        assertThat(nodeLeases.getLeasedNodesUrls().contains("pnp://host:1234/node"), is(true));
+
+        NodeSet acquired = nodeLeases.acquire(new SchedulingTaskComparator(nextTask, job), 1);
+
+        assertThat(acquired.size(), is(1));
+        assertThat(nodeLeases.isEmpty(), is(true));
+        assertThat(statistics.getLeasedNodesCount(), is(1L));
+        assertThat(statistics.getReusedLeasesCount(), is(1L));
+    }
+
+    @Test
+    public void testLeasedNodeIsNotReusedByTaskOfAnotherOwner() {
+        nodeLeases.offer(job, finishedTask, nodes, "user", null);
+
+        InternalJob otherJob = Mockito.mock(InternalJob.class);
+        Mockito.when(otherJob.getOwner()).thenReturn("other");
+        NodeSet acquired = nodeLeases.acquire(new SchedulingTaskComparator(nextTask, otherJob), 1);
+
+        assertThat(acquired.isEmpty(), is(true));
+        assertThat(nodeLeases.isEmpty(), is(false));
+    }
+
+    @Test
+    public void testTaskWithCleaningScriptDoesNotLeaseItsNode() {
+        Mockito.when(finishedTask.getCleaningScript()).thenReturn(Mockito.mock(Script.class));
+        assertThat(nodeLeases.offer(job, finishedTask, nodes, "user", null), is(false));
+    }
+
+    @Test
+    public void testExpiredLeasesAreReturnedToTheResourceManager() {
+        nodeLeases.offer(job, finishedTask, nodes, "user", null);
+
+        nodeLeases.releaseExpired(proxiesManager, System.currentTimeMillis());
+        assertThat(nodeLeases.isEmpty(), is(false));
+
+        nodeLeases.releaseExpired(proxiesManager, System.currentTimeMillis() + 60000);
+        assertThat(nodeLeases.isEmpty(), is(true));
+        Mockito.verify(rmProxy).releaseNodes(Mockito.any(NodeSet.class));
+        assertThat(statistics.getReturnedLeasesCount(), is(1L));
+    }
+
+}
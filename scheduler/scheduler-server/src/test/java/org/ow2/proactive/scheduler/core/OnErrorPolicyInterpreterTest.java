@@ -39,6 +39,7 @@ import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.tests.ProActiveTestClean;
 
@@ -265,7 +266,8 @@ public class OnErrorPolicyInterpreterTest extends ProActiveTestClean {
             }
 
             @Override
-            public TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException {
+            public TaskLauncher createLauncher(TaskLauncherInitializer initializer, Node node)
+                    throws ActiveObjectCreationException, NodeException {
                 // TODO Auto-generated method stub
                 return null;
             }
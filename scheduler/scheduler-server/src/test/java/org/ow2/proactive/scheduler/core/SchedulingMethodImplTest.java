@@ -0,0 +1,251 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.objectweb.proactive.ActiveObjectCreationException;
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.scheduler.common.TaskDescriptor;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxiesManager;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxy;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.policy.Policy;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
+import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
+import org.ow2.proactive.scheduler.task.internal.ExecuterInformation;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.threading.CallableWithTimeoutAction;
+import org.ow2.proactive.threading.TimeoutThreadPoolExecutor;
+import org.ow2.proactive.utils.NodeSet;
+
+import com.google.common.util.concurrent.Futures;
+
+
+public class SchedulingMethodImplTest {
+
+    private SchedulingService schedulingService;
+
+    private RMProxy rmProxy;
+
+    private Policy policy;
+
+    private InternalJob job;
+
+    private ExecutorService taskLaunchThreadPool;
+
+    private SchedulingMethodImpl schedulingMethod;
+
+    @Before
+    public void init() throws Exception {
+        schedulingService = Mockito.mock(SchedulingService.class);
+        SchedulingInfrastructure infrastructure = Mockito.mock(SchedulingInfrastructure.class);
+        Mockito.when(schedulingService.getInfrastructure()).thenReturn(infrastructure);
+        DataSpaceServiceStarter dataSpaceServiceStarter = Mockito.mock(DataSpaceServiceStarter.class);
+        Mockito.when(infrastructure.getDataSpaceServiceStarter()).thenReturn(dataSpaceServiceStarter);
+        RMProxiesManager proxiesManager = Mockito.mock(RMProxiesManager.class);
+        Mockito.when(infrastructure.getRMProxiesManager()).thenReturn(proxiesManager);
+        rmProxy = Mockito.mock(RMProxy.class);
+        Mockito.when(proxiesManager.getUserRMProxy(Matchers.anyString(), Matchers.any(Credentials.class)))
+               .thenReturn(rmProxy);
+        Mockito.when(schedulingService.lockJob(Matchers.any(JobId.class)))
+               .thenReturn(Mockito.mock(LiveJobs.JobData.class));
+        policy = Mockito.mock(Policy.class);
+        Mockito.when(schedulingService.getPolicy()).thenReturn(policy);
+
+        job = Mockito.mock(InternalJob.class);
+        Mockito.when(job.getId()).thenReturn(new JobIdImpl(1, "job"));
+        Mockito.when(job.getOwner()).thenReturn("user");
+
+        TimeoutThreadPoolExecutor threadPool = Mockito.mock(TimeoutThreadPoolExecutor.class);
+        Mockito.when(threadPool.submitWithTimeout(Matchers.<CallableWithTimeoutAction<Void>> any(),
+                                                  Matchers.anyLong(),
+                                                  Matchers.any(TimeUnit.class)))
+               .thenReturn(Futures.<Void> immediateFuture(null));
+        taskLaunchThreadPool = Executors.newFixedThreadPool(3);
+        schedulingMethod = new SchedulingMethodImpl(schedulingService, threadPool, taskLaunchThreadPool);
+    }
+
+    @After
+    public void resetProperties() {
+        taskLaunchThreadPool.shutdownNow();
+        PASchedulerProperties.SCHEDULER_STARTTASK_TASKS_PER_FREE_NODE.updateProperty("4");
+    }
+
+    @Test
+    public void testOrderedTasksAreCopiedUpToWhatFreeNodesCanAbsorb() {
+        PASchedulerProperties.SCHEDULER_STARTTASK_TASKS_PER_FREE_NODE.updateProperty("2");
+        List<EligibleTaskDescriptor> orderedTasks = new ArrayList<>();
+        orderedTasks.add(eligibleTask(1));
+        // cannot fit in the free nodes, not counted
+        orderedTasks.add(eligibleTask(5));
+        for (int i = 0; i < 10; i++) {
+            orderedTasks.add(eligibleTask(1));
+        }
+
+        List<EligibleTaskDescriptor> copiedTasks = SchedulingMethodImpl.copyOrderedTasks(orderedTasks.iterator(), 3);
+
+        assertThat(copiedTasks, is(orderedTasks.subList(0, 7)));
+    }
+
+    @Test
+    public void testAllOrderedTasksAreCopiedWithoutLimit() {
+        PASchedulerProperties.SCHEDULER_STARTTASK_TASKS_PER_FREE_NODE.updateProperty("0");
+        List<EligibleTaskDescriptor> orderedTasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orderedTasks.add(eligibleTask(1));
+        }
+
+        List<EligibleTaskDescriptor> copiedTasks = SchedulingMethodImpl.copyOrderedTasks(orderedTasks.iterator(), 1);
+
+        assertThat(copiedTasks, is(orderedTasks));
+    }
+
+    @Test
+    public void testTasksAreLaunchedConcurrently() throws Exception {
+        final CountDownLatch launchersBeingCreated = new CountDownLatch(3);
+        List<Future<Boolean>> taskLaunches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            InternalTask task = createTask(i);
+            Mockito.when(task.createLauncher(Matchers.any(TaskLauncherInitializer.class), Matchers.any(Node.class)))
+                   .thenAnswer(new Answer<TaskLauncher>() {
+                       @Override
+                       public TaskLauncher answer(InvocationOnMock invocation) throws Throwable {
+                           // every launcher is created at the same time
+                           launchersBeingCreated.countDown();
+                           assertTrue(launchersBeingCreated.await(10, TimeUnit.SECONDS));
+                           return Mockito.mock(TaskLauncher.class);
+                       }
+                   });
+            taskLaunches.add(launch(task));
+        }
+
+        assertThat(schedulingMethod.waitForTaskLaunches(taskLaunches), is(3));
+        Mockito.verify(schedulingService, Mockito.times(3)).taskStarted(Matchers.eq(job),
+                                                                        Matchers.any(InternalTask.class),
+                                                                        Matchers.any(TaskLauncher.class));
+        Mockito.verify(rmProxy, Mockito.never()).releaseNodes(Matchers.any(NodeSet.class));
+    }
+
+    @Test
+    public void testNodesAreReleasedWhenLauncherCreationFails() throws Exception {
+        InternalTask task = createTask(0);
+        Mockito.when(task.createLauncher(Matchers.any(TaskLauncherInitializer.class), Matchers.any(Node.class)))
+               .thenThrow(ActiveObjectCreationException.class);
+        List<Future<Boolean>> taskLaunches = new ArrayList<>();
+        taskLaunches.add(launch(task));
+
+        assertThat(schedulingMethod.waitForTaskLaunches(taskLaunches), is(0));
+        assertThat(schedulingMethod.activeObjectCreationFailures.get(), is(1));
+        Mockito.verify(rmProxy).releaseNodes(Matchers.any(NodeSet.class));
+        Mockito.verify(policy).releaseResourceTokens(task.getId());
+        Mockito.verify(schedulingService, Mockito.never()).taskStarted(Matchers.any(InternalJob.class),
+                                                                       Matchers.any(InternalTask.class),
+                                                                       Matchers.any(TaskLauncher.class));
+    }
+
+    @Test
+    public void testNodesAreReleasedWhenTaskChangesWhileLauncherIsCreated() throws Exception {
+        InternalTask task = createTask(0);
+        final AtomicReference<TaskStatus> status = new AtomicReference<>(TaskStatus.PENDING);
+        Mockito.when(task.getStatus()).thenAnswer(new Answer<TaskStatus>() {
+            @Override
+            public TaskStatus answer(InvocationOnMock invocation) {
+                return status.get();
+            }
+        });
+        Mockito.when(task.createLauncher(Matchers.any(TaskLauncherInitializer.class), Matchers.any(Node.class)))
+               .thenAnswer(new Answer<TaskLauncher>() {
+                   @Override
+                   public TaskLauncher answer(InvocationOnMock invocation) {
+                       // the task is paused by a client while its launcher is created
+                       status.set(TaskStatus.PAUSED);
+                       return Mockito.mock(TaskLauncher.class);
+                   }
+               });
+        List<Future<Boolean>> taskLaunches = new ArrayList<>();
+        taskLaunches.add(launch(task));
+
+        assertThat(schedulingMethod.waitForTaskLaunches(taskLaunches), is(0));
+        Mockito.verify(rmProxy).releaseNodes(Matchers.any(NodeSet.class));
+        Mockito.verify(task, Mockito.never()).setExecuterInformation(Matchers.any(ExecuterInformation.class));
+        Mockito.verify(schedulingService, Mockito.never()).taskStarted(Matchers.any(InternalJob.class),
+                                                                       Matchers.any(InternalTask.class),
+                                                                       Matchers.any(TaskLauncher.class));
+    }
+
+    private Future<Boolean> launch(InternalTask task) {
+        EligibleTaskDescriptorImpl taskDescriptor = Mockito.mock(EligibleTaskDescriptorImpl.class);
+        Mockito.when(taskDescriptor.getInternal()).thenReturn(task);
+        Mockito.when(taskDescriptor.getParents()).thenReturn(new Vector<TaskDescriptor>());
+        NodeSet nodeSet = new NodeSet();
+        nodeSet.add(Mockito.mock(Node.class, Mockito.RETURNS_DEEP_STUBS));
+        return schedulingMethod.launchExecution(nodeSet, job, task, taskDescriptor);
+    }
+
+    private InternalTask createTask(int index) {
+        InternalTask task = Mockito.mock(InternalTask.class);
+        Mockito.when(task.getId()).thenReturn(TaskIdImpl.createTaskId(job.getId(), "task" + index, index));
+        Mockito.when(task.getStatus()).thenReturn(TaskStatus.PENDING);
+        Mockito.when(task.getNumberOfNodesNeeded()).thenReturn(1);
+        Mockito.when(task.getExecutableContainer()).thenReturn(Mockito.mock(ExecutableContainer.class));
+        return task;
+    }
+
+    private static EligibleTaskDescriptor eligibleTask(int numberOfNodesNeeded) {
+        EligibleTaskDescriptor task = Mockito.mock(EligibleTaskDescriptor.class);
+        Mockito.when(task.getNumberOfNodesNeeded()).thenReturn(numberOfNodesNeeded);
+        return task;
+    }
+}
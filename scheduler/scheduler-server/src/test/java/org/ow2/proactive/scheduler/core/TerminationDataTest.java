@@ -90,6 +90,7 @@ public class TerminationDataTest extends ProActiveTestClean {
     public void init() throws RMProxyCreationException {
         MockitoAnnotations.initMocks(this);
         Mockito.when(service.getInfrastructure()).thenReturn(schedulingInfrastructure);
+        Mockito.when(service.getNodeLeases()).thenReturn(new NodeLeases(0, new SchedulingLoopStatistics()));
         Mockito.when(schedulingInfrastructure.getRMProxiesManager()).thenReturn(proxiesManager);
         Mockito.when(proxiesManager.getUserRMProxy("user", null)).thenReturn(rmProxy);
         Mockito.when(service.getInfrastructure().getDBManager()).thenReturn(dbManager);
@@ -0,0 +1,80 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+
+public class CountCacheTest {
+
+    private final CountCache cache = new CountCache(60000);
+
+    @Test
+    public void testWriteInvalidatesTheCountsOfItsOwnerOnly() {
+        put("user", 1);
+        put("other", 2);
+        put(null, 3);
+
+        cache.invalidate("user");
+
+        assertNull(cache.get("user", "jobs"));
+        assertNull(cache.get(null, "jobs"));
+        assertEquals(Integer.valueOf(2), cache.get("other", "jobs"));
+    }
+
+    @Test
+    public void testWriteOfUnknownOwnerInvalidatesAllTheCounts() {
+        put("user", 1);
+        put("other", 2);
+        put("", 3);
+
+        cache.invalidate(null);
+
+        assertNull(cache.get("user", "jobs"));
+        assertNull(cache.get("other", "jobs"));
+        assertNull(cache.get("", "jobs"));
+    }
+
+    @Test
+    public void testCountConcurrentWithAWriteOfItsOwnerIsNotKept() {
+        long userVersion = cache.getVersion("user");
+        long otherVersion = cache.getVersion("other");
+
+        cache.invalidate("user");
+        cache.put("user", "jobs", 1, userVersion);
+        cache.put("other", "jobs", 2, otherVersion);
+
+        assertNull(cache.get("user", "jobs"));
+        assertEquals(Integer.valueOf(2), cache.get("other", "jobs"));
+    }
+
+    private void put(String owner, int count) {
+        cache.put(owner, "jobs", count, cache.getVersion(owner));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+
+import org.apache.commons.io.IOUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class FileTaskResultStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File root;
+
+    @Before
+    public void init() throws IOException {
+        root = folder.newFolder("results");
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 0);
+        byte[] content = "some task result".getBytes(StandardCharsets.UTF_8);
+
+        String reference = store.put(content);
+
+        assertArrayEquals(content, store.get(reference));
+        assertArrayEquals(new byte[0], store.get(store.put(new byte[0])));
+    }
+
+    @Test
+    public void testOpenStream() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 0);
+        byte[] content = "some task result".getBytes(StandardCharsets.UTF_8);
+
+        try (InputStream stream = store.openStream(store.put(content))) {
+            assertArrayEquals(content, IOUtils.toByteArray(stream));
+        }
+    }
+
+    @Test
+    public void testSameContentIsStoredOnce() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 0);
+
+        String reference = store.put("value".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(reference, store.put("value".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(reference, store.put("other value".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRemove() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 0);
+        String reference = store.put("value".getBytes(StandardCharsets.UTF_8));
+
+        store.remove(reference);
+        // removing twice is not an error
+        store.remove(reference);
+
+        store.get(reference);
+    }
+
+    @Test
+    public void testContentStoredRecentlyIsNotRemoved() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 3600000);
+        byte[] content = "value".getBytes(StandardCharsets.UTF_8);
+        String reference = store.put(content);
+
+        store.remove(reference);
+
+        assertArrayEquals(content, store.get(reference));
+    }
+
+    @Test
+    public void testListRemovable() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 0);
+        String first = store.put("value".getBytes(StandardCharsets.UTF_8));
+        String second = store.put("other value".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new HashSet<>(asList(first, second)), new HashSet<>(store.listRemovable()));
+    }
+
+    @Test
+    public void testContentStoredRecentlyIsNotListedAsRemovable() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 3600000);
+        store.put("value".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(store.listRemovable().isEmpty());
+    }
+
+    @Test
+    public void testInvalidReference() throws IOException {
+        FileTaskResultStore store = new FileTaskResultStore(root, 0);
+        try {
+            store.get("../../etc/passwd");
+            fail("Expected the reference to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -26,10 +26,12 @@
 package org.ow2.proactive.scheduler.policy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -97,6 +99,46 @@ public class DefaultPolicyTest extends ProActiveTestClean {
         assertEquals(job3.getJobId(), orderedTasks.get(2).getJobId());
     }
 
+    @Test
+    public void ordered_tasks_iterator_follows_priorities() throws Exception {
+        JobDescriptorImpl jobLow = createSingleTaskJob(JobPriority.LOW);
+        JobDescriptorImpl jobHigh = createSingleTaskJob(JobPriority.HIGH);
+        JobDescriptorImpl job1 = createSingleTaskJob();
+        JobDescriptorImpl job2 = createSingleTaskJob();
+
+        List<JobDescriptor> jobs = submitJobs(job2, jobLow, job1, jobHigh);
+
+        Iterator<EligibleTaskDescriptor> orderedTasks = new DefaultPolicy().getOrderedTasksIterator(jobs);
+
+        assertEquals(jobHigh.getJobId(), orderedTasks.next().getJobId());
+        assertEquals(job1.getJobId(), orderedTasks.next().getJobId());
+        assertEquals(job2.getJobId(), orderedTasks.next().getJobId());
+        assertEquals(jobLow.getJobId(), orderedTasks.next().getJobId());
+        assertFalse(orderedTasks.hasNext());
+    }
+
+    @Test
+    public void ordered_tasks_iterator_uses_overridden_ordered_tasks() throws Exception {
+        JobDescriptorImpl jobHigh = createSingleTaskJob(JobPriority.HIGH);
+        JobDescriptorImpl jobLow = createSingleTaskJob(JobPriority.LOW);
+
+        List<JobDescriptor> jobs = submitJobs(jobHigh, jobLow);
+
+        DefaultPolicy reversedPolicy = new DefaultPolicy() {
+            @Override
+            public LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobs) {
+                LinkedList<EligibleTaskDescriptor> orderedTasks = super.getOrderedTasks(jobs);
+                Collections.reverse(orderedTasks);
+                return orderedTasks;
+            }
+        };
+        Iterator<EligibleTaskDescriptor> orderedTasks = reversedPolicy.getOrderedTasksIterator(jobs);
+
+        assertEquals(jobLow.getJobId(), orderedTasks.next().getJobId());
+        assertEquals(jobHigh.getJobId(), orderedTasks.next().getJobId());
+        assertFalse(orderedTasks.hasNext());
+    }
+
     private JobDescriptorImpl createSingleTaskJob(JobPriority jobPriority) {
         InternalTaskFlowJob taskFlowJob = new InternalTaskFlowJob("test", jobPriority, OnTaskError.CANCEL_JOB, "");
         taskFlowJob.setId(JobIdImpl.makeJobId(Integer.toString(jobId++)));
@@ -161,6 +161,68 @@ public class ExtendedSchedulerPolicyTest extends ProActiveTestClean {
         assertTrue(orderedTasks != null && orderedTasks.size() == 2);
     }
 
+    @Test
+    public void testNextEligibleTasksTime() {
+        String inOneHour = ISO8601DateUtil.parse(new Date(System.currentTimeMillis() + 3600000));
+        List<JobDescriptor> jobDescList = asModifiableList(createJobDescWithTwoTasks(null, inOneHour, later));
+
+        policy.getOrderedTasks(jobDescList);
+
+        assertEquals(ISO8601DateUtil.toDate(inOneHour).getTime(), policy.getNextEligibleTasksTime());
+    }
+
+    @Test
+    public void testNextEligibleTasksTimeWithoutDelayedTask() {
+        List<JobDescriptor> jobDescList = asModifiableList(createJobDescWithTwoTasks(null, now, null));
+
+        policy.getOrderedTasks(jobDescList);
+
+        assertEquals(Long.MAX_VALUE, policy.getNextEligibleTasksTime());
+    }
+
+    @Test
+    public void testChangedJobStartAt() {
+        JobDescriptor jobDesc = createJobDescWithTwoTasks(later, null, null);
+        List<JobDescriptor> jobDescList = asModifiableList(jobDesc);
+        assertEquals(0, policy.getOrderedTasks(jobDescList).size());
+
+        // the start time of a job is changed along with the scheduled time of its tasks
+        InternalJob job = ((JobDescriptorImpl) jobDesc).getInternal();
+        job.addGenericInformation("START_AT", now);
+        for (InternalTask task : job.getITasks()) {
+            task.setScheduledTime(0);
+        }
+
+        assertEquals(2, policy.getOrderedTasks(jobDescList).size());
+    }
+
+    @Test
+    public void testTasksEligibleAgainAfterACycleWithoutThem() {
+        JobDescriptor jobStartingNow = createJobDescWithTwoTasks(null, null, null);
+        JobDescriptor jobStartingLater = createJobDescWithTwoTasks(later, null, null);
+
+        assertEquals(2, policy.getOrderedTasks(asModifiableList(jobStartingNow, jobStartingLater)).size());
+        assertEquals(0, policy.getOrderedTasks(asModifiableList(jobStartingLater)).size());
+        assertEquals(2, policy.getOrderedTasks(asModifiableList(jobStartingLater, jobStartingNow)).size());
+    }
+
+    @Test
+    public void testSameTaskOfJobsWithDifferentStartAt() {
+        JobDescriptor jobStartingNow = createJobDescWithTwoTasks(null, null, null);
+        JobDescriptor jobStartingLater = createJobDescWithTwoTasks(later, null, null);
+        assertEquals(jobStartingNow.getEligibleTasks().iterator().next().getTaskId(),
+                     jobStartingLater.getEligibleTasks().iterator().next().getTaskId());
+
+        assertEquals(2, policy.getOrderedTasks(asModifiableList(jobStartingNow)).size());
+
+        LinkedList<EligibleTaskDescriptor> orderedTasks = policy.getOrderedTasks(asModifiableList(jobStartingNow,
+                                                                                                  jobStartingLater));
+        assertEquals(2, orderedTasks.size());
+        for (EligibleTaskDescriptor task : orderedTasks) {
+            assertEquals(jobStartingNow.getJobId(), task.getJobId());
+        }
+    }
+
     @Test
     public void job_with_same_priorities() throws Exception {
         JobDescriptor job1 = createJobDescWithTwoTasks(null, null, null);
@@ -0,0 +1,133 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.policy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+
+
+public class ResourceTokenPoolTest {
+
+    private ResourceTokenPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ResourceTokenPool();
+        Map<String, Integer> capacities = new HashMap<>();
+        capacities.put("licenseA", 2);
+        capacities.put("licenseB", 1);
+        pool.setCapacities(capacities);
+    }
+
+    @Test
+    public void tokens_are_acquired_until_capacity() {
+        assertTrue(pool.tryAcquire(taskId(1), tokens("licenseA", 1)));
+        assertTrue(pool.tryAcquire(taskId(2), tokens("licenseA", 1)));
+        assertFalse(pool.tryAcquire(taskId(3), tokens("licenseA", 1)));
+        assertEquals(0, pool.getAvailable("licenseA"));
+    }
+
+    @Test
+    public void tokens_are_acquired_all_or_none() {
+        assertTrue(pool.tryAcquire(taskId(1), tokens("licenseB", 1)));
+
+        Map<String, Integer> both = tokens("licenseA", 1);
+        both.put("licenseB", 1);
+        assertFalse(pool.tryAcquire(taskId(2), both));
+
+        assertEquals(2, pool.getAvailable("licenseA"));
+        assertFalse(pool.isHolding(taskId(2)));
+    }
+
+    @Test
+    public void undefined_token_is_never_acquired() {
+        assertFalse(pool.tryAcquire(taskId(1), tokens("licenseC", 1)));
+    }
+
+    @Test
+    public void released_tokens_can_be_acquired_again() {
+        assertTrue(pool.tryAcquire(taskId(1), tokens("licenseA", 2)));
+        assertFalse(pool.tryAcquire(taskId(2), tokens("licenseA", 1)));
+
+        pool.release(taskId(1));
+        pool.release(taskId(1));
+
+        assertEquals(2, pool.getAvailable("licenseA"));
+        assertTrue(pool.tryAcquire(taskId(2), tokens("licenseA", 1)));
+    }
+
+    @Test
+    public void held_tokens_survive_capacity_change() {
+        assertTrue(pool.tryAcquire(taskId(1), tokens("licenseA", 2)));
+
+        pool.setCapacity("licenseA", 1);
+        assertEquals(0, pool.getAvailable("licenseA"));
+
+        pool.release(taskId(1));
+        assertEquals(1, pool.getAvailable("licenseA"));
+    }
+
+    @Test
+    public void same_task_of_different_jobs_hold_their_own_tokens() {
+        TaskId taskOfJob1 = taskId("1", 0);
+        TaskId taskOfJob2 = taskId("2", 0);
+
+        assertTrue(pool.tryAcquire(taskOfJob1, tokens("licenseB", 1)));
+        assertFalse(pool.tryAcquire(taskOfJob2, tokens("licenseB", 1)));
+        assertFalse(pool.isHolding(taskOfJob2));
+
+        pool.release(taskOfJob2);
+        assertEquals(0, pool.getAvailable("licenseB"));
+
+        pool.release(taskOfJob1);
+        assertEquals(1, pool.getAvailable("licenseB"));
+    }
+
+    private static Map<String, Integer> tokens(String name, int count) {
+        Map<String, Integer> tokens = new HashMap<>();
+        tokens.put(name, count);
+        return tokens;
+    }
+
+    private static TaskId taskId(int id) {
+        return taskId("1", id);
+    }
+
+    private static TaskId taskId(String jobId, int id) {
+        return TaskIdImpl.createTaskId(JobIdImpl.makeJobId(jobId), "task" + id, id);
+    }
+
+}
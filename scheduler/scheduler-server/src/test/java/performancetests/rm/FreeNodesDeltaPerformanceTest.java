@@ -0,0 +1,170 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performancetests.rm;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.ow2.proactive.resourcemanager.common.RMFreeNodesDelta;
+import org.ow2.proactive.resourcemanager.common.RMState;
+import org.ow2.proactive.resourcemanager.common.RMStateNodeUrls;
+import org.ow2.proactive.resourcemanager.core.FreeNodesJournal;
+
+import performancetests.recovery.NodeRecoveryTest;
+
+
+/**
+ * Compares the per scheduling loop cost of retrieving the free nodes through a full
+ * {@link RMState} snapshot with the cost of the incremental free nodes feed.
+ * <p>
+ * Each simulated loop changes the state of a fixed number of nodes, as a loop starting
+ * a few tasks would. The snapshot cost grows with the number of nodes, while the delta
+ * cost only depends on the number of changed nodes.
+ */
+@RunWith(Parameterized.class)
+public class FreeNodesDeltaPerformanceTest {
+
+    private static final Logger LOGGER = Logger.getLogger(FreeNodesDeltaPerformanceTest.class);
+
+    private static final int LOOPS = 200;
+
+    private static final int CHANGES_PER_LOOP = 20;
+
+    /**
+     * @return the number of nodes in the resource manager
+     */
+    @Parameters
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { { 1000 }, { 5000 }, { 10000 }, { 20000 } });
+    }
+
+    private final int nodesNumber;
+
+    private List<String> nodeUrls;
+
+    private Set<String> rmFreeNodes;
+
+    private FreeNodesJournal journal;
+
+    public FreeNodesDeltaPerformanceTest(int nodesNumber) {
+        this.nodesNumber = nodesNumber;
+    }
+
+    @Before
+    public void createNodes() {
+        nodeUrls = new ArrayList<>(nodesNumber);
+        rmFreeNodes = new HashSet<>(nodesNumber);
+        for (int i = 0; i < nodesNumber; i++) {
+            String url = "pnp://host" + (i / 8) + ":64738/node" + i;
+            nodeUrls.add(url);
+            rmFreeNodes.add(url);
+        }
+        journal = new FreeNodesJournal(LOOPS * CHANGES_PER_LOOP);
+    }
+
+    @Test
+    public void test() throws IOException {
+        long snapshotBytes = 0;
+        long snapshotStart = System.nanoTime();
+        for (int loop = 0; loop < LOOPS; loop++) {
+            changeNodes(loop);
+            RMState state = new RMState(new RMStateNodeUrls(new HashSet<>(rmFreeNodes),
+                                                            new HashSet<>(nodeUrls),
+                                                            new HashSet<>(nodeUrls)),
+                                        null);
+            snapshotBytes += serializedSize(state);
+        }
+        long snapshotNanos = System.nanoTime() - snapshotStart;
+
+        Set<String> mirror = new HashSet<>();
+        RMFreeNodesDelta.snapshot(journal.getId(), journal.getRevision(), new HashSet<>(rmFreeNodes)).applyTo(mirror);
+        String journalId = journal.getId();
+        long revision = journal.getRevision();
+
+        long deltaBytes = 0;
+        long deltaStart = System.nanoTime();
+        for (int loop = 0; loop < LOOPS; loop++) {
+            changeNodes(loop);
+            RMFreeNodesDelta delta = journal.getDelta(journalId, revision);
+            deltaBytes += serializedSize(delta);
+            delta.applyTo(mirror);
+            revision = delta.getRevision();
+        }
+        long deltaNanos = System.nanoTime() - deltaStart;
+
+        LOGGER.info(NodeRecoveryTest.makeCSVString("FreeNodesDeltaPerformanceTest",
+                                                   nodesNumber,
+                                                   snapshotNanos / LOOPS / 1000,
+                                                   snapshotBytes / LOOPS,
+                                                   deltaNanos / LOOPS / 1000,
+                                                   deltaBytes / LOOPS));
+
+        assertThat("free nodes mirror is out of sync", mirror.equals(rmFreeNodes));
+        // the delta only carries the changed nodes, whatever the number of nodes
+        assertThat(deltaBytes / LOOPS, lessThan((long) CHANGES_PER_LOOP * 100 + 1000));
+    }
+
+    /**
+     * Simulates the resource manager side of a scheduling loop: some nodes become busy
+     * and some others are released.
+     */
+    private void changeNodes(int loop) {
+        for (int i = 0; i < CHANGES_PER_LOOP; i++) {
+            String url = nodeUrls.get((loop * CHANGES_PER_LOOP + i) % nodesNumber);
+            if (rmFreeNodes.remove(url)) {
+                journal.nodeRemoved(url);
+            } else {
+                rmFreeNodes.add(url);
+                journal.nodeAdded(url);
+            }
+        }
+    }
+
+    private static long serializedSize(Serializable object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.size();
+    }
+}
@@ -239,6 +239,13 @@ public abstract class AbstractSmartProxy<T extends JobTracker> implements Schedu
         return getScheduler().getJobs(offset, limit, filterCriteria, sortParameters);
     }
 
+    @Override
+    public Page<JobInfo> getJobsAfter(String afterJobId, int limit, JobFilterCriteria filterCriteria,
+            List<SortParameter<JobSortParameter>> sortParameters)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        return getScheduler().getJobsAfter(afterJobId, limit, filterCriteria, sortParameters);
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         return getScheduler().getUsers();
@@ -812,6 +812,37 @@ public class SmartProxyImpl extends AbstractSmartProxy<JobTrackerImpl> implement
                                             sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsAfter(TaskId afterTaskId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, int limit)
+            throws NotConnectedException, PermissionException, UnknownTaskException {
+        return schedulerProxy.getTaskIdsAfter(afterTaskId,
+                                              taskTag,
+                                              from,
+                                              to,
+                                              mytasks,
+                                              running,
+                                              pending,
+                                              finished,
+                                              limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesAfter(TaskId afterTaskId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, int limit,
+            SortSpecifierContainer sortParams) throws NotConnectedException, PermissionException, UnknownTaskException {
+        return schedulerProxy.getTaskStatesAfter(afterTaskId,
+                                                 taskTag,
+                                                 from,
+                                                 to,
+                                                 mytasks,
+                                                 running,
+                                                 pending,
+                                                 finished,
+                                                 limit,
+                                                 sortParams);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return schedulerProxy.getJobInfo(jobId);